@@ -18,7 +18,9 @@ package ch.asit_asso.extract.connectors.easysdiv4;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +33,12 @@ import org.slf4j.LoggerFactory;
  */
 public class ConnectorConfig {
 
+    /**
+     * The settings already loaded, mapped by the path of their properties file. Each file is only read once,
+     * whatever the number of instances created.
+     */
+    private static final Map<String, Properties> LOADED_CONFIGURATIONS = new ConcurrentHashMap<>();
+
     /**
      * The writer to the application logs.
      */
@@ -60,12 +68,19 @@ public class ConnectorConfig {
      * @param path a string containing the path to the properties file that holds the plugin confguration
      */
     private void initConfig(final String path) {
+        final Properties cachedProperties = ConnectorConfig.LOADED_CONFIGURATIONS.get(path);
+
+        if (cachedProperties != null) {
+            this.configurationProperties = cachedProperties;
+            return;
+        }
+
         this.logger.debug("Initializing config from path {}.", path);
 
-        try {
-            InputStream propertiesIs = this.getClass().getClassLoader().getResourceAsStream(path);
+        try (InputStream propertiesIs = this.getClass().getClassLoader().getResourceAsStream(path)) {
             this.configurationProperties = new Properties();
             this.configurationProperties.load(propertiesIs);
+            ConnectorConfig.LOADED_CONFIGURATIONS.putIfAbsent(path, this.configurationProperties);
             this.logger.debug("Connector configuration successfully initialized.");
 
         } catch (IOException ex) {
@@ -73,6 +73,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -87,6 +88,11 @@ public class Easysdiv4 implements IConnector {
      */
     private static final String CONFIG_FILE_PATH = "connectors/easysdiv4/properties/config.properties";
 
+    /**
+     * The JSON descriptions of the plugin parameters already built, mapped by the languages they were built in.
+     */
+    private static final Map<String, String> PARAMETERS_JSON = new ConcurrentHashMap<>();
+
     /**
      * The name of the file that contains the help text for this plugin.
      */
@@ -255,6 +261,18 @@ public class Easysdiv4 implements IConnector {
 
     @Override
     public final String getParams() {
+        return Easysdiv4.PARAMETERS_JSON.computeIfAbsent(this.messages.getLanguagesKey(),
+                                                         key -> this.buildParameters());
+    }
+
+
+
+    /**
+     * Builds the description of the parameters of this plugin in the language of this instance.
+     *
+     * @return a JSON string with the definition of the parameters
+     */
+    private String buildParameters() {
         ObjectMapper mapper = new ObjectMapper();
         ArrayNode parametersNode = mapper.createArrayNode();
 
@@ -111,4 +111,14 @@ public interface ITaskProcessor {
      */
     ITaskProcessorResult execute(ITaskProcessorRequest request, IEmailSettings emailSettings);
 
+
+
+    /**
+     * Discards the data that this plugin may have cached for the parameters of this instance, so that they are
+     * fetched again at the next execution. This is called when a task that uses this plugin is saved.
+     */
+    default void invalidateCache() {
+        // Most plugins do not cache anything
+    }
+
 }
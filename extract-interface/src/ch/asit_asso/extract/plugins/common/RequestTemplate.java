@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.plugins.common;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+
+
+/**
+ * A string with <code>{FIELD}</code> placeholders for request properties, parsed once into literal and property
+ * segments so that it can be rendered for any number of requests without scanning the string again.
+ * <p>
+ * The placeholders are matched case-insensitively. Those that do not match a known property are kept as is. The
+ * properties are read through method handles on the getters of {@link ITaskProcessorRequest}, so no reflection
+ * occurs when a template is rendered.
+ *
+ * @author Yves Grasset
+ */
+public final class RequestTemplate {
+
+    /**
+     * The character that starts a placeholder.
+     */
+    private static final char PLACEHOLDER_START = '{';
+
+    /**
+     * The character that ends a placeholder.
+     */
+    private static final char PLACEHOLDER_END = '}';
+
+    /**
+     * The readers of the request properties, mapped by the name of the property.
+     */
+    private static final Map<String, MethodHandle> PROPERTY_ACCESSORS = RequestTemplate.buildPropertyAccessors();
+
+    /**
+     * The parts that make up this template, in order.
+     */
+    private final Segment[] segments;
+
+    /**
+     * The number of characters of this template that are not placeholders.
+     */
+    private final int literalsLength;
+
+
+
+    /**
+     * Creates a new compiled template. This constructor should not be called directly. Use the
+     * {@link #compile(String, Map)} method instead.
+     *
+     * @param templateSegments the parts that make up the template
+     */
+    private RequestTemplate(final List<Segment> templateSegments) {
+        this.segments = templateSegments.toArray(new Segment[0]);
+        int length = 0;
+
+        for (Segment segment : this.segments) {
+
+            if (segment.literal() != null) {
+                length += segment.literal().length();
+            }
+        }
+
+        this.literalsLength = length;
+    }
+
+
+
+    /**
+     * Parses a template string.
+     *
+     * @param template     the string with placeholders
+     * @param placeholders the request property to use for each supported placeholder name. For example,
+     *                     <code>clientName → client</code> allows to use <code>{CLIENTNAME}</code> for the name of
+     *                     the client. Placeholders whose property does not exist are ignored.
+     * @return the compiled template
+     */
+    public static RequestTemplate compile(final String template, final Map<String, String> placeholders) {
+
+        if (template == null) {
+            throw new IllegalArgumentException("The template cannot be null.");
+        }
+
+        if (placeholders == null) {
+            throw new IllegalArgumentException("The placeholders map cannot be null.");
+        }
+
+        final Map<String, Segment> propertySegments = new HashMap<>();
+
+        for (Map.Entry<String, String> placeholder : placeholders.entrySet()) {
+            final MethodHandle accessor = RequestTemplate.PROPERTY_ACCESSORS.get(placeholder.getValue());
+
+            if (accessor == null) {
+                continue;
+            }
+
+            propertySegments.put(placeholder.getKey().toLowerCase(Locale.ROOT),
+                                 new Segment(null, placeholder.getKey(), accessor));
+        }
+
+        final List<Segment> segments = new ArrayList<>();
+        final StringBuilder literalBuilder = new StringBuilder();
+        int position = 0;
+
+        while (position < template.length()) {
+            final int start = template.indexOf(RequestTemplate.PLACEHOLDER_START, position);
+            final int end = (start < 0) ? -1 : template.indexOf(RequestTemplate.PLACEHOLDER_END, start + 1);
+
+            if (end < 0) {
+                literalBuilder.append(template, position, template.length());
+                break;
+            }
+
+            final String name = template.substring(start + 1, end).toLowerCase(Locale.ROOT);
+            final Segment propertySegment = propertySegments.get(name);
+
+            if (propertySegment == null) {
+                // Not a supported placeholder. Keep the opening brace and look for another one after it.
+                literalBuilder.append(template, position, start + 1);
+                position = start + 1;
+                continue;
+            }
+
+            literalBuilder.append(template, position, start);
+
+            if (literalBuilder.length() > 0) {
+                segments.add(new Segment(literalBuilder.toString(), null, null));
+                literalBuilder.setLength(0);
+            }
+
+            segments.add(propertySegment);
+            position = end + 1;
+        }
+
+        if (literalBuilder.length() > 0) {
+            segments.add(new Segment(literalBuilder.toString(), null, null));
+        }
+
+        return new RequestTemplate(segments);
+    }
+
+
+
+    /**
+     * Obtains the names of the request properties that can be used in placeholders.
+     *
+     * @return the set of property names
+     */
+    public static Set<String> getPropertyNames() {
+        return RequestTemplate.PROPERTY_ACCESSORS.keySet();
+    }
+
+
+
+    /**
+     * Gets whether this template contains at least one placeholder to replace.
+     *
+     * @return <code>true</code> if the template needs a request to be rendered
+     */
+    public boolean hasPlaceholders() {
+
+        for (Segment segment : this.segments) {
+
+            if (segment.literal() == null) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+
+    /**
+     * Builds the string for a given request.
+     *
+     * @param request   the request whose properties must replace the placeholders
+     * @param formatter the object that converts the property values to strings
+     * @return the template with the placeholders replaced
+     */
+    public String render(final ITaskProcessorRequest request, final ValueFormatter formatter) {
+
+        if (formatter == null) {
+            throw new IllegalArgumentException("The value formatter cannot be null.");
+        }
+
+        if (this.segments.length == 1 && this.segments[0].literal() != null) {
+            return this.segments[0].literal();
+        }
+
+        final StringBuilder resultBuilder = new StringBuilder(this.literalsLength + 16 * this.segments.length);
+
+        for (Segment segment : this.segments) {
+
+            if (segment.literal() != null) {
+                resultBuilder.append(segment.literal());
+                continue;
+            }
+
+            if (request == null) {
+                throw new IllegalArgumentException("The request cannot be null if the template has placeholders.");
+            }
+
+            final String value = formatter.format(segment.placeholder(), RequestTemplate.readProperty(segment, request));
+
+            if (value != null) {
+                resultBuilder.append(value);
+            }
+        }
+
+        return resultBuilder.toString();
+    }
+
+
+
+    /**
+     * Creates the readers for the properties exposed by the getters of the request interface.
+     *
+     * @return the property readers, mapped by property name
+     */
+    private static Map<String, MethodHandle> buildPropertyAccessors() {
+        final Map<String, MethodHandle> accessors = new HashMap<>();
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final MethodType genericType = MethodType.methodType(Object.class, ITaskProcessorRequest.class);
+
+        for (Method method : ITaskProcessorRequest.class.getMethods()) {
+            final String propertyName = RequestTemplate.getPropertyName(method);
+
+            if (propertyName == null) {
+                continue;
+            }
+
+            try {
+                accessors.put(propertyName, lookup.unreflect(method).asType(genericType));
+
+            } catch (IllegalAccessException exception) {
+                throw new IllegalStateException(String.format("The request getter %s is not accessible.",
+                                                              method.getName()), exception);
+            }
+        }
+
+        return Collections.unmodifiableMap(accessors);
+    }
+
+
+
+    /**
+     * Obtains the name of the property read by a request method.
+     *
+     * @param method the method of the request interface
+     * @return the name of the property, or <code>null</code> if the method is not a getter
+     */
+    private static String getPropertyName(final Method method) {
+
+        if (method.getParameterCount() > 0 || method.getReturnType() == void.class) {
+            return null;
+        }
+
+        final String methodName = method.getName();
+        final int prefixLength;
+
+        if (methodName.startsWith("get") && methodName.length() > 3) {
+            prefixLength = 3;
+
+        } else if (methodName.startsWith("is") && methodName.length() > 2
+                   && method.getReturnType() == boolean.class) {
+            prefixLength = 2;
+
+        } else {
+            return null;
+        }
+
+        return Character.toLowerCase(methodName.charAt(prefixLength)) + methodName.substring(prefixLength + 1);
+    }
+
+
+
+    /**
+     * Reads the value of the property that replaces a placeholder.
+     *
+     * @param segment the placeholder segment
+     * @param request the request to read the property from
+     * @return the value of the property
+     */
+    private static Object readProperty(final Segment segment, final ITaskProcessorRequest request) {
+
+        try {
+            return (Object) segment.accessor().invokeExact(request);
+
+        } catch (RuntimeException | Error exception) {
+            throw exception;
+
+        } catch (Throwable throwable) {
+            throw new IllegalStateException(String.format("The request property for the placeholder %s could not"
+                                                          + " be read.", segment.placeholder()), throwable);
+        }
+    }
+
+
+
+    /**
+     * Converts the property values of a request to the strings that replace the placeholders.
+     */
+    @FunctionalInterface
+    public interface ValueFormatter {
+
+        /**
+         * Converts a property value to a string.
+         *
+         * @param placeholder the name of the placeholder as passed to {@link #compile(String, Map)}
+         * @param value       the value of the request property. May be <code>null</code>.
+         * @return the string to insert in place of the placeholder
+         */
+        String format(String placeholder, Object value);
+
+    }
+
+
+
+    /**
+     * A part of a template.
+     *
+     * @param literal     the text of the segment, or <code>null</code> if it is a placeholder
+     * @param placeholder the name of the placeholder, or <code>null</code> if it is a literal text
+     * @param accessor    the reader of the property that replaces the placeholder
+     */
+    private record Segment(String literal, String placeholder, MethodHandle accessor) {
+    }
+
+}
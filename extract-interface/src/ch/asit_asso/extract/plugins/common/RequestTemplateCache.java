@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.plugins.common;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+
+/**
+ * A store for the templates compiled from the values of a task parameter, so that each value is only parsed once.
+ *
+ * @author Yves Grasset
+ */
+public final class RequestTemplateCache {
+
+    /**
+     * The request property to use for each supported placeholder name.
+     */
+    private final Map<String, String> placeholders;
+
+    /**
+     * The maximum number of templates to keep.
+     */
+    private final int maxSize;
+
+    /**
+     * The compiled templates, mapped by their source string.
+     */
+    private final Map<String, RequestTemplate> templates = new ConcurrentHashMap<>();
+
+
+
+    /**
+     * Creates a new templates cache.
+     *
+     * @param supportedPlaceholders the request property to use for each supported placeholder name
+     * @param maximumSize           the maximum number of templates to keep. When it is reached, the cache is
+     *                              emptied before a new template is added.
+     */
+    public RequestTemplateCache(final Map<String, String> supportedPlaceholders, final int maximumSize) {
+
+        if (supportedPlaceholders == null) {
+            throw new IllegalArgumentException("The placeholders map cannot be null.");
+        }
+
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size of the cache must be greater than 0.");
+        }
+
+        this.placeholders = Map.copyOf(supportedPlaceholders);
+        this.maxSize = maximumSize;
+    }
+
+
+
+    /**
+     * Obtains the compiled version of a template string, compiling it first if necessary.
+     *
+     * @param template the string with placeholders
+     * @return the compiled template
+     */
+    public RequestTemplate get(final String template) {
+
+        if (template == null) {
+            throw new IllegalArgumentException("The template cannot be null.");
+        }
+
+        final RequestTemplate cachedTemplate = this.templates.get(template);
+
+        if (cachedTemplate != null) {
+            return cachedTemplate;
+        }
+
+        if (this.templates.size() >= this.maxSize) {
+            this.templates.clear();
+        }
+
+        return this.templates.computeIfAbsent(template, key -> RequestTemplate.compile(key, this.placeholders));
+    }
+
+
+
+    /**
+     * Removes all the compiled templates.
+     */
+    public void clear() {
+        this.templates.clear();
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.plugins.common;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the RequestTemplateCache class.
+ */
+@DisplayName("RequestTemplateCache")
+class RequestTemplateCacheTest {
+
+    private static final Map<String, String> PLACEHOLDERS = Map.of("orderLabel", "orderLabel");
+
+    @Test
+    @DisplayName("Returns the same compiled template for the same string")
+    void reusesCompiledTemplates() {
+        RequestTemplateCache cache = new RequestTemplateCache(PLACEHOLDERS, 10);
+
+        RequestTemplate template = cache.get("{orderLabel}");
+
+        assertSame(template, cache.get("{orderLabel}"));
+        assertNotSame(template, cache.get("{orderLabel}/"));
+    }
+
+    @Test
+    @DisplayName("Compiles the templates again once cleared")
+    void clearsCompiledTemplates() {
+        RequestTemplateCache cache = new RequestTemplateCache(PLACEHOLDERS, 10);
+        RequestTemplate template = cache.get("{orderLabel}");
+
+        cache.clear();
+
+        assertNotSame(template, cache.get("{orderLabel}"));
+    }
+
+    @Test
+    @DisplayName("Empties itself when the maximum size is reached")
+    void boundsTheNumberOfTemplates() {
+        RequestTemplateCache cache = new RequestTemplateCache(PLACEHOLDERS, 2);
+        RequestTemplate first = cache.get("first");
+        RequestTemplate second = cache.get("second");
+
+        RequestTemplate third = cache.get("third");
+
+        assertSame(third, cache.get("third"));
+        assertNotSame(first, cache.get("first"));
+        assertNotSame(second, cache.get("second"));
+    }
+
+    @Test
+    @DisplayName("Keeps the placeholders it was created with")
+    void copiesPlaceholders() {
+        Map<String, String> placeholders = new HashMap<>(PLACEHOLDERS);
+        RequestTemplateCache cache = new RequestTemplateCache(placeholders, 10);
+        placeholders.put("client", "client");
+        ITaskProcessorRequest request = Mockito.mock(ITaskProcessorRequest.class);
+        when(request.getOrderLabel()).thenReturn("Order 42");
+        when(request.getClient()).thenReturn("Jane Doe");
+
+        String result = cache.get("{orderLabel} {client}").render(request, (placeholder, value) -> value.toString());
+
+        assertEquals("Order 42 {client}", result);
+    }
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestTemplateCache(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new RequestTemplateCache(PLACEHOLDERS, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RequestTemplateCache(PLACEHOLDERS, 10).get(null));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.plugins.common;
+
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the RequestTemplate class.
+ */
+@DisplayName("RequestTemplate")
+class RequestTemplateTest {
+
+    private static final Map<String, String> PLACEHOLDERS = Map.of(
+            "orderLabel", "orderLabel",
+            "CLIENT", "client",
+            "startDate", "startDate",
+            "missing", "notARequestProperty"
+    );
+
+    private static final RequestTemplate.ValueFormatter TO_STRING
+            = (placeholder, value) -> (value == null) ? null : value.toString();
+
+    private ITaskProcessorRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = Mockito.mock(ITaskProcessorRequest.class);
+        when(request.getOrderLabel()).thenReturn("Order 42");
+        when(request.getClient()).thenReturn("Jane Doe");
+    }
+
+    @Test
+    @DisplayName("Replaces the placeholders whatever their case")
+    void replacesPlaceholders() {
+        RequestTemplate template = RequestTemplate.compile("{ORDERLABEL} for {client} ({Client})", PLACEHOLDERS);
+
+        assertTrue(template.hasPlaceholders());
+        assertEquals("Order 42 for Jane Doe (Jane Doe)", template.render(request, TO_STRING));
+    }
+
+    @Test
+    @DisplayName("Keeps the unknown placeholders and the unmatched braces as they are")
+    void keepsUnknownPlaceholders() {
+        RequestTemplate template = RequestTemplate.compile("{unknown} {missing} {{orderLabel}} {orderLabel",
+                                                           PLACEHOLDERS);
+
+        assertEquals("{unknown} {missing} {Order 42} {orderLabel", template.render(request, TO_STRING));
+    }
+
+    @Test
+    @DisplayName("Inserts the values verbatim")
+    void insertsValuesVerbatim() {
+        when(request.getClient()).thenReturn("$1 \\ {orderLabel}");
+        RequestTemplate template = RequestTemplate.compile("{client}", PLACEHOLDERS);
+
+        assertEquals("$1 \\ {orderLabel}", template.render(request, TO_STRING));
+    }
+
+    @Test
+    @DisplayName("Passes the placeholder name and the raw value to the formatter")
+    void passesRawValuesToFormatter() {
+        GregorianCalendar startDate = new GregorianCalendar(2024, 0, 31);
+        when(request.getStartDate()).thenReturn(startDate);
+        List<Object> formattedValues = new ArrayList<>();
+        RequestTemplate template = RequestTemplate.compile("{startdate}/{orderLabel}", PLACEHOLDERS);
+
+        String result = template.render(request, (placeholder, value) -> {
+            formattedValues.add(value);
+            return placeholder;
+        });
+
+        assertEquals("startDate/orderLabel", result);
+        assertEquals(List.of(startDate, "Order 42"), formattedValues);
+    }
+
+    @Test
+    @DisplayName("Leaves out the values that the formatter converts to null")
+    void leavesOutNullValues() {
+        when(request.getClient()).thenReturn(null);
+        RequestTemplate template = RequestTemplate.compile("[{client}]", PLACEHOLDERS);
+
+        assertEquals("[]", template.render(request, TO_STRING));
+    }
+
+    @Test
+    @DisplayName("Renders a template without placeholders without a request")
+    void rendersLiteralTemplate() {
+        RequestTemplate template = RequestTemplate.compile("No placeholder {here}", PLACEHOLDERS);
+
+        assertFalse(template.hasPlaceholders());
+        assertEquals("No placeholder {here}", template.render(null, TO_STRING));
+        assertEquals("", RequestTemplate.compile("", PLACEHOLDERS).render(null, TO_STRING));
+    }
+
+    @Test
+    @DisplayName("Exposes the properties of the request interface")
+    void exposesRequestProperties() {
+        assertTrue(RequestTemplate.getPropertyNames().containsAll(List.of("orderLabel", "client", "rejected")));
+        assertFalse(RequestTemplate.getPropertyNames().contains("notARequestProperty"));
+    }
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        RequestTemplate template = RequestTemplate.compile("{client}", PLACEHOLDERS);
+
+        assertThrows(IllegalArgumentException.class, () -> RequestTemplate.compile(null, PLACEHOLDERS));
+        assertThrows(IllegalArgumentException.class, () -> RequestTemplate.compile("{client}", null));
+        assertThrows(IllegalArgumentException.class, () -> template.render(request, null));
+        assertThrows(IllegalArgumentException.class, () -> template.render(null, TO_STRING));
+    }
+}
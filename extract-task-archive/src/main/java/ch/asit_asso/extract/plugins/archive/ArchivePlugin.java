@@ -20,17 +20,21 @@ import ch.asit_asso.extract.plugins.common.IEmailSettings;
 import ch.asit_asso.extract.plugins.common.ITaskProcessor;
 import ch.asit_asso.extract.plugins.common.ITaskProcessorRequest;
 import ch.asit_asso.extract.plugins.common.ITaskProcessorResult;
+import ch.asit_asso.extract.plugins.common.RequestTemplate;
+import ch.asit_asso.extract.plugins.common.RequestTemplateCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Field;
-import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Calendar;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import org.apache.commons.io.FileUtils;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,11 +53,37 @@ public class ArchivePlugin implements ITaskProcessor {
      */
     private static final String CONFIG_FILE_PATH = "plugins/archivage/properties/configArchivage.properties";
 
+    /**
+     * The JSON descriptions of the plugin parameters already built, mapped by the languages they were built in.
+     */
+    private static final Map<String, String> PARAMETERS_JSON = new ConcurrentHashMap<>();
+
     /**
      * The name of the file that contains the help text about how to use this plugin.
      */
     private static final String HELP_FILE_NAME = "archivageHelp.html";
 
+    /**
+     * The format of the dates inserted in the archive folder path.
+     */
+    private static final DateTimeFormatter PATH_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    /**
+     * The characters that are not allowed in a file system string.
+     */
+    private static final Pattern FILE_SYSTEM_FORBIDDEN_CHARACTERS = Pattern.compile("[\\s<>*\"/\\\\\\[\\]:;|=,]");
+
+    /**
+     * The maximum number of compiled archive folder paths to keep.
+     */
+    private static final int PATH_TEMPLATES_CACHE_SIZE = 100;
+
+    /**
+     * The archive folder paths already compiled, mapped by the value of the path parameter.
+     */
+    private static final RequestTemplateCache PATH_TEMPLATES
+            = new RequestTemplateCache(ArchivePlugin.getPathPlaceholders(), ArchivePlugin.PATH_TEMPLATES_CACHE_SIZE);
+
     /**
      * The writer to the application logs.
      */
@@ -194,6 +224,18 @@ public class ArchivePlugin implements ITaskProcessor {
 
     @Override
     public final String getParams() {
+        return ArchivePlugin.PARAMETERS_JSON.computeIfAbsent(this.messages.getLanguagesKey(),
+                                                             key -> this.buildParameters());
+    }
+
+
+
+    /**
+     * Builds the description of the parameters of this plugin in the language of this instance.
+     *
+     * @return a JSON string with the definition of the parameters
+     */
+    private String buildParameters() {
         ObjectMapper mapper = new ObjectMapper();
         ArrayNode parametersNode = mapper.createArrayNode();
 
@@ -204,6 +246,16 @@ public class ArchivePlugin implements ITaskProcessor {
         pathNode.put("req", true);
         pathNode.put("maxlength", 255);
 
+        ObjectNode hardLinksNode = parametersNode.addObject();
+        hardLinksNode.put("code", this.config.getProperty("paramHardLinks"));
+        hardLinksNode.put("label", this.messages.getString("paramHardLinks.label"));
+        hardLinksNode.put("type", "boolean");
+
+        ObjectNode manifestNode = parametersNode.addObject();
+        manifestNode.put("code", this.config.getProperty("paramManifest"));
+        manifestNode.put("label", this.messages.getString("paramManifest.label"));
+        manifestNode.put("type", "boolean");
+
         try {
             return mapper.writeValueAsString(parametersNode);
 
@@ -223,21 +275,46 @@ public class ArchivePlugin implements ITaskProcessor {
      * @throws IOException a file system error prevented the copy operation from completing
      */
     private void copyToFolder(final File sourceFolder, final File archiveFolder) throws IOException {
+        final boolean useHardLinks = this.isParameterEnabled("paramHardLinks");
+        final String manifestAlgorithm = (this.isParameterEnabled("paramManifest"))
+                                         ? this.config.getProperty("manifest.algorithm") : null;
+        final FolderArchiver archiver = new FolderArchiver(useHardLinks, this.getCopyThreadsNumber(),
+                                                           manifestAlgorithm,
+                                                           this.config.getProperty("manifest.fileName"));
+
+        final int linkedFilesNumber = archiver.archive(sourceFolder.toPath(), archiveFolder.toPath());
+        this.logger.debug("{} file(s) hard-linked to the archive folder.", linkedFilesNumber);
+    }
 
-        if (!archiveFolder.exists()) {
-            FileUtils.forceMkdir(archiveFolder);
-        }
 
-        for (java.io.File srcFile : sourceFolder.listFiles()) {
 
-            if (srcFile.isDirectory()) {
-                FileUtils.copyDirectoryToDirectory(srcFile, archiveFolder);
+    /**
+     * Obtains the maximum number of files that can be copied at the same time.
+     *
+     * @return the number of copy threads
+     */
+    private int getCopyThreadsNumber() {
+        final String threadsString = this.config.getProperty("copy.threads");
+
+        try {
+            return Math.max(1, Integer.parseInt(threadsString));
 
-            } else {
-                FileUtils.copyFileToDirectory(srcFile, archiveFolder);
-            }
+        } catch (NumberFormatException exception) {
+            this.logger.warn("The number of copy threads \"{}\" is invalid. Using 1 instead.", threadsString);
+            return 1;
         }
+    }
+
 
+
+    /**
+     * Checks whether a boolean plugin parameter is set for the current task.
+     *
+     * @param parameterKey the key of the configuration property that holds the parameter code
+     * @return <code>true</code> if the parameter is enabled
+     */
+    private boolean isParameterEnabled(final String parameterKey) {
+        return "true".equals(this.inputs.get(this.config.getProperty(parameterKey)));
     }
 
 
@@ -300,71 +377,48 @@ public class ArchivePlugin implements ITaskProcessor {
      * @return the archive folder path for the current request
      */
     public final String buildPathWithPropertyValues(final String path, final ITaskProcessorRequest request) {
-        final String[] authorizedFields = this.config.getProperty("path.properties.authorized").split(",");
-        String formattedPath = path;
+        final RequestTemplate pathTemplate = ArchivePlugin.PATH_TEMPLATES.get(path);
 
-        for (String fieldName : authorizedFields) {
-            String fieldValue = this.getRequestFieldValue(request, fieldName);
-
-            if (fieldValue == null) {
-                continue;
-            }
-
-            final String fieldPlaceholder = String.format("{%s}", fieldName.toUpperCase());
-            int searchFieldIndex = formattedPath.toUpperCase().indexOf(fieldPlaceholder);
-
-            while (searchFieldIndex >= 0) {
-                formattedPath = formattedPath.substring(0, searchFieldIndex) + fieldValue
-                        + formattedPath.substring(searchFieldIndex + fieldPlaceholder.length());
-                searchFieldIndex = formattedPath.toUpperCase().indexOf(fieldPlaceholder);
-            }
-        }
-
-        return formattedPath;
+        return pathTemplate.render(request, (placeholder, value) -> this.formatPathValue(value));
     }
 
 
 
     /**
-     * Obtains the value of a property in the request that is currently being archived.
+     * Converts the value of a request property to a string that can be inserted in the archive folder path.
      *
-     * @param request   the current request
-     * @param fieldName the name of the property
-     * @return the value of the property, or <code>null</code> if the value could not be obtained
+     * @param value the value of the property
+     * @return the safe file system string
      */
-    private String getRequestFieldValue(final ITaskProcessorRequest request, final String fieldName) {
+    private String formatPathValue(final Object value) {
 
-        try {
-            final Field field = request.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            final Object fieldInstance = field.get(request);
-            field.setAccessible(false);
-
-            if (fieldInstance == null) {
-                return "";
-            }
+        if (value == null) {
+            return "";
+        }
 
-            String fieldValue = fieldInstance.toString();
+        if (value instanceof Calendar calendarValue) {
+            return ArchivePlugin.PATH_DATE_FORMATTER.format(calendarValue.toInstant().atZone(ZoneId.systemDefault()));
+        }
 
-            if (field.getType().isAssignableFrom(Calendar.class)) {
-                Calendar calendarFieldInstance = (Calendar) fieldInstance;
-                SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
+        return this.sanitizeStringForFileSystem(value.toString());
+    }
 
-                if (calendarFieldInstance.getTime() != null) {
-                    fieldValue = formatter.format(calendarFieldInstance.getTime());
-                }
-            }
 
-            return this.sanitizeStringForFileSystem(fieldValue);
 
-        } catch (NoSuchFieldException e) {
-            this.logger.error("Could not be find the field \"" + fieldName + "\" in the request object.", e);
+    /**
+     * Obtains the placeholders that can be used in the path of the archive folder.
+     *
+     * @return the request property to use for each placeholder name
+     */
+    private static Map<String, String> getPathPlaceholders() {
+        final PluginConfiguration configuration = new PluginConfiguration(ArchivePlugin.CONFIG_FILE_PATH);
+        final Map<String, String> placeholders = new LinkedHashMap<>();
 
-        } catch (IllegalAccessException exc) {
-            this.logger.error("Could not be access to the field value for \"" + fieldName + "\".", exc);
+        for (String fieldName : configuration.getProperty("path.properties.authorized").split(",")) {
+            placeholders.put(fieldName.trim(), fieldName.trim());
         }
 
-        return null;
+        return placeholders;
     }
 
 
@@ -378,7 +432,9 @@ public class ArchivePlugin implements ITaskProcessor {
     private String sanitizeStringForFileSystem(final String rawString) {
         assert rawString != null : "The string to sanitize cannot be null";
 
-        return StringUtils.stripAccents(rawString.replaceAll("[\\s<>*\"/\\\\\\[\\]:;|=,]", "_"));
+        final String safeString = ArchivePlugin.FILE_SYSTEM_FORBIDDEN_CHARACTERS.matcher(rawString).replaceAll("_");
+
+        return StringUtils.stripAccents(safeString);
     }
 
 }
@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.plugins.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+
+/**
+ * An object that transfers the content of a request output folder to an archive folder.
+ * <p>
+ * When hard links are allowed, the archived files share their data with the source files if both folders are on
+ * the same file system, so that no data is actually copied. Since the export step purges the request output folder,
+ * the archive then behaves as if the files had been moved there once the request is exported. Files that cannot be
+ * linked are copied in parallel with file channel transfers.
+ *
+ * @author Yves Grasset
+ */
+public class FolderArchiver {
+
+    /**
+     * The size of the read buffer used to compute the file checksums.
+     */
+    private static final int CHECKSUM_BUFFER_SIZE = 65536;
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(FolderArchiver.class);
+
+    /**
+     * Whether the files can be hard-linked instead of copied when possible.
+     */
+    private final boolean useHardLinks;
+
+    /**
+     * The maximum number of files that can be transferred at the same time.
+     */
+    private final int maxThreads;
+
+    /**
+     * The name of the digest algorithm used to build the checksum manifest, or <code>null</code> if no manifest
+     * must be written.
+     */
+    private final String manifestAlgorithm;
+
+    /**
+     * The name of the checksum manifest file to create in the archive folder.
+     */
+    private final String manifestFileName;
+
+
+
+    /**
+     * Creates a new archiver instance.
+     *
+     * @param allowHardLinks    <code>true</code> to link the files instead of copying them when possible
+     * @param threadsNumber     the maximum number of files that can be transferred at the same time
+     * @param manifestAlgorithm the name of the digest algorithm used to compute the checksums written to the
+     *                          manifest, or <code>null</code> to create no manifest
+     * @param manifestFileName  the name of the manifest file to create in the archive folder
+     */
+    public FolderArchiver(final boolean allowHardLinks, final int threadsNumber, final String manifestAlgorithm,
+                          final String manifestFileName) {
+
+        if (threadsNumber < 1) {
+            throw new IllegalArgumentException("The number of threads must be greater than 0.");
+        }
+
+        if (manifestAlgorithm != null && (manifestFileName == null || manifestFileName.isBlank())) {
+            throw new IllegalArgumentException("The manifest file name must be set if a manifest is required.");
+        }
+
+        this.useHardLinks = allowHardLinks;
+        this.maxThreads = threadsNumber;
+        this.manifestAlgorithm = manifestAlgorithm;
+        this.manifestFileName = manifestFileName;
+    }
+
+
+
+    /**
+     * Transfers the content of a folder to the archive folder. Existing files with the same name in the archive
+     * folder are replaced.
+     *
+     * @param sourceFolder  the folder that holds the data to archive
+     * @param archiveFolder the folder where the data must be archived
+     * @return the number of files that were hard-linked instead of copied
+     * @throws IOException a file system error prevented the data from being archived
+     */
+    public final int archive(final Path sourceFolder, final Path archiveFolder) throws IOException {
+        final List<Path> sourceFiles = new ArrayList<>();
+        Files.createDirectories(archiveFolder);
+
+        try (Stream<Path> sourceItems = Files.walk(sourceFolder)) {
+
+            for (Path sourceItem : (Iterable<Path>) sourceItems::iterator) {
+
+                if (Files.isDirectory(sourceItem)) {
+                    Files.createDirectories(archiveFolder.resolve(sourceFolder.relativize(sourceItem).toString()));
+                    continue;
+                }
+
+                sourceFiles.add(sourceItem);
+            }
+        }
+
+        if (sourceFiles.isEmpty()) {
+            this.logger.debug("The folder {} contains no file to archive.", sourceFolder);
+            return 0;
+        }
+
+        final Map<String, String> checksums = new TreeMap<>();
+        int linkedFilesNumber = 0;
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.maxThreads, sourceFiles.size()));
+
+        try {
+            final List<Future<FileTransferResult>> transfers = new ArrayList<>();
+
+            for (Path sourceFile : sourceFiles) {
+                final String relativePath = sourceFolder.relativize(sourceFile).toString();
+                final Path targetFile = archiveFolder.resolve(relativePath);
+                transfers.add(executor.submit(() -> this.transferFile(sourceFile, targetFile, relativePath)));
+            }
+
+            for (Future<FileTransferResult> transfer : transfers) {
+                final FileTransferResult result = this.waitForTransfer(transfer);
+
+                if (result.linked()) {
+                    linkedFilesNumber++;
+                }
+
+                if (result.checksum() != null) {
+                    checksums.put(result.relativePath().replace('\\', '/'), result.checksum());
+                }
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+
+        this.logger.debug("{} file(s) linked and {} file(s) copied to {}.", linkedFilesNumber,
+                          sourceFiles.size() - linkedFilesNumber, archiveFolder);
+
+        if (this.manifestAlgorithm != null) {
+            this.writeManifest(archiveFolder.resolve(this.manifestFileName), checksums);
+        }
+
+        return linkedFilesNumber;
+    }
+
+
+
+    /**
+     * Copies a file with a file channel transfer, so that the operating system can avoid moving the data through
+     * the application memory.
+     *
+     * @param sourceFile the file to copy
+     * @param targetFile the location of the copy
+     * @throws IOException the file could not be copied
+     */
+    private void copyFile(final Path sourceFile, final Path targetFile) throws IOException {
+
+        try (FileChannel sourceChannel = FileChannel.open(sourceFile, StandardOpenOption.READ);
+             FileChannel targetChannel = FileChannel.open(targetFile, StandardOpenOption.WRITE,
+                                                          StandardOpenOption.CREATE,
+                                                          StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long size = sourceChannel.size();
+            long position = 0;
+
+            while (position < size) {
+                position += sourceChannel.transferTo(position, size - position, targetChannel);
+            }
+        }
+
+        Files.setLastModifiedTime(targetFile, Files.getLastModifiedTime(sourceFile));
+    }
+
+
+
+    /**
+     * Computes the checksum of a file with the manifest algorithm.
+     *
+     * @param file the file to compute the checksum of
+     * @return the hexadecimal string of the checksum
+     * @throws IOException the file could not be read
+     */
+    private String getChecksum(final Path file) throws IOException {
+        final MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance(this.manifestAlgorithm);
+
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IOException(String.format("The checksum algorithm %s is not available.",
+                                                this.manifestAlgorithm), exception);
+        }
+
+        try (InputStream fileStream = new DigestInputStream(Files.newInputStream(file), digest)) {
+            final byte[] buffer = new byte[FolderArchiver.CHECKSUM_BUFFER_SIZE];
+
+            while (fileStream.read(buffer) >= 0) {
+                // Just read the stream to update the digest
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+
+
+    /**
+     * Creates a hard link to a file.
+     *
+     * @param sourceFile the file to link
+     * @param targetFile the location of the link
+     * @return <code>true</code> if the link was created, or <code>false</code> if the file system does not allow it
+     * @throws IOException a file system error occurred while replacing an existing target file
+     */
+    private boolean linkFile(final Path sourceFile, final Path targetFile) throws IOException {
+        Files.deleteIfExists(targetFile);
+
+        try {
+            Files.createLink(targetFile, sourceFile);
+            return true;
+
+        } catch (FileSystemException | UnsupportedOperationException exception) {
+            this.logger.debug("Could not link file {} to {}. It will be copied instead. The reason is: {}",
+                              sourceFile, targetFile, exception.getMessage());
+            return false;
+        }
+    }
+
+
+
+    /**
+     * Archives one file.
+     *
+     * @param sourceFile   the file to archive
+     * @param targetFile   the location of the archived file
+     * @param relativePath the path of the file relative to the source folder
+     * @return the result of the transfer
+     * @throws IOException the file could not be archived
+     */
+    private FileTransferResult transferFile(final Path sourceFile, final Path targetFile, final String relativePath)
+            throws IOException {
+        final boolean linked = this.useHardLinks && this.linkFile(sourceFile, targetFile);
+
+        if (!linked) {
+            this.copyFile(sourceFile, targetFile);
+        }
+
+        final String checksum = (this.manifestAlgorithm != null) ? this.getChecksum(targetFile) : null;
+
+        return new FileTransferResult(relativePath, linked, checksum);
+    }
+
+
+
+    /**
+     * Waits for a file transfer to complete.
+     *
+     * @param transfer the pending transfer
+     * @return the result of the transfer
+     * @throws IOException the file could not be archived
+     */
+    private FileTransferResult waitForTransfer(final Future<FileTransferResult> transfer) throws IOException {
+
+        try {
+            return transfer.get();
+
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The archiving was interrupted.", exception);
+
+        } catch (ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+
+            throw new IOException("A file could not be archived.", cause);
+        }
+    }
+
+
+
+    /**
+     * Writes the checksums of the archived files in the format used by the <code>sha256sum</code> tool.
+     *
+     * @param manifestFile the manifest file to create
+     * @param checksums    the checksums of the archived files, mapped by their relative path
+     * @throws IOException the manifest could not be written
+     */
+    private void writeManifest(final Path manifestFile, final Map<String, String> checksums) throws IOException {
+        final StringBuilder manifestBuilder = new StringBuilder();
+
+        for (Map.Entry<String, String> checksumEntry : checksums.entrySet()) {
+            manifestBuilder.append(checksumEntry.getValue()).append("  ").append(checksumEntry.getKey()).append("\n");
+        }
+
+        Files.writeString(manifestFile, manifestBuilder.toString(), StandardCharsets.UTF_8);
+        this.logger.debug("Checksum manifest written to {}.", manifestFile);
+    }
+
+
+
+    /**
+     * The outcome of the archiving of a single file.
+     *
+     * @param relativePath the path of the file relative to the source folder
+     * @param linked       <code>true</code> if the file was hard-linked rather than copied
+     * @param checksum     the checksum of the archived file, or <code>null</code> if none was computed
+     */
+    private record FileTransferResult(String relativePath, boolean linked, String checksum) {
+    }
+
+}
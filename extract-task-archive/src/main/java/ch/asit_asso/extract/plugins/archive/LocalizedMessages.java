@@ -21,6 +21,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -56,6 +57,18 @@ public class LocalizedMessages {
      */
     private static final String MESSAGES_FILE_NAME = "messages.properties";
 
+    /**
+     * The localization files already loaded, mapped by the list of languages they were loaded for. The files are
+     * only read once for a given list of languages, whatever the number of instances created.
+     */
+    private static final Map<String, List<Properties>> LOADED_PROPERTY_FILES = new ConcurrentHashMap<>();
+
+    /**
+     * The contents of the localized files already read, mapped by the list of languages and the file name, or by
+     * the path of the file for the help pages.
+     */
+    private static final Map<String, Optional<String>> LOADED_FILE_CONTENTS = new ConcurrentHashMap<>();
+
     /**
      * The primary language to use for the messages to the user.
      */
@@ -73,9 +86,10 @@ public class LocalizedMessages {
 
     /**
      * All loaded property files in fallback order (primary language first, then fallbacks).
-     * When looking up a key, we check each properties file in order.
+     * When looking up a key, we check each properties file in order. This list is shared by all the instances
+     * that use the same languages and must not be modified.
      */
-    private final List<Properties> propertyFiles = new ArrayList<>();
+    private List<Properties> propertyFiles;
 
 
 
@@ -141,6 +155,23 @@ public class LocalizedMessages {
             throw new IllegalArgumentException("The filename is invalid.");
         }
 
+        final String cacheKey = String.format("%s/%s", this.getLanguagesKey(), filename);
+
+        return LocalizedMessages.LOADED_FILE_CONTENTS.computeIfAbsent(cacheKey,
+                                                                      key -> this.readFileContent(filename))
+                                                     .orElse(null);
+    }
+
+
+
+    /**
+     * Reads the content of a file in the current language from the class path.
+     *
+     * @param filename the name of the file to read
+     * @return the content of the file, or an empty optional if it could not be read in any compatible language
+     */
+    private Optional<String> readFileContent(final String filename) {
+
         for (String filePath : this.getFallbackPaths(this.language, filename)) {
 
             try (InputStream fileStream = this.getClass().getClassLoader().getResourceAsStream(filePath)) {
@@ -149,14 +180,14 @@ public class LocalizedMessages {
                     continue;
                 }
 
-                return IOUtils.toString(fileStream, "UTF-8");
+                return Optional.of(IOUtils.toString(fileStream, "UTF-8"));
 
             } catch (IOException exception) {
                 this.logger.error("The help page could not be loaded.", exception);
             }
         }
 
-        return null;
+        return Optional.empty();
     }
 
 
@@ -203,6 +234,13 @@ public class LocalizedMessages {
      * @throws IllegalStateException    if no localization file can be found
      */
     private void loadFile(final String languageCode) {
+        final List<Properties> cachedFiles = LocalizedMessages.LOADED_PROPERTY_FILES.get(this.getLanguagesKey());
+
+        if (cachedFiles != null) {
+            this.propertyFiles = cachedFiles;
+            return;
+        }
+
         this.logger.debug("Loading localization files for language {} with fallbacks.", languageCode);
 
         if (languageCode == null || !languageCode.matches(LocalizedMessages.LOCALE_VALIDATION_PATTERN)) {
@@ -211,22 +249,26 @@ public class LocalizedMessages {
         }
 
         // Load all available properties files in fallback order
+        final List<Properties> loadedFiles = new ArrayList<>();
+
         for (String filePath : this.getFallbackPaths(languageCode, LocalizedMessages.MESSAGES_FILE_NAME)) {
             this.logger.debug("Trying localization file at {}", filePath);
 
             Optional<Properties> maybeProps = loadPropertiesFrom(filePath);
             if (maybeProps.isPresent()) {
-                this.propertyFiles.add(maybeProps.get());
+                loadedFiles.add(maybeProps.get());
                 this.logger.info("Loaded localization from {} with {} keys.", filePath, maybeProps.get().size());
             }
         }
 
-        if (this.propertyFiles.isEmpty()) {
+        if (loadedFiles.isEmpty()) {
             this.logger.error("Could not find any localization file, not even the default.");
             throw new IllegalStateException("Could not find any localization file.");
         }
 
-        this.logger.info("Loaded {} localization file(s) for cascading fallback.", this.propertyFiles.size());
+        this.logger.info("Loaded {} localization file(s) for cascading fallback.", loadedFiles.size());
+        LocalizedMessages.LOADED_PROPERTY_FILES.putIfAbsent(this.getLanguagesKey(), List.copyOf(loadedFiles));
+        this.propertyFiles = LocalizedMessages.LOADED_PROPERTY_FILES.get(this.getLanguagesKey());
     }
 
 
@@ -275,16 +317,38 @@ public class LocalizedMessages {
      * @return the help content as a string
      */
     public String getHelp(String filePath) {
+        return LocalizedMessages.LOADED_FILE_CONTENTS.computeIfAbsent(filePath, this::readHelp)
+                                                     .orElse("Help file not found: " + filePath);
+    }
+
+    /**
+     * Reads the help content from the specified file path.
+     *
+     * @param filePath the path to the help file
+     * @return the help content, or an empty optional if the file could not be read
+     */
+    private Optional<String> readHelp(String filePath) {
         try (InputStream helpStream = this.getClass().getClassLoader().getResourceAsStream(filePath)) {
             if (helpStream != null) {
-                return IOUtils.toString(helpStream, "UTF-8");
+                return Optional.of(IOUtils.toString(helpStream, "UTF-8"));
             }
         } catch (IOException e) {
             logger.error("Could not read help file: " + filePath, e);
         }
-        return "Help file not found: " + filePath;
+        return Optional.empty();
+    }
+
+    /**
+     * Obtains the string that identifies the languages used by this instance, in fallback order.
+     *
+     * @return the languages codes separated by commas
+     */
+    final String getLanguagesKey() {
+        return String.join(",", this.allLanguages);
     }
 
+
+
     /**
      * Builds a collection of possible paths for a localized file with cascading fallback through all
      * configured languages. For example, if languages are ["de", "en", "fr"] and a regional variant like
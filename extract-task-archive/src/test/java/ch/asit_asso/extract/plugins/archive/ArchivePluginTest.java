@@ -160,6 +160,15 @@ public class ArchivePluginTest {
         assertEquals(EXPECTED_ICON_CLASS, result);
     }
     
+    @Test
+    @DisplayName("The parameters description is built once per language")
+    public void testGetParamsIsShared() {
+        String frenchParams = new ArchivePlugin("fr").getParams();
+
+        assertSame(frenchParams, new ArchivePlugin("fr").getParams());
+        assertNotEquals(frenchParams, new ArchivePlugin("de").getParams());
+    }
+    
     @Test
     @DisplayName("Check the plugin parameters structure")
     public void testGetParams() throws IOException {
@@ -170,7 +179,7 @@ public class ArchivePluginTest {
         
         ArrayNode parametersArray = parameterMapper.readValue(paramsJson, ArrayNode.class);
         assertNotNull(parametersArray);
-        assertEquals(1, parametersArray.size());
+        assertEquals(3, parametersArray.size());
         
         JsonNode pathParam = parametersArray.get(0);
         assertTrue(pathParam.hasNonNull("code"));
@@ -187,6 +196,14 @@ public class ArchivePluginTest {
         
         assertTrue(pathParam.hasNonNull("maxlength"));
         assertEquals(255, pathParam.get("maxlength").intValue());
+
+        JsonNode hardLinksParam = parametersArray.get(1);
+        assertEquals(config.getProperty("paramHardLinks"), hardLinksParam.get("code").textValue());
+        assertEquals("boolean", hardLinksParam.get("type").textValue());
+
+        JsonNode manifestParam = parametersArray.get(2);
+        assertEquals(config.getProperty("paramManifest"), manifestParam.get("code").textValue());
+        assertEquals("boolean", manifestParam.get("type").textValue());
     }
     
     @Test
@@ -409,13 +426,13 @@ public class ArchivePluginTest {
         public String getOrderGuid() { return null; }
         
         @Override
-        public String getOrderLabel() { return null; }
+        public String getOrderLabel() { return orderLabel; }
         
         @Override
         public String getProductGuid() { return null; }
         
         @Override
-        public String getProductLabel() { return null; }
+        public String getProductLabel() { return productLabel; }
         
         @Override
         public String getOrganismGuid() { return null; }
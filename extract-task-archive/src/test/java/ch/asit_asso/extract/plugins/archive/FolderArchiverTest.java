@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.plugins.archive;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the FolderArchiver class.
+ */
+@DisplayName("FolderArchiver")
+class FolderArchiverTest {
+
+    private static final String MANIFEST_FILE_NAME = "archive-manifest.sha256";
+
+    @TempDir
+    Path tempDir;
+
+    private Path sourceDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sourceDir = tempDir.resolve("source");
+        Files.createDirectories(sourceDir.resolve("subdir"));
+        Files.writeString(sourceDir.resolve("test1.txt"), "Content 1", StandardCharsets.UTF_8);
+        Files.writeString(sourceDir.resolve("subdir/test2.txt"), "Content 2", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Copies all the files when hard links are not allowed")
+    void copiesFilesWithoutHardLinks() throws IOException {
+        Path archiveDir = tempDir.resolve("archive");
+        FolderArchiver archiver = new FolderArchiver(false, 2, null, null);
+
+        int linkedFiles = archiver.archive(sourceDir, archiveDir);
+
+        assertEquals(0, linkedFiles);
+        assertEquals("Content 1", Files.readString(archiveDir.resolve("test1.txt")));
+        assertEquals("Content 2", Files.readString(archiveDir.resolve("subdir/test2.txt")));
+        assertFalse(Files.isSameFile(sourceDir.resolve("test1.txt"), archiveDir.resolve("test1.txt")));
+        assertFalse(Files.exists(archiveDir.resolve(MANIFEST_FILE_NAME)));
+    }
+
+    @Test
+    @DisplayName("Links the files on the same file system when hard links are allowed")
+    void linksFilesOnSameFileSystem() throws IOException {
+        Path archiveDir = tempDir.resolve("archive");
+        FolderArchiver archiver = new FolderArchiver(true, 2, null, null);
+
+        int linkedFiles = archiver.archive(sourceDir, archiveDir);
+
+        assertEquals(2, linkedFiles);
+        assertTrue(Files.isSameFile(sourceDir.resolve("test1.txt"), archiveDir.resolve("test1.txt")));
+        assertTrue(Files.isSameFile(sourceDir.resolve("subdir/test2.txt"), archiveDir.resolve("subdir/test2.txt")));
+    }
+
+    @Test
+    @DisplayName("Archived files survive the deletion of the source folder")
+    void linkedFilesSurviveSourceDeletion() throws IOException {
+        Path archiveDir = tempDir.resolve("archive");
+        new FolderArchiver(true, 1, null, null).archive(sourceDir, archiveDir);
+
+        Files.delete(sourceDir.resolve("test1.txt"));
+
+        assertEquals("Content 1", Files.readString(archiveDir.resolve("test1.txt")));
+    }
+
+    @Test
+    @DisplayName("Replaces existing files in the archive folder")
+    void replacesExistingFiles() throws IOException {
+        Path archiveDir = tempDir.resolve("archive");
+        Files.createDirectories(archiveDir);
+        Files.writeString(archiveDir.resolve("test1.txt"), "Old content that is longer", StandardCharsets.UTF_8);
+
+        new FolderArchiver(false, 1, null, null).archive(sourceDir, archiveDir);
+
+        assertEquals("Content 1", Files.readString(archiveDir.resolve("test1.txt")));
+    }
+
+    @Test
+    @DisplayName("Writes a checksum manifest of the archived files")
+    void writesChecksumManifest() throws IOException {
+        Path archiveDir = tempDir.resolve("archive");
+        FolderArchiver archiver = new FolderArchiver(false, 2, "SHA-256", MANIFEST_FILE_NAME);
+
+        archiver.archive(sourceDir, archiveDir);
+
+        List<String> manifestLines = Files.readAllLines(archiveDir.resolve(MANIFEST_FILE_NAME));
+        assertEquals(2, manifestLines.size());
+        assertEquals("1b8707533d362a48d03c920654cb5ac752445f17ca8255fe50e615e344edcd55  subdir/test2.txt",
+                     manifestLines.get(0));
+        assertEquals("cd56d06409d269dbc1ace470081f1d32ed50906679b2bacfd4044348770493c4  test1.txt",
+                     manifestLines.get(1));
+    }
+
+    @Test
+    @DisplayName("Rejects an invalid number of threads")
+    void rejectsInvalidThreadsNumber() {
+        assertThrows(IllegalArgumentException.class, () -> new FolderArchiver(false, 0, null, null));
+    }
+
+    @Test
+    @DisplayName("Requires a manifest file name if a manifest is needed")
+    void requiresManifestFileName() {
+        assertThrows(IllegalArgumentException.class, () -> new FolderArchiver(false, 1, "SHA-256", null));
+    }
+}
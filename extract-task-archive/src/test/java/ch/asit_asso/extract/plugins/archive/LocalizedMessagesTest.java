@@ -201,6 +201,16 @@ class LocalizedMessagesTest {
             assertNull(content);
         }
 
+        @Test
+        @DisplayName("getFileContent reads each file only once per language")
+        void getFileContentIsSharedBetweenInstances() {
+            String firstContent = new LocalizedMessages("fr").getFileContent("archivageHelp.html");
+            String secondContent = new LocalizedMessages("fr").getFileContent("archivageHelp.html");
+
+            assertSame(firstContent, secondContent);
+            assertNotEquals(firstContent, new LocalizedMessages("de").getFileContent("archivageHelp.html"));
+        }
+
         @Test
         @DisplayName("getFileContent throws exception for null filename")
         void getFileContentThrowsExceptionForNullFilename() {
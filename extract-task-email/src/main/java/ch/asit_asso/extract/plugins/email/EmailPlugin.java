@@ -16,18 +16,22 @@
  */
 package ch.asit_asso.extract.plugins.email;
 
-import java.lang.reflect.Field;
 import java.text.DateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.mail.internet.AddressException;
 import ch.asit_asso.extract.plugins.common.IEmailSettings;
 import ch.asit_asso.extract.plugins.common.ITaskProcessor;
 import ch.asit_asso.extract.plugins.common.ITaskProcessorRequest;
 import ch.asit_asso.extract.plugins.common.ITaskProcessorResult;
+import ch.asit_asso.extract.plugins.common.RequestTemplate;
+import ch.asit_asso.extract.plugins.common.RequestTemplateCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -53,6 +57,11 @@ public class EmailPlugin implements ITaskProcessor {
      */
     private static final String CONFIG_FILE_PATH = "plugins/email/properties/configEmail.properties";
 
+    /**
+     * The JSON descriptions of the plugin parameters already built, mapped by the languages they were built in.
+     */
+    private static final Map<String, String> PARAMETERS_JSON = new ConcurrentHashMap<>();
+
     /**
      * The name of the file that holds the text explaining how to use this plugin in the language of
      * the user interface.
@@ -65,6 +74,30 @@ public class EmailPlugin implements ITaskProcessor {
      */
     private static final String TEMPLATE_FILE_NAME = "emailTemplate.html";
 
+    /**
+     * The placeholder names that refer to another request property.
+     */
+    private static final Map<String, String> PLACEHOLDER_ALIASES = Map.of("clientName", "client",
+                                                                          "organisationName", "organism",
+                                                                          "startDateISO", "startDate",
+                                                                          "endDateISO", "endDate");
+
+    /**
+     * The placeholder names whose date must be formatted as ISO 8601.
+     */
+    private static final Set<String> ISO_DATE_PLACEHOLDERS = Set.of("startDateISO", "endDateISO");
+
+    /**
+     * The maximum number of compiled subjects and bodies to keep.
+     */
+    private static final int CONTENT_TEMPLATES_CACHE_SIZE = 200;
+
+    /**
+     * The subjects and bodies already compiled, mapped by the value of their task parameter.
+     */
+    private static final RequestTemplateCache CONTENT_TEMPLATES
+            = new RequestTemplateCache(EmailPlugin.getContentPlaceholders(), EmailPlugin.CONTENT_TEMPLATES_CACHE_SIZE);
+
     /**
      * The writer to the application logs.
      */
@@ -211,6 +244,18 @@ public class EmailPlugin implements ITaskProcessor {
 
     @Override
     public final String getParams() {
+        return EmailPlugin.PARAMETERS_JSON.computeIfAbsent(this.messages.getLanguagesKey(),
+                                                           key -> this.buildParameters());
+    }
+
+
+
+    /**
+     * Builds the description of the parameters of this plugin in the language of this instance.
+     *
+     * @return a JSON string with the definition of the parameters
+     */
+    private String buildParameters() {
         ObjectMapper mapper = new ObjectMapper();
         ArrayNode parametersNode = mapper.createArrayNode();
 
@@ -386,108 +431,53 @@ public class EmailPlugin implements ITaskProcessor {
 
 
     /**
-     * Obtains the value of a property in the request that is currently being archived.
+     * Converts the value of a request property to the string that replaces its placeholder in the message.
      *
-     * @param request   the current request
-     * @param fieldName the name of the property
-     * @return the value of the property, or <code>null</code> if the value could not be obtained
+     * @param placeholder the name of the placeholder
+     * @param value       the value of the request property
+     * @return the string to insert in the message
      */
-    private String getRequestFieldValue(final ITaskProcessorRequest request, final String fieldName) {
-        // Handle special alias fields
-        String actualFieldName = fieldName;
-        boolean isISOFormat = false;
-
-        // Map alias fields to their actual field names
-        if (fieldName.equals("clientName")) {
-            actualFieldName = "client";
-        } else if (fieldName.equals("organisationName")) {
-            actualFieldName = "organism";
-        } else if (fieldName.equals("startDateISO")) {
-            actualFieldName = "startDate";
-            isISOFormat = true;
-        } else if (fieldName.equals("endDateISO")) {
-            actualFieldName = "endDate";
-            isISOFormat = true;
-        }
-
-        // First, try to use the getter method (preferred approach)
-        try {
-            // Build getter method name
-            String getterName = "get" + actualFieldName.substring(0, 1).toUpperCase() + actualFieldName.substring(1);
-
-            // Special case for boolean fields that might use "is" prefix
-            if (actualFieldName.equals("rejected")) {
-                getterName = "isRejected";
-            }
-
-            this.logger.trace("Trying to invoke getter '{}' for field '{}'", getterName, fieldName);
+    private String formatFieldValue(final String placeholder, final Object value) {
 
-            // Try to find and invoke the getter method
-            java.lang.reflect.Method getter = request.getClass().getMethod(getterName);
-            Object result = getter.invoke(request);
+        if (value == null) {
+            return "";
+        }
 
-            if (result == null) {
-                this.logger.trace("Getter '{}' returned null, returning empty string", getterName);
-                return "";
-            }
+        if (value instanceof Calendar calendarValue) {
 
-            // Handle Calendar type specially
-            if (result instanceof Calendar calendarResult) {
-                if (isISOFormat) {
-                    // Format as ISO 8601
-                    String isoDateStr = calendarResult.getTime().toInstant().toString();
-                    this.logger.trace("Getter '{}' returned Calendar, formatted as ISO 8601: {}", getterName, isoDateStr);
-                    return isoDateStr;
-                } else {
-                    // Format as localized date/time
-                    String dateStr = DateFormat.getDateTimeInstance().format(calendarResult.getTime());
-                    this.logger.trace("Getter '{}' returned Calendar, formatted as: {}", getterName, dateStr);
-                    return dateStr;
-                }
+            if (EmailPlugin.ISO_DATE_PLACEHOLDERS.contains(placeholder)) {
+                return calendarValue.getTime().toInstant().toString();
             }
 
-            String stringValue = result.toString();
-            this.logger.trace("Getter '{}' returned: {}", getterName, stringValue);
-            return stringValue;
-
-        } catch (Exception e) {
-            this.logger.debug("Could not find or invoke getter method '{}' for field '{}': {}",
-                "get" + actualFieldName.substring(0, 1).toUpperCase() + actualFieldName.substring(1),
-                fieldName, e.getMessage());
+            return DateFormat.getDateTimeInstance().format(calendarValue.getTime());
         }
 
-        // Fallback to direct field access (for fields not exposed via getters)
-        try {
-            final Field field = request.getClass().getDeclaredField(actualFieldName);
-            field.setAccessible(true);
-            final Object fieldInstance = field.get(request);
-            field.setAccessible(false);
+        return value.toString();
+    }
 
-            if (fieldInstance == null) {
-                return "";
-            }
 
-            String fieldValue = fieldInstance.toString();
 
-            if (field.getType().isAssignableFrom(Calendar.class)) {
-                Calendar calendarFieldInstance = (Calendar) fieldInstance;
-                if (isISOFormat) {
-                    fieldValue = calendarFieldInstance.getTime().toInstant().toString();
-                } else {
-                    fieldValue = DateFormat.getDateTimeInstance().format(calendarFieldInstance.getTime());
-                }
-            }
+    /**
+     * Obtains the placeholders that can be used in the subject and the body of the message.
+     *
+     * @return the request property to use for each placeholder name
+     */
+    private static Map<String, String> getContentPlaceholders() {
+        final PluginConfiguration configuration = new PluginConfiguration(EmailPlugin.CONFIG_FILE_PATH);
+        String authorizedFieldsProperty = configuration.getProperty("authorizedFields");
 
-            return fieldValue;
+        if (authorizedFieldsProperty == null || authorizedFieldsProperty.isEmpty()) {
+            authorizedFieldsProperty = configuration.getProperty("content.properties.authorized");
+        }
 
-        } catch (NoSuchFieldException e) {
-            this.logger.warn("Could not find the field \"{}\" in the request object.", fieldName);
+        final Map<String, String> placeholders = new LinkedHashMap<>();
 
-        } catch (IllegalAccessException exc) {
-            this.logger.error("Could not access the field value for \"" + fieldName + "\".", exc);
+        for (String fieldName : authorizedFieldsProperty.split(",")) {
+            final String placeholder = fieldName.trim();
+            placeholders.put(placeholder, EmailPlugin.PLACEHOLDER_ALIASES.getOrDefault(placeholder, placeholder));
         }
 
-        return null;
+        return placeholders;
     }
 
 
@@ -558,29 +548,9 @@ public class EmailPlugin implements ITaskProcessor {
         this.logger.debug("replaceRequestVariables called with string: {}", stringToProcess);
         this.logger.debug("Request class: {}", request.getClass().getName());
 
-        // Try to get from authorizedFields first, fallback to content.properties.authorized
-        String authorizedFieldsProperty = this.config.getProperty("authorizedFields");
-        if (authorizedFieldsProperty == null || authorizedFieldsProperty.isEmpty()) {
-            authorizedFieldsProperty = this.config.getProperty("content.properties.authorized");
-        }
-        final String[] authorizedFields = authorizedFieldsProperty.split(",");
-        String formattedString = stringToProcess;
-
         // First, replace standard fields
-        for (String fieldName : authorizedFields) {
-            final String fieldValue = this.getRequestFieldValue(request, fieldName);
-            
-            this.logger.trace("Processing field '{}': value = '{}'", fieldName, fieldValue);
-
-            if (fieldValue == null) {
-                this.logger.trace("Field '{}' returned null, skipping", fieldName);
-                continue;
-            }
-
-            final String fieldSearchPattern = String.format("(?i)\\{%s\\}", fieldName);
-            formattedString = formattedString.replaceAll(fieldSearchPattern, fieldValue);
-            this.logger.trace("Replaced pattern '{}' with value '{}'", fieldSearchPattern, fieldValue);
-        }
+        final RequestTemplate contentTemplate = EmailPlugin.CONTENT_TEMPLATES.get(stringToProcess);
+        String formattedString = contentTemplate.render(request, this::formatFieldValue);
 
         // Then, handle dynamic parameters from JSON
         formattedString = this.replaceDynamicParameters(formattedString, request);
@@ -605,7 +575,7 @@ public class EmailPlugin implements ITaskProcessor {
 
         try {
             // Get the parameters field value
-            final String parametersJson = this.getRequestFieldValue(request, "parameters");
+            final String parametersJson = request.getParameters();
 
             if (parametersJson != null && !parametersJson.trim().isEmpty()) {
                 ObjectMapper mapper = new ObjectMapper();
@@ -24,8 +24,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -61,6 +64,17 @@ public class LocalizedMessages {
      */
     private static final String MESSAGES_FILE_NAME = "messages.properties";
 
+    /**
+     * The localization files already loaded, mapped by the list of languages they were loaded for. The files are
+     * only read once for a given list of languages, whatever the number of instances created.
+     */
+    private static final Map<String, List<Properties>> LOADED_PROPERTY_FILES = new ConcurrentHashMap<>();
+
+    /**
+     * The contents of the localized files already read, mapped by the list of languages and the file name.
+     */
+    private static final Map<String, Optional<String>> LOADED_FILE_CONTENTS = new ConcurrentHashMap<>();
+
     /**
      * The primary language to use for the messages to the user.
      */
@@ -78,9 +92,10 @@ public class LocalizedMessages {
 
     /**
      * All loaded property files in fallback order (primary language first, then fallbacks).
-     * When looking up a key, we check each properties file in order.
+     * When looking up a key, we check each properties file in order. This list is shared by all the instances
+     * that use the same languages and must not be modified.
      */
-    private final List<Properties> propertyFiles = new ArrayList<>();
+    private List<Properties> propertyFiles;
 
 
 
@@ -146,6 +161,23 @@ public class LocalizedMessages {
             throw new IllegalArgumentException("The filename is invalid.");
         }
 
+        final String cacheKey = String.format("%s/%s", this.getLanguagesKey(), filename);
+
+        return LocalizedMessages.LOADED_FILE_CONTENTS.computeIfAbsent(cacheKey,
+                                                                      key -> this.readFileContent(filename))
+                                                     .orElse(null);
+    }
+
+
+
+    /**
+     * Reads the content of a file in the current language from the class path.
+     *
+     * @param filename the name of the file to read
+     * @return the content of the file, or an empty optional if it could not be read in any compatible language
+     */
+    private Optional<String> readFileContent(final String filename) {
+
         for (String filePath : this.getFallbackPaths(this.language, filename)) {
 
             try (InputStream fileStream = this.getClass().getClassLoader().getResourceAsStream(filePath)) {
@@ -154,14 +186,14 @@ public class LocalizedMessages {
                     continue;
                 }
 
-                return IOUtils.toString(fileStream, "UTF-8");
+                return Optional.of(IOUtils.toString(fileStream, "UTF-8"));
 
             } catch (IOException exception) {
                 this.logger.error("The help page could not be loaded.", exception);
             }
         }
 
-        return null;
+        return Optional.empty();
     }
 
 
@@ -203,6 +235,13 @@ public class LocalizedMessages {
      * @param guiLanguage the string that identifies the language to use for the messages to the user
      */
     private void loadFile(final String guiLanguage) {
+        final List<Properties> cachedFiles = LocalizedMessages.LOADED_PROPERTY_FILES.get(this.getLanguagesKey());
+
+        if (cachedFiles != null) {
+            this.propertyFiles = cachedFiles;
+            return;
+        }
+
         this.logger.debug("Loading localization files for language {} with fallbacks.", guiLanguage);
 
         if (guiLanguage == null || !guiLanguage.matches(LocalizedMessages.LOCALE_VALIDATION_PATTERN)) {
@@ -211,6 +250,8 @@ public class LocalizedMessages {
         }
 
         // Load all available properties files in fallback order
+        final List<Properties> loadedFiles = new ArrayList<>();
+
         for (String filePath : this.getFallbackPaths(guiLanguage, LocalizedMessages.MESSAGES_FILE_NAME)) {
 
             try (InputStream languageFileStream = this.getClass().getClassLoader().getResourceAsStream(filePath)) {
@@ -222,7 +263,7 @@ public class LocalizedMessages {
 
                 Properties props = new Properties();
                 props.load(new InputStreamReader(languageFileStream, StandardCharsets.UTF_8));
-                this.propertyFiles.add(props);
+                loadedFiles.add(props);
                 this.logger.info("Loaded localization file from \"{}\" with {} keys.", filePath, props.size());
 
             } catch (IOException exception) {
@@ -230,12 +271,25 @@ public class LocalizedMessages {
             }
         }
 
-        if (this.propertyFiles.isEmpty()) {
+        if (loadedFiles.isEmpty()) {
             this.logger.error("Could not find any localization file, not even the default.");
             throw new IllegalStateException("Could not find any localization file.");
         }
 
-        this.logger.info("Loaded {} localization file(s) for cascading fallback.", this.propertyFiles.size());
+        this.logger.info("Loaded {} localization file(s) for cascading fallback.", loadedFiles.size());
+        LocalizedMessages.LOADED_PROPERTY_FILES.putIfAbsent(this.getLanguagesKey(), List.copyOf(loadedFiles));
+        this.propertyFiles = LocalizedMessages.LOADED_PROPERTY_FILES.get(this.getLanguagesKey());
+    }
+
+
+
+    /**
+     * Obtains the string that identifies the languages used by this instance, in fallback order.
+     *
+     * @return the languages codes separated by commas
+     */
+    final String getLanguagesKey() {
+        return String.join(",", this.allLanguages);
     }
 
 
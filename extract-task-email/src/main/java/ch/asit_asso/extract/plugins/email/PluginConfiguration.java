@@ -18,7 +18,9 @@ package ch.asit_asso.extract.plugins.email;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +33,12 @@ import org.slf4j.LoggerFactory;
  */
 public class PluginConfiguration {
 
+    /**
+     * The settings already loaded, mapped by the path of their properties file. Each file is only read once,
+     * whatever the number of instances created.
+     */
+    private static final Map<String, Properties> LOADED_CONFIGURATIONS = new ConcurrentHashMap<>();
+
     /**
      * The writer to the application logs.
      */
@@ -60,12 +68,19 @@ public class PluginConfiguration {
      * @param path a string with the path to the properties file that holds the plugin settings
      */
     private void initializeConfiguration(final String path) {
+        final Properties cachedProperties = PluginConfiguration.LOADED_CONFIGURATIONS.get(path);
+
+        if (cachedProperties != null) {
+            this.properties = cachedProperties;
+            return;
+        }
+
         this.logger.debug("Initializing config from path {}.", path);
 
-        try {
-            InputStream propertiesIs = this.getClass().getClassLoader().getResourceAsStream(path);
+        try (InputStream propertiesIs = this.getClass().getClassLoader().getResourceAsStream(path)) {
             this.properties = new Properties();
             this.properties.load(propertiesIs);
+            PluginConfiguration.LOADED_CONFIGURATIONS.putIfAbsent(path, this.properties);
             this.logger.debug("Connector configuration successfully initialized.");
 
         } catch (IOException ex) {
@@ -263,6 +263,20 @@ public class VariableReplacementTest {
         assertEquals("ORDER-999 ORDER-999 ORDER-999", result);
     }
     
+    @Test
+    public void testValuesWithSpecialCharacters() throws Exception {
+        // Setup
+        String template = "Client: {client}, Order: {orderLabel}, Unknown: {unknownField}";
+        when(mockRequest.getClient()).thenReturn("Cost $1 \\ {orderLabel}");
+        when(mockRequest.getOrderLabel()).thenReturn("ORD-1");
+
+        // Act
+        String result = (String) replaceRequestVariablesMethod.invoke(emailPlugin, template, mockRequest);
+
+        // Assert
+        assertEquals("Client: Cost $1 \\ {orderLabel}, Order: ORD-1, Unknown: {unknownField}", result);
+    }
+    
     @Test
     public void testNullFieldValues() throws Exception {
         // Setup
@@ -41,6 +41,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A plugin that executes Python scripts with parameters passed via JSON file
@@ -59,6 +60,11 @@ public class PythonPlugin implements ITaskProcessor {
      */
     private static final String CONFIG_FILE_PATH = "plugins/python/properties/config.properties";
 
+    /**
+     * The JSON descriptions of the plugin parameters already built, mapped by the languages they were built in.
+     */
+    private static final Map<String, String> PARAMETERS_JSON = new ConcurrentHashMap<>();
+
     /**
      * The name of the file that holds the text explaining how to use this plugin in the language of
      * the user interface.
@@ -229,6 +235,16 @@ public class PythonPlugin implements ITaskProcessor {
      */
     @Override
     public String getParams() {
+        return PythonPlugin.PARAMETERS_JSON.computeIfAbsent(this.messages.getLanguagesKey(),
+                                                            key -> this.buildParameters());
+    }
+
+    /**
+     * Builds the description of the parameters of this plugin in the language of this instance.
+     *
+     * @return a JSON string with the definition of the parameters
+     */
+    private String buildParameters() {
         ObjectMapper mapper = new ObjectMapper();
         ArrayNode parametersNode = mapper.createArrayNode();
 
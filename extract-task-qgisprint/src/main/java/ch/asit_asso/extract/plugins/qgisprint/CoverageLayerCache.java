@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.plugins.qgisprint;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+
+/**
+ * A store for the atlas coverage layers read in the QGIS Server project settings. Since they only change when the
+ * QGIS project is modified, they are kept for a limited time so that a print does not need to fetch and parse
+ * the whole capabilities document.
+ *
+ * @author Yves Grasset
+ */
+public class CoverageLayerCache {
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(CoverageLayerCache.class);
+
+    /**
+     * The clock used to compute the expiration of the entries.
+     */
+    private final Clock clock;
+
+    /**
+     * The cached coverage layers, mapped by the parameters they were obtained with.
+     */
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+
+
+    /**
+     * Creates a new cache instance using the system clock.
+     */
+    public CoverageLayerCache() {
+        this(Clock.systemUTC());
+    }
+
+
+
+    /**
+     * Creates a new cache instance.
+     *
+     * @param entriesClock the clock used to compute the expiration of the entries
+     */
+    public CoverageLayerCache(final Clock entriesClock) {
+
+        if (entriesClock == null) {
+            throw new IllegalArgumentException("The clock cannot be null.");
+        }
+
+        this.clock = entriesClock;
+    }
+
+
+
+    /**
+     * Obtains the cached coverage layer of a print template.
+     *
+     * @param baseUrl        the URL of the QGIS Server
+     * @param projectPath    the path of the QGIS project on the server
+     * @param templateLayout the name of the print layout
+     * @return the coverage layer name, or <code>null</code> if it is not cached or if it has expired
+     */
+    public final String get(final String baseUrl, final String projectPath, final String templateLayout) {
+        final Key key = new Key(baseUrl, projectPath, templateLayout);
+        final Entry entry = this.entries.get(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (!entry.expiry().isAfter(this.clock.instant())) {
+            this.logger.debug("The cached coverage layer for {} has expired.", key);
+            this.entries.remove(key, entry);
+            return null;
+        }
+
+        return entry.coverageLayer();
+    }
+
+
+
+    /**
+     * Removes the coverage layer of a print template from the cache.
+     *
+     * @param baseUrl        the URL of the QGIS Server
+     * @param projectPath    the path of the QGIS project on the server
+     * @param templateLayout the name of the print layout
+     */
+    public final void invalidate(final String baseUrl, final String projectPath, final String templateLayout) {
+        final Key key = new Key(baseUrl, projectPath, templateLayout);
+
+        if (this.entries.remove(key) != null) {
+            this.logger.debug("The cached coverage layer for {} has been discarded.", key);
+        }
+    }
+
+
+
+    /**
+     * Removes all the cached coverage layers.
+     */
+    public final void invalidateAll() {
+        this.entries.clear();
+    }
+
+
+
+    /**
+     * Stores the coverage layer of a print template.
+     *
+     * @param baseUrl        the URL of the QGIS Server
+     * @param projectPath    the path of the QGIS project on the server
+     * @param templateLayout the name of the print layout
+     * @param coverageLayer  the name of the coverage layer
+     * @param timeToLive     how long the coverage layer can be used before it must be fetched again
+     */
+    public final void put(final String baseUrl, final String projectPath, final String templateLayout,
+                          final String coverageLayer, final Duration timeToLive) {
+
+        if (coverageLayer == null || coverageLayer.isEmpty() || timeToLive == null || timeToLive.isNegative()
+                || timeToLive.isZero()) {
+            return;
+        }
+
+        this.entries.put(new Key(baseUrl, projectPath, templateLayout),
+                         new Entry(coverageLayer, this.clock.instant().plus(timeToLive)));
+    }
+
+
+
+    /**
+     * The parameters that identify a coverage layer.
+     *
+     * @param baseUrl        the URL of the QGIS Server
+     * @param projectPath    the path of the QGIS project on the server
+     * @param templateLayout the name of the print layout
+     */
+    private record Key(String baseUrl, String projectPath, String templateLayout) {
+    }
+
+
+
+    /**
+     * A cached coverage layer.
+     *
+     * @param coverageLayer the name of the coverage layer
+     * @param expiry        when the coverage layer must be fetched again
+     */
+    private record Entry(String coverageLayer, Instant expiry) {
+    }
+
+}
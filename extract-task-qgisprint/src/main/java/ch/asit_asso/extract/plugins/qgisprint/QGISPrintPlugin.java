@@ -17,15 +17,17 @@
 package ch.asit_asso.extract.plugins.qgisprint;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Map;
@@ -130,6 +132,11 @@ public class QGISPrintPlugin implements ITaskProcessor {
 
     private static final int SUCCESS_HTTP_STATUS_CODE = 200;
 
+    /**
+     * The atlas coverage layers already read in the project settings, shared by all the instances of this plugin.
+     */
+    private static final CoverageLayerCache COVERAGE_LAYERS_CACHE = new CoverageLayerCache();
+
     /**
      * The strings that this plugin can send to the user in the language of the user interface.
      */
@@ -398,12 +405,22 @@ public class QGISPrintPlugin implements ITaskProcessor {
             */
 
             //get coverage layer
-            String coverageLayer = getCoverageLayer(baseurl, templateLayout, pathProject );
+            String coverageLayer = this.getCachedCoverageLayer(baseurl, templateLayout, pathProject);
             if(coverageLayer == null || coverageLayer.isEmpty())
                 throw new Exception(this.messages.getString("plugin.error.coveragelayer"));
 
             //get feature Ids
-            ArrayList<String> listFeatureIds = this.getFeatureIds(baseurl, pathProject, coverageLayer, request.getPerimeter());
+            ArrayList<String> listFeatureIds;
+
+            try {
+                listFeatureIds = this.getFeatureIds(baseurl, pathProject, coverageLayer, request.getPerimeter());
+
+            } catch (Exception exception) {
+                // The project may have changed since the coverage layer was cached
+                QGISPrintPlugin.COVERAGE_LAYERS_CACHE.invalidate(baseurl, pathProject, templateLayout);
+                throw exception;
+            }
+
             if(listFeatureIds.isEmpty())
                 throw new Exception(this.messages.getString("plugin.error.getFeature.noids"));
 
@@ -425,6 +442,48 @@ public class QGISPrintPlugin implements ITaskProcessor {
         }
     }
 
+    /**
+     * Discards the atlas coverage layer cached for the server, project and layout of this task, so that the
+     * project settings are read again at the next print.
+     */
+    @Override
+    public final void invalidateCache() {
+
+        if (this.inputs == null) {
+            return;
+        }
+
+        QGISPrintPlugin.COVERAGE_LAYERS_CACHE.invalidate(this.inputs.get(this.config.getProperty("paramUrl")),
+                this.inputs.get(this.config.getProperty("paramPathProjectQGIS")),
+                this.inputs.get(this.config.getProperty("paramTemplateLayout")));
+    }
+
+    /**
+     * Obtains the atlas coverage layer of a print template, from the cache if it has been read recently.
+     *
+     * @param baseUrl QGIS Server url
+     * @param templateLayout template layout (e.g. myplan)
+     * @param pathQGS path for the qgis project
+     * @return the name of the coverage layer
+     * @throws Exception the project settings could not be read
+     */
+    private String getCachedCoverageLayer(String baseUrl, String templateLayout, String pathQGS)
+            throws Exception {
+
+        String coverageLayer = QGISPrintPlugin.COVERAGE_LAYERS_CACHE.get(baseUrl, pathQGS, templateLayout);
+
+        if (coverageLayer != null) {
+            this.logger.debug("Using the cached coverage layer {}.", coverageLayer);
+            return coverageLayer;
+        }
+
+        coverageLayer = this.getCoverageLayer(baseUrl, templateLayout, pathQGS);
+        QGISPrintPlugin.COVERAGE_LAYERS_CACHE.put(baseUrl, pathQGS, templateLayout, coverageLayer,
+                Duration.ofSeconds(Long.parseLong(this.config.getProperty("getProjectSettings.cache.ttl"))));
+
+        return coverageLayer;
+    }
+
     /**
      * Execute the query GetProjectSettings for the qgis service passed in parameter.
      * This query allows to retrieve the coverage layer.
@@ -544,6 +603,7 @@ public class QGISPrintPlugin implements ITaskProcessor {
             listCoords.append(coord.getX()).append(" ").append(coord.getY()).append(" ");
         }
         gml = gml.replace(this.config.getProperty("template.coordinates.key"), listCoords.toString());
+        gml = gml.replace(this.config.getProperty("template.propertynames.key"), this.getPropertyNamesElements());
 
         //GMLWriter gmlWriter = new GMLWriter(true);
         //String gml = gmlWriter.write(geom);
@@ -551,6 +611,34 @@ public class QGISPrintPlugin implements ITaskProcessor {
         return gml;
     }
 
+    /**
+     * Builds the WFS elements that restrict the properties returned by the GetFeature query. Since only the
+     * feature identifiers are read, this avoids transferring the geometries and attributes of the coverage
+     * features when the server supports it.
+     *
+     * @return the property name elements, or an empty string to return all the properties
+     */
+    private String getPropertyNamesElements() {
+        final String propertyNames = this.config.getProperty("getFeature.propertyNames");
+
+        if (StringUtils.isBlank(propertyNames)) {
+            return "";
+        }
+
+        StringBuilder elements = new StringBuilder();
+
+        for (String propertyName : propertyNames.split(",")) {
+
+            if (StringUtils.isBlank(propertyName)) {
+                continue;
+            }
+
+            elements.append("<wfs:PropertyName>").append(propertyName.trim()).append("</wfs:PropertyName>");
+        }
+
+        return elements.toString();
+    }
+
     /**
      * Creates the content of the HTTP request with the perimeter request on body
      *
@@ -637,27 +725,16 @@ public class QGISPrintPlugin implements ITaskProcessor {
         }
 
         this.logger.debug("HTTP GetFeature was successful. Response was {}.", response);
-        final String responseString = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+        final HttpEntity responseEntity = response.getEntity();
 
-        if(responseString.isEmpty())
+        if (responseEntity == null)
             throw new Exception(this.messages.getString("plugin.error.getFeature.responseempty"));
 
-        Document document = XMLUtils.parseSecure(responseString);
-
-        XPathFactory xPathfactory = XPathFactory.newInstance();
-        XPath xpath = xPathfactory.newXPath();
-
-        final NodeList idsList = this.getXMLNodeListFromXPath(document,
-                String.format(this.config.getProperty("getFeature.xpath.gmlId"), coverageLayer));
-        ArrayList<String> ids = new ArrayList<String>();
-
-        for (int itemIndex = 0; itemIndex < idsList.getLength(); itemIndex++) {
-            String id = QgisUtils.getIdFromGmlIdString(idsList.item(itemIndex).getTextContent());
-            this.logger.debug("Id to add is \"{}\"", id);
-            ids.add(id);
+        // The response can contain thousands of features, so it is parsed as it is received. An empty body, whose
+        // length may be unknown if it is chunked, yields no ids.
+        try (InputStream responseStream = responseEntity.getContent()) {
+            return new ArrayList<>(QgisUtils.getFeatureIdsFromStream(responseStream, coverageLayer));
         }
-
-        return ids;
     }
 
     /**
@@ -721,16 +798,10 @@ public class QGISPrintPlugin implements ITaskProcessor {
 
                 this.logger.debug("HTTP GetPrint was successful. Response was {}.", response);
 
-                //responseString = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+                // The document is written to the output folder as it is received to avoid holding it in memory
                 try (InputStream is = response.getEntity().getContent()) {
                     final File outputFile = new File(destinationFolder, destinationFolder.getName() + ".pdf");
-                    FileOutputStream fos = new FileOutputStream(outputFile);
-                    int inByte;
-                    while ((inByte = is.read()) != -1)
-                        fos.write(inByte);
-                    is.close();
-                    fos.close();
-
+                    Files.copy(is, outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
                 }
                 result.setErrorCode("");
                 result.setMessage(this.messages.getString("plugin.executing.success"));
@@ -830,29 +901,6 @@ public class QGISPrintPlugin implements ITaskProcessor {
         return "";
     }
 
-    /**
-     * Obtains all the XML items that match an XPath expression.
-     *
-     * @param document the XML document to parse
-     * @param xmlPath  the XPath expression
-     * @return a node list that contains the found items
-     */
-    private NodeList getXMLNodeListFromXPath(final Document document, final String xmlPath) {
-
-        NodeList nodeList = null;
-        XPathFactory xPathfactory = XPathFactory.newInstance();
-        XPath xpath = xPathfactory.newXPath();
-
-        try {
-            XPathExpression expr = xpath.compile(xmlPath);
-            nodeList = (NodeList) expr.evaluate(document, XPathConstants.NODESET);
-        } catch (XPathExpressionException e) {
-            this.logger.error("Unable to retrieve xml node from xpath.", e);
-        }
-
-        return nodeList;
-    }
-
     /**
      * Builds a host object for the server mentioned in a URI.
      *
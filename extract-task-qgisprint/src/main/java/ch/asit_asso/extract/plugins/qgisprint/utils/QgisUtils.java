@@ -1,5 +1,14 @@
 package ch.asit_asso.extract.plugins.qgisprint.utils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,4 +31,102 @@ public abstract class QgisUtils {
         return gmlIdText.substring(lastDotIndex + 1);
     }
 
+
+
+    /**
+     * Reads the identifiers of the features in a WFS GetFeature response as it is received, so that the
+     * response document never needs to be held in memory.
+     *
+     * @param responseStream the stream of the GetFeature response body
+     * @param featureType    the name of the feature type whose identifiers must be read
+     * @return the list of feature identifiers, without their feature type prefix. The list is empty if the response
+     *         body is empty.
+     * @throws IOException        the response body could not be read
+     * @throws XMLStreamException the response is not a valid XML document
+     */
+    public static List<String> getFeatureIdsFromStream(InputStream responseStream, String featureType)
+            throws IOException, XMLStreamException {
+        final List<String> ids = new ArrayList<>();
+        final PushbackInputStream bodyStream = new PushbackInputStream(responseStream);
+        final int firstByte = bodyStream.read();
+
+        if (firstByte < 0) {
+            QgisUtils.logger.debug("The GetFeature response body is empty.");
+            return ids;
+        }
+
+        bodyStream.unread(firstByte);
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+
+        final XMLStreamReader reader = factory.createXMLStreamReader(bodyStream);
+        int depth = 0;
+        boolean inFeatureMember = false;
+
+        try {
+
+            while (reader.hasNext()) {
+                final int event = reader.next();
+
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+
+                    if (depth == 1) {
+                        inFeatureMember = false;
+                    }
+
+                    continue;
+                }
+
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+
+                depth++;
+                final String elementName = reader.getLocalName();
+
+                if (depth == 1) {
+
+                    if (!"FeatureCollection".equals(elementName)) {
+                        QgisUtils.logger.debug("The root element {} is not a feature collection.", elementName);
+                        return ids;
+                    }
+
+                } else if (depth == 2) {
+                    inFeatureMember = "featureMember".equals(elementName) || "featureMembers".equals(elementName);
+
+                } else if (depth == 3 && inFeatureMember && featureType.equals(elementName)) {
+                    final String gmlId = QgisUtils.getIdAttribute(reader);
+
+                    if (gmlId != null) {
+                        final String id = QgisUtils.getIdFromGmlIdString(gmlId);
+                        QgisUtils.logger.debug("Id to add is \"{}\"", id);
+                        ids.add(id);
+                    }
+                }
+            }
+
+        } finally {
+            reader.close();
+        }
+
+        return ids;
+    }
+
+
+
+    private static String getIdAttribute(XMLStreamReader reader) {
+
+        for (int attributeIndex = 0; attributeIndex < reader.getAttributeCount(); attributeIndex++) {
+
+            if ("id".equals(reader.getAttributeLocalName(attributeIndex))) {
+                return reader.getAttributeValue(attributeIndex);
+            }
+        }
+
+        return null;
+    }
+
 }
@@ -0,0 +1,129 @@
+package ch.asit_asso.extract.plugins.qgisprint;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CoverageLayerCache")
+class CoverageLayerCacheTest {
+
+    private static final String BASE_URL = "https://qgis.example.com/ows";
+    private static final String PROJECT_PATH = "/data/project.qgs";
+    private static final String LAYOUT = "myplan";
+    private static final String COVERAGE_LAYER = "parcels";
+
+    private MutableClock clock;
+    private CoverageLayerCache cache;
+
+
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        cache = new CoverageLayerCache(clock);
+    }
+
+
+
+    @Test
+    @DisplayName("Returns the cached layer before it expires")
+    void returnsCachedLayer() {
+        cache.put(BASE_URL, PROJECT_PATH, LAYOUT, COVERAGE_LAYER, Duration.ofMinutes(5));
+        clock.advance(Duration.ofMinutes(4));
+
+        assertEquals(COVERAGE_LAYER, cache.get(BASE_URL, PROJECT_PATH, LAYOUT));
+    }
+
+
+
+    @Test
+    @DisplayName("Discards the cached layer once it has expired")
+    void discardsExpiredLayer() {
+        cache.put(BASE_URL, PROJECT_PATH, LAYOUT, COVERAGE_LAYER, Duration.ofMinutes(5));
+        clock.advance(Duration.ofMinutes(5));
+
+        assertNull(cache.get(BASE_URL, PROJECT_PATH, LAYOUT));
+    }
+
+
+
+    @Test
+    @DisplayName("Keys the entries by server, project and layout")
+    void keysEntriesByAllParameters() {
+        cache.put(BASE_URL, PROJECT_PATH, LAYOUT, COVERAGE_LAYER, Duration.ofMinutes(5));
+
+        assertNull(cache.get(BASE_URL, PROJECT_PATH, "otherplan"));
+        assertNull(cache.get(BASE_URL, "/data/other.qgs", LAYOUT));
+        assertNull(cache.get("https://other.example.com/ows", PROJECT_PATH, LAYOUT));
+    }
+
+
+
+    @Test
+    @DisplayName("Supports projects without path")
+    void supportsNullProjectPath() {
+        cache.put(BASE_URL, null, LAYOUT, COVERAGE_LAYER, Duration.ofMinutes(5));
+
+        assertEquals(COVERAGE_LAYER, cache.get(BASE_URL, null, LAYOUT));
+    }
+
+
+
+    @Test
+    @DisplayName("Removes an invalidated entry")
+    void invalidatesEntry() {
+        cache.put(BASE_URL, PROJECT_PATH, LAYOUT, COVERAGE_LAYER, Duration.ofMinutes(5));
+
+        cache.invalidate(BASE_URL, PROJECT_PATH, LAYOUT);
+
+        assertNull(cache.get(BASE_URL, PROJECT_PATH, LAYOUT));
+    }
+
+
+
+    @Test
+    @DisplayName("Does not store empty layers or a zero time-to-live")
+    void ignoresUncacheableValues() {
+        cache.put(BASE_URL, PROJECT_PATH, LAYOUT, "", Duration.ofMinutes(5));
+        assertNull(cache.get(BASE_URL, PROJECT_PATH, LAYOUT));
+
+        cache.put(BASE_URL, PROJECT_PATH, LAYOUT, COVERAGE_LAYER, Duration.ZERO);
+        assertNull(cache.get(BASE_URL, PROJECT_PATH, LAYOUT));
+    }
+
+
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant start) {
+            now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -108,9 +108,6 @@ class PluginConfigurationTest {
 
         String atlasCoverageXpath = config.getProperty("getProjectSettings.xpath.atlasCoverageLayer");
         assertNotNull(atlasCoverageXpath);
-
-        String gmlIdXpath = config.getProperty("getFeature.xpath.gmlId");
-        assertNotNull(gmlIdXpath);
     }
 
     @Test
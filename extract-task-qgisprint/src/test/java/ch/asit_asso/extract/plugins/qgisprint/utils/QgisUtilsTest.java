@@ -1,5 +1,8 @@
 package ch.asit_asso.extract.plugins.qgisprint.utils;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -188,4 +191,78 @@ class QgisUtilsTest {
 
         assertEquals("123", id);
     }
+
+    @Test
+    void getFeatureIdsFromGetFeatureResponse() throws Exception {
+        String response = """
+            <wfs:FeatureCollection xmlns:wfs="http://www.opengis.net/wfs" xmlns:gml="http://www.opengis.net/gml"
+                                   xmlns:qgs="http://www.qgis.org/gml">
+              <gml:boundedBy><gml:Box><gml:coordinates>0,0 1,1</gml:coordinates></gml:Box></gml:boundedBy>
+              <gml:featureMember>
+                <qgs:parcels gml:id="parcels.12">
+                  <qgs:geometry><gml:Point gml:id="point.1"><gml:pos>0 0</gml:pos></gml:Point></qgs:geometry>
+                </qgs:parcels>
+              </gml:featureMember>
+              <gml:featureMember>
+                <qgs:other gml:id="other.99"/>
+              </gml:featureMember>
+              <gml:featureMember>
+                <qgs:parcels gml:id="parcels.34"/>
+              </gml:featureMember>
+            </wfs:FeatureCollection>
+        """;
+
+        List<String> ids = QgisUtils.getFeatureIdsFromStream(
+                new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)), "parcels");
+
+        assertEquals(List.of("12", "34"), ids);
+    }
+
+    @Test
+    void getFeatureIdsFromFeatureMembersResponse() throws Exception {
+        String response = """
+            <wfs:FeatureCollection xmlns:wfs="http://www.opengis.net/wfs" xmlns:gml="http://www.opengis.net/gml">
+              <gml:featureMembers>
+                <parcels gml:id="parcels.1"/>
+                <parcels gml:id="parcels.2"/>
+              </gml:featureMembers>
+            </wfs:FeatureCollection>
+        """;
+
+        List<String> ids = QgisUtils.getFeatureIdsFromStream(
+                new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)), "parcels");
+
+        assertEquals(List.of("1", "2"), ids);
+    }
+
+    @Test
+    void getFeatureIdsFromExceptionReport() throws Exception {
+        String response = """
+            <ServiceExceptionReport><ServiceException>Error</ServiceException></ServiceExceptionReport>
+        """;
+
+        List<String> ids = QgisUtils.getFeatureIdsFromStream(
+                new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)), "parcels");
+
+        assertTrue(ids.isEmpty());
+    }
+
+    @Test
+    void getFeatureIdsFromEmptyResponse() throws Exception {
+        List<String> ids = QgisUtils.getFeatureIdsFromStream(new ByteArrayInputStream(new byte[0]), "parcels");
+
+        assertTrue(ids.isEmpty());
+    }
+
+    @Test
+    void getFeatureIdsRejectsDoctype() {
+        String response = """
+            <?xml version="1.0"?>
+            <!DOCTYPE foo [<!ENTITY xxe SYSTEM "file:///etc/passwd">]>
+            <FeatureCollection><featureMember><parcels id="&xxe;"/></featureMember></FeatureCollection>
+        """.strip();
+
+        assertThrows(Exception.class, () -> QgisUtils.getFeatureIdsFromStream(
+                new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)), "parcels"));
+    }
 }
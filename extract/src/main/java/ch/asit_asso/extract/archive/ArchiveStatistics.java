@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.archive;
+
+import java.util.Calendar;
+
+
+
+/**
+ * The figures that describe how the requests are split between the active tables and the archive tables.
+ *
+ * @author Yves Grasset
+ */
+public class ArchiveStatistics {
+
+    /**
+     * The number of requests in the active tables, whatever their state.
+     */
+    private final long activeRequestsCount;
+
+    /**
+     * The space used on the disk by the active tables, in bytes.
+     */
+    private final long activeTablesSize;
+
+    /**
+     * The number of requests that have been moved to the archive tables.
+     */
+    private final long archivedRequestsCount;
+
+    /**
+     * The space used on the disk by the archive tables, in bytes.
+     */
+    private final long archiveTablesSize;
+
+    /**
+     * The number of requests that were archived by the last run of the archival job.
+     */
+    private final int lastRunArchivedCount;
+
+    /**
+     * When the archival job ran for the last time, or <code>null</code> if it has not run since the application
+     * started.
+     */
+    private final Calendar lastRunDate;
+
+    /**
+     * The number of days after which a finished request is archived, or <code>0</code> if the requests are not
+     * archived.
+     */
+    private final int maximumAge;
+
+
+
+    /**
+     * Creates a new statistics instance.
+     *
+     * @param activeCount   the number of requests in the active tables
+     * @param activeSize    the space used on the disk by the active tables, in bytes
+     * @param archivedCount the number of requests that have been moved to the archive tables
+     * @param archiveSize   the space used on the disk by the archive tables, in bytes
+     * @param ageInDays     the number of days after which a finished request is archived, or <code>0</code> if the
+     *                      requests are not archived
+     * @param lastRun       when the archival job ran for the last time, or <code>null</code> if it has not run yet
+     * @param lastRunCount  the number of requests that were archived by the last run of the archival job
+     */
+    public ArchiveStatistics(final long activeCount, final long activeSize, final long archivedCount,
+            final long archiveSize, final int ageInDays, final Calendar lastRun, final int lastRunCount) {
+
+        if (activeCount < 0 || activeSize < 0 || archivedCount < 0 || archiveSize < 0 || lastRunCount < 0) {
+            throw new IllegalArgumentException("The counts and sizes cannot be negative.");
+        }
+
+        if (ageInDays < 0) {
+            throw new IllegalArgumentException("The maximum age cannot be negative.");
+        }
+
+        this.activeRequestsCount = activeCount;
+        this.activeTablesSize = activeSize;
+        this.archivedRequestsCount = archivedCount;
+        this.archiveTablesSize = archiveSize;
+        this.maximumAge = ageInDays;
+        this.lastRunDate = lastRun;
+        this.lastRunArchivedCount = lastRunCount;
+    }
+
+
+
+    /**
+     * Obtains the number of requests in the active tables, whatever their state.
+     *
+     * @return the number of active requests
+     */
+    public final long getActiveRequestsCount() {
+        return this.activeRequestsCount;
+    }
+
+
+
+    /**
+     * Obtains the space used on the disk by the active tables.
+     *
+     * @return the size of the active tables in bytes
+     */
+    public final long getActiveTablesSize() {
+        return this.activeTablesSize;
+    }
+
+
+
+    /**
+     * Obtains the number of requests that have been moved to the archive tables.
+     *
+     * @return the number of archived requests
+     */
+    public final long getArchivedRequestsCount() {
+        return this.archivedRequestsCount;
+    }
+
+
+
+    /**
+     * Obtains the space used on the disk by the archive tables.
+     *
+     * @return the size of the archive tables in bytes
+     */
+    public final long getArchiveTablesSize() {
+        return this.archiveTablesSize;
+    }
+
+
+
+    /**
+     * Obtains the number of requests that were archived by the last run of the archival job.
+     *
+     * @return the number of requests archived by the last run
+     */
+    public final int getLastRunArchivedCount() {
+        return this.lastRunArchivedCount;
+    }
+
+
+
+    /**
+     * Obtains when the archival job ran for the last time.
+     *
+     * @return the date of the last run, or <code>null</code> if the job has not run since the application started
+     */
+    public final Calendar getLastRunDate() {
+        return this.lastRunDate;
+    }
+
+
+
+    /**
+     * Obtains the number of days after which a finished request is archived.
+     *
+     * @return the maximum age of the finished requests in the active tables, or <code>0</code> if the requests are
+     *         not archived
+     */
+    public final int getMaximumAge() {
+        return this.maximumAge;
+    }
+
+
+
+    /**
+     * Obtains whether the finished requests are moved to the archive tables.
+     *
+     * @return <code>true</code> if the archival job is turned on
+     */
+    public final boolean isArchivingEnabled() {
+        return this.maximumAge > 0;
+    }
+
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.archive;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import ch.asit_asso.extract.domain.ArchivedRequest;
+import ch.asit_asso.extract.domain.ArchivedRequestHistoryRecord;
+import ch.asit_asso.extract.domain.FinishedRequest;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.domain.RequestHistoryRecord;
+import ch.asit_asso.extract.persistence.ArchivedRequestHistoryRepository;
+import ch.asit_asso.extract.persistence.ArchivedRequestsRepository;
+import ch.asit_asso.extract.persistence.FinishedRequestsRepository;
+import ch.asit_asso.extract.persistence.RequestsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+
+/**
+ * The access to the finished requests, whether they are still in the active tables or have been moved to the
+ * archive tables, and the job that moves the old ones to the archive.
+ * <p>
+ * The requests that finished more than a configured number of days ago are moved in batches, with their history and
+ * the list of the users allowed to see them, by the <code>archive_finished_requests</code> database function
+ * defined in <code>update_db.sql</code>. The archived requests are returned as detached read-only copies.
+ *
+ * @author Yves Grasset
+ */
+@Component
+public class RequestsArchive {
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(RequestsArchive.class);
+
+    /**
+     * The link between the history of the archived requests and the database.
+     */
+    private final ArchivedRequestHistoryRepository archivedHistoryRepository;
+
+    /**
+     * The link between the archived requests and the database.
+     */
+    private final ArchivedRequestsRepository archivedRequestsRepository;
+
+    /**
+     * The maximum number of requests moved in the same transaction.
+     */
+    private final int batchSize;
+
+    /**
+     * The link between the searchable fields of the finished requests and the database.
+     */
+    private final FinishedRequestsRepository finishedRequestsRepository;
+
+    /**
+     * The number of requests that were archived by the last run of the job.
+     */
+    private int lastRunArchivedCount;
+
+    /**
+     * When the job ran for the last time, or <code>null</code> if it has not run since the application started.
+     */
+    private Calendar lastRunDate;
+
+    /**
+     * The object that guards the information about the last run of the job.
+     */
+    private final Object lastRunLock = new Object();
+
+    /**
+     * The number of days after which a finished request is archived, or <code>0</code> not to archive the requests.
+     */
+    private final int maximumAge;
+
+    /**
+     * The link between the requests and the database.
+     */
+    private final RequestsRepository requestsRepository;
+
+    /**
+     * The object that runs the batches in transactions.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+
+
+    /**
+     * Creates a new instance of the archive.
+     *
+     * @param requests           the link between the requests and the database
+     * @param archivedRequests   the link between the archived requests and the database
+     * @param archivedHistory    the link between the history of the archived requests and the database
+     * @param finishedRequests   the link between the searchable fields of the finished requests and the database
+     * @param transactionManager the object that manages the transactions with the data source
+     * @param ageInDays          the number of days after which a finished request is archived, or <code>0</code> not
+     *                           to archive the requests
+     * @param requestsPerBatch   the maximum number of requests moved in the same transaction
+     */
+    public RequestsArchive(final RequestsRepository requests, final ArchivedRequestsRepository archivedRequests,
+            final ArchivedRequestHistoryRepository archivedHistory, final FinishedRequestsRepository finishedRequests,
+            final PlatformTransactionManager transactionManager,
+            @Value("${extract.archive.age:365}") final int ageInDays,
+            @Value("${extract.archive.batchSize:500}") final int requestsPerBatch) {
+
+        if (requests == null) {
+            throw new IllegalArgumentException("The requests repository cannot be null.");
+        }
+
+        if (archivedRequests == null) {
+            throw new IllegalArgumentException("The archived requests repository cannot be null.");
+        }
+
+        if (archivedHistory == null) {
+            throw new IllegalArgumentException("The archived request history repository cannot be null.");
+        }
+
+        if (finishedRequests == null) {
+            throw new IllegalArgumentException("The finished requests repository cannot be null.");
+        }
+
+        if (transactionManager == null) {
+            throw new IllegalArgumentException("The transaction manager cannot be null.");
+        }
+
+        if (ageInDays < 0) {
+            throw new IllegalArgumentException("The age of the requests to archive cannot be negative.");
+        }
+
+        if (requestsPerBatch < 1) {
+            throw new IllegalArgumentException("The batch size must be greater than 0.");
+        }
+
+        this.requestsRepository = requests;
+        this.archivedRequestsRepository = archivedRequests;
+        this.archivedHistoryRepository = archivedHistory;
+        this.finishedRequestsRepository = finishedRequests;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maximumAge = ageInDays;
+        this.batchSize = requestsPerBatch;
+    }
+
+
+
+    /**
+     * Moves the requests that finished more than the configured number of days ago to the archive tables. Each
+     * batch is moved in its own transaction, so that the active tables are not locked for the whole run.
+     */
+    @Scheduled(fixedDelayString = "${extract.archive.interval:3600000}",
+               initialDelayString = "${extract.archive.interval:3600000}")
+    public void archiveFinishedRequests() {
+
+        if (this.maximumAge == 0) {
+            return;
+        }
+
+        final Calendar endDateLimit = new GregorianCalendar();
+        endDateLimit.add(Calendar.DAY_OF_MONTH, -this.maximumAge);
+        this.logger.debug("Archiving the requests finished before {}.", endDateLimit.getTime());
+        int archivedCount = 0;
+
+        try {
+            Integer batchCount;
+
+            do {
+                batchCount = this.transactionTemplate.execute(
+                        (status) -> this.requestsRepository.archiveFinishedRequests(endDateLimit, this.batchSize));
+
+                if (batchCount != null) {
+                    archivedCount += batchCount;
+                }
+
+            } while (batchCount != null && batchCount >= this.batchSize);
+
+        } catch (DataAccessException exception) {
+            this.logger.error("The archival of the finished requests failed after {} request(s).", archivedCount,
+                    exception);
+        }
+
+        if (archivedCount > 0) {
+            this.logger.info("{} finished request(s) moved to the archive tables.", archivedCount);
+        }
+
+        synchronized (this.lastRunLock) {
+            this.lastRunArchivedCount = archivedCount;
+            this.lastRunDate = new GregorianCalendar();
+        }
+    }
+
+
+
+    /**
+     * Fetches a page of the finished requests, whether they are archived or not. The archived requests are detached
+     * read-only copies.
+     *
+     * @param criteria the filters that the requests must match
+     * @param paging   the page to fetch and the order of the requests
+     * @return the page of requests, in the requested order
+     */
+    public final Page<Request> findFinishedRequests(final Specification<FinishedRequest> criteria,
+            final Pageable paging) {
+
+        if (paging == null) {
+            throw new IllegalArgumentException("The paging information cannot be null.");
+        }
+
+        final Page<FinishedRequest> entries = this.finishedRequestsRepository.findAll(criteria, paging);
+        final List<Integer> activeIds = new ArrayList<>();
+        final List<Integer> archivedIds = new ArrayList<>();
+
+        for (FinishedRequest entry : entries) {
+            (entry.isArchived() ? archivedIds : activeIds).add(entry.getId());
+        }
+
+        final Map<Integer, Request> requestsById = new HashMap<>();
+
+        if (!activeIds.isEmpty()) {
+            this.requestsRepository.findAllById(activeIds).forEach((request) -> requestsById.put(request.getId(),
+                                                                                                  request));
+
+            // A request may have been archived since the page was read
+            activeIds.stream().filter((requestId) -> !requestsById.containsKey(requestId)).forEach(archivedIds::add);
+        }
+
+        if (!archivedIds.isEmpty()) {
+            this.archivedRequestsRepository.findAllById(archivedIds).forEach((archivedRequest) -> requestsById.put(
+                    archivedRequest.getId(), archivedRequest.toRequest()));
+        }
+
+        final List<Request> requests = new ArrayList<>();
+
+        for (FinishedRequest entry : entries) {
+            final Request request = requestsById.get(entry.getId());
+
+            if (request != null) {
+                requests.add(request);
+            }
+        }
+
+        return new PageImpl<>(requests, paging, entries.getTotalElements());
+    }
+
+
+
+    /**
+     * Fetches a request that has been moved to the archive tables.
+     *
+     * @param requestId the number that identifies the request
+     * @return a detached read-only copy of the archived request, or <code>null</code> if there is no archived
+     *         request with this identifier
+     */
+    public final Request findArchivedRequest(final int requestId) {
+        return this.archivedRequestsRepository.findById(requestId).map(ArchivedRequest::toRequest).orElse(null);
+    }
+
+
+
+    /**
+     * Fetches the history of a request that has been moved to the archive tables.
+     *
+     * @param archivedRequest the read-only copy of the archived request, as returned by
+     *                        {@link #findArchivedRequest(int)}
+     * @return detached read-only copies of the history records of the request in execution order
+     */
+    public final List<RequestHistoryRecord> findArchivedHistory(final Request archivedRequest) {
+
+        if (archivedRequest == null) {
+            throw new IllegalArgumentException("The archived request cannot be null.");
+        }
+
+        return this.findArchivedHistory(List.of(archivedRequest)).getOrDefault(archivedRequest.getId(), List.of());
+    }
+
+
+
+    /**
+     * Fetches the history of a set of requests that have been moved to the archive tables.
+     *
+     * @param archivedRequests the read-only copies of the archived requests, as returned by this object
+     * @return a map with detached read-only copies of the history records of each request in execution order, with
+     *         the request identifier as key
+     */
+    public final Map<Integer, List<RequestHistoryRecord>> findArchivedHistory(
+            final Collection<Request> archivedRequests) {
+
+        if (archivedRequests == null) {
+            throw new IllegalArgumentException("The archived requests collection cannot be null.");
+        }
+
+        final Map<Integer, Request> requestsById = new HashMap<>();
+
+        for (Request archivedRequest : archivedRequests) {
+
+            if (!archivedRequest.isArchived()) {
+                throw new IllegalArgumentException("The requests must be copies of archived requests.");
+            }
+
+            requestsById.put(archivedRequest.getId(), archivedRequest);
+        }
+
+        final Map<Integer, List<RequestHistoryRecord>> historyByRequest = new HashMap<>();
+
+        if (requestsById.isEmpty()) {
+            return historyByRequest;
+        }
+
+        for (ArchivedRequestHistoryRecord record
+                : this.archivedHistoryRepository.findByRequestIdIn(requestsById.keySet())) {
+            final Request archivedRequest = requestsById.get(record.getRequestId());
+            historyByRequest.computeIfAbsent(archivedRequest.getId(), (requestId) -> new ArrayList<>())
+                            .add(record.toHistoryRecord(archivedRequest));
+        }
+
+        return historyByRequest;
+    }
+
+
+
+    /**
+     * Obtains the number of finished requests, whether they are archived or not.
+     *
+     * @return the number of requests
+     */
+    public final long countRequests() {
+        return this.requestsRepository.count() + this.archivedRequestsRepository.count();
+    }
+
+
+
+    /**
+     * Obtains whether a user was allowed to see a request when it was moved to the archive tables.
+     *
+     * @param requestId the number that identifies the archived request
+     * @param userId    the number that identifies the user
+     * @return <code>true</code> if the user can see the archived request
+     */
+    public final boolean isVisibleTo(final int requestId, final int userId) {
+        return this.requestsRepository.isArchivedRequestVisibleTo(requestId, userId);
+    }
+
+
+
+    /**
+     * Obtains the figures that describe how the requests are split between the active tables and the archive
+     * tables.
+     *
+     * @return the statistics, or <code>null</code> if they could not be read from the database
+     */
+    public final ArchiveStatistics getStatistics() {
+        final Calendar runDate;
+        final int runCount;
+
+        synchronized (this.lastRunLock) {
+            runDate = this.lastRunDate;
+            runCount = this.lastRunArchivedCount;
+        }
+
+        try {
+            return new ArchiveStatistics(this.requestsRepository.count(),
+                    this.requestsRepository.getActiveTablesSize(), this.archivedRequestsRepository.count(),
+                    this.requestsRepository.getArchiveTablesSize(), this.maximumAge, runDate, runCount);
+
+        } catch (DataAccessException exception) {
+            this.logger.error("Could not read the statistics of the requests archive.", exception);
+            return null;
+        }
+    }
+
+}
@@ -26,6 +26,7 @@ import ch.asit_asso.extract.domain.Process;
 import ch.asit_asso.extract.domain.User;
 import ch.asit_asso.extract.email.LocaleUtils;
 import ch.asit_asso.extract.email.UnmatchedRequestEmail;
+import ch.asit_asso.extract.email.NotificationDigest;
 import ch.asit_asso.extract.persistence.RulesRepository;
 import ch.asit_asso.extract.persistence.UsersRepository;
 import ch.asit_asso.extract.requestmatching.RequestMatcher;
@@ -138,6 +139,43 @@ public class RequestMatchingProcessor implements ItemProcessor<Request, Request>
 
 
 
+    /**
+     * Attempts again to match a request that did not match any rule. Unlike {@link #process(Request)}, the
+     * administrators are not notified if the request still does not match.
+     *
+     * @param request the unmatched request
+     * @param rules   the active rules of the connector that imported the request, ordered by position
+     * @return <code>true</code> if the request matched a rule and can now be processed
+     */
+    public final boolean rematch(final Request request, final List<Rule> rules) {
+
+        if (request == null) {
+            throw new IllegalArgumentException("The request cannot be null.");
+        }
+
+        if (rules == null) {
+            throw new IllegalArgumentException("The rules list cannot be null.");
+        }
+
+        if (request.getStatus() != Status.UNMATCHED) {
+            this.logger.debug("Request {} is not unmatched anymore.", request.getId());
+            return false;
+        }
+
+        final Rule matchingRule = new RequestMatcher(request).matchRequestWithRules(rules);
+
+        if (matchingRule == null) {
+            this.logger.debug("Request {} still does not match any rule.", request.getId());
+            return false;
+        }
+
+        assert matchingRule.getProcess() != null : "The process defined for the matching must be set.";
+
+        return this.setRequestToMatched(request, matchingRule.getProcess()).getStatus() == Status.ONGOING;
+    }
+
+
+
     /**
      * Checks the rules defined for the connector that imported the request to see if one matches.
      *
@@ -251,6 +289,14 @@ public class RequestMatchingProcessor implements ItemProcessor<Request, Request>
     private void sendEmailToAdmins(final Request request) {
         assert request != null : "The request must be set.";
 
+        final NotificationDigest digest = this.emailSettings.getNotificationDigest();
+
+        if (digest != null) {
+            this.logger.debug("Adding the unmatched request {} to the notification digest.", request.getId());
+            digest.addUnmatchedRequest(request);
+            return;
+        }
+
         try {
             this.logger.debug("Sending e-mail notifications to administrators.");
 
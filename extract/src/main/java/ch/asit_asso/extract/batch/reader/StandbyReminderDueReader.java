@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.batch.reader;
+
+import java.util.ArrayDeque;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Queue;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.persistence.RequestsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ItemReader;
+
+
+
+/**
+ * An object that will fetch the requests in standby whose operators must be reminded of them. Only the requests
+ * that have never been reminded or whose last reminder is older than the reminder interval are read from the data
+ * source.
+ *
+ * @author Yves Grasset
+ */
+public class StandbyReminderDueReader implements ItemReader<Request> {
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(StandbyReminderDueReader.class);
+
+    /**
+     * The number of days between two reminders for the same request, or 0 if the reminders are turned off.
+     */
+    private final int daysBeforeReminder;
+
+    /**
+     * The collection that contains the requests due for a reminder that still have to be processed.
+     */
+    private Queue<Request> requestsQueue;
+
+    /**
+     * The link between the requests data objects and the database.
+     */
+    private final RequestsRepository requestsRepository;
+
+
+
+    /**
+     * Creates a new instance of the request reader.
+     *
+     * @param days       the number of days between two reminders for the same request, or 0 if the reminders are
+     *                   turned off
+     * @param repository the link between the request data objects and the data source
+     */
+    public StandbyReminderDueReader(final int days, final RequestsRepository repository) {
+
+        if (repository == null) {
+            throw new IllegalArgumentException("The requests repository cannot be null.");
+        }
+
+        if (days < 0) {
+            throw new IllegalArgumentException("The number of days before a reminder cannot be negative.");
+        }
+
+        this.requestsRepository = repository;
+        this.daysBeforeReminder = days;
+        this.fetchRequests();
+    }
+
+
+
+    /**
+     * Gets the next request to process.
+     *
+     * @return a request or <code>null</code> if none remains to be processed
+     */
+    @Override
+    public final Request read() {
+        assert this.requestsQueue != null : "The requests queue should be initialized by now.";
+
+        return this.requestsQueue.poll();
+    }
+
+
+
+    /**
+     * Reads the requests in standby that are due for a reminder.
+     */
+    private void fetchRequests() {
+        assert this.requestsRepository != null : "The requests repository must be set.";
+
+        if (this.daysBeforeReminder == 0) {
+            this.logger.debug("The standby reminders are turned off.");
+            this.requestsQueue = new ArrayDeque<>();
+            return;
+        }
+
+        final Calendar limit = new GregorianCalendar();
+        limit.add(Calendar.DAY_OF_MONTH, -this.daysBeforeReminder);
+
+        this.requestsQueue = new ArrayDeque<>(
+                this.requestsRepository.findByStatusAndReminderDue(Request.Status.STANDBY, limit));
+        int numberOfRequests = this.requestsQueue.size();
+        this.logger.debug("Found {} standby request{} due for a reminder.", numberOfRequests,
+                (numberOfRequests > 1) ? "s" : "");
+    }
+
+}
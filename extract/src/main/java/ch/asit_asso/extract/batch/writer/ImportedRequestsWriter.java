@@ -28,6 +28,7 @@ import ch.asit_asso.extract.domain.Request;
 import ch.asit_asso.extract.domain.RequestHistoryRecord;
 import ch.asit_asso.extract.email.EmailSettings;
 import ch.asit_asso.extract.email.InvalidProductImportedEmail;
+import ch.asit_asso.extract.email.NotificationDigest;
 import ch.asit_asso.extract.persistence.RequestHistoryRepository;
 import ch.asit_asso.extract.services.MessageService;
 import org.slf4j.Logger;
@@ -234,6 +235,14 @@ public class ImportedRequestsWriter implements ItemWriter<Request> {
         assert request.getConnector() != null : "The request connector cannot be null.";
         assert resultMessage != null : "The result error message cannot be null.";
 
+        final NotificationDigest digest = this.emailSettings.getNotificationDigest();
+
+        if (digest != null) {
+            this.logger.debug("Adding the invalid product of request {} to the notification digest.", request.getId());
+            digest.addInvalidProductImported(request, resultMessage, errorDate);
+            return;
+        }
+
         try {
             this.logger.debug("Sending e-mail notifications to administrators.");
 
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.configuration;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+
+
+/**
+ * The caches that keep the data that is read often and rarely modified. Each cache discards its entries after a
+ * given time, so that a modification made by another instance of the application is eventually taken into
+ * account. The entries are also removed as soon as the data they depend on is modified by this instance.
+ *
+ * @author Yves Grasset
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    /**
+     * The name of the cache that holds the operators of each process.
+     */
+    public static final String PROCESS_OPERATORS_CACHE = "processOperators";
+
+    /**
+     * The name of the cache that holds whether the application has been set up.
+     */
+    public static final String SETUP_CACHE = "setup";
+
+    /**
+     * The name of the cache that holds the user that system tasks are bound to.
+     */
+    public static final String SYSTEM_USER_CACHE = "systemUser";
+
+    /**
+     * The maximum number of processes whose operators are kept.
+     */
+    @Value("${cache.processOperators.maxSize:500}")
+    private int processOperatorsMaxSize;
+
+    /**
+     * The number of milliseconds during which the operators of a process are kept.
+     */
+    @Value("${cache.processOperators.ttl:300000}")
+    private long processOperatorsTimeToLive;
+
+    /**
+     * The number of milliseconds during which the setup state of the application is kept.
+     */
+    @Value("${cache.setup.ttl:60000}")
+    private long setupTimeToLive;
+
+    /**
+     * The number of milliseconds during which the system user is kept.
+     */
+    @Value("${cache.systemUser.ttl:3600000}")
+    private long systemUserTimeToLive;
+
+
+
+    /**
+     * Creates the object that manages the application caches.
+     *
+     * @return the cache manager
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        final SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                new ExpiringCache(CacheConfiguration.SETUP_CACHE, this.setupTimeToLive, 1),
+                new ExpiringCache(CacheConfiguration.SYSTEM_USER_CACHE, this.systemUserTimeToLive, 1),
+                new ExpiringCache(CacheConfiguration.PROCESS_OPERATORS_CACHE, this.processOperatorsTimeToLive,
+                        this.processOperatorsMaxSize)
+        ));
+
+        return cacheManager;
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+import ch.asit_asso.extract.filter.DatabaseWorkloadFilter;
+import ch.asit_asso.extract.persistence.DatabaseWorkload;
+import ch.asit_asso.extract.persistence.MeasuredConnectionPool;
+import ch.asit_asso.extract.persistence.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+
+
+
+/**
+ * The connections to the database. The web tier, the orchestrator pipeline and the background maintenance each
+ * obtain their connections from a separate pool, so that a burst of one of them cannot make the others wait.
+ *
+ * @author Yves Grasset
+ */
+@Configuration
+public class DataSourceConfiguration {
+
+    /**
+     * The number of milliseconds that a thread waits for a connection before it fails.
+     */
+    @Value("${extract.datasource.connectionTimeout:30000}")
+    private long connectionTimeout;
+
+    /**
+     * The maximum number of connections of the pool used by the background maintenance.
+     */
+    @Value("${extract.datasource.maintenance.maximumPoolSize:4}")
+    private int maintenancePoolSize;
+
+    /**
+     * The maximum number of connections of the pool used by the orchestrator jobs.
+     */
+    @Value("${extract.datasource.pipeline.maximumPoolSize:10}")
+    private int pipelinePoolSize;
+
+    /**
+     * The maximum number of connections of the pool used by the HTTP requests.
+     */
+    @Value("${extract.datasource.web.maximumPoolSize:10}")
+    private int webPoolSize;
+
+
+
+    /**
+     * Creates the data source that gives each thread a connection from the pool of its workload.
+     *
+     * @param properties the connection parameters defined by the <code>spring.datasource</code> properties
+     * @return the routing data source
+     */
+    @Bean
+    @Primary
+    public WorkloadRoutingDataSource dataSource(final DataSourceProperties properties) {
+        final Map<DatabaseWorkload, MeasuredConnectionPool> pools = new EnumMap<>(DatabaseWorkload.class);
+        pools.put(DatabaseWorkload.WEB, this.createPool(properties, DatabaseWorkload.WEB, this.webPoolSize));
+        pools.put(DatabaseWorkload.PIPELINE, this.createPool(properties, DatabaseWorkload.PIPELINE,
+                this.pipelinePoolSize));
+        pools.put(DatabaseWorkload.MAINTENANCE, this.createPool(properties, DatabaseWorkload.MAINTENANCE,
+                this.maintenancePoolSize));
+
+        return new WorkloadRoutingDataSource(pools);
+    }
+
+
+
+    /**
+     * Registers the filter that makes the HTTP requests use the web connection pool. It runs before any other
+     * filter, as the security filters may read the users from the database.
+     *
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<DatabaseWorkloadFilter> databaseWorkloadFilter() {
+        final FilterRegistrationBean<DatabaseWorkloadFilter> registration
+                = new FilterRegistrationBean<>(new DatabaseWorkloadFilter(DatabaseWorkload.WEB));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return registration;
+    }
+
+
+
+    /**
+     * Creates the connection pool of a workload.
+     *
+     * @param properties  the connection parameters defined by the <code>spring.datasource</code> properties
+     * @param workload    the work that will use the pool
+     * @param maximumSize the maximum number of connections of the pool
+     * @return the pool
+     */
+    private MeasuredConnectionPool createPool(final DataSourceProperties properties, final DatabaseWorkload workload,
+            final int maximumSize) {
+
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException(String.format("The size of the %s connection pool must be greater"
+                    + " than 0.", workload.getPoolName()));
+        }
+
+        final HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(String.format("extract-%s", workload.getPoolName()));
+        pool.setMaximumPoolSize(maximumSize);
+        pool.setMinimumIdle(Math.min(2, maximumSize));
+        pool.setConnectionTimeout(this.connectionTimeout);
+
+        return new MeasuredConnectionPool(pool);
+    }
+
+}
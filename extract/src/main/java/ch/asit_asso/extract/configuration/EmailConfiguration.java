@@ -18,10 +18,17 @@ package ch.asit_asso.extract.configuration;
 
 import java.util.Collections;
 import nz.net.ultraq.thymeleaf.layoutdialect.LayoutDialect;
+import ch.asit_asso.extract.email.EmailOutbox;
 import ch.asit_asso.extract.email.EmailSettings;
+import ch.asit_asso.extract.email.EmailTemplatesCache;
+import ch.asit_asso.extract.email.NotificationDigest;
+import ch.asit_asso.extract.persistence.EmailOutboxRepository;
+import ch.asit_asso.extract.persistence.SystemParametersCache;
 import ch.asit_asso.extract.persistence.SystemParametersRepository;
+import ch.asit_asso.extract.persistence.UsersRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -50,12 +57,69 @@ public class EmailConfiguration {
     @Value("${application.external.url}")
     private String applicationExternalUrl;
 
+    /**
+     * The maximum number of events of each type that can wait to be sent in a notification digest.
+     */
+    @Value("${email.digest.maxPendingEvents:1000}")
+    private int emailDigestMaxPendingEvents;
+
+    /**
+     * The maximum number of messages sent through a single SMTP connection.
+     */
+    @Value("${email.outbox.batchSize:50}")
+    private int emailOutboxBatchSize;
+
+    /**
+     * Whether the e-mail messages are put in an outbox to be sent in the background instead of being sent
+     * immediately.
+     */
+    @Value("${email.outbox.enabled:false}")
+    private boolean emailOutboxEnabled;
+
+    /**
+     * The number of days that an e-mail message that could not be sent is kept in the outbox, or 0 to keep it
+     * forever.
+     */
+    @Value("${email.outbox.failedRetention:30}")
+    private int emailOutboxFailedRetention;
+
+    /**
+     * The number of failed attempts after which an e-mail message is not sent anymore.
+     */
+    @Value("${email.outbox.maxAttempts:8}")
+    private int emailOutboxMaxAttempts;
+
+    /**
+     * The maximum number of milliseconds between two attempts to send an e-mail message.
+     */
+    @Value("${email.outbox.maxRetryDelay:3600000}")
+    private long emailOutboxMaxRetryDelay;
+
+    /**
+     * The number of milliseconds to wait before trying to send an e-mail message again for the first time.
+     */
+    @Value("${email.outbox.retryDelay:30000}")
+    private long emailOutboxRetryDelay;
+
+    /**
+     * The Spring Data object that links the outbox e-mail messages with the data source.
+     */
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
     /**
      * Whether the e-mail template engine should cache the templates.
      */
     @Value("${email.templates.cache}")
     private boolean cacheEmailTemplates;
 
+    /**
+     * The number of milliseconds that a parsed e-mail template is kept in the cache, or 0 to keep it until the
+     * templates are reloaded.
+     */
+    @Value("${email.templates.cacheTTL:0}")
+    private long emailTemplatesCacheTtl;
+
     /**
      * The character set used by the e-mail templates.
      */
@@ -86,6 +150,18 @@ public class EmailConfiguration {
     @Autowired
     private SystemParametersRepository systemParametersRepository;
 
+    /**
+     * The copy in memory of the general parameters of the application.
+     */
+    @Autowired
+    private SystemParametersCache systemParametersCache;
+
+    /**
+     * The Spring Data object that links the user data objects with the data source.
+     */
+    @Autowired
+    private UsersRepository usersRepository;
+
 
 
     /**
@@ -95,8 +171,65 @@ public class EmailConfiguration {
      */
     @Bean
     public EmailSettings emailSettings() {
-        return new EmailSettings(this.systemParametersRepository, this.emailTemplateEngine(), this.messageSource,
-                this.applicationExternalUrl, this.languageConfig);
+        final EmailSettings settings = new EmailSettings(this.systemParametersRepository, this.emailTemplateEngine(),
+                this.messageSource, this.applicationExternalUrl, this.languageConfig);
+        settings.setParametersCache(this.systemParametersCache);
+
+        return settings;
+    }
+
+
+
+    /**
+     * Creates a bean that holds the e-mail messages until they are sent in the background. It is created even if
+     * the outbox is turned off so that the messages that were left in it are still sent, but it is only attached
+     * to the e-mail settings if it is turned on.
+     *
+     * @return the e-mail outbox bean
+     */
+    @Bean
+    public EmailOutbox emailOutbox() {
+        final EmailSettings settings = this.emailSettings();
+        final EmailOutbox outbox = new EmailOutbox(this.emailOutboxRepository, settings, this.emailOutboxBatchSize,
+                this.emailOutboxMaxAttempts, this.emailOutboxRetryDelay, this.emailOutboxMaxRetryDelay,
+                this.emailOutboxFailedRetention);
+
+        if (this.emailOutboxEnabled) {
+            settings.setOutbox(outbox);
+        }
+
+        return outbox;
+    }
+
+
+
+    /**
+     * Creates a bean that aggregates the notifications about imported requests to send them as digests. The
+     * notifications are sent on their own unless the <code>email.digest.enabled</code> property is true.
+     *
+     * @return the notification digest bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "email.digest.enabled", havingValue = "true")
+    public NotificationDigest notificationDigest() {
+        final EmailSettings settings = this.emailSettings();
+        final NotificationDigest digest = new NotificationDigest(settings, this.usersRepository,
+                this.emailDigestMaxPendingEvents);
+        settings.setNotificationDigest(digest);
+
+        return digest;
+    }
+
+
+
+    /**
+     * Creates a bean that loads the e-mail templates in the template engine cache and reloads them on demand.
+     *
+     * @return the e-mail templates cache bean
+     */
+    @Bean
+    public EmailTemplatesCache emailTemplatesCache() {
+        return new EmailTemplatesCache(this.emailSettings(), this.emailTemplatesPath, this.cacheEmailTemplates);
     }
 
 
@@ -143,6 +276,10 @@ public class EmailConfiguration {
         resolver.setCharacterEncoding(this.emailTemplatesEncoding);
         resolver.setCacheable(this.cacheEmailTemplates);
 
+        if (this.emailTemplatesCacheTtl > 0) {
+            resolver.setCacheTTLMs(this.emailTemplatesCacheTtl);
+        }
+
         return resolver;
     }
 
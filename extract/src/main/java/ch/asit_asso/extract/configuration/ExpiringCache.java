@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.LongSupplier;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+
+
+/**
+ * A cache whose entries are discarded after a given time and that holds a limited number of entries. When the
+ * cache is full, the least recently used entry is removed to make room for a new one.
+ *
+ * @author Yves Grasset
+ */
+public class ExpiringCache extends AbstractValueAdaptingCache {
+
+    /**
+     * The stored values, mapped by their key and ordered from the least to the most recently accessed. Any access
+     * to this map must be synchronized on it.
+     */
+    private final Map<Object, Entry> entries;
+
+    /**
+     * The object that makes sure that a missing value is only loaded by one thread at a time.
+     */
+    private final Object loadLock = new Object();
+
+    /**
+     * The maximum number of entries that this cache can hold.
+     */
+    private final int maxSize;
+
+    /**
+     * The string that identifies this cache.
+     */
+    private final String name;
+
+    /**
+     * The source of the current time in milliseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The number of milliseconds during which an entry is valid.
+     */
+    private final long timeToLive;
+
+
+
+    /**
+     * A value stored in the cache.
+     *
+     * @param value          the stored value
+     * @param expirationTime when the value becomes invalid, in milliseconds since the epoch
+     */
+    private record Entry(Object value, long expirationTime) {
+    }
+
+
+
+    /**
+     * Creates a new cache instance.
+     *
+     * @param cacheName    the string that identifies this cache
+     * @param timeToLiveMs the number of milliseconds during which an entry is valid
+     * @param maximumSize  the maximum number of entries that this cache can hold
+     */
+    public ExpiringCache(final String cacheName, final long timeToLiveMs, final int maximumSize) {
+        this(cacheName, timeToLiveMs, maximumSize, System::currentTimeMillis);
+    }
+
+
+
+    /**
+     * Creates a new cache instance.
+     *
+     * @param cacheName    the string that identifies this cache
+     * @param timeToLiveMs the number of milliseconds during which an entry is valid
+     * @param maximumSize  the maximum number of entries that this cache can hold
+     * @param timeSource   the source of the current time in milliseconds
+     */
+    public ExpiringCache(final String cacheName, final long timeToLiveMs, final int maximumSize,
+            final LongSupplier timeSource) {
+        super(true);
+
+        if (cacheName == null) {
+            throw new IllegalArgumentException("The cache name cannot be null.");
+        }
+
+        if (timeToLiveMs < 1) {
+            throw new IllegalArgumentException("The time to live must be greater than 0.");
+        }
+
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size of the cache must be greater than 0.");
+        }
+
+        if (timeSource == null) {
+            throw new IllegalArgumentException("The time source cannot be null.");
+        }
+
+        this.name = cacheName;
+        this.timeToLive = timeToLiveMs;
+        this.maxSize = maximumSize;
+        this.clock = timeSource;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Entry> eldest) {
+                return this.size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+
+
+    /**
+     * Obtains the number of entries currently held by this cache, including the ones that expired but have not
+     * been removed yet.
+     *
+     * @return the number of entries
+     */
+    public final int size() {
+
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+
+
+    @Override
+    public final String getName() {
+        return this.name;
+    }
+
+
+
+    @Override
+    public final Object getNativeCache() {
+        return this.entries;
+    }
+
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final <T> T get(final Object key, final Callable<T> valueLoader) {
+        final Object storedValue = this.lookup(key);
+
+        if (storedValue != null) {
+            return (T) this.fromStoreValue(storedValue);
+        }
+
+        synchronized (this.loadLock) {
+            final Object loadedValue = this.lookup(key);
+
+            if (loadedValue != null) {
+                return (T) this.fromStoreValue(loadedValue);
+            }
+
+            final T value;
+
+            try {
+                value = valueLoader.call();
+
+            } catch (Exception exception) {
+                throw new ValueRetrievalException(key, valueLoader, exception);
+            }
+
+            this.put(key, value);
+
+            return value;
+        }
+    }
+
+
+
+    @Override
+    public final void put(final Object key, final Object value) {
+        final Entry entry = new Entry(this.toStoreValue(value), this.clock.getAsLong() + this.timeToLive);
+
+        synchronized (this.entries) {
+            this.entries.put(key, entry);
+        }
+    }
+
+
+
+    @Override
+    public final void evict(final Object key) {
+
+        synchronized (this.entries) {
+            this.entries.remove(key);
+        }
+    }
+
+
+
+    @Override
+    public final void clear() {
+
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+
+
+    @Override
+    protected final Object lookup(final Object key) {
+
+        synchronized (this.entries) {
+            final Entry entry = this.entries.get(key);
+
+            if (entry == null) {
+                return null;
+            }
+
+            if (entry.expirationTime() <= this.clock.getAsLong()) {
+                this.entries.remove(key);
+                return null;
+            }
+
+            return entry.value();
+        }
+    }
+
+}
@@ -112,6 +112,7 @@ public class SecurityConfiguration {
                         "/",
                         "/getActiveConnectors",
                         "/getCurrentRequests",
+                        "/getCurrentRequestsChanges",
                         "/getFinishedRequests",
                         "/getWorkingState",
                         "/js/**"
@@ -0,0 +1,316 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.domain;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Calendar;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.ForeignKey;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import org.hibernate.annotations.Immutable;
+
+
+
+/**
+ * An order that has been moved to the archive tables.
+ * <p>
+ * The rows of this table are copied from the requests table by the archival function defined in
+ * <code>update_db.sql</code>. The application only reads them and converts them into detached requests that can be
+ * displayed like the active ones. The columns are mapped so that the table exists even if the update script has not
+ * run yet. The script then adds the indexes and the deletion rules of the foreign keys.
+ *
+ * @author Yves Grasset
+ * @see Request
+ */
+@Entity
+@Immutable
+@Table(name = "Requests_Archive")
+public class ArchivedRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number that uniquely identifies the order. It is the one that the order had when it was active.
+     */
+    @Id
+    @Column(name = "id_request")
+    private Integer id;
+
+    /**
+     * The string that describes the order.
+     */
+    @Column(name = "p_orderlabel")
+    private String orderLabel;
+
+    /**
+     * The string that uniquely identifies the order on the originating server.
+     */
+    @Column(name = "p_orderguid")
+    private String orderGuid;
+
+    /**
+     * The string that uniquely identifies the ordered data on the originating server.
+     */
+    @Column(name = "p_productguid")
+    private String productGuid;
+
+    /**
+     * The string that describes the ordered data.
+     */
+    @Column(name = "p_productlabel")
+    private String productLabel;
+
+    /**
+     * The name of the organization that the customer belongs to.
+     */
+    @Column(name = "p_organism")
+    private String organism;
+
+    /**
+     * The string that uniquely identifies the organization of the customer on the originating server.
+     */
+    @Column(name = "p_organismguid")
+    private String organismGuid;
+
+    /**
+     * The name of the person who placed the order.
+     */
+    @Column(name = "p_client")
+    private String client;
+
+    /**
+     * The string that uniquely identifies the customer on the originating server.
+     */
+    @Column(name = "p_clientguid")
+    private String clientGuid;
+
+    /**
+     * The contact information of the customer.
+     */
+    @Column(name = "p_clientdetails", length = 4000)
+    private String clientDetails;
+
+    /**
+     * The name of the third party that the order was placed for.
+     */
+    @Column(name = "p_tiers")
+    private String tiers;
+
+    /**
+     * The contact information of the third party.
+     */
+    @Column(name = "p_tiersdetails", length = 4000)
+    private String tiersDetails;
+
+    /**
+     * The string that uniquely identifies the third party on the originating server.
+     */
+    @Column(name = "p_tiersguid")
+    private String tiersGuid;
+
+    /**
+     * The WKT geometry of the geographical area of the order.
+     */
+    @Column(name = "p_perimeter", columnDefinition = "text")
+    private String perimeter;
+
+    /**
+     * The area of the order perimeter in square meters.
+     */
+    @Column(name = "p_surface")
+    private Double surface;
+
+    /**
+     * Additional information about the order as a JSON string.
+     */
+    @Column(name = "p_parameters", columnDefinition = "text")
+    private String parameters;
+
+    /**
+     * The information about the processing of the order that was returned to the customer.
+     */
+    @Column(name = "remark", length = 4000)
+    private String remark;
+
+    /**
+     * The path of the folder that contained the input data, relative to the base folder of the orders.
+     */
+    @Column(name = "folder_in")
+    private String folderIn;
+
+    /**
+     * The path of the folder that contained the produced data, relative to the base folder of the orders.
+     */
+    @Column(name = "folder_out")
+    private String folderOut;
+
+    /**
+     * When the order was imported.
+     */
+    @Column(name = "start_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Calendar startDate;
+
+    /**
+     * When the processing of the order finished.
+     */
+    @Column(name = "end_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Calendar endDate;
+
+    /**
+     * The index of the last process task.
+     */
+    @Column(name = "tasknum")
+    private Integer tasknum;
+
+    /**
+     * The state of the order when it was archived.
+     */
+    @Column(name = "status")
+    @Enumerated(EnumType.STRING)
+    private Request.Status status;
+
+    /**
+     * Whether the processing of the order was abandoned.
+     */
+    @Column(name = "rejected")
+    private boolean rejected;
+
+    /**
+     * The version that the order had when it was archived.
+     */
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
+    /**
+     * The address that provides an access to the details of the order.
+     */
+    @Column(name = "p_external_url")
+    private String externalUrl;
+
+    /**
+     * When a reminder was last sent about the order.
+     */
+    @Column(name = "last_reminder")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Calendar lastReminder;
+
+    /**
+     * When the order was last saved before it was archived.
+     */
+    @Column(name = "last_modified")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Calendar lastModified;
+
+    /**
+     * The lower-case text of the fields that the order can be searched by.
+     */
+    @Column(name = "search_text", columnDefinition = "text")
+    private String searchText;
+
+    /**
+     * The process that produced the ordered data, or <code>null</code> if it has been deleted since.
+     */
+    @JoinColumn(name = "id_process", referencedColumnName = "id_process",
+            foreignKey = @ForeignKey(name = "fk_request_archive_process")
+    )
+    @ManyToOne
+    private Process process;
+
+    /**
+     * The connector that imported the order, or <code>null</code> if it has been deleted since.
+     */
+    @JoinColumn(name = "id_connector", referencedColumnName = "id_connector",
+            foreignKey = @ForeignKey(name = "fk_request_archive_connector")
+    )
+    @ManyToOne
+    private Connector connector;
+
+
+
+    /**
+     * Creates a new instance of this entity.
+     */
+    protected ArchivedRequest() {
+    }
+
+
+
+    /**
+     * Obtains the number that uniquely identifies the order.
+     *
+     * @return the identifier
+     */
+    public final Integer getId() {
+        return this.id;
+    }
+
+
+
+    /**
+     * Creates a detached copy of this archived order that can be displayed like an active one. The copy has no
+     * operators, so that nothing is lazily read from the tables of the active orders. It must not be saved.
+     *
+     * @return the read-only request
+     */
+    public final Request toRequest() {
+        final Request request = new Request(this.id);
+        request.setOrderLabel(this.orderLabel);
+        request.setOrderGuid(this.orderGuid);
+        request.setProductGuid(this.productGuid);
+        request.setProductLabel(this.productLabel);
+        request.setOrganism(this.organism);
+        request.setOrganismGuid(this.organismGuid);
+        request.setClient(this.client);
+        request.setClientGuid(this.clientGuid);
+        request.setClientDetails(this.clientDetails);
+        request.setTiers(this.tiers);
+        request.setTiersDetails(this.tiersDetails);
+        request.setTiersGuid(this.tiersGuid);
+        request.setPerimeter(this.perimeter);
+        request.setSurface(this.surface);
+        request.setParameters(this.parameters);
+        request.setRemark(this.remark);
+        request.setFolderIn(this.folderIn);
+        request.setFolderOut(this.folderOut);
+        request.setStartDate(this.startDate);
+        request.setEndDate(this.endDate);
+        request.setTasknum(this.tasknum);
+        request.setStatus(this.status);
+        request.setRejected(this.rejected);
+        request.setExternalUrl(this.externalUrl);
+        request.setLastReminder(this.lastReminder);
+        request.setProcess(this.process);
+        request.setConnector(this.connector);
+        request.setUsersCollection(new ArrayList<>());
+        request.setUserGroupsCollection(new ArrayList<>());
+        request.markAsArchived();
+
+        return request;
+    }
+
+}
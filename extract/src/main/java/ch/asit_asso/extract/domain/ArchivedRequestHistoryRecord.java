@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.domain;
+
+import java.io.Serializable;
+import java.util.Calendar;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.ForeignKey;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import org.hibernate.annotations.Immutable;
+
+
+
+/**
+ * An entry of the history of an order that has been moved to the archive tables.
+ * <p>
+ * The rows of this table are copied from the request history table by the archival function defined in
+ * <code>update_db.sql</code>. The application only reads them.
+ *
+ * @author Yves Grasset
+ * @see RequestHistoryRecord
+ */
+@Entity
+@Immutable
+@Table(name = "Request_History_Archive")
+public class ArchivedRequestHistoryRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The identifier of the history entry. It is the one that the entry had when its order was active.
+     */
+    @Id
+    @Column(name = "id_record")
+    private Integer id;
+
+    /**
+     * The user-friendly name of the plugin used to execute the task.
+     */
+    @Column(name = "task_label")
+    private String taskLabel;
+
+    /**
+     * The state of the task execution.
+     */
+    @Column(name = "status")
+    @Enumerated(EnumType.STRING)
+    private RequestHistoryRecord.Status status;
+
+    /**
+     * The position of the task in the processing of the order, including reruns.
+     */
+    @Column(name = "step")
+    private Integer step;
+
+    /**
+     * The position of the task in the process that was related to the order.
+     */
+    @Column(name = "process_step")
+    private Integer processStep;
+
+    /**
+     * The string produced by the task plugin to explain the result.
+     */
+    @Column(name = "last_msg", length = 4000)
+    private String message;
+
+    /**
+     * When the task execution began.
+     */
+    @Column(name = "start_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Calendar startDate;
+
+    /**
+     * When the task execution completed.
+     */
+    @Column(name = "end_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Calendar endDate;
+
+    /**
+     * The version that the entry had when its order was archived.
+     */
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
+    /**
+     * The number that identifies the archived order that this entry is related to.
+     */
+    @Column(name = "id_request", insertable = false, updatable = false)
+    private Integer requestId;
+
+    /**
+     * The archived order that this entry is related to.
+     */
+    @JoinColumn(name = "id_request", referencedColumnName = "id_request",
+            foreignKey = @ForeignKey(name = "fk_request_history_archive_request")
+    )
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private ArchivedRequest request;
+
+    /**
+     * The user that executed the task, or <code>null</code> if it was run by the application or if the user has
+     * been deleted since.
+     */
+    @JoinColumn(name = "id_user", referencedColumnName = "id_user",
+            foreignKey = @ForeignKey(name = "fk_request_history_archive_user")
+    )
+    @ManyToOne
+    private User user;
+
+
+
+    /**
+     * Creates a new instance of this entity.
+     */
+    protected ArchivedRequestHistoryRecord() {
+    }
+
+
+
+    /**
+     * Obtains the identifier of this entry.
+     *
+     * @return the identifier
+     */
+    public final Integer getId() {
+        return this.id;
+    }
+
+
+
+    /**
+     * Obtains the number that identifies the archived order that this entry is related to.
+     *
+     * @return the request identifier
+     */
+    public final Integer getRequestId() {
+        return this.requestId;
+    }
+
+
+
+    /**
+     * Creates a detached copy of this entry that can be displayed like the history of an active order. It must not
+     * be saved.
+     *
+     * @param archivedRequest the read-only copy of the archived order that this entry is related to
+     * @return the read-only history record
+     */
+    public final RequestHistoryRecord toHistoryRecord(final Request archivedRequest) {
+
+        if (archivedRequest == null || !archivedRequest.isArchived()) {
+            throw new IllegalArgumentException("The request must be a copy of an archived request.");
+        }
+
+        final RequestHistoryRecord record = new RequestHistoryRecord();
+        record.setId(this.id);
+        record.setTaskLabel(this.taskLabel);
+        record.setStatus(this.status);
+        record.setStep(this.step);
+        record.setProcessStep(this.processStep);
+        record.setMessage(this.message);
+        record.setStartDate(this.startDate);
+        record.setEndDate(this.endDate);
+        record.setRequest(archivedRequest);
+        record.setUser(this.user);
+
+        return record;
+    }
+
+}
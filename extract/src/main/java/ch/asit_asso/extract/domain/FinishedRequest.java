@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.domain;
+
+import java.io.Serializable;
+import java.util.Calendar;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+
+
+/**
+ * The fields that the finished orders are searched and sorted by, whether they are still in the active requests
+ * table or have been moved to the archive.
+ * <p>
+ * This read-only entity allows the list of the finished orders to be filtered and paged in a single query. The full
+ * orders are then fetched from the table that holds them.
+ *
+ * @author Yves Grasset
+ */
+@Entity
+@Immutable
+@Subselect("SELECT id_request, p_orderlabel, p_productlabel, p_client, search_text, start_date, end_date,"
+        + " id_process, id_connector, FALSE AS archived FROM requests WHERE status = 'FINISHED'"
+        + " UNION ALL SELECT id_request, p_orderlabel, p_productlabel, p_client, search_text, start_date, end_date,"
+        + " id_process, id_connector, TRUE AS archived FROM requests_archive")
+@Synchronize({"requests", "requests_archive"})
+public class FinishedRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number that uniquely identifies the order.
+     */
+    @Id
+    @Column(name = "id_request")
+    private Integer id;
+
+    /**
+     * The string that describes the order.
+     */
+    @Column(name = "p_orderlabel")
+    private String orderLabel;
+
+    /**
+     * The string that describes the ordered data.
+     */
+    @Column(name = "p_productlabel")
+    private String productLabel;
+
+    /**
+     * The name of the person who placed the order.
+     */
+    @Column(name = "p_client")
+    private String client;
+
+    /**
+     * The lower-case text of the fields that the order can be searched by.
+     */
+    @Column(name = "search_text")
+    private String searchText;
+
+    /**
+     * When the order was imported.
+     */
+    @Column(name = "start_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Calendar startDate;
+
+    /**
+     * When the processing of the order finished.
+     */
+    @Column(name = "end_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Calendar endDate;
+
+    /**
+     * The process that produced the ordered data.
+     */
+    @JoinColumn(name = "id_process", insertable = false, updatable = false)
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Process process;
+
+    /**
+     * The connector that imported the order.
+     */
+    @JoinColumn(name = "id_connector", insertable = false, updatable = false)
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Connector connector;
+
+    /**
+     * Whether the order has been moved to the archive tables.
+     */
+    @Column(name = "archived")
+    private boolean archived;
+
+
+
+    /**
+     * Creates a new instance of this entity.
+     */
+    protected FinishedRequest() {
+    }
+
+
+
+    /**
+     * Creates a new instance of this entity.
+     *
+     * @param identifier the number that uniquely identifies the order
+     * @param isArchived <code>true</code> if the order has been moved to the archive tables
+     */
+    public FinishedRequest(final int identifier, final boolean isArchived) {
+        this.id = identifier;
+        this.archived = isArchived;
+    }
+
+
+
+    /**
+     * Obtains the number that uniquely identifies the order.
+     *
+     * @return the identifier
+     */
+    public final Integer getId() {
+        return this.id;
+    }
+
+
+
+    /**
+     * Obtains the string that describes the order.
+     *
+     * @return the order label
+     */
+    public final String getOrderLabel() {
+        return this.orderLabel;
+    }
+
+
+
+    /**
+     * Obtains the string that describes the ordered data.
+     *
+     * @return the product label
+     */
+    public final String getProductLabel() {
+        return this.productLabel;
+    }
+
+
+
+    /**
+     * Obtains the name of the person who placed the order.
+     *
+     * @return the customer name
+     */
+    public final String getClient() {
+        return this.client;
+    }
+
+
+
+    /**
+     * Obtains when the order was imported.
+     *
+     * @return the import date
+     */
+    public final Calendar getStartDate() {
+        return this.startDate;
+    }
+
+
+
+    /**
+     * Obtains when the processing of the order finished.
+     *
+     * @return the end date
+     */
+    public final Calendar getEndDate() {
+        return this.endDate;
+    }
+
+
+
+    /**
+     * Obtains whether the order has been moved to the archive tables.
+     *
+     * @return <code>true</code> if the order is archived
+     */
+    public final boolean isArchived() {
+        return this.archived;
+    }
+
+
+
+    @Override
+    public final int hashCode() {
+        return (this.id != null) ? this.id.hashCode() : 0;
+    }
+
+
+
+    @Override
+    public final boolean equals(final Object object) {
+
+        if (!(object instanceof FinishedRequest other)) {
+            return false;
+        }
+
+        return this.id != null && this.id.equals(other.id);
+    }
+
+
+
+    @Override
+    public final String toString() {
+        return String.format("ch.asit_asso.extract.FinishedRequest[ idRequest=%d, archived=%b ]", this.id,
+                this.archived);
+    }
+
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.domain;
+
+import java.io.Serializable;
+import java.util.Calendar;
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+
+
+/**
+ * An e-mail message waiting to be transmitted to the SMTP server by the background sender.
+ *
+ * @author Yves Grasset
+ */
+@Entity
+@Table(name = "Email_Outbox", indexes = {
+    @Index(columnList = "status,next_attempt", name = "IDX_EMAIL_OUTBOX_STATUS_NEXT_ATTEMPT")
+})
+@XmlRootElement
+public class OutboxEmail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number that uniquely identifies this message in the application.
+     */
+    @Id
+    @Basic(optional = false)
+    @GeneratedValue
+    @NotNull
+    @Column(name = "id_email")
+    private Integer id;
+
+    /**
+     * The addresses that this message must be sent to, separated by commas.
+     */
+    @NotNull
+    @Column(name = "recipients", columnDefinition = "text")
+    private String recipients;
+
+    /**
+     * The title of this message.
+     */
+    @Column(name = "subject", columnDefinition = "text")
+    private String subject;
+
+    /**
+     * The body of this message.
+     */
+    @NotNull
+    @Column(name = "content", columnDefinition = "text")
+    private String content;
+
+    /**
+     * Whether the body of this message is formatted as HTML.
+     */
+    @Column(name = "html")
+    private boolean html;
+
+    /**
+     * When this message was put in the outbox.
+     */
+    @Column(name = "creation_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Calendar creationDate;
+
+    /**
+     * When the next attempt to send this message can be made.
+     */
+    @Column(name = "next_attempt")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Calendar nextAttempt;
+
+    /**
+     * The number of failed attempts to send this message.
+     */
+    @Column(name = "attempts")
+    private int attempts;
+
+    /**
+     * The reason why the last attempt to send this message failed.
+     */
+    @Size(max = 2000)
+    @Column(name = "last_error", length = 2000)
+    private String lastError;
+
+    /**
+     * The current state of this message.
+     */
+    @Column(name = "status")
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+
+
+    /**
+     * The possible states of a message in the outbox.
+     */
+    public enum Status {
+        /**
+         * The message must be sent.
+         */
+        PENDING,
+        /**
+         * The message could not be sent after the maximum number of attempts.
+         */
+        FAILED
+    }
+
+
+
+    /**
+     * Creates a new outbox message instance.
+     */
+    public OutboxEmail() {
+    }
+
+
+
+    /**
+     * Creates a new outbox message instance.
+     *
+     * @param identifier the number that identifies this message in the application
+     */
+    public OutboxEmail(final Integer identifier) {
+        this.id = identifier;
+    }
+
+
+
+    /**
+     * Obtains the number that identifies this message in the application.
+     *
+     * @return the message identifier
+     */
+    public Integer getId() {
+        return this.id;
+    }
+
+
+
+    /**
+     * Defines the number that identifies this message in the application.
+     *
+     * @param identifier the message identifier
+     */
+    public void setId(final Integer identifier) {
+        this.id = identifier;
+    }
+
+
+
+    /**
+     * Obtains the addresses that this message must be sent to.
+     *
+     * @return a string with the e-mail addresses separated by commas
+     */
+    public String getRecipients() {
+        return this.recipients;
+    }
+
+
+
+    /**
+     * Defines the addresses that this message must be sent to.
+     *
+     * @param addresses a string with the e-mail addresses separated by commas
+     */
+    public void setRecipients(final String addresses) {
+        this.recipients = addresses;
+    }
+
+
+
+    /**
+     * Obtains the title of this message.
+     *
+     * @return the message subject
+     */
+    public String getSubject() {
+        return this.subject;
+    }
+
+
+
+    /**
+     * Defines the title of this message.
+     *
+     * @param messageSubject the message subject
+     */
+    public void setSubject(final String messageSubject) {
+        this.subject = messageSubject;
+    }
+
+
+
+    /**
+     * Obtains the body of this message.
+     *
+     * @return the message content
+     */
+    public String getContent() {
+        return this.content;
+    }
+
+
+
+    /**
+     * Defines the body of this message.
+     *
+     * @param messageContent the message content
+     */
+    public void setContent(final String messageContent) {
+        this.content = messageContent;
+    }
+
+
+
+    /**
+     * Obtains whether the body of this message is formatted as HTML.
+     *
+     * @return <code>true</code> for an HTML message or <code>false</code> for a plain text one
+     */
+    public boolean isHtml() {
+        return this.html;
+    }
+
+
+
+    /**
+     * Defines whether the body of this message is formatted as HTML.
+     *
+     * @param isHtml <code>true</code> for an HTML message or <code>false</code> for a plain text one
+     */
+    public void setHtml(final boolean isHtml) {
+        this.html = isHtml;
+    }
+
+
+
+    /**
+     * Obtains when this message was put in the outbox.
+     *
+     * @return the creation date
+     */
+    public Calendar getCreationDate() {
+        return this.creationDate;
+    }
+
+
+
+    /**
+     * Defines when this message was put in the outbox.
+     *
+     * @param date the creation date
+     */
+    public void setCreationDate(final Calendar date) {
+        this.creationDate = date;
+    }
+
+
+
+    /**
+     * Obtains when the next attempt to send this message can be made.
+     *
+     * @return the date of the next attempt
+     */
+    public Calendar getNextAttempt() {
+        return this.nextAttempt;
+    }
+
+
+
+    /**
+     * Defines when the next attempt to send this message can be made.
+     *
+     * @param date the date of the next attempt
+     */
+    public void setNextAttempt(final Calendar date) {
+        this.nextAttempt = date;
+    }
+
+
+
+    /**
+     * Obtains the number of failed attempts to send this message.
+     *
+     * @return the number of attempts
+     */
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+
+
+    /**
+     * Defines the number of failed attempts to send this message.
+     *
+     * @param attemptsNumber the number of attempts
+     */
+    public void setAttempts(final int attemptsNumber) {
+        this.attempts = attemptsNumber;
+    }
+
+
+
+    /**
+     * Obtains the reason why the last attempt to send this message failed.
+     *
+     * @return the error message, or <code>null</code> if no attempt failed
+     */
+    public String getLastError() {
+        return this.lastError;
+    }
+
+
+
+    /**
+     * Defines the reason why the last attempt to send this message failed.
+     *
+     * @param errorMessage the error message
+     */
+    public void setLastError(final String errorMessage) {
+        this.lastError = errorMessage;
+    }
+
+
+
+    /**
+     * Obtains the current state of this message.
+     *
+     * @return the status
+     */
+    public Status getStatus() {
+        return this.status;
+    }
+
+
+
+    /**
+     * Defines the current state of this message.
+     *
+     * @param messageStatus the status
+     */
+    public void setStatus(final Status messageStatus) {
+        this.status = messageStatus;
+    }
+
+}
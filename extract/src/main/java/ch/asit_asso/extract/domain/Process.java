@@ -23,6 +23,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -42,6 +43,9 @@ import javax.validation.constraints.Size;
 import ch.asit_asso.extract.persistence.RequestsRepository;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlTransient;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SortNatural;
 
 
@@ -52,6 +56,8 @@ import org.hibernate.annotations.SortNatural;
  * @author Florent Krin
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "Processes")
 @NamedQueries({
     @NamedQuery(name = "Process.getProcessOperatorsAddresses",
@@ -122,9 +128,12 @@ public class Process implements Serializable {
 
 
     /**
-     * The processing tasks that make up this process.
+     * The processing tasks that make up this process. When the tasks of a process are read, those of the other
+     * processes loaded in the same session are read by the same query, so that a list of requests does not read the
+     * tasks one process at a time.
      */
     @OneToMany(mappedBy = "process", cascade = CascadeType.REMOVE)
+    @BatchSize(size = 50)
     @OrderBy("position ASC")
     @SortNatural
     private Collection<Task> tasksCollection;
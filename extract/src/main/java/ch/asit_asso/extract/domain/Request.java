@@ -20,7 +20,10 @@ import java.io.Serializable;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.ArrayList;
+import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
 import javax.persistence.Basic;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -34,9 +37,12 @@ import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Transient;
 import javax.persistence.Version;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -55,7 +61,9 @@ import org.apache.commons.lang3.StringUtils;
 @Table(name = "Requests", indexes = {
     @Index(columnList = "status", name = "IDX_REQUEST_STATUS"),
     @Index(columnList = "id_connector", name = "IDX_REQUEST_CONNECTOR"),
-    @Index(columnList = "id_process", name = "IDX_REQUEST_PROCESS")
+    @Index(columnList = "id_process", name = "IDX_REQUEST_PROCESS"),
+    @Index(columnList = "status,last_reminder", name = "IDX_REQUEST_STATUS_LAST_REMINDER"),
+    @Index(columnList = "last_modified", name = "IDX_REQUEST_LAST_MODIFIED")
 })
 @XmlRootElement
 public class Request implements Serializable {
@@ -243,6 +251,26 @@ public class Request implements Serializable {
     @Temporal(TemporalType.TIMESTAMP)
     private Calendar lastReminder;
 
+    /**
+     * When this order was last saved to the database.
+     */
+    @Column(name = "last_modified")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Calendar lastModified;
+
+    /**
+     * The lower-case text of the fields that this order can be searched by. It is refreshed each time that the
+     * order is saved so that the searches can be served by an index of this single column.
+     */
+    @Column(name = "search_text", columnDefinition = "text")
+    private String searchText;
+
+    /**
+     * Whether this object is a read-only copy of an order that has been moved to the archive tables.
+     */
+    @Transient
+    private boolean archived;
+
 
     /**
      * The set of tasks attached to this data item order to produce the requested data.
@@ -1003,6 +1031,85 @@ public class Request implements Serializable {
     public void setLastReminder(Calendar lastReminder) { this.lastReminder = lastReminder; }
 
 
+
+    /**
+     * Obtains when this order was last saved to the database.
+     *
+     * @return the date of the last modification, or <code>null</code> if the order has not been saved since this
+     *         information is recorded
+     */
+    public Calendar getLastModified() {
+        return this.lastModified;
+    }
+
+
+
+    /**
+     * Obtains the lower-case text of the fields that this order can be searched by, that is the customer, the third
+     * party, the order and product labels and the order and product GUIDs, separated by line breaks.
+     *
+     * @return the search text, or <code>null</code> if the order has not been saved since this information is
+     *         recorded
+     */
+    public String getSearchText() {
+        return this.searchText;
+    }
+
+
+
+    /**
+     * Obtains whether this object is a read-only copy of an order that has been moved to the archive tables. Such
+     * an order must not be saved.
+     *
+     * @return <code>true</code> if this order is archived
+     */
+    public boolean isArchived() {
+        return this.archived;
+    }
+
+
+
+    /**
+     * Marks this object as a read-only copy of an archived order.
+     */
+    final void markAsArchived() {
+        this.archived = true;
+    }
+
+
+
+    /**
+     * Records the current time as the date of the last modification of this order and refreshes the text that it
+     * can be searched by. This is called each time that the order is inserted or updated in the database.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void updateDerivedFields() {
+        this.lastModified = new GregorianCalendar();
+        this.searchText = Request.buildSearchText(this.client, this.tiers, this.orderLabel, this.productLabel,
+                this.orderGuid, this.productGuid);
+    }
+
+
+
+    /**
+     * Assembles the text that an order can be searched by.
+     *
+     * @param values the values of the searchable fields. A <code>null</code> value is handled as an empty string.
+     * @return the lower-case values separated by line breaks
+     */
+    public static String buildSearchText(final String... values) {
+        final StringJoiner joiner = new StringJoiner("\n");
+
+        for (String value : values) {
+            joiner.add((value != null) ? value : "");
+        }
+
+        return joiner.toString().toLowerCase(Locale.ROOT);
+    }
+
+
+
     /**
      * Obtains whether this data item order has yet to be completed.
      *
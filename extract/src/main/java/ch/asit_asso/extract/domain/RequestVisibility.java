@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+
+
+/**
+ * The fact that a user is allowed to see a request, either because they operate its process or because the
+ * request was assigned to them, directly or through one of their user groups.
+ * <p>
+ * The rows of this table are maintained by the database triggers defined in <code>update_db.sql</code> whenever
+ * a request, the operators of a process or the members of a user group change. The application only reads them.
+ *
+ * @author Yves Grasset
+ */
+@Entity
+@Immutable
+@IdClass(RequestVisibility.Key.class)
+@Table(name = "Request_Visibility", indexes = {
+    @Index(columnList = "id_user,id_request", name = "IDX_REQUEST_VISIBILITY_USER")
+})
+public class RequestVisibility implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number that identifies the request that can be seen.
+     */
+    @Id
+    @Column(name = "id_request", nullable = false)
+    private Integer requestId;
+
+    /**
+     * The number that identifies the user who can see the request.
+     */
+    @Id
+    @Column(name = "id_user", nullable = false)
+    private Integer userId;
+
+
+
+    /**
+     * Creates a new instance of this entity.
+     */
+    protected RequestVisibility() {
+    }
+
+
+
+    /**
+     * Creates a new instance of this entity.
+     *
+     * @param request the number that identifies the request that can be seen
+     * @param user    the number that identifies the user who can see the request
+     */
+    public RequestVisibility(final int request, final int user) {
+        this.requestId = request;
+        this.userId = user;
+    }
+
+
+
+    /**
+     * Obtains the number that identifies the request that can be seen.
+     *
+     * @return the request identifier
+     */
+    public final Integer getRequestId() {
+        return this.requestId;
+    }
+
+
+
+    /**
+     * Obtains the number that identifies the user who can see the request.
+     *
+     * @return the user identifier
+     */
+    public final Integer getUserId() {
+        return this.userId;
+    }
+
+
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(this.requestId, this.userId);
+    }
+
+
+
+    @Override
+    public final boolean equals(final Object object) {
+
+        if (!(object instanceof RequestVisibility other)) {
+            return false;
+        }
+
+        return Objects.equals(this.requestId, other.requestId) && Objects.equals(this.userId, other.userId);
+    }
+
+
+
+    @Override
+    public final String toString() {
+        return String.format("ch.asit_asso.extract.RequestVisibility[ idRequest=%d, idUser=%d ]", this.requestId,
+                this.userId);
+    }
+
+
+
+    /**
+     * The composite identifier of a visibility row.
+     */
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The number that identifies the request that can be seen.
+         */
+        private Integer requestId;
+
+        /**
+         * The number that identifies the user who can see the request.
+         */
+        private Integer userId;
+
+
+
+        /**
+         * Creates a new instance of this identifier.
+         */
+        public Key() {
+        }
+
+
+
+        /**
+         * Creates a new instance of this identifier.
+         *
+         * @param request the number that identifies the request that can be seen
+         * @param user    the number that identifies the user who can see the request
+         */
+        public Key(final int request, final int user) {
+            this.requestId = request;
+            this.userId = user;
+        }
+
+
+
+        @Override
+        public final int hashCode() {
+            return Objects.hash(this.requestId, this.userId);
+        }
+
+
+
+        @Override
+        public final boolean equals(final Object object) {
+
+            if (!(object instanceof Key other)) {
+                return false;
+            }
+
+            return Objects.equals(this.requestId, other.requestId) && Objects.equals(this.userId, other.userId);
+        }
+
+    }
+
+}
@@ -18,6 +18,7 @@ package ch.asit_asso.extract.domain;
 
 import java.io.Serializable;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.ForeignKey;
@@ -29,6 +30,8 @@ import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 
@@ -38,6 +41,8 @@ import jakarta.xml.bind.annotation.XmlRootElement;
  * @author Florent Krin
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "Rules", indexes = {
     @Index(columnList = "id_process", name = "IDX_RULE_PROCESS"),
     @Index(columnList = "id_connector", name = "IDX_RULE_CONNECTOR")
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
@@ -40,6 +41,8 @@ import ch.asit_asso.extract.domain.converters.JsonToParametersValuesConverter;
 import ch.asit_asso.extract.utils.Secrets;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import org.apache.commons.lang3.math.NumberUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,6 +53,8 @@ import org.slf4j.LoggerFactory;
  * @author Florent Krin
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "Tasks", indexes = {
     @Index(columnList = "position", name = "IDX_TASK_POSITION"),
     @Index(columnList = "id_process", name = "IDX_TASK_PROCESS")
@@ -73,19 +73,23 @@ import org.apache.commons.lang3.StringUtils;
     @NamedQuery(name = "User.findAllActiveApplicationUsers",
             query = "SELECT u FROM User u WHERE u.login != " + "'" + User.SYSTEM_USER_LOGIN + "' and u.active = true"),
     @NamedQuery(name = "User.getUserAssociatedRequestsByStatusOrderByEndDate",
-            query = "SELECT r FROM Request r WHERE ("
-                    + " r.process IN (SELECT p FROM User u JOIN u.processesCollection p WHERE u.id = :userId)"
-                    + " OR r.process IN (SELECT p FROM User u JOIN u.userGroupsCollection g JOIN g.processesCollection p WHERE u.id = :userId)"
-                    + " OR :userId IN (SELECT uc.id FROM r.usersCollection uc)"
-                    + " OR :userId IN (SELECT uc.id FROM r.userGroupsCollection ug LEFT JOIN ug.usersCollection uc)"
-                    + ") AND r.status = :status ORDER BY r.endDate DESC"),
+            query = "SELECT r FROM Request r WHERE"
+                    + " r.id IN (SELECT v.requestId FROM RequestVisibility v WHERE v.userId = :userId)"
+                    + " AND r.status = :status ORDER BY r.endDate DESC"),
     @NamedQuery(name = "User.getUserAssociatedRequestsByStatusNot",
-                query = "SELECT r FROM Request r WHERE ("
-                        + " r.process IN (SELECT p FROM User u JOIN u.processesCollection p WHERE u.id = :userId)"
-                        + " OR r.process IN (SELECT p FROM User u JOIN u.userGroupsCollection g JOIN g.processesCollection p WHERE u.id = :userId)"
-                        + " OR :userId IN (SELECT uc.id FROM r.usersCollection uc)"
-                        + " OR :userId IN (SELECT uc.id FROM r.userGroupsCollection ug LEFT JOIN ug.usersCollection uc)"
-                        + ") AND r.status != :status")
+                query = "SELECT r FROM Request r WHERE"
+                        + " r.id IN (SELECT v.requestId FROM RequestVisibility v WHERE v.userId = :userId)"
+                        + " AND r.status != :status"),
+    @NamedQuery(name = "User.getUserAssociatedRequestListItemsByStatusNot",
+                query = "SELECT new ch.asit_asso.extract.domain.projections.RequestListItem(r.id, r.orderLabel,"
+                        + " r.productLabel, r.client, r.startDate, r.status, r.rejected, rc.name, rp.id, rp.name)"
+                        + " FROM Request r LEFT JOIN r.connector rc LEFT JOIN r.process rp WHERE"
+                        + " r.id IN (SELECT v.requestId FROM RequestVisibility v WHERE v.userId = :userId)"
+                        + " AND r.status != :status"),
+    @NamedQuery(name = "User.getUserAssociatedRequestIdsByStatusNot",
+                query = "SELECT r.id FROM Request r WHERE"
+                        + " r.id IN (SELECT v.requestId FROM RequestVisibility v WHERE v.userId = :userId)"
+                        + " AND r.status != :status")
 
 
 })
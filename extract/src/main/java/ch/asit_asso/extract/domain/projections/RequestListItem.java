@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.domain.projections;
+
+import java.util.Calendar;
+import ch.asit_asso.extract.domain.Request;
+
+
+
+/**
+ * The columns of an order that are displayed in a list, read without the perimeter and the parameters of the
+ * order.
+ *
+ * @author Yves Grasset
+ */
+public class RequestListItem {
+
+    /**
+     * The name of the person that placed the order.
+     */
+    private final String client;
+
+    /**
+     * The name of the connector that imported the order, or <code>null</code> if it has been deleted.
+     */
+    private final String connectorName;
+
+    /**
+     * The number that identifies the order.
+     */
+    private final int id;
+
+    /**
+     * The description of the order.
+     */
+    private final String orderLabel;
+
+    /**
+     * The number that identifies the process bound to the order, or <code>null</code> if there is none.
+     */
+    private final Integer processId;
+
+    /**
+     * The name of the process bound to the order, or <code>null</code> if there is none.
+     */
+    private final String processName;
+
+    /**
+     * The description of the ordered product.
+     */
+    private final String productLabel;
+
+    /**
+     * Whether an operator refused to process the order.
+     */
+    private final boolean rejected;
+
+    /**
+     * When the order was imported.
+     */
+    private final Calendar startDate;
+
+    /**
+     * The state of the order processing.
+     */
+    private final Request.Status status;
+
+
+
+    /**
+     * Creates a new list item.
+     *
+     * @param requestId     the number that identifies the order
+     * @param order         the description of the order
+     * @param product       the description of the ordered product
+     * @param customer      the name of the person that placed the order
+     * @param start         when the order was imported
+     * @param requestStatus the state of the order processing
+     * @param isRejected    whether an operator refused to process the order
+     * @param connector     the name of the connector that imported the order, or <code>null</code>
+     * @param process       the number that identifies the process bound to the order, or <code>null</code>
+     * @param processLabel  the name of the process bound to the order, or <code>null</code>
+     */
+    public RequestListItem(final int requestId, final String order, final String product, final String customer,
+            final Calendar start, final Request.Status requestStatus, final boolean isRejected, final String connector,
+            final Integer process, final String processLabel) {
+        this.id = requestId;
+        this.orderLabel = order;
+        this.productLabel = product;
+        this.client = customer;
+        this.startDate = start;
+        this.status = requestStatus;
+        this.rejected = isRejected;
+        this.connectorName = connector;
+        this.processId = process;
+        this.processName = processLabel;
+    }
+
+
+
+    /**
+     * Obtains the name of the person that placed the order.
+     *
+     * @return the customer name
+     */
+    public final String getClient() {
+        return this.client;
+    }
+
+
+
+    /**
+     * Obtains the name of the connector that imported the order.
+     *
+     * @return the connector name, or <code>null</code> if the connector has been deleted
+     */
+    public final String getConnectorName() {
+        return this.connectorName;
+    }
+
+
+
+    /**
+     * Obtains the number that identifies the order.
+     *
+     * @return the request identifier
+     */
+    public final int getId() {
+        return this.id;
+    }
+
+
+
+    /**
+     * Obtains the description of the order.
+     *
+     * @return the order label
+     */
+    public final String getOrderLabel() {
+        return this.orderLabel;
+    }
+
+
+
+    /**
+     * Obtains the number that identifies the process bound to the order.
+     *
+     * @return the process identifier, or <code>null</code> if the order is not bound to a process
+     */
+    public final Integer getProcessId() {
+        return this.processId;
+    }
+
+
+
+    /**
+     * Obtains the name of the process bound to the order.
+     *
+     * @return the process name, or <code>null</code> if the order is not bound to a process
+     */
+    public final String getProcessName() {
+        return this.processName;
+    }
+
+
+
+    /**
+     * Obtains the description of the ordered product.
+     *
+     * @return the product label
+     */
+    public final String getProductLabel() {
+        return this.productLabel;
+    }
+
+
+
+    /**
+     * Obtains when the order was imported.
+     *
+     * @return the start date
+     */
+    public final Calendar getStartDate() {
+        return this.startDate;
+    }
+
+
+
+    /**
+     * Obtains the state of the order processing.
+     *
+     * @return the status
+     */
+    public final Request.Status getStatus() {
+        return this.status;
+    }
+
+
+
+    /**
+     * Obtains whether an operator refused to process the order.
+     *
+     * @return <code>true</code> if the order has been rejected
+     */
+    public final boolean isRejected() {
+        return this.rejected;
+    }
+
+}
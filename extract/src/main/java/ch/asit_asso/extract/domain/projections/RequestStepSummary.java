@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.domain.projections;
+
+import java.util.Calendar;
+import ch.asit_asso.extract.domain.RequestHistoryRecord;
+
+
+
+/**
+ * The columns of an order history entry that are needed to describe the current step of the order in a list.
+ *
+ * @author Yves Grasset
+ */
+public class RequestStepSummary {
+
+    /**
+     * When the task ended, or <code>null</code> if it is still running.
+     */
+    private final Calendar endDate;
+
+    /**
+     * The position of the task in the process.
+     */
+    private final int processStep;
+
+    /**
+     * The number that identifies the order.
+     */
+    private final int requestId;
+
+    /**
+     * When the task started.
+     */
+    private final Calendar startDate;
+
+    /**
+     * The state of the task.
+     */
+    private final RequestHistoryRecord.Status status;
+
+    /**
+     * The position of the entry in the full history of the order, including reruns.
+     */
+    private final int step;
+
+    /**
+     * The name of the task.
+     */
+    private final String taskLabel;
+
+
+
+    /**
+     * Creates a new history entry summary.
+     *
+     * @param request     the number that identifies the order
+     * @param historyStep the position of the entry in the full history of the order
+     * @param taskStep    the position of the task in the process
+     * @param taskStatus  the state of the task
+     * @param label       the name of the task
+     * @param start       when the task started
+     * @param end         when the task ended, or <code>null</code> if it is still running
+     */
+    public RequestStepSummary(final int request, final int historyStep, final int taskStep,
+            final RequestHistoryRecord.Status taskStatus, final String label, final Calendar start,
+            final Calendar end) {
+        this.requestId = request;
+        this.step = historyStep;
+        this.processStep = taskStep;
+        this.status = taskStatus;
+        this.taskLabel = label;
+        this.startDate = start;
+        this.endDate = end;
+    }
+
+
+
+    /**
+     * Obtains when the task ended.
+     *
+     * @return the end date, or <code>null</code> if the task is still running
+     */
+    public final Calendar getEndDate() {
+        return this.endDate;
+    }
+
+
+
+    /**
+     * Obtains the position of the task in the process.
+     *
+     * @return the process step
+     */
+    public final int getProcessStep() {
+        return this.processStep;
+    }
+
+
+
+    /**
+     * Obtains the number that identifies the order.
+     *
+     * @return the request identifier
+     */
+    public final int getRequestId() {
+        return this.requestId;
+    }
+
+
+
+    /**
+     * Obtains when the task started.
+     *
+     * @return the start date
+     */
+    public final Calendar getStartDate() {
+        return this.startDate;
+    }
+
+
+
+    /**
+     * Obtains the state of the task.
+     *
+     * @return the status
+     */
+    public final RequestHistoryRecord.Status getStatus() {
+        return this.status;
+    }
+
+
+
+    /**
+     * Obtains the position of the entry in the full history of the order.
+     *
+     * @return the history step
+     */
+    public final int getStep() {
+        return this.step;
+    }
+
+
+
+    /**
+     * Obtains the name of the task.
+     *
+     * @return the task label
+     */
+    public final String getTaskLabel() {
+        return this.taskLabel;
+    }
+
+}
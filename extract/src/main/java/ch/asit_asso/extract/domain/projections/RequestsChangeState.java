@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.domain.projections;
+
+import java.util.Calendar;
+
+
+
+/**
+ * A summary of a set of orders that changes each time that an order of the set is added, modified or removed.
+ *
+ * @author Yves Grasset
+ */
+public class RequestsChangeState {
+
+    /**
+     * The number of orders in the set.
+     */
+    private final long count;
+
+    /**
+     * When an order of the set was last modified, or <code>null</code> if this is not known.
+     */
+    private final Calendar lastModified;
+
+    /**
+     * The sum of the optimistic locking versions of the orders in the set.
+     */
+    private final long versionsSum;
+
+
+
+    /**
+     * Creates a new summary.
+     *
+     * @param requestsCount  the number of orders in the set
+     * @param versions       the sum of the versions of the orders in the set, or <code>null</code> if it is empty
+     * @param lastModifiedOn when an order of the set was last modified, or <code>null</code> if this is not known
+     */
+    public RequestsChangeState(final Long requestsCount, final Long versions, final Calendar lastModifiedOn) {
+        this.count = (requestsCount != null) ? requestsCount : 0;
+        this.versionsSum = (versions != null) ? versions : 0;
+        this.lastModified = lastModifiedOn;
+    }
+
+
+
+    /**
+     * Obtains the number of orders in the set.
+     *
+     * @return the number of orders
+     */
+    public final long getCount() {
+        return this.count;
+    }
+
+
+
+    /**
+     * Obtains when an order of the set was last modified.
+     *
+     * @return the date of the last modification, or <code>null</code> if this is not known
+     */
+    public final Calendar getLastModified() {
+        return this.lastModified;
+    }
+
+
+
+    /**
+     * Obtains the sum of the optimistic locking versions of the orders in the set.
+     *
+     * @return the sum of the versions
+     */
+    public final long getVersionsSum() {
+        return this.versionsSum;
+    }
+
+
+
+    /**
+     * Obtains a string that identifies this state of the set, suitable as an HTTP entity tag.
+     *
+     * @return the tag string
+     */
+    public final String toTag() {
+        final long lastModifiedTime = (this.lastModified != null) ? this.lastModified.getTimeInMillis() : 0;
+
+        return String.format("%d-%d-%d", this.count, this.versionsSum, lastModifiedTime);
+    }
+
+}
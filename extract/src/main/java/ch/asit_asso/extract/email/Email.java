@@ -209,6 +209,18 @@ public abstract class Email {
 
 
 
+    /**
+     * Obtains whether this message can be put in the outbox to be sent in the background. The messages that the user
+     * is waiting for must be sent immediately.
+     *
+     * @return <code>true</code> if the message can be sent later
+     */
+    protected boolean canBeDeferred() {
+        return true;
+    }
+
+
+
     /**
      * Obtains the application string that matches the given key.
      *
@@ -368,7 +380,7 @@ public abstract class Email {
      * Transmits the current message to its recipients.
      *
      * @return <code>true</code> if the message was successfully sent to the SMTP server (which does not necessarily
-     *         means that it was then sent to the user)
+     *         means that it was then sent to the user) or put in the outbox to be sent in the background
      */
     public final boolean send() {
         assert emailSettings != null : "The e-mail settings must be set.";
@@ -381,6 +393,18 @@ public abstract class Email {
             return false;
         }
 
+        final EmailOutbox outbox = this.emailSettings.getOutbox();
+
+        if (outbox != null && this.canBeDeferred()) {
+
+            if (!this.emailSettings.isValid()) {
+                this.logger.error("Could not send the message. The SMTP configuration is not valid.");
+                return false;
+            }
+
+            return outbox.enqueue(this.getRecipients(), this.getSubject(), this.getContent(), this.getContentType());
+        }
+
         Session smtpSession = this.getSmtpSession();
         MimeMessage message = this.createMessage(smtpSession);
 
@@ -424,36 +448,11 @@ public abstract class Email {
             return null;
         }
 
-        MimeMessage message = new MimeMessage(session);
+        MimeMessage message;
 
         try {
-            this.logger.debug("Defining the message sender.");
-            message.setFrom(new InternetAddress(this.emailSettings.getSenderAddress(),
-                    this.emailSettings.getSenderName()));
-            this.logger.debug("Defining the message recipients.");
-            message.setRecipients(RecipientType.TO, this.getRecipients());
-            this.logger.debug("Defining the message subject : {}", this.getSubject());
-            message.setSubject(this.getSubject(), Email.TEXT_ENCODING);
-
-            switch (this.getContentType()) {
-
-                case HTML:
-                    this.logger.debug("Defining the message HTML content:\n{}", this.getContent());
-                    message.setContent(this.getContent(), "text/html; charset=" + Email.TEXT_ENCODING);
-                    break;
-
-                case TEXT:
-                    this.logger.debug("Defining the message text content:\n{}", this.getContent());
-                    message.setText(this.getContent(), Email.TEXT_ENCODING);
-                    break;
-
-                default:
-                    throw new UnsupportedOperationException(String.format("The content type %s is not supported.",
-                            this.getContentType().name()));
-            }
-
-            this.logger.debug("Defining the message send date.");
-            message.setSentDate(new Date());
+            message = Email.buildMimeMessage(session, this.emailSettings, this.getRecipients(), this.getSubject(),
+                                             this.getContent(), this.getContentType());
 
         } catch (MessagingException | UnsupportedEncodingException exception) {
             this.logger.error("Could not create the e-mail message.", exception);
@@ -466,6 +465,49 @@ public abstract class Email {
 
 
 
+    /**
+     * Builds a MIME message from the given e-mail data.
+     *
+     * @param session     the current SMTP session
+     * @param settings    the parameters to use to send electronic messages
+     * @param recipients  the addresses that the message must be sent to
+     * @param subject     the title of the message
+     * @param content     the body of the message
+     * @param contentType the type of data used by the body of the message
+     * @return the MIME message
+     * @throws MessagingException           if a property of the message could not be set
+     * @throws UnsupportedEncodingException if the name of the sender could not be encoded
+     */
+    static MimeMessage buildMimeMessage(final Session session, final EmailSettings settings,
+            final InternetAddress[] recipients, final String subject, final String content,
+            final ContentType contentType) throws MessagingException, UnsupportedEncodingException {
+        final MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(settings.getSenderAddress(), settings.getSenderName()));
+        message.setRecipients(RecipientType.TO, recipients);
+        message.setSubject(subject, Email.TEXT_ENCODING);
+
+        switch (contentType) {
+
+            case HTML:
+                message.setContent(content, "text/html; charset=" + Email.TEXT_ENCODING);
+                break;
+
+            case TEXT:
+                message.setText(content, Email.TEXT_ENCODING);
+                break;
+
+            default:
+                throw new UnsupportedOperationException(String.format("The content type %s is not supported.",
+                        contentType.name()));
+        }
+
+        message.setSentDate(new Date());
+
+        return message;
+    }
+
+
+
     /**
      * Create an SMTP session with the current e-mail settings.
      *
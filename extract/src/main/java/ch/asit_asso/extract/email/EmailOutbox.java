@@ -0,0 +1,433 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.email;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import ch.asit_asso.extract.domain.OutboxEmail;
+import ch.asit_asso.extract.persistence.EmailOutboxRepository;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+
+
+
+/**
+ * A store for the e-mail messages produced by the application, so that the processes that create them do not
+ * have to wait for the SMTP server. The pending messages are sent in batches in the background through a single
+ * SMTP connection. The messages that could not be sent are tried again later with an increasing delay.
+ *
+ * @author Yves Grasset
+ */
+public class EmailOutbox {
+
+    /**
+     * The maximum number of characters of an error message stored with an outbox e-mail.
+     */
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(EmailOutbox.class);
+
+    /**
+     * The Spring Data object that links the outbox messages with the data source.
+     */
+    private final EmailOutboxRepository repository;
+
+    /**
+     * The parameters to use to send the messages.
+     */
+    private final EmailSettings emailSettings;
+
+    /**
+     * The maximum number of messages to send in a single run.
+     */
+    private final int batchSize;
+
+    /**
+     * The number of days that a message that could not be sent is kept in the outbox, or <code>0</code> to keep it
+     * until it is removed manually.
+     */
+    private final int failedRetention;
+
+    /**
+     * The number of failed attempts after which a message is not sent anymore.
+     */
+    private final int maxAttempts;
+
+    /**
+     * The number of milliseconds to wait before the first new attempt to send a message.
+     */
+    private final long retryDelay;
+
+    /**
+     * The maximum number of milliseconds to wait between two attempts to send a message.
+     */
+    private final long maxRetryDelay;
+
+
+
+    /**
+     * Creates a new outbox instance.
+     *
+     * @param outboxRepository the Spring Data object that links the outbox messages with the data source
+     * @param settings         the parameters to use to send the messages
+     * @param messagesPerBatch the maximum number of messages to send in a single run
+     * @param attemptsNumber   the number of failed attempts after which a message is not sent anymore
+     * @param firstRetryDelay  the number of milliseconds to wait before the first new attempt to send a message. The
+     *                         delay is doubled after each failed attempt.
+     * @param maximumDelay     the maximum number of milliseconds to wait between two attempts to send a message
+     * @param retentionDays    the number of days that a message that could not be sent is kept in the outbox, or
+     *                         <code>0</code> to keep it until it is removed manually
+     */
+    public EmailOutbox(final EmailOutboxRepository outboxRepository, final EmailSettings settings,
+            final int messagesPerBatch, final int attemptsNumber, final long firstRetryDelay,
+            final long maximumDelay, final int retentionDays) {
+
+        if (outboxRepository == null) {
+            throw new IllegalArgumentException("The e-mail outbox repository cannot be null.");
+        }
+
+        if (settings == null) {
+            throw new IllegalArgumentException("The e-mail settings object cannot be null.");
+        }
+
+        if (messagesPerBatch < 1) {
+            throw new IllegalArgumentException("The batch size must be greater than 0.");
+        }
+
+        if (attemptsNumber < 1) {
+            throw new IllegalArgumentException("The maximum number of attempts must be greater than 0.");
+        }
+
+        if (firstRetryDelay < 0 || maximumDelay < firstRetryDelay) {
+            throw new IllegalArgumentException("The retry delays must be positive and the maximum delay cannot be"
+                    + " smaller than the first one.");
+        }
+
+        if (retentionDays < 0) {
+            throw new IllegalArgumentException("The retention of the failed messages cannot be negative.");
+        }
+
+        this.repository = outboxRepository;
+        this.emailSettings = settings;
+        this.batchSize = messagesPerBatch;
+        this.maxAttempts = attemptsNumber;
+        this.retryDelay = firstRetryDelay;
+        this.maxRetryDelay = maximumDelay;
+        this.failedRetention = retentionDays;
+    }
+
+
+
+    /**
+     * Puts a message in the outbox to be sent in the background.
+     *
+     * @param recipients  the addresses that the message must be sent to
+     * @param subject     the title of the message
+     * @param content     the body of the message
+     * @param contentType the type of data used by the body of the message
+     * @return <code>true</code> if the message was saved in the outbox
+     */
+    public final boolean enqueue(final InternetAddress[] recipients, final String subject, final String content,
+            final Email.ContentType contentType) {
+
+        if (recipients == null || recipients.length == 0) {
+            throw new IllegalArgumentException("The recipients array cannot be empty.");
+        }
+
+        if (StringUtils.isEmpty(content)) {
+            throw new IllegalArgumentException("The message content cannot be empty.");
+        }
+
+        if (contentType == null) {
+            throw new IllegalArgumentException("The message content type cannot be null.");
+        }
+
+        final Calendar now = new GregorianCalendar();
+        final OutboxEmail email = new OutboxEmail();
+        email.setRecipients(InternetAddress.toString(recipients));
+        email.setSubject(subject);
+        email.setContent(content);
+        email.setHtml(contentType == Email.ContentType.HTML);
+        email.setCreationDate(now);
+        email.setNextAttempt(now);
+        email.setAttempts(0);
+        email.setStatus(OutboxEmail.Status.PENDING);
+
+        try {
+            this.repository.save(email);
+
+        } catch (Exception exception) {
+            this.logger.error("Could not put the e-mail message in the outbox.", exception);
+            return false;
+        }
+
+        this.logger.debug("The e-mail message to {} has been put in the outbox.", email.getRecipients());
+
+        return true;
+    }
+
+
+
+    /**
+     * Obtains the number of milliseconds to wait before a new attempt to send a message.
+     *
+     * @param attempts the number of failed attempts to send the message so far
+     * @return the delay in milliseconds
+     */
+    public final long getRetryDelay(final int attempts) {
+        long delay = this.retryDelay;
+
+        for (int attemptIndex = 1; attemptIndex < attempts && delay < this.maxRetryDelay; attemptIndex++) {
+            delay *= 2;
+        }
+
+        return Math.min(delay, this.maxRetryDelay);
+    }
+
+
+
+    /**
+     * Transmits a batch of the pending messages to the SMTP server through a single connection.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.interval:5000}",
+               initialDelayString = "${email.outbox.interval:5000}")
+    public void sendPendingMessages() {
+        final List<OutboxEmail> messages
+                = this.repository.findByStatusAndNextAttemptLessThanEqualOrderByIdAsc(OutboxEmail.Status.PENDING,
+                        new GregorianCalendar(), PageRequest.of(0, this.batchSize));
+
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        this.logger.debug("Sending {} e-mail message(s) from the outbox.", messages.size());
+        this.emailSettings.refresh();
+
+        if (!this.emailSettings.isNotificationEnabled()) {
+            this.logger.info("The e-mail messages in the outbox have been discarded because the e-mail notifications"
+                    + " are turned off.");
+            this.repository.deleteAll(messages);
+            return;
+        }
+
+        if (!this.emailSettings.isValid()) {
+            this.logger.error("Could not send the messages in the outbox. The SMTP configuration is not valid.");
+            this.recordFailures(messages, 0, "The SMTP configuration is not valid.");
+            return;
+        }
+
+        final Session session = Session.getInstance(this.emailSettings.toSystemProperties());
+        Transport transport = null;
+
+        try {
+            transport = session.getTransport(this.emailSettings.getTransport());
+
+            for (int messageIndex = 0; messageIndex < messages.size(); messageIndex++) {
+                final OutboxEmail email = messages.get(messageIndex);
+                final MimeMessage message = this.buildMessage(session, email);
+
+                if (message == null) {
+                    continue;
+                }
+
+                if (!transport.isConnected()) {
+
+                    try {
+                        this.connect(transport);
+
+                    } catch (MessagingException exception) {
+                        this.logger.error("Could not connect to the SMTP server.", exception);
+                        this.recordFailures(messages, messageIndex, exception.getMessage());
+                        return;
+                    }
+                }
+
+                try {
+                    transport.sendMessage(message, message.getAllRecipients());
+                    this.repository.delete(email);
+
+                } catch (MessagingException exception) {
+                    this.logger.error("Could not send the e-mail message {} from the outbox.", email.getId(),
+                            exception);
+                    this.recordFailure(email, exception.getMessage());
+                }
+            }
+
+        } catch (MessagingException exception) {
+            this.logger.error("Could not obtain the SMTP transport.", exception);
+            this.recordFailures(messages, 0, exception.getMessage());
+
+        } finally {
+            this.close(transport);
+        }
+    }
+
+
+
+    /**
+     * Removes from the outbox the messages that could not be sent and that are older than the configured retention.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.purgeInterval:3600000}",
+               initialDelayString = "${email.outbox.purgeInterval:3600000}")
+    public void purgeFailedMessages() {
+
+        if (this.failedRetention == 0) {
+            return;
+        }
+
+        final Calendar creationLimit = new GregorianCalendar();
+        creationLimit.add(Calendar.DAY_OF_MONTH, -this.failedRetention);
+
+        try {
+            final int purgedCount
+                    = this.repository.deleteByStatusAndCreationDateBefore(OutboxEmail.Status.FAILED, creationLimit);
+
+            if (purgedCount > 0) {
+                this.logger.info("{} e-mail message(s) that could not be sent have been removed from the outbox.",
+                        purgedCount);
+            }
+
+        } catch (Exception exception) {
+            this.logger.error("Could not remove the failed messages from the outbox.", exception);
+        }
+    }
+
+
+
+    /**
+     * Builds the MIME message to send an outbox e-mail. If it fails, the e-mail is marked as failed since trying
+     * again would not help.
+     *
+     * @param session the current SMTP session
+     * @param email   the outbox e-mail to send
+     * @return the MIME message, or <code>null</code> if it could not be created
+     */
+    private MimeMessage buildMessage(final Session session, final OutboxEmail email) {
+        final Email.ContentType contentType = (email.isHtml()) ? Email.ContentType.HTML : Email.ContentType.TEXT;
+
+        try {
+            return Email.buildMimeMessage(session, this.emailSettings, InternetAddress.parse(email.getRecipients()),
+                    email.getSubject(), email.getContent(), contentType);
+
+        } catch (MessagingException | UnsupportedEncodingException exception) {
+            this.logger.error("Could not create the e-mail message {} from the outbox.", email.getId(), exception);
+            email.setAttempts(email.getAttempts() + 1);
+            email.setLastError(StringUtils.left(exception.getMessage(), EmailOutbox.MAX_ERROR_LENGTH));
+            email.setStatus(OutboxEmail.Status.FAILED);
+            this.repository.save(email);
+
+            return null;
+        }
+    }
+
+
+
+    /**
+     * Releases the connection to the SMTP server.
+     *
+     * @param transport the SMTP transport to close, or <code>null</code> if it was not created
+     */
+    private void close(final Transport transport) {
+
+        if (transport == null || !transport.isConnected()) {
+            return;
+        }
+
+        try {
+            transport.close();
+
+        } catch (MessagingException exception) {
+            this.logger.warn("Could not close the connection to the SMTP server.", exception);
+        }
+    }
+
+
+
+    /**
+     * Opens the connection to the SMTP server.
+     *
+     * @param transport the SMTP transport to connect
+     * @throws MessagingException if the connection failed
+     */
+    private void connect(final Transport transport) throws MessagingException {
+
+        if (this.emailSettings.useAuthentication()) {
+            transport.connect(this.emailSettings.getSmtpUser(), this.emailSettings.getSmtpPassword());
+            return;
+        }
+
+        transport.connect();
+    }
+
+
+
+    /**
+     * Notes that an attempt to send a message failed and schedules the next one, or marks the message as failed if
+     * the maximum number of attempts has been reached.
+     *
+     * @param email        the outbox e-mail that could not be sent
+     * @param errorMessage the reason of the failure
+     */
+    private void recordFailure(final OutboxEmail email, final String errorMessage) {
+        final int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(StringUtils.left(errorMessage, EmailOutbox.MAX_ERROR_LENGTH));
+
+        if (attempts >= this.maxAttempts) {
+            this.logger.error("The e-mail message {} could not be sent after {} attempts and will not be tried"
+                    + " again.", email.getId(), attempts);
+            email.setStatus(OutboxEmail.Status.FAILED);
+
+        } else {
+            final Calendar nextAttempt = new GregorianCalendar();
+            nextAttempt.setTimeInMillis(nextAttempt.getTimeInMillis() + this.getRetryDelay(attempts));
+            email.setNextAttempt(nextAttempt);
+        }
+
+        this.repository.save(email);
+    }
+
+
+
+    /**
+     * Notes that the attempt to send a set of messages failed.
+     *
+     * @param messages     the batch of outbox e-mails
+     * @param startIndex   the index of the first message of the batch that could not be sent
+     * @param errorMessage the reason of the failure
+     */
+    private void recordFailures(final List<OutboxEmail> messages, final int startIndex, final String errorMessage) {
+
+        for (OutboxEmail email : messages.subList(startIndex, messages.size())) {
+            this.recordFailure(email, errorMessage);
+        }
+    }
+
+}
@@ -27,7 +27,9 @@ import java.util.stream.Collectors;
 import ch.asit_asso.extract.plugins.common.IEmailSettings;
 import ch.asit_asso.extract.utils.EmailUtils;
 import org.apache.commons.lang3.StringUtils;
+import ch.asit_asso.extract.persistence.SystemParametersCache;
 import ch.asit_asso.extract.persistence.SystemParametersRepository;
+import ch.asit_asso.extract.persistence.SystemParametersSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
@@ -112,6 +114,12 @@ public class EmailSettings implements IEmailSettings {
      */
     private SystemParametersRepository systemParametersRepository;
 
+    /**
+     * The copy in memory of the general parameters of the application, or <code>null</code> if the parameters
+     * must be read from the data source each time the settings are refreshed.
+     */
+    private SystemParametersCache parametersCache;
+
     /**
      * The Thymeleaf object that allows to process the e-mail templates.
      */
@@ -122,6 +130,18 @@ public class EmailSettings implements IEmailSettings {
      */
     private List<Locale> availableLocales;
 
+    /**
+     * The store that holds the messages until they are transmitted to the SMTP server in the background, or
+     * <code>null</code> if the messages must be sent immediately.
+     */
+    private EmailOutbox outbox;
+
+    /**
+     * The collector that aggregates the notifications about imported requests, or <code>null</code> if each
+     * notification must be sent on its own.
+     */
+    private NotificationDigest notificationDigest;
+
 
 
     /**
@@ -453,6 +473,73 @@ public class EmailSettings implements IEmailSettings {
 
 
 
+    /**
+     * Obtains the store that holds the messages until they are transmitted to the SMTP server in the background.
+     *
+     * @return the e-mail outbox, or <code>null</code> if the messages must be sent immediately
+     */
+    public final EmailOutbox getOutbox() {
+        return this.outbox;
+    }
+
+
+
+    /**
+     * Defines the store that holds the messages until they are transmitted to the SMTP server in the background.
+     *
+     * @param emailOutbox the e-mail outbox, or <code>null</code> if the messages must be sent immediately
+     */
+    public final void setOutbox(final EmailOutbox emailOutbox) {
+        this.outbox = emailOutbox;
+    }
+
+
+
+    /**
+     * Obtains the copy in memory of the general parameters of the application.
+     *
+     * @return the parameters cache, or <code>null</code> if the parameters are read from the data source
+     */
+    public final SystemParametersCache getParametersCache() {
+        return this.parametersCache;
+    }
+
+
+
+    /**
+     * Defines the copy in memory of the general parameters of the application that the settings are refreshed
+     * from.
+     *
+     * @param cache the parameters cache, or <code>null</code> to read the parameters from the data source
+     */
+    public final void setParametersCache(final SystemParametersCache cache) {
+        this.parametersCache = cache;
+    }
+
+
+
+    /**
+     * Obtains the collector that aggregates the notifications about imported requests.
+     *
+     * @return the notification digest, or <code>null</code> if each notification must be sent on its own
+     */
+    public final NotificationDigest getNotificationDigest() {
+        return this.notificationDigest;
+    }
+
+
+
+    /**
+     * Defines the collector that aggregates the notifications about imported requests.
+     *
+     * @param digest the notification digest, or <code>null</code> if each notification must be sent on its own
+     */
+    public final void setNotificationDigest(final NotificationDigest digest) {
+        this.notificationDigest = digest;
+    }
+
+
+
     /**
      * Obtains the e-mail template processor.
      *
@@ -659,6 +746,12 @@ public class EmailSettings implements IEmailSettings {
      * Defines the e-mail parameters from what is currently set in the data source.
      */
     private void setSettingsFromDataSource() {
+
+        if (this.parametersCache != null) {
+            this.setSettingsFromSnapshot(this.parametersCache.getSnapshot());
+            return;
+        }
+
         this.logger.debug("Defining the SMTP configuration from the data source.");
         this.setSenderAddress(this.systemParametersRepository.getSmtpFromMail());
         this.setSenderName(this.systemParametersRepository.getSmtpFromName());
@@ -686,4 +779,39 @@ public class EmailSettings implements IEmailSettings {
         }
     }
 
+
+
+    /**
+     * Defines the e-mail parameters from the application parameters kept in memory.
+     *
+     * @param parameters the current values of the application parameters
+     */
+    private void setSettingsFromSnapshot(final SystemParametersSnapshot parameters) {
+        this.logger.debug("Defining the SMTP configuration from the application parameters in memory.");
+        this.setSenderAddress(parameters.getSmtpFromMail());
+        this.setSenderName(parameters.getSmtpFromName());
+        this.setSmtpHost(parameters.getSmtpServer());
+        this.setSmtpUser(parameters.getSmtpUser());
+        this.setSmtpPassword(parameters.getSmtpPassword());
+        this.setNotificationsEnabled(parameters.isEmailNotificationEnabled());
+        final Integer port = parameters.getSmtpPort();
+
+        if (port != null) {
+            this.setSmtpPort(port);
+
+        } else {
+            this.logger.error("The SMTP port in the data source is not a valid integer.");
+        }
+
+        final String sslTypeConfigString = parameters.getSmtpSSL();
+
+        if (sslTypeConfigString != null) {
+            this.setSsl(SslType.valueOf(sslTypeConfigString));
+        }
+
+        if (!this.isValid()) {
+            this.logger.warn("The SMTP parameters in the data source are not valid. Please check the configuration.");
+        }
+    }
+
 }
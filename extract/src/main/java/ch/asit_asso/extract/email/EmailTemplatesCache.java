@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.email;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+
+
+/**
+ * The manager of the parsed e-mail templates. The template engine keeps the parsed templates in its cache, so that
+ * sending a message only binds the model to the template. This object fills the cache when the application is
+ * started, and allows to empty it after the templates have been edited.
+ *
+ * @author Yves Grasset
+ */
+public class EmailTemplatesCache {
+
+    /**
+     * The name of the folder that contains the e-mail templates, relative to the templates path.
+     */
+    private static final String HTML_TEMPLATES_FOLDER = "html/";
+
+    /**
+     * The extension of the e-mail template files.
+     */
+    private static final String TEMPLATE_EXTENSION = ".html";
+
+    /**
+     * Whether the template engine keeps the parsed templates.
+     */
+    private final boolean cacheEnabled;
+
+    /**
+     * The parameters to use to send e-mail messages.
+     */
+    private final EmailSettings emailSettings;
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(EmailTemplatesCache.class);
+
+    /**
+     * The object that finds the template files.
+     */
+    private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+
+    /**
+     * The location of the folder that contains the e-mail templates.
+     */
+    private final String templatesPath;
+
+
+
+    /**
+     * Creates a new instance of the templates cache manager.
+     *
+     * @param settings       the parameters to use to send e-mail messages
+     * @param path           the location of the folder that contains the e-mail templates
+     * @param isCacheEnabled whether the template engine keeps the parsed templates
+     */
+    public EmailTemplatesCache(final EmailSettings settings, final String path, final boolean isCacheEnabled) {
+
+        if (settings == null) {
+            throw new IllegalArgumentException("The e-mail settings object cannot be null.");
+        }
+
+        if (StringUtils.isBlank(path)) {
+            throw new IllegalArgumentException("The templates path cannot be empty.");
+        }
+
+        this.emailSettings = settings;
+        this.templatesPath = (path.endsWith("/")) ? path : path + "/";
+        this.cacheEnabled = isCacheEnabled;
+    }
+
+
+
+    /**
+     * Obtains whether the template engine keeps the parsed templates.
+     *
+     * @return <code>true</code> if the templates are cached
+     */
+    public final boolean isCacheEnabled() {
+        return this.cacheEnabled;
+    }
+
+
+
+    /**
+     * Obtains the names of the e-mail templates that can be used by a message.
+     *
+     * @return the list of template names, such as <code>html/taskFailed</code>
+     */
+    public final List<String> getTemplateNames() {
+        final String pattern = this.templatesPath + EmailTemplatesCache.HTML_TEMPLATES_FOLDER + "*"
+                + EmailTemplatesCache.TEMPLATE_EXTENSION;
+        final List<String> templateNames = new ArrayList<>();
+
+        try {
+
+            for (Resource resource : this.resourceResolver.getResources(pattern)) {
+                final String fileName = resource.getFilename();
+
+                if (fileName == null) {
+                    continue;
+                }
+
+                templateNames.add(EmailTemplatesCache.HTML_TEMPLATES_FOLDER
+                        + StringUtils.removeEnd(fileName, EmailTemplatesCache.TEMPLATE_EXTENSION));
+            }
+
+        } catch (IOException exception) {
+            this.logger.error("Could not list the e-mail templates in {}.", pattern, exception);
+            return Collections.emptyList();
+        }
+
+        Collections.sort(templateNames);
+
+        return templateNames;
+    }
+
+
+
+    /**
+     * Parses all the e-mail templates so that they are ready when the first messages are sent. The templates are
+     * not rendered.
+     *
+     * @return the number of templates that were parsed successfully
+     */
+    public final int preload() {
+
+        if (!this.cacheEnabled) {
+            this.logger.debug("The e-mail templates are not preloaded because the templates cache is disabled.");
+            return 0;
+        }
+
+        final TemplateEngine engine = this.emailSettings.getTemplateEngine();
+        final List<String> templateNames = this.getTemplateNames();
+        int loadedTemplatesNumber = 0;
+
+        for (String templateName : templateNames) {
+
+            try {
+                // The throttled processor parses the template and stores it in the engine cache under the same key
+                // as a regular rendering. It only binds a model when it is asked to write, which never happens here.
+                // The parsed template does not depend on the locale, so it is only loaded once.
+                engine.processThrottled(templateName, new Context());
+                loadedTemplatesNumber++;
+
+            } catch (Exception exception) {
+                this.logger.warn("The e-mail template {} could not be parsed.", templateName, exception);
+            }
+        }
+
+        this.logger.info("{} of {} e-mail template(s) preloaded.", loadedTemplatesNumber, templateNames.size());
+
+        return loadedTemplatesNumber;
+    }
+
+
+
+    /**
+     * Discards the parsed e-mail templates and loads them again, so that the modifications to the template files
+     * are taken into account.
+     *
+     * @return the number of templates that were loaded
+     */
+    public final int reload() {
+        this.logger.info("Reloading the e-mail templates.");
+        this.emailSettings.getTemplateEngine().clearTemplateCache();
+
+        return this.preload();
+    }
+
+
+
+    /**
+     * Loads the e-mail templates once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        this.preload();
+    }
+
+}
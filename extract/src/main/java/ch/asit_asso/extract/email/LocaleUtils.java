@@ -23,6 +23,8 @@ import org.slf4j.LoggerFactory;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +40,11 @@ public class LocaleUtils {
      */
     private static final Logger logger = LoggerFactory.getLogger(LocaleUtils.class);
 
+    /**
+     * The locales already parsed, mapped by the configuration string they were read from.
+     */
+    private static final Map<String, List<Locale>> PARSED_LOCALES = new ConcurrentHashMap<>();
+
     /**
      * Private constructor to prevent instantiation of this utility class.
      */
@@ -93,7 +100,7 @@ public class LocaleUtils {
      * Parses the available locales from a configuration string.
      *
      * @param availableLocalesConfig comma-separated string of locale codes
-     * @return list of available locales
+     * @return list of available locales, which cannot be modified
      */
     public static List<Locale> parseAvailableLocales(String availableLocalesConfig) {
         if (availableLocalesConfig == null || availableLocalesConfig.trim().isEmpty()) {
@@ -101,11 +108,12 @@ public class LocaleUtils {
             return Arrays.asList(Locale.forLanguageTag("fr"));
         }
 
-        return Arrays.stream(availableLocalesConfig.split(","))
+        // The configuration does not change while the application runs, so each string is only parsed once
+        return PARSED_LOCALES.computeIfAbsent(availableLocalesConfig, config -> Arrays.stream(config.split(","))
                 .map(String::trim)
                 .filter(lang -> !lang.isEmpty())
                 .map(Locale::forLanguageTag)
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList()));
     }
 
     /**
@@ -0,0 +1,446 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.email;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.EnumMap;
+import java.util.GregorianCalendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.LinkedBlockingQueue;
+import javax.annotation.PreDestroy;
+import javax.mail.internet.AddressException;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.domain.User;
+import ch.asit_asso.extract.persistence.UsersRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+
+
+/**
+ * A collector for the notifications sent to the administrators about imported requests. Instead of sending one
+ * message per request and per administrator, the events of the same type that occur within a time window are
+ * sent as a single digest message to each administrator. The digest is only rendered once per language. The number
+ * of events held in memory is limited: when the queue of a type is full, its events are sent at once. The pending
+ * events are also sent when the application stops.
+ *
+ * @author Yves Grasset
+ */
+public class NotificationDigest {
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(NotificationDigest.class);
+
+    /**
+     * The maximum number of events of each type that can wait to be notified.
+     */
+    private final int maxPendingEvents;
+
+    /**
+     * The parameters to use to send the messages.
+     */
+    private final EmailSettings emailSettings;
+
+    /**
+     * The events waiting to be notified, by type.
+     */
+    private final Map<Type, Queue<Event>> pendingEvents;
+
+    /**
+     * The Spring Data object that links the user data objects with the data source.
+     */
+    private final UsersRepository usersRepository;
+
+
+
+    /**
+     * The kinds of events that can be aggregated.
+     */
+    public enum Type {
+        /**
+         * An imported product could not be processed.
+         */
+        INVALID_PRODUCT_IMPORTED("html/invalidProductsImportedDigest", "email.invalidProductsImportedDigest.subject"),
+        /**
+         * An imported request did not match any rule of its connector.
+         */
+        UNMATCHED_REQUEST("html/unmatchedRequestsDigest", "email.unmatchedRequestsDigest.subject");
+
+        /**
+         * The string that identifies the template of the digest message.
+         */
+        private final String template;
+
+        /**
+         * The key of the application string to use as the title of the digest message.
+         */
+        private final String subjectKey;
+
+
+
+        /**
+         * Defines a kind of event.
+         *
+         * @param digestTemplate   the string that identifies the template of the digest message
+         * @param digestSubjectKey the key of the application string to use as the title of the digest message
+         */
+        Type(final String digestTemplate, final String digestSubjectKey) {
+            this.template = digestTemplate;
+            this.subjectKey = digestSubjectKey;
+        }
+
+
+
+        /**
+         * Obtains the template of the digest message.
+         *
+         * @return the string that identifies the template
+         */
+        String getTemplate() {
+            return this.template;
+        }
+
+
+
+        /**
+         * Obtains the key of the application string to use as the title of the digest message.
+         *
+         * @return the message key
+         */
+        String getSubjectKey() {
+            return this.subjectKey;
+        }
+    }
+
+
+
+    /**
+     * An event waiting to be notified.
+     *
+     * @param request      the request that the event is about
+     * @param errorMessage the string that explains the problem, or <code>null</code> if not relevant
+     * @param date         when the event occurred
+     */
+    record Event(Request request, String errorMessage, Calendar date) {
+    }
+
+
+
+    /**
+     * Creates a new digest instance.
+     *
+     * @param settings        the parameters to use to send the messages
+     * @param usersRepo       the Spring Data object that links the user data objects with the data source
+     * @param maxEventsByType the maximum number of events of each type that can wait to be notified
+     */
+    public NotificationDigest(final EmailSettings settings, final UsersRepository usersRepo,
+            final int maxEventsByType) {
+
+        if (settings == null) {
+            throw new IllegalArgumentException("The e-mail settings object cannot be null.");
+        }
+
+        if (usersRepo == null) {
+            throw new IllegalArgumentException("The users repository cannot be null.");
+        }
+
+        if (maxEventsByType < 1) {
+            throw new IllegalArgumentException("The maximum number of pending events must be greater than 0.");
+        }
+
+        this.emailSettings = settings;
+        this.usersRepository = usersRepo;
+        this.maxPendingEvents = maxEventsByType;
+        this.pendingEvents = new EnumMap<>(Type.class);
+
+        for (Type type : Type.values()) {
+            this.pendingEvents.put(type, new LinkedBlockingQueue<>(maxEventsByType));
+        }
+    }
+
+
+
+    /**
+     * Registers that an imported product could not be processed.
+     *
+     * @param request      the request that contains the invalid product
+     * @param errorMessage the string that explains why the product is invalid
+     * @param importTime   when the product was imported
+     */
+    public final void addInvalidProductImported(final Request request, final String errorMessage,
+            final Calendar importTime) {
+
+        if (errorMessage == null) {
+            throw new IllegalArgumentException("The error message cannot be null.");
+        }
+
+        if (importTime == null) {
+            throw new IllegalArgumentException("The import time cannot be null.");
+        }
+
+        this.addEvent(Type.INVALID_PRODUCT_IMPORTED, request, errorMessage, importTime);
+    }
+
+
+
+    /**
+     * Registers that an imported request did not match any rule.
+     *
+     * @param request the request that did not match
+     */
+    public final void addUnmatchedRequest(final Request request) {
+        this.addEvent(Type.UNMATCHED_REQUEST, request, null, new GregorianCalendar());
+    }
+
+
+
+    /**
+     * Obtains the number of events of a given type that have not been notified yet.
+     *
+     * @param type the kind of events
+     * @return the number of pending events
+     */
+    public final int getPendingCount(final Type type) {
+        return this.pendingEvents.get(type).size();
+    }
+
+
+
+    /**
+     * Sends a message to the administrators for each type of events that occurred since the last call.
+     */
+    @Scheduled(fixedDelayString = "${email.digest.window:60000}", initialDelayString = "${email.digest.window:60000}")
+    public void sendPendingNotifications() {
+
+        for (Type type : Type.values()) {
+            this.sendPendingNotifications(type);
+        }
+    }
+
+
+
+    /**
+     * Sends the events that have not been notified yet before the application stops, so that they are not lost.
+     */
+    @PreDestroy
+    public void flush() {
+        this.logger.debug("Sending the pending notifications before the application stops.");
+        this.sendPendingNotifications();
+    }
+
+
+
+    /**
+     * Sends a message to the administrators about the events of a given type that occurred since the last call.
+     *
+     * @param type the kind of events to notify
+     */
+    private void sendPendingNotifications(final Type type) {
+        final List<Event> events = this.drain(type);
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            this.notifyAdministrators(type, events);
+
+        } catch (Exception exception) {
+            this.logger.warn("An error prevented notifying the administrators of {} event(s) of type {}.",
+                    events.size(), type, exception);
+        }
+    }
+
+
+
+    /**
+     * Queues an event to be notified.
+     *
+     * @param type         the kind of event
+     * @param request      the request that the event is about
+     * @param errorMessage the string that explains the problem, or <code>null</code> if not relevant
+     * @param date         when the event occurred
+     */
+    private void addEvent(final Type type, final Request request, final String errorMessage, final Calendar date) {
+
+        if (request == null) {
+            throw new IllegalArgumentException("The request cannot be null.");
+        }
+
+        if (request.getConnector() == null) {
+            throw new IllegalStateException("The request connector must be set.");
+        }
+
+        final Queue<Event> queue = this.pendingEvents.get(type);
+        final Event event = new Event(request, errorMessage, date);
+
+        while (!queue.offer(event)) {
+            this.logger.info("{} events of type {} are waiting to be notified. They are sent now.",
+                    this.maxPendingEvents, type);
+            this.sendPendingNotifications(type);
+        }
+
+        this.logger.debug("Event {} for request {} added to the notification digest.", type, request.getId());
+    }
+
+
+
+    /**
+     * Removes the pending events of a given type.
+     *
+     * @param type the kind of events
+     * @return the list of the events removed, in the order they occurred
+     */
+    private List<Event> drain(final Type type) {
+        final Queue<Event> queue = this.pendingEvents.get(type);
+        final List<Event> events = new ArrayList<>();
+        Event event;
+
+        while ((event = queue.poll()) != null) {
+            events.add(event);
+        }
+
+        return events;
+    }
+
+
+
+    /**
+     * Sends a message about a set of events to each active administrator, in their language.
+     *
+     * @param type   the kind of the events
+     * @param events the events to notify
+     */
+    private void notifyAdministrators(final Type type, final List<Event> events) {
+        final User[] administrators = this.usersRepository.findByProfileAndActiveTrue(User.Profile.ADMIN);
+
+        if (administrators == null || administrators.length == 0) {
+            this.logger.warn("No administrators found to notify of {} event(s) of type {}.", events.size(), type);
+            return;
+        }
+
+        final List<Locale> availableLocales = this.emailSettings.getAvailableLocales();
+        final Map<Locale, List<User>> administratorsByLocale = new LinkedHashMap<>();
+
+        for (User administrator : administrators) {
+            final Locale userLocale = LocaleUtils.getValidatedUserLocale(administrator, availableLocales);
+            administratorsByLocale.computeIfAbsent(userLocale, locale -> new ArrayList<>()).add(administrator);
+        }
+
+        int sentNumber = 0;
+
+        for (Map.Entry<Locale, List<User>> localeAdministrators : administratorsByLocale.entrySet()) {
+            final Email model = this.createMessage(type, events, localeAdministrators.getKey());
+
+            if (model == null) {
+                this.logger.error("Could not create the {} notification in {}.", type,
+                        localeAdministrators.getKey().toLanguageTag());
+                continue;
+            }
+
+            for (User administrator : localeAdministrators.getValue()) {
+
+                if (this.sendCopy(model, administrator)) {
+                    sentNumber++;
+                }
+            }
+        }
+
+        this.logger.info("The notification of {} event(s) of type {} was sent to {} administrator(s).",
+                events.size(), type, sentNumber);
+    }
+
+
+
+    /**
+     * Renders the message about a set of events. A single event is notified with the usual message.
+     *
+     * @param type   the kind of the events
+     * @param events the events to notify
+     * @param locale the language of the message
+     * @return the message with its subject and content defined, or <code>null</code> if it could not be created
+     */
+    private Email createMessage(final Type type, final List<Event> events, final Locale locale) {
+
+        if (events.size() > 1) {
+            final NotificationDigestEmail digestEmail = new NotificationDigestEmail(this.emailSettings);
+
+            return (digestEmail.initializeContent(type, events, locale)) ? digestEmail : null;
+        }
+
+        final Event event = events.get(0);
+
+        switch (type) {
+
+            case INVALID_PRODUCT_IMPORTED:
+                final InvalidProductImportedEmail invalidProductEmail
+                        = new InvalidProductImportedEmail(this.emailSettings);
+
+                return (invalidProductEmail.initializeContent(event.request(), event.errorMessage(), event.date(),
+                        locale)) ? invalidProductEmail : null;
+
+            case UNMATCHED_REQUEST:
+                final UnmatchedRequestEmail unmatchedEmail = new UnmatchedRequestEmail(this.emailSettings);
+
+                return (unmatchedEmail.initializeContent(event.request(), locale)) ? unmatchedEmail : null;
+
+            default:
+                throw new UnsupportedOperationException(String.format("The event type %s is not supported.", type));
+        }
+    }
+
+
+
+    /**
+     * Sends a rendered message to an administrator.
+     *
+     * @param model         the message whose subject and content must be sent
+     * @param administrator the user to send the message to
+     * @return <code>true</code> if the message was sent
+     */
+    private boolean sendCopy(final Email model, final User administrator) {
+        final NotificationDigestEmail message = new NotificationDigestEmail(this.emailSettings);
+        message.setContentType(model.getContentType());
+        message.setSubject(model.getSubject());
+        message.setContent(model.getContent());
+
+        try {
+            message.addRecipient(administrator.getEmail());
+
+        } catch (AddressException exception) {
+            this.logger.error("Invalid email address for user {}: {}", administrator.getLogin(),
+                    administrator.getEmail());
+            return false;
+        }
+
+        if (!message.send()) {
+            this.logger.warn("Failed to send the notification to {}.", administrator.getEmail());
+            return false;
+        }
+
+        return true;
+    }
+
+}
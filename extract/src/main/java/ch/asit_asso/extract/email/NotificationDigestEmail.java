@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.email;
+
+import java.net.MalformedURLException;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import ch.asit_asso.extract.domain.Request;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+
+
+
+/**
+ * An electronic message that notifies the administrators of several events of the same type at once.
+ *
+ * @author Yves Grasset
+ */
+public class NotificationDigestEmail extends Email {
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(NotificationDigestEmail.class);
+
+
+
+    /**
+     * Creates a new instance of this message.
+     *
+     * @param settings the object that assembles all the configuration objects required to create and send an e-mail
+     *                 message
+     */
+    public NotificationDigestEmail(final EmailSettings settings) {
+        super(settings);
+    }
+
+
+
+    /**
+     * Defines the textual data contained in the message for a specific locale.
+     *
+     * @param type   the kind of the events to notify
+     * @param events the events to notify
+     * @param locale the locale to use for the message content, or <code>null</code> to use the default
+     * @return <code>true</code> if the message content has been successfully initialized
+     */
+    final boolean initializeContent(final NotificationDigest.Type type, final List<NotificationDigest.Event> events,
+            final Locale locale) {
+
+        if (type == null) {
+            throw new IllegalArgumentException("The event type cannot be null.");
+        }
+
+        if (events == null || events.isEmpty()) {
+            throw new IllegalArgumentException("The events list cannot be empty.");
+        }
+
+        this.setContentType(ContentType.HTML);
+
+        try {
+            this.setContentFromTemplate(type.getTemplate(), this.getModel(events, locale));
+
+        } catch (EmailTemplateNotFoundException exception) {
+            this.logger.error("Could not define the body of the message.", exception);
+            return false;
+        }
+
+        this.setSubject(this.getMessageString(type.getSubjectKey(), new Object[]{events.size()}, locale));
+
+        return true;
+    }
+
+
+
+    /**
+     * Creates an object that assembles the data to display in the body of this message for a specific locale.
+     *
+     * @param events the events to notify
+     * @param locale the locale to use for the template context, or <code>null</code> to use the default
+     * @return the context object to feed to the message body template
+     */
+    private IContext getModel(final List<NotificationDigest.Event> events, final Locale locale) {
+        final Context model = new Context(locale);
+        final DateFormat dateFormat = DateFormat.getDateTimeInstance();
+        final List<Map<String, Object>> items = new ArrayList<>(events.size());
+
+        for (NotificationDigest.Event event : events) {
+            final Request request = event.request();
+            final Map<String, Object> item = new HashMap<>();
+            item.put("connectorName", request.getConnector().getName());
+            item.put("productLabel", (request.getProductLabel() != null) ? request.getProductLabel() : "");
+            item.put("orderLabel", (request.getOrderLabel() != null) ? request.getOrderLabel() : "");
+            item.put("errorMessage", event.errorMessage());
+            item.put("eventTimeString", dateFormat.format(event.date().getTime()));
+
+            try {
+                item.put("dashboardItemUrl", this.getAbsoluteUrl(String.format("/requests/%d", request.getId())));
+
+            } catch (MalformedURLException exception) {
+                this.logger.error("Could not get the dashboard item absolute URL.", exception);
+            }
+
+            items.add(item);
+        }
+
+        model.setVariable("items", items);
+        model.setVariable("itemsNumber", items.size());
+
+        return model;
+    }
+
+}
@@ -105,6 +105,19 @@ public class PasswordResetEmail extends Email {
 
 
 
+    /**
+     * Obtains whether this message can be put in the outbox. The user is waiting for the code, so it is always sent
+     * immediately.
+     *
+     * @return <code>false</code>
+     */
+    @Override
+    protected final boolean canBeDeferred() {
+        return false;
+    }
+
+
+
     /**
      * Creates an object that assembles the data to display in the message.
      *
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.filter;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import ch.asit_asso.extract.persistence.DatabaseWorkload;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+
+
+/**
+ * The filter that makes the database accesses done while processing an HTTP request use the connection pool of a
+ * given workload.
+ *
+ * @author Yves Grasset
+ */
+public class DatabaseWorkloadFilter extends OncePerRequestFilter {
+
+    /**
+     * The work that the HTTP requests belong to.
+     */
+    private final DatabaseWorkload workload;
+
+
+
+    /**
+     * Creates a new instance of this filter.
+     *
+     * @param requestsWorkload the work that the HTTP requests belong to
+     */
+    public DatabaseWorkloadFilter(final DatabaseWorkload requestsWorkload) {
+
+        if (requestsWorkload == null) {
+            throw new IllegalArgumentException("The workload cannot be null.");
+        }
+
+        this.workload = requestsWorkload;
+    }
+
+
+
+    @Override
+    protected final void doFilterInternal(@NotNull final HttpServletRequest request,
+            @NotNull final HttpServletResponse response, @NotNull final FilterChain filterChain)
+            throws ServletException, IOException {
+        final DatabaseWorkload previousWorkload = this.workload.enter();
+
+        try {
+            filterChain.doFilter(request, response);
+
+        } finally {
+            DatabaseWorkload.restore(previousWorkload);
+        }
+    }
+
+}
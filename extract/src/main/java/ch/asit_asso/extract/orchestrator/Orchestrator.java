@@ -22,6 +22,7 @@ import ch.asit_asso.extract.orchestrator.runners.RequestTaskService;
 import ch.asit_asso.extract.orchestrator.schedulers.ImportJobsScheduler;
 import ch.asit_asso.extract.orchestrator.schedulers.ManagementTasksScheduler;
 import ch.asit_asso.extract.persistence.ApplicationRepositories;
+import ch.asit_asso.extract.persistence.DatabaseWorkload;
 import ch.asit_asso.extract.plugins.implementation.TaskProcessorDiscovererWrapper;
 import org.apache.commons.lang3.StringUtils;
 import ch.asit_asso.extract.email.EmailSettings;
@@ -484,7 +485,7 @@ public final class Orchestrator {
 
 
     private synchronized void scheduleTimeRangeMonitoring() {
-        final var task = new FixedDelayTask(this::manageMonitoringByTimeRange,
+        final var task = new FixedDelayTask(DatabaseWorkload.PIPELINE.wrap(this::manageMonitoringByTimeRange),
                                                      this.settings.getFrequency() * 1000, 0);
 
         this.timeRangeMonitoringTask = this.taskRegistrar.scheduleFixedDelayTask(task);
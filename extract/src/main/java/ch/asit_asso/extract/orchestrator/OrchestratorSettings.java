@@ -17,6 +17,7 @@
 package ch.asit_asso.extract.orchestrator;
 
 import ch.asit_asso.extract.persistence.SystemParametersRepository;
+import ch.asit_asso.extract.persistence.SystemParametersSnapshot;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -240,4 +241,28 @@ public class OrchestratorSettings {
         this.setRanges(OrchestratorTimeRangeCollection.fromJson(rangesString));
     }
 
+
+
+    /**
+     * Defines the orchestrator settings from the application parameters kept in memory.
+     *
+     * @param parameters the current values of the application parameters
+     */
+    public final void setValuesFromSnapshot(final SystemParametersSnapshot parameters) {
+
+        if (parameters == null) {
+            throw new IllegalArgumentException("The system parameters snapshot cannot be null.");
+        }
+
+        final Integer frequencyValue = parameters.getSchedulerFrequency();
+
+        if (frequencyValue == null) {
+            throw new IllegalStateException("The scheduler frequency parameter is not a valid number.");
+        }
+
+        this.setFrequency(frequencyValue);
+        this.setMode(SchedulerMode.valueOf(parameters.getSchedulerMode()));
+        this.setRanges(OrchestratorTimeRangeCollection.fromJson(parameters.getSchedulerRanges()));
+    }
+
 }
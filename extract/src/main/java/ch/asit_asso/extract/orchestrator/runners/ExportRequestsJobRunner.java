@@ -66,6 +66,11 @@ public class ExportRequestsJobRunner /*extends JobRunner<Request, Request>*/ imp
      */
     private final MessageService messageService;
 
+    /**
+     * The service that notifies the other components of the application when the state of a request changes.
+     */
+    private final RequestTaskService taskService;
+
     /**
      * The writer to the application logs.
      */
@@ -83,10 +88,12 @@ public class ExportRequestsJobRunner /*extends JobRunner<Request, Request>*/ imp
      * @param smtpSettings               the objects required to create and send an e-mail message
      * @param applicationLanguage        the locale code of the language used by the application to display messages
      * @param messageService             the service for obtaining localized messages
+     * @param requestTaskService         the service that notifies the other components of the application when the
+     *                                   state of a request changes
      */
     public ExportRequestsJobRunner(final EmailSettings smtpSettings, final ApplicationRepositories repositories,
             final ConnectorDiscovererWrapper connectorsPluginDiscoverer, final String applicationLanguage,
-            final MessageService messageService) {
+            final MessageService messageService, final RequestTaskService requestTaskService) {
 
         if (repositories == null) {
             throw new IllegalArgumentException("The application repositories object cannot be null.");
@@ -116,11 +123,16 @@ public class ExportRequestsJobRunner /*extends JobRunner<Request, Request>*/ imp
             throw new IllegalArgumentException("The message service cannot be null.");
         }
 
+        if (requestTaskService == null) {
+            throw new IllegalArgumentException("The request task service cannot be null.");
+        }
+
         this.applicationRepositories = repositories;
         this.connectorPluginDiscoverer = connectorsPluginDiscoverer;
         this.emailSettings = smtpSettings;
         this.applicationLangague = applicationLanguage;
         this.messageService = messageService;
+        this.taskService = requestTaskService;
     }
 
 
@@ -144,6 +156,7 @@ public class ExportRequestsJobRunner /*extends JobRunner<Request, Request>*/ imp
                 try {
                     Request exportedRequest = requestExporter.process(requestToExport);
                     requestWriter.write(Arrays.asList(exportedRequest));
+                    this.taskService.notifyStatusChange(exportedRequest);
 
                 } catch (Exception exception) {
                     this.logger.error("Could not export request {}.", requestToExport.getId(), exception);
@@ -176,7 +189,7 @@ public class ExportRequestsJobRunner /*extends JobRunner<Request, Request>*/ imp
      * @return the request result processor
      */
     public final ExportRequestProcessor getProcessor() {
-        final String basePath = this.applicationRepositories.getParametersRepository().getBasePath();
+        final String basePath = this.applicationRepositories.getParametersCache().getSnapshot().getBasePath();
 
         return new ExportRequestProcessor(this.applicationRepositories, this.connectorPluginDiscoverer, basePath,
                 this.emailSettings, this.applicationLangague, this.messageService);
@@ -17,8 +17,10 @@
 package ch.asit_asso.extract.orchestrator.runners;
 
 import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Objects;
 import ch.asit_asso.extract.batch.processor.StandbyRequestsReminderProcessor;
-import ch.asit_asso.extract.batch.reader.RequestByStatusReader;
+import ch.asit_asso.extract.batch.reader.StandbyReminderDueReader;
 import ch.asit_asso.extract.domain.Request;
 import ch.asit_asso.extract.email.EmailSettings;
 import ch.asit_asso.extract.persistence.ApplicationRepositories;
@@ -101,9 +103,14 @@ public class RequestNotificationJobRunner /*extends JobRunner<Request, Request>*
                 this.logger.debug("Examining whether request {} should trigger a notification.", standbyRequest.getId());
 
                 try {
+                    final Calendar previousReminder = standbyRequest.getLastReminder();
                     Request processedRequest = requestNotifier.process(standbyRequest);
-                    this.logger.debug("Updating request {} if necessary.", standbyRequest.getId());
-                    requestWriter.write(Arrays.asList(processedRequest));
+
+                    if (processedRequest != null
+                            && !Objects.equals(previousReminder, processedRequest.getLastReminder())) {
+                        this.logger.debug("Updating request {}.", standbyRequest.getId());
+                        requestWriter.write(Arrays.asList(processedRequest));
+                    }
 
                 } catch (Exception exception) {
                     this.logger.error("An error occurred during the execution of the request notification job for"
@@ -135,12 +142,33 @@ public class RequestNotificationJobRunner /*extends JobRunner<Request, Request>*
 
 
     /**
-     * Obtains the object that will fetch the requests that are ready to be matched with a process.
+     * Obtains the object that will fetch the standby requests whose operators must be reminded of them.
      *
-     * @return the requests-to-match reader
+     * @return the standby requests reader
      */
     public final ItemReader<Request> getReader() {
-        return new RequestByStatusReader(Request.Status.STANDBY, this.applicationRepositories.getRequestsRepository());
+        return new StandbyReminderDueReader(this.getDaysBeforeReminder(),
+                                            this.applicationRepositories.getRequestsRepository());
+    }
+
+
+
+    /**
+     * Obtains the number of days between two reminders for the same standby request.
+     *
+     * @return the number of days, or 0 if the reminders are turned off
+     */
+    private int getDaysBeforeReminder() {
+        final String daysString = this.applicationRepositories.getParametersRepository().getStandbyReminderDays();
+
+        try {
+            return Math.max(0, Integer.parseInt(daysString));
+
+        } catch (NumberFormatException exception) {
+            this.logger.warn("The number of days before a standby reminder \"{}\" is invalid. The reminders are"
+                    + " turned off.", daysString);
+            return 0;
+        }
     }
 
 
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.orchestrator.runners;
+
+import ch.asit_asso.extract.domain.Request;
+
+
+
+/**
+ * A notification that the state of an order has been changed by the background processing.
+ *
+ * @author Yves Grasset
+ */
+public class RequestStatusChangedEvent {
+
+    /**
+     * The number that identifies the order.
+     */
+    private final int requestId;
+
+    /**
+     * The new state of the order processing.
+     */
+    private final Request.Status status;
+
+
+
+    /**
+     * Creates a new event for an order.
+     *
+     * @param request the order whose state changed
+     */
+    public RequestStatusChangedEvent(final Request request) {
+
+        if (request == null || request.getId() == null) {
+            throw new IllegalArgumentException("The request must be saved.");
+        }
+
+        this.requestId = request.getId();
+        this.status = request.getStatus();
+    }
+
+
+
+    /**
+     * Obtains the number that identifies the order.
+     *
+     * @return the request identifier
+     */
+    public final int getRequestId() {
+        return this.requestId;
+    }
+
+
+
+    /**
+     * Obtains the new state of the order processing.
+     *
+     * @return the request status
+     */
+    public final Request.Status getStatus() {
+        return this.status;
+    }
+
+}
@@ -260,7 +260,8 @@ public class RequestTaskRunner implements Runnable {
             }
 
             final ITaskProcessor pluginInstance = taskPlugin.newInstance(this.language, task.getParametersValues());
-            final String dataFoldersBasePath = this.applicationRepositories.getParametersRepository().getBasePath();
+            final String dataFoldersBasePath
+                    = this.applicationRepositories.getParametersCache().getSnapshot().getBasePath();
             final TaskProcessorRequest taskProcessorRequest
                     = new TaskProcessorRequest(this.request, dataFoldersBasePath);
             final ITaskProcessorResult pluginResult = pluginInstance.execute(taskProcessorRequest, this.emailSettings);
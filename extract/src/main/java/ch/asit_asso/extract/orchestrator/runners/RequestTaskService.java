@@ -29,6 +29,7 @@ import ch.asit_asso.extract.persistence.RequestHistoryRepository;
 import ch.asit_asso.extract.plugins.common.ITaskProcessorRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -48,15 +49,26 @@ public class RequestTaskService {
 
     private final ApplicationRepositories applicationRepositories;
 
+    /**
+     * The object that notifies the other components of the application when the state of a request changes.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
 
 
-    public RequestTaskService(final ApplicationRepositories applicationRepositories) {
+    public RequestTaskService(final ApplicationRepositories applicationRepositories,
+            final ApplicationEventPublisher eventPublisher) {
 
         if (applicationRepositories == null) {
             throw new IllegalArgumentException("The application repositories object cannot be null.");
         }
 
+        if (eventPublisher == null) {
+            throw new IllegalArgumentException("The event publisher cannot be null.");
+        }
+
         this.applicationRepositories = applicationRepositories;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -138,8 +150,10 @@ public class RequestTaskService {
         historyRecord.setEndDate(taskEndDate);
         historyRecord.setMessage(message);
         this.applicationRepositories.getRequestHistoryRepository().save(historyRecord);
+        final Request savedRequest = this.applicationRepositories.getRequestsRepository().save(request);
+        this.notifyStatusChange(savedRequest);
 
-        return this.applicationRepositories.getRequestsRepository().save(request);
+        return savedRequest;
     }
 
 
@@ -175,7 +189,27 @@ public class RequestTaskService {
         }
 
         request.setStatus(Request.Status.TOEXPORT);
-        return this.applicationRepositories.getRequestsRepository().save(request);
+        final Request savedRequest = this.applicationRepositories.getRequestsRepository().save(request);
+        this.notifyStatusChange(savedRequest);
+
+        return savedRequest;
+    }
+
+
+
+    /**
+     * Informs the other components of the application that the state of a request changed. If a transaction is
+     * running, the listeners are only called once it is committed.
+     *
+     * @param request the request whose state changed
+     */
+    public void notifyStatusChange(final Request request) {
+
+        if (request == null) {
+            throw new IllegalArgumentException("The request cannot be null.");
+        }
+
+        this.eventPublisher.publishEvent(new RequestStatusChangedEvent(request));
     }
 
 
@@ -13,6 +13,7 @@ import ch.asit_asso.extract.orchestrator.OrchestratorSettings;
 import ch.asit_asso.extract.orchestrator.runners.CommandImportJobRunner;
 import ch.asit_asso.extract.persistence.ApplicationRepositories;
 import ch.asit_asso.extract.persistence.ConnectorsRepository;
+import ch.asit_asso.extract.persistence.DatabaseWorkload;
 import ch.asit_asso.extract.services.MessageService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -137,7 +138,8 @@ public class ImportJobsScheduler extends JobScheduler {
      */
     @Override
     public final void scheduleJobs() {
-        final var task = new FixedDelayTask(this::scheduleImportJobs, this.getSchedulingStepInMilliseconds(), 0);
+        final var task = new FixedDelayTask(DatabaseWorkload.PIPELINE.wrap(this::scheduleImportJobs),
+                                           this.getSchedulingStepInMilliseconds(), 0);
 
         this.importJobsScheduledTask = this.getTaskRegistrar().scheduleFixedDelayTask(task);
         this.logger.info("Connectors monitoring task configured to run every {} second(s).", this.getSchedulingStep());
@@ -256,7 +258,8 @@ public class ImportJobsScheduler extends JobScheduler {
                     this.applicationRepositories, this.emailSettings, this.language, this.messageService);
             this.logger.debug("Task to run import job for connector {} created.", connectorName);
             TaskScheduler taskScheduler = this.getTaskScheduler();
-            ScheduledFuture jobFuture = taskScheduler.scheduleWithFixedDelay(jobRunner, delay);
+            ScheduledFuture jobFuture = taskScheduler.scheduleWithFixedDelay(DatabaseWorkload.PIPELINE.wrap(jobRunner),
+                    delay);
             this.logger.debug("Import task for connector {} added to the scheduler.", connectorName);
             int connectorId = connector.getId();
             this.scheduledJobsMap.put(connectorId, new JobSchedulingInfo(connectorId, delay, jobFuture));
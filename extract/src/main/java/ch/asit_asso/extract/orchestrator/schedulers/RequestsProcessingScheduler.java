@@ -33,6 +33,7 @@ import ch.asit_asso.extract.orchestrator.runners.RequestTaskRunner;
 import ch.asit_asso.extract.orchestrator.runners.RequestTaskService;
 import ch.asit_asso.extract.orchestrator.runners.TaskCompleteListener;
 import ch.asit_asso.extract.persistence.ApplicationRepositories;
+import ch.asit_asso.extract.persistence.DatabaseWorkload;
 import ch.asit_asso.extract.persistence.RequestHistoryRepository;
 import ch.asit_asso.extract.persistence.RequestsRepository;
 import ch.asit_asso.extract.plugins.implementation.TaskProcessorDiscovererWrapper;
@@ -351,7 +352,7 @@ public class RequestsProcessingScheduler extends JobScheduler implements TaskCom
                                                                  this.applicationLangague, this.taskService);
             taskRunner.subscribeToCompletionNotification(this);
             this.logger.debug("Created the task runner.");
-            this.taskExecutorService.submit(taskRunner);
+            this.taskExecutorService.submit(DatabaseWorkload.PIPELINE.wrap(taskRunner));
             this.logger.debug("Task runner submitted.");
             this.addRunningRequestToList(requestId);
             this.logger.debug("Request {} added to the currently running tasks list.", requestId);
@@ -385,7 +386,7 @@ public class RequestsProcessingScheduler extends JobScheduler implements TaskCom
         final RequestMatcherJobRunner requestMatcherJobRunner
                 = new RequestMatcherJobRunner(/*this.getJobRunnerComponents(),*/this.applicationRepositories,
                                                                                 this.emailSettings);
-        final var recurringTask = new FixedDelayTask(requestMatcherJobRunner,
+        final var recurringTask = new FixedDelayTask(DatabaseWorkload.PIPELINE.wrap(requestMatcherJobRunner),
                                                      this.getSchedulingStepInMilliseconds(), 0);
         this.processMatchingScheduledTask = this.getTaskRegistrar().scheduleFixedDelayTask(recurringTask);
         this.logger.debug("The request process matching job is scheduled with a {} second(s) delay.",
@@ -401,7 +402,8 @@ public class RequestsProcessingScheduler extends JobScheduler implements TaskCom
         this.logger.debug("Scheduling the request notification job.");
         final RequestNotificationJobRunner notificationJobRunner = new RequestNotificationJobRunner(
                 this.applicationRepositories, this.emailSettings, this.applicationLangague);
-        final var recurringTask = new FixedDelayTask(notificationJobRunner, this.getSchedulingStepInMilliseconds(), 0);
+        final var recurringTask = new FixedDelayTask(DatabaseWorkload.PIPELINE.wrap(notificationJobRunner),
+                                                     this.getSchedulingStepInMilliseconds(), 0);
         this.requestNotificationScheduledTask = this.getTaskRegistrar().scheduleFixedDelayTask(recurringTask);
         this.logger.debug("The request notification job is scheduled with a {} second(s) delay.", this.getSchedulingStep());
     }
@@ -415,8 +417,9 @@ public class RequestsProcessingScheduler extends JobScheduler implements TaskCom
         this.logger.debug("Scheduling the request export job.");
         final ExportRequestsJobRunner exportJobRunner = new ExportRequestsJobRunner(/*this.getJobRunnerComponents(),*/
                 this.emailSettings, this.applicationRepositories, this.connectorPluginDiscoverer,
-                this.applicationLangague, this.messageService);
-        final var recurringTask = new FixedDelayTask(exportJobRunner, this.getSchedulingStepInMilliseconds(), 0);
+                this.applicationLangague, this.messageService, this.taskService);
+        final var recurringTask = new FixedDelayTask(DatabaseWorkload.PIPELINE.wrap(exportJobRunner),
+                                                     this.getSchedulingStepInMilliseconds(), 0);
         this.taskExportScheduledTask = this.getTaskRegistrar().scheduleFixedDelayTask(recurringTask);
         this.logger.debug("The request export job is scheduled with a {} second(s) delay.", this.getSchedulingStep());
     }
@@ -428,7 +431,7 @@ public class RequestsProcessingScheduler extends JobScheduler implements TaskCom
      */
     private void scheduleTasksExecutionManagementJob() {
         this.logger.debug("Scheduling the request task execution job.");
-        final var recurringTask = new FixedDelayTask(this::manageTaskProcessingJobs,
+        final var recurringTask = new FixedDelayTask(DatabaseWorkload.PIPELINE.wrap(this::manageTaskProcessingJobs),
                                                      this.getSchedulingStepInMilliseconds(), 0);
         this.taskExecutionScheduledTask = this.getTaskRegistrar().scheduleFixedDelayTask(recurringTask);
 
@@ -77,6 +77,12 @@ public class ApplicationRepositories {
     @Autowired
     private SystemParametersRepository parametersRepository;
 
+    /**
+     * The copy in memory of the application settings.
+     */
+    @Autowired
+    private SystemParametersCache parametersCache;
+
     /**
      * The link between task data objects and the data source.
      */
@@ -176,6 +182,17 @@ public class ApplicationRepositories {
 
 
 
+    /**
+     * Obtains the copy in memory of the application settings.
+     *
+     * @return the application settings cache
+     */
+    public final SystemParametersCache getParametersCache() {
+        return this.parametersCache;
+    }
+
+
+
     /**
      * Obtains the link between the task data objects and the data source.
      *
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import ch.asit_asso.extract.domain.ArchivedRequestHistoryRecord;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+
+
+/**
+ * The link between the history of the orders moved to the archive tables and the database. The archived history
+ * records are read-only.
+ *
+ * @author Yves Grasset
+ */
+public interface ArchivedRequestHistoryRepository extends Repository<ArchivedRequestHistoryRecord, Integer> {
+
+    /**
+     * Obtains all the history records related to a set of archived requests, grouped by request and in execution
+     * order.
+     *
+     * @param requestsIds the numbers that identify the archived requests
+     * @return a list of archived history records
+     */
+    @Query("SELECT h FROM ArchivedRequestHistoryRecord h WHERE h.requestId IN :requestsIds"
+            + " ORDER BY h.requestId, h.step")
+    List<ArchivedRequestHistoryRecord> findByRequestIdIn(@Param("requestsIds") Collection<Integer> requestsIds);
+
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence;
+
+import ch.asit_asso.extract.domain.ArchivedRequest;
+import org.springframework.data.repository.CrudRepository;
+
+
+
+/**
+ * The link between the orders moved to the archive tables and the database. The archived orders are read-only.
+ *
+ * @author Yves Grasset
+ */
+public interface ArchivedRequestsRepository extends CrudRepository<ArchivedRequest, Integer> {
+
+}
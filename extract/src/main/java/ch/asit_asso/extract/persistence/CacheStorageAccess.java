@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.cache.Cache;
+
+
+
+/**
+ * The storage of a Hibernate cache region in a Spring cache.
+ *
+ * @author Yves Grasset
+ */
+class CacheStorageAccess implements DomainDataStorageAccess {
+
+    /**
+     * The cache that holds the data of the region.
+     */
+    private final Cache cache;
+
+
+
+    /**
+     * Creates a new storage instance.
+     *
+     * @param regionCache the cache that holds the data of the region
+     */
+    CacheStorageAccess(final Cache regionCache) {
+
+        if (regionCache == null) {
+            throw new IllegalArgumentException("The region cache cannot be null.");
+        }
+
+        this.cache = regionCache;
+    }
+
+
+
+    /**
+     * Obtains the cache that holds the data of the region.
+     *
+     * @return the cache
+     */
+    final Cache getCache() {
+        return this.cache;
+    }
+
+
+
+    @Override
+    public final Object getFromCache(final Object key, final SharedSessionContractImplementor session) {
+        final Cache.ValueWrapper valueWrapper = this.cache.get(key);
+
+        return (valueWrapper != null) ? valueWrapper.get() : null;
+    }
+
+
+
+    @Override
+    public final void putIntoCache(final Object key, final Object value,
+            final SharedSessionContractImplementor session) {
+        this.cache.put(key, value);
+    }
+
+
+
+    @Override
+    public final boolean contains(final Object key) {
+        return this.cache.get(key) != null;
+    }
+
+
+
+    @Override
+    public final void evictData() {
+        this.cache.clear();
+    }
+
+
+
+    @Override
+    public final void evictData(final Object key) {
+        this.cache.evict(key);
+    }
+
+
+
+    @Override
+    public final void release() {
+        this.cache.clear();
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence;
+
+
+
+/**
+ * The kinds of work that obtain their database connections from separate pools, so that one of them cannot starve
+ * the others.
+ * <p>
+ * The workload of a thread is defined by the code that runs the work. A thread without a defined workload uses the
+ * maintenance pool.
+ *
+ * @author Yves Grasset
+ */
+public enum DatabaseWorkload {
+
+    /**
+     * The processing of the HTTP requests sent by the users.
+     */
+    WEB("web"),
+
+    /**
+     * The orchestrator jobs that import, match, process, export and notify the orders.
+     */
+    PIPELINE("pipeline"),
+
+    /**
+     * The background work that is not part of the orders pipeline, such as the scheduled clean-ups, the archival or
+     * the bulk operations.
+     */
+    MAINTENANCE("maintenance");
+
+    /**
+     * The workload of each thread, if it has been defined.
+     */
+    private static final ThreadLocal<DatabaseWorkload> CURRENT_WORKLOAD = new ThreadLocal<>();
+
+    /**
+     * The string that identifies this workload in the configuration and in the statistics.
+     */
+    private final String poolName;
+
+
+
+    /**
+     * Creates a new workload.
+     *
+     * @param name the string that identifies this workload in the configuration and in the statistics
+     */
+    DatabaseWorkload(final String name) {
+        this.poolName = name;
+    }
+
+
+
+    /**
+     * Obtains the workload of the current thread.
+     *
+     * @return the workload that was defined for this thread, or {@link #MAINTENANCE} if there is none
+     */
+    public static DatabaseWorkload current() {
+        final DatabaseWorkload workload = DatabaseWorkload.CURRENT_WORKLOAD.get();
+
+        return (workload != null) ? workload : DatabaseWorkload.MAINTENANCE;
+    }
+
+
+
+    /**
+     * Obtains the string that identifies this workload in the configuration and in the statistics.
+     *
+     * @return the name of the pool of this workload
+     */
+    public final String getPoolName() {
+        return this.poolName;
+    }
+
+
+
+    /**
+     * Defines this workload as the one of the current thread. The previous workload must be given back to
+     * {@link #restore(DatabaseWorkload)} once the work is over, as the threads are generally reused.
+     *
+     * @return the workload that was defined for this thread before, or <code>null</code> if there was none
+     */
+    public final DatabaseWorkload enter() {
+        final DatabaseWorkload previousWorkload = DatabaseWorkload.CURRENT_WORKLOAD.get();
+        DatabaseWorkload.CURRENT_WORKLOAD.set(this);
+
+        return previousWorkload;
+    }
+
+
+
+    /**
+     * Defines the workload of the current thread as it was before a call to {@link #enter()}.
+     *
+     * @param previousWorkload the workload returned by {@link #enter()}
+     */
+    public static void restore(final DatabaseWorkload previousWorkload) {
+
+        if (previousWorkload == null) {
+            DatabaseWorkload.CURRENT_WORKLOAD.remove();
+            return;
+        }
+
+        DatabaseWorkload.CURRENT_WORKLOAD.set(previousWorkload);
+    }
+
+
+
+    /**
+     * Creates a task that runs a given one under this workload.
+     *
+     * @param task the task to run
+     * @return the task that defines this workload for the thread while the given one runs
+     */
+    public final Runnable wrap(final Runnable task) {
+
+        if (task == null) {
+            throw new IllegalArgumentException("The task to run cannot be null.");
+        }
+
+        return () -> {
+            final DatabaseWorkload previousWorkload = this.enter();
+
+            try {
+                task.run();
+
+            } finally {
+                DatabaseWorkload.restore(previousWorkload);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence;
+
+import java.util.Calendar;
+import java.util.List;
+import ch.asit_asso.extract.domain.OutboxEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+
+
+/**
+ * A link between the outbox e-mail data objects and the data source.
+ *
+ * @author Yves Grasset
+ */
+public interface EmailOutboxRepository extends PagingAndSortingRepository<OutboxEmail, Integer> {
+
+    /**
+     * Obtains the messages in a given state that can be sent at a given time, oldest first.
+     *
+     * @param status   the state of the messages to fetch
+     * @param date     the time that the next attempt of the messages must not be after
+     * @param pageable the object that limits the number of messages returned
+     * @return a list of the matching messages
+     */
+    List<OutboxEmail> findByStatusAndNextAttemptLessThanEqualOrderByIdAsc(OutboxEmail.Status status, Calendar date,
+                                                                           Pageable pageable);
+
+
+
+    /**
+     * Obtains the number of messages in a given state.
+     *
+     * @param status the state of the messages to count
+     * @return the number of messages
+     */
+    long countByStatus(OutboxEmail.Status status);
+
+
+
+    /**
+     * Removes the messages in a given state that were put in the outbox before a given time.
+     *
+     * @param status the state of the messages to remove
+     * @param date   the time that the messages must have been created before to be removed
+     * @return the number of messages removed
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEmail e WHERE e.status = :status AND e.creationDate < :date")
+    int deleteByStatusAndCreationDateBefore(@Param("status") OutboxEmail.Status status,
+                                            @Param("date") Calendar date);
+
+}
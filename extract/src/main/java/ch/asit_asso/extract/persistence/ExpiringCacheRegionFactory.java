@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence;
+
+import java.util.Map;
+import ch.asit_asso.extract.configuration.ExpiringCache;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+
+
+/**
+ * The provider of the Hibernate second-level cache regions, kept in the memory of the application. The entity and
+ * query regions discard their entries after a given time and hold a limited number of entries. The update
+ * timestamps region is never emptied, since the query results would otherwise be considered up to date.
+ * <p>
+ * The regions are configured through the following JPA properties:
+ * <ul>
+ *     <li><code>extract.cache.region.ttl</code>: the number of milliseconds during which an entry is valid</li>
+ *     <li><code>extract.cache.region.maxEntries</code>: the maximum number of entries in a region</li>
+ * </ul>
+ *
+ * @author Yves Grasset
+ */
+public class ExpiringCacheRegionFactory extends RegionFactoryTemplate {
+
+    /**
+     * The maximum number of entries in a region if it is not configured.
+     */
+    static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    /**
+     * The number of milliseconds during which an entry is valid if it is not configured.
+     */
+    static final long DEFAULT_TIME_TO_LIVE = 600000;
+
+    /**
+     * The name of the property that defines the maximum number of entries in a region.
+     */
+    public static final String MAX_ENTRIES_PROPERTY = "extract.cache.region.maxEntries";
+
+    /**
+     * The name of the property that defines the number of milliseconds during which an entry is valid.
+     */
+    public static final String TIME_TO_LIVE_PROPERTY = "extract.cache.region.ttl";
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(ExpiringCacheRegionFactory.class);
+
+    /**
+     * The maximum number of entries in a region.
+     */
+    private int maxEntries = ExpiringCacheRegionFactory.DEFAULT_MAX_ENTRIES;
+
+    /**
+     * The number of milliseconds during which an entry is valid.
+     */
+    private long timeToLive = ExpiringCacheRegionFactory.DEFAULT_TIME_TO_LIVE;
+
+
+
+    /**
+     * Obtains the maximum number of entries in a region.
+     *
+     * @return the number of entries
+     */
+    public final int getMaxEntries() {
+        return this.maxEntries;
+    }
+
+
+
+    /**
+     * Obtains the number of milliseconds during which an entry is valid.
+     *
+     * @return the time to live in milliseconds
+     */
+    public final long getTimeToLive() {
+        return this.timeToLive;
+    }
+
+
+
+    @Override
+    protected final void prepareForUse(final SessionFactoryOptions settings, final Map configValues) {
+        this.timeToLive = this.readLong(configValues, ExpiringCacheRegionFactory.TIME_TO_LIVE_PROPERTY,
+                ExpiringCacheRegionFactory.DEFAULT_TIME_TO_LIVE);
+        this.maxEntries = (int) this.readLong(configValues, ExpiringCacheRegionFactory.MAX_ENTRIES_PROPERTY,
+                ExpiringCacheRegionFactory.DEFAULT_MAX_ENTRIES);
+        this.logger.info("The second-level cache regions keep up to {} entries for {} ms.", this.maxEntries,
+                this.timeToLive);
+    }
+
+
+
+    @Override
+    protected final void releaseFromUse() {
+        this.logger.debug("The second-level cache regions are released.");
+    }
+
+
+
+    @Override
+    protected final DomainDataStorageAccess createDomainDataStorageAccess(final DomainDataRegionConfig regionConfig,
+            final DomainDataRegionBuildingContext buildingContext) {
+        return this.createExpiringStorage(regionConfig.getRegionName());
+    }
+
+
+
+    @Override
+    protected final StorageAccess createQueryResultsRegionStorageAccess(final String regionName,
+            final SessionFactoryImplementor sessionFactory) {
+        return this.createExpiringStorage(regionName);
+    }
+
+
+
+    @Override
+    protected final StorageAccess createTimestampsRegionStorageAccess(final String regionName,
+            final SessionFactoryImplementor sessionFactory) {
+        return new CacheStorageAccess(new ConcurrentMapCache(regionName));
+    }
+
+
+
+    /**
+     * Creates the storage of a region whose entries expire.
+     *
+     * @param regionName the string that identifies the region
+     * @return the region storage
+     */
+    private CacheStorageAccess createExpiringStorage(final String regionName) {
+        this.logger.debug("Creating the second-level cache region {}.", regionName);
+
+        return new CacheStorageAccess(new ExpiringCache(regionName, this.timeToLive, this.maxEntries));
+    }
+
+
+
+    /**
+     * Obtains the value of a numeric configuration property.
+     *
+     * @param configValues the configuration properties of the session factory
+     * @param propertyName the name of the property to read
+     * @param defaultValue the value to use if the property is not set or is not valid
+     * @return the property value
+     */
+    private long readLong(final Map<?, ?> configValues, final String propertyName, final long defaultValue) {
+        final Object value = (configValues != null) ? configValues.get(propertyName) : null;
+
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            final long parsedValue = Long.parseLong(value.toString().trim());
+
+            if (parsedValue > 0) {
+                return parsedValue;
+            }
+
+        } catch (NumberFormatException exception) {
+            this.logger.warn("The value {} of the property {} is not a valid number.", value, propertyName);
+        }
+
+        return defaultValue;
+    }
+
+}
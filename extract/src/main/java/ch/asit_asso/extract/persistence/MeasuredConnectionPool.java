@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+
+
+/**
+ * A pool of database connections that measures how long the threads wait to obtain a connection.
+ *
+ * @author Yves Grasset
+ */
+public class MeasuredConnectionPool extends DelegatingDataSource {
+
+    /**
+     * The number of connections obtained from the pool.
+     */
+    private final LongAdder acquisitionsCount = new LongAdder();
+
+    /**
+     * The longest time that a thread waited to obtain a connection, in nanoseconds.
+     */
+    private final AtomicLong maximumWaitTime = new AtomicLong();
+
+    /**
+     * The number of times that no connection could be obtained before the pool timeout.
+     */
+    private final LongAdder timeoutsCount = new LongAdder();
+
+    /**
+     * The total time that the threads waited to obtain a connection, in nanoseconds.
+     */
+    private final LongAdder totalWaitTime = new LongAdder();
+
+
+
+    /**
+     * Creates a new measured pool.
+     *
+     * @param pool the pool that provides the connections
+     */
+    public MeasuredConnectionPool(final DataSource pool) {
+
+        if (pool == null) {
+            throw new IllegalArgumentException("The connection pool cannot be null.");
+        }
+
+        this.setTargetDataSource(pool);
+    }
+
+
+
+    @Override
+    public final Connection getConnection() throws SQLException {
+        final long start = System.nanoTime();
+
+        try {
+            final Connection connection = super.getConnection();
+            this.recordAcquisition(System.nanoTime() - start);
+
+            return connection;
+
+        } catch (SQLTransientConnectionException exception) {
+            this.timeoutsCount.increment();
+            throw exception;
+        }
+    }
+
+
+
+    @Override
+    public final Connection getConnection(final String username, final String password) throws SQLException {
+        final long start = System.nanoTime();
+
+        try {
+            final Connection connection = super.getConnection(username, password);
+            this.recordAcquisition(System.nanoTime() - start);
+
+            return connection;
+
+        } catch (SQLTransientConnectionException exception) {
+            this.timeoutsCount.increment();
+            throw exception;
+        }
+    }
+
+
+
+    /**
+     * Obtains the current use of the pool and the time that the threads waited to obtain a connection.
+     *
+     * @return a map with the counts of the pool, where the times are in milliseconds
+     */
+    public final Map<String, Long> getStatistics() {
+        final Map<String, Long> statistics = new LinkedHashMap<>();
+        final long acquisitions = this.acquisitionsCount.sum();
+        final long waitTime = this.totalWaitTime.sum();
+        statistics.put("acquisitions", acquisitions);
+        statistics.put("timeouts", this.timeoutsCount.sum());
+        statistics.put("totalWaitTime", TimeUnit.NANOSECONDS.toMillis(waitTime));
+        statistics.put("averageWaitTime", (acquisitions > 0) ? TimeUnit.NANOSECONDS.toMillis(waitTime / acquisitions)
+                                                             : 0L);
+        statistics.put("maximumWaitTime", TimeUnit.NANOSECONDS.toMillis(this.maximumWaitTime.get()));
+
+        final DataSource pool = this.getTargetDataSource();
+
+        if (pool instanceof HikariDataSource) {
+            final HikariDataSource hikariPool = (HikariDataSource) pool;
+            final HikariPoolMXBean poolBean = hikariPool.getHikariPoolMXBean();
+            statistics.put("maximumSize", (long) hikariPool.getMaximumPoolSize());
+
+            // The pool is only started when the first connection is requested
+            statistics.put("active", (poolBean != null) ? poolBean.getActiveConnections() : 0L);
+            statistics.put("idle", (poolBean != null) ? poolBean.getIdleConnections() : 0L);
+            statistics.put("waiting", (poolBean != null) ? poolBean.getThreadsAwaitingConnection() : 0L);
+        }
+
+        return statistics;
+    }
+
+
+
+    /**
+     * Closes the connections of the pool.
+     */
+    public final void close() {
+        final DataSource pool = this.getTargetDataSource();
+
+        if (pool instanceof HikariDataSource) {
+            ((HikariDataSource) pool).close();
+        }
+    }
+
+
+
+    /**
+     * Adds a connection obtained from the pool to the statistics.
+     *
+     * @param waitTime the time that the thread waited to obtain the connection, in nanoseconds
+     */
+    private void recordAcquisition(final long waitTime) {
+        this.acquisitionsCount.increment();
+        this.totalWaitTime.add(waitTime);
+        this.maximumWaitTime.accumulateAndGet(waitTime, Math::max);
+    }
+
+}
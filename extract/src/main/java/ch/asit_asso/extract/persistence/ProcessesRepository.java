@@ -16,7 +16,10 @@
  */
 package ch.asit_asso.extract.persistence;
 
+import ch.asit_asso.extract.configuration.CacheConfiguration;
 import ch.asit_asso.extract.domain.Process;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
@@ -63,6 +66,84 @@ public interface ProcessesRepository extends PagingAndSortingRepository<Process,
     @Query("SELECT DISTINCT u FROM User u WHERE (u.id IN (SELECT pu.id FROM Process p JOIN p.usersCollection pu WHERE p.id = :processId) "
             + " OR u.id IN (SELECT uu.id FROM Process p JOIN p.userGroupsCollection ug JOIN ug.usersCollection uu WHERE p.id = :processId))"
             + " AND u.active = true AND u.mailActive = true")
+    @Cacheable(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, key = "#p0", sync = true)
     java.util.List<ch.asit_asso.extract.domain.User> getProcessOperators(@Param("processId") int processId);
 
+
+
+    /**
+     * Saves a process and discards the cached data that depends on the processes.
+     *
+     * @param entity the process to save
+     * @return the saved process
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    <S extends Process> S save(S entity);
+
+
+
+    /**
+     * Saves several processes and discards the cached data that depends on the processes.
+     *
+     * @param entities the processes to save
+     * @return the saved processes
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    <S extends Process> Iterable<S> saveAll(Iterable<S> entities);
+
+
+
+    /**
+     * Deletes a process and discards the cached data that depends on the processes.
+     *
+     * @param entity the process to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    void delete(Process entity);
+
+
+
+    /**
+     * Deletes a process based on its identifier and discards the cached data that depends on the processes.
+     *
+     * @param id the number that identifies the process to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    void deleteById(Integer id);
+
+
+
+    /**
+     * Deletes several processes based on their identifiers and discards the cached data that depends on the processes.
+     *
+     * @param ids the numbers that identify the processes to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    void deleteAllById(Iterable<? extends Integer> ids);
+
+
+
+    /**
+     * Deletes several processes and discards the cached data that depends on the processes.
+     *
+     * @param entities the processes to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    void deleteAll(Iterable<? extends Process> entities);
+
+
+
+    /**
+     * Deletes all the processes and discards the cached data that depends on the processes.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    void deleteAll();
+
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+
+
+/**
+ * The access to the statistics of the second-level cache that holds the processes, their tasks, the connectors and
+ * their rules.
+ *
+ * @author Yves Grasset
+ */
+@Component
+public class ReferenceDataCache {
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    /**
+     * The Hibernate session factory that owns the second-level cache.
+     */
+    private final SessionFactory sessionFactory;
+
+
+
+    /**
+     * Creates a new instance of this cache access.
+     *
+     * @param entityManagerFactory the object that creates the sessions to the database
+     */
+    public ReferenceDataCache(final EntityManagerFactory entityManagerFactory) {
+
+        if (entityManagerFactory == null) {
+            throw new IllegalArgumentException("The entity manager factory cannot be null.");
+        }
+
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+
+
+    /**
+     * Obtains the number of hits, misses and puts of the second-level cache, globally and for each region.
+     *
+     * @return a map with the statistics of the cache, where the key <code>global</code> holds the totals, or
+     *         <code>null</code> if the collection of the statistics is turned off
+     */
+    public final Map<String, Map<String, Long>> getStatistics() {
+        final Statistics statistics = this.sessionFactory.getStatistics();
+
+        if (!statistics.isStatisticsEnabled()) {
+            this.logger.debug("The cache statistics are not collected.");
+            return null;
+        }
+
+        final Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        result.put("global", this.buildCounts(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("queries", this.buildCounts(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            final CacheRegionStatistics regionStatistics;
+
+            try {
+                regionStatistics = statistics.getDomainDataRegionStatistics(regionName);
+
+            } catch (IllegalArgumentException exception) {
+                this.logger.debug("The region {} does not hold entities.", regionName);
+                continue;
+            }
+
+            if (regionStatistics == null) {
+                continue;
+            }
+
+            result.put(regionName, this.buildCounts(regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                    regionStatistics.getPutCount()));
+        }
+
+        return result;
+    }
+
+
+
+    /**
+     * Groups the counts of a cache region.
+     *
+     * @param hits   the number of times that an entry was found in the cache
+     * @param misses the number of times that an entry was not found in the cache
+     * @param puts   the number of times that an entry was added to the cache
+     * @return the map of the counts
+     */
+    private Map<String, Long> buildCounts(final long hits, final long misses, final long puts) {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("hits", hits);
+        counts.put("misses", misses);
+        counts.put("puts", puts);
+
+        return counts;
+    }
+
+}
@@ -16,10 +16,12 @@
  */
 package ch.asit_asso.extract.persistence;
 
+import java.util.Collection;
 import java.util.List;
 
 import ch.asit_asso.extract.domain.Request;
 import ch.asit_asso.extract.domain.RequestHistoryRecord;
+import ch.asit_asso.extract.domain.projections.RequestStepSummary;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
@@ -43,6 +45,30 @@ public interface RequestHistoryRepository extends PagingAndSortingRepository<Req
 
 
 
+    /**
+     * Obtains all the history records related to a set of requests, grouped by request and in execution order.
+     *
+     * @param requests the requests whose history must be fetched
+     * @return a list of history records
+     */
+    @Query("SELECT h FROM RequestHistoryRecord h WHERE h.request IN :requests ORDER BY h.request.id, h.step")
+    List<RequestHistoryRecord> findByRequestIn(@Param("requests") Collection<Request> requests);
+
+
+
+    /**
+     * Obtains the summary of all the history records related to a set of requests, without their message.
+     *
+     * @param requestIds the numbers that identify the requests whose history must be fetched
+     * @return a list of history record summaries
+     */
+    @Query("SELECT new ch.asit_asso.extract.domain.projections.RequestStepSummary(h.request.id, h.step,"
+            + " h.processStep, h.status, h.taskLabel, h.startDate, h.endDate)"
+            + " FROM RequestHistoryRecord h WHERE h.request.id IN :requestIds")
+    List<RequestStepSummary> findStepSummariesByRequestIdIn(@Param("requestIds") Collection<Integer> requestIds);
+
+
+
     /**
      * Obtains all the history records related to a given record in reverse execution order.
      *
@@ -16,12 +16,15 @@
  */
 package ch.asit_asso.extract.persistence;
 
+import java.util.Calendar;
 import java.util.Collection;
 import java.util.List;
 import ch.asit_asso.extract.domain.Connector;
 import ch.asit_asso.extract.domain.Process;
 import ch.asit_asso.extract.domain.Request;
 import ch.asit_asso.extract.domain.Request.Status;
+import ch.asit_asso.extract.domain.projections.RequestListItem;
+import ch.asit_asso.extract.domain.projections.RequestsChangeState;
 import javax.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
@@ -60,6 +63,19 @@ public interface RequestsRepository extends PagingAndSortingRepository<Request,
     List<Request> findByStatusWithLock(@Param("status") Status status);
 
 
+    /**
+     * Fetches the requests at a given state that have not been reminded to the operators since a given date.
+     *
+     * @param status the state of the requests to get
+     * @param limit  the date that the last reminder must not be after for the request to be returned
+     * @return a list of the requests at the provided state that have never been reminded or whose last reminder is
+     *         not after the limit
+     */
+    @Query("SELECT r FROM Request r WHERE r.status = :status AND (r.lastReminder IS NULL OR r.lastReminder <= :limit)")
+    List<Request> findByStatusAndReminderDue(@Param("status") Status status, @Param("limit") Calendar limit);
+
+
+
     /**
      * Fetches the requests that are at a given state of their processing.
      *
@@ -82,6 +98,123 @@ public interface RequestsRepository extends PagingAndSortingRepository<Request,
 
 
 
+    /**
+     * Fetches the columns displayed in a list for the requests that are <i>not</i> at a given state of their
+     * processing. The perimeter and the parameters of the requests are not read.
+     *
+     * @param status the state of the requests to ignore
+     * @return a list of the requests not at the provided state
+     */
+    @Query("SELECT new ch.asit_asso.extract.domain.projections.RequestListItem(r.id, r.orderLabel, r.productLabel,"
+            + " r.client, r.startDate, r.status, r.rejected, rc.name, rp.id, rp.name)"
+            + " FROM Request r LEFT JOIN r.connector rc LEFT JOIN r.process rp WHERE r.status <> :status")
+    List<RequestListItem> findListItemsByStatusNot(@Param("status") Status status);
+
+
+
+    /**
+     * Fetches the columns displayed in a list for the requests that are <i>not</i> at a given state of their
+     * processing and that have been modified since a given date.
+     *
+     * @param status the state of the requests to ignore
+     * @param since  the date from which the modified requests must be returned
+     * @return a list of the requests not at the provided state modified since the given date
+     */
+    @Query("SELECT new ch.asit_asso.extract.domain.projections.RequestListItem(r.id, r.orderLabel, r.productLabel,"
+            + " r.client, r.startDate, r.status, r.rejected, rc.name, rp.id, rp.name)"
+            + " FROM Request r LEFT JOIN r.connector rc LEFT JOIN r.process rp"
+            + " WHERE r.status <> :status AND r.lastModified >= :since")
+    List<RequestListItem> findListItemsByStatusNotModifiedSince(@Param("status") Status status,
+            @Param("since") Calendar since);
+
+
+
+    /**
+     * Fetches the number that identifies each request that is <i>not</i> at a given state of its processing.
+     *
+     * @param status the state of the requests to ignore
+     * @return a list of the identifiers of the requests not at the provided state
+     */
+    @Query("SELECT r.id FROM Request r WHERE r.status <> :status")
+    List<Integer> findIdsByStatusNot(@Param("status") Status status);
+
+
+
+    /**
+     * Fetches the number that identifies each request imported through a given connector that is at a given state of
+     * its processing.
+     *
+     * @param connectorId the number that identifies the connector that imported the requests
+     * @param status      the state of the requests to fetch
+     * @return a list of the identifiers of the requests, in ascending order
+     */
+    @Query("SELECT r.id FROM Request r WHERE r.connector.id = :connectorId AND r.status = :status ORDER BY r.id")
+    List<Integer> findIdsByConnectorIdAndStatus(@Param("connectorId") int connectorId,
+            @Param("status") Status status);
+
+
+
+    /**
+     * Counts the requests imported through a given connector that are at a given state of their processing.
+     *
+     * @param connectorId the number that identifies the connector that imported the requests
+     * @param status      the state of the requests to count
+     * @return the number of requests
+     */
+    @Query("SELECT COUNT(r) FROM Request r WHERE r.connector.id = :connectorId AND r.status = :status")
+    long countByConnectorIdAndStatus(@Param("connectorId") int connectorId, @Param("status") Status status);
+
+
+
+    /**
+     * Fetches the number that identifies each user that is allowed to view a request, either as an operator of its
+     * process or because the request has been assigned to the user, directly or through a user group.
+     *
+     * @param requestId the number that identifies the request
+     * @return a list of the identifiers of the users associated with the request
+     */
+    @Query("SELECT v.userId FROM RequestVisibility v WHERE v.requestId = :requestId")
+    List<Integer> findAssociatedUsersIds(@Param("requestId") int requestId);
+
+
+
+    /**
+     * Obtains whether a user is allowed to view an active request, either as an operator of its process or because
+     * the request has been assigned to the user, directly or through a user group.
+     *
+     * @param requestId the number that identifies the request
+     * @param userId    the number that identifies the user
+     * @return <code>true</code> if the user can view the request
+     */
+    @Query("SELECT COUNT(v) > 0 FROM RequestVisibility v WHERE v.requestId = :requestId AND v.userId = :userId")
+    boolean isRequestVisibleTo(@Param("requestId") int requestId, @Param("userId") int userId);
+
+
+
+    /**
+     * Obtains a summary that changes each time a request that is <i>not</i> at a given state of its processing is
+     * added, modified or removed.
+     *
+     * @param status the state of the requests to ignore
+     * @return the summary of the requests not at the provided state
+     */
+    @Query("SELECT new ch.asit_asso.extract.domain.projections.RequestsChangeState(COUNT(r), SUM(r.version),"
+            + " MAX(r.lastModified)) FROM Request r WHERE r.status <> :status")
+    RequestsChangeState getChangeStateByStatusNot(@Param("status") Status status);
+
+
+
+    /**
+     * Obtains the perimeter of a request without reading the rest of it.
+     *
+     * @param requestId the number that identifies the request
+     * @return the perimeter as a WKT geometry, or <code>null</code> if the request does not exist or has no perimeter
+     */
+    @Query("SELECT r.perimeter FROM Request r WHERE r.id = :requestId")
+    String findPerimeterById(@Param("requestId") int requestId);
+
+
+
     /**
      * Fetches the requests imported through a given connector that are <i>not</i> at a given state of
      * their processing.
@@ -104,4 +237,55 @@ public interface RequestsRepository extends PagingAndSortingRepository<Request,
     List<Request> findByStatusNotAndProcessIn(Status status,
             Collection<Process> processes);
 
+
+
+    /**
+     * Obtains whether a user was allowed to see a request when it was moved to the archive tables.
+     *
+     * @param requestId the number that identifies the archived request
+     * @param userId    the number that identifies the user
+     * @return <code>true</code> if the user can see the archived request
+     */
+    @Query("SELECT COUNT(v) > 0 FROM ArchivedRequestVisibility v WHERE v.requestId = :requestId"
+            + " AND v.userId = :userId")
+    boolean isArchivedRequestVisibleTo(@Param("requestId") int requestId, @Param("userId") int userId);
+
+
+
+    /**
+     * Moves a batch of the oldest requests finished before a given date to the archive tables, with their history
+     * and the list of the users allowed to see them. This must be called in a read-write transaction.
+     *
+     * @param endDateLimit the date before which the requests must have finished to be archived
+     * @param batchSize    the maximum number of requests to archive
+     * @return the number of requests that were archived
+     */
+    @Query(value = "SELECT archive_finished_requests(:endDateLimit, :batchSize)", nativeQuery = true)
+    int archiveFinishedRequests(@Param("endDateLimit") Calendar endDateLimit, @Param("batchSize") int batchSize);
+
+
+
+    /**
+     * Obtains the space used on the disk by the tables of the active requests and their history, with their
+     * indexes.
+     *
+     * @return the size of the active tables in bytes
+     */
+    @Query(value = "SELECT pg_total_relation_size('requests') + pg_total_relation_size('request_history')",
+            nativeQuery = true)
+    long getActiveTablesSize();
+
+
+
+    /**
+     * Obtains the space used on the disk by the tables of the archived requests, their history and the list of the
+     * users allowed to see them, with their indexes.
+     *
+     * @return the size of the archive tables in bytes
+     */
+    @Query(value = "SELECT pg_total_relation_size('requests_archive')"
+            + " + pg_total_relation_size('request_history_archive')"
+            + " + pg_total_relation_size('request_visibility_archive')", nativeQuery = true)
+    long getArchiveTablesSize();
+
 }
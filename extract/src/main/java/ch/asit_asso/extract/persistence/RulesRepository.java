@@ -17,8 +17,10 @@
 package ch.asit_asso.extract.persistence;
 
 import java.util.List;
+import javax.persistence.QueryHint;
 import ch.asit_asso.extract.domain.Connector;
 import ch.asit_asso.extract.domain.Rule;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 
@@ -30,21 +32,23 @@ import org.springframework.data.repository.PagingAndSortingRepository;
 public interface RulesRepository extends PagingAndSortingRepository<Rule, Integer> {
 
     /**
-     * Obtains all the rules for a given connector by matching order.
+     * Obtains all the rules for a given connector by matching order. The result is kept in the query cache.
      *
      * @param connector the connector whose rules must be fetched
      * @return a list of rules
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Rule> findByConnectorOrderByPosition(Connector connector);
 
 
 
     /**
-     * Obtains all the active rules for a given connector by matching order.
+     * Obtains all the active rules for a given connector by matching order. The result is kept in the query cache.
      *
      * @param connector the connector whose active rules must be fetched
      * @return a list of rules
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Rule> findByConnectorAndActiveTrueOrderByPosition(Connector connector);
 
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import ch.asit_asso.extract.domain.SystemParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+
+
+/**
+ * A copy in memory of the application settings, so that reading a setting does not require a query to the data
+ * source. All the settings are loaded at once in an immutable snapshot that is replaced as a whole when they are
+ * modified.
+ * <p>
+ * Since several instances of the application can share the same data source, each modification also changes a
+ * version parameter. The version stored in the data source is compared with the one of the current snapshot at
+ * most once per check interval, and the settings are loaded again if they differ.
+ *
+ * @author Yves Grasset
+ */
+@Component
+public class SystemParametersCache {
+
+    /**
+     * The minimum number of milliseconds between two checks of the settings version in the data source.
+     */
+    private final long checkInterval;
+
+    /**
+     * When the settings version in the data source was last checked, in milliseconds since the epoch.
+     */
+    private final AtomicLong lastCheckTime = new AtomicLong();
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(SystemParametersCache.class);
+
+    /**
+     * The Spring Data object that links the application settings with the data source.
+     */
+    private final SystemParametersRepository repository;
+
+    /**
+     * The values of the application settings currently in use, or <code>null</code> if they have not been loaded
+     * yet.
+     */
+    private final AtomicReference<SystemParametersSnapshot> snapshot = new AtomicReference<>();
+
+
+
+    /**
+     * Creates a new instance of the settings cache.
+     *
+     * @param parametersRepository the Spring Data object that links the application settings with the data source
+     * @param versionCheckInterval the minimum number of milliseconds between two checks of the settings version in
+     *                             the data source. If it is 0, the version is checked each time the settings are
+     *                             read.
+     */
+    public SystemParametersCache(final SystemParametersRepository parametersRepository,
+            @Value("${parameters.cache.checkInterval:5000}") final long versionCheckInterval) {
+
+        if (parametersRepository == null) {
+            throw new IllegalArgumentException("The system parameters repository cannot be null.");
+        }
+
+        if (versionCheckInterval < 0) {
+            throw new IllegalArgumentException("The version check interval cannot be negative.");
+        }
+
+        this.repository = parametersRepository;
+        this.checkInterval = versionCheckInterval;
+    }
+
+
+
+    /**
+     * Obtains the current values of the application settings. They are loaded from the data source the first
+     * time and when another instance of the application has modified them.
+     *
+     * @return the settings snapshot
+     */
+    public final SystemParametersSnapshot getSnapshot() {
+        final SystemParametersSnapshot currentSnapshot = this.snapshot.get();
+
+        if (currentSnapshot == null) {
+            return this.reload();
+        }
+
+        final long now = System.currentTimeMillis();
+        final long lastCheck = this.lastCheckTime.get();
+
+        if (now - lastCheck < this.checkInterval || !this.lastCheckTime.compareAndSet(lastCheck, now)) {
+            return currentSnapshot;
+        }
+
+        final SystemParameter versionParameter
+                = this.repository.findByKey(SystemParametersRepository.PARAMETERS_VERSION_KEY);
+        final String storedVersion = (versionParameter != null) ? versionParameter.getValue() : null;
+
+        if (Objects.equals(storedVersion, currentSnapshot.getVersion())) {
+            return currentSnapshot;
+        }
+
+        this.logger.info("The application settings have been modified by another instance. Reloading them.");
+
+        return this.reload();
+    }
+
+
+
+    /**
+     * Notes that the application settings have been modified in the data source. A new version is saved, so that
+     * the other instances of the application reload them, and the settings in memory are replaced.
+     *
+     * @return the new settings snapshot
+     */
+    public final SystemParametersSnapshot publishChanges() {
+        this.repository.save(new SystemParameter(SystemParametersRepository.PARAMETERS_VERSION_KEY,
+                UUID.randomUUID().toString()));
+
+        return this.reload();
+    }
+
+
+
+    /**
+     * Loads all the application settings from the data source and replaces the snapshot in memory.
+     *
+     * @return the new settings snapshot
+     */
+    public final SystemParametersSnapshot reload() {
+        final Map<String, String> values = new HashMap<>();
+
+        for (SystemParameter parameter : this.repository.findAll()) {
+            values.put(parameter.getKey(), parameter.getValue());
+        }
+
+        final SystemParametersSnapshot newSnapshot = new SystemParametersSnapshot(values);
+        this.snapshot.set(newSnapshot);
+        this.lastCheckTime.set(System.currentTimeMillis());
+        this.logger.debug("{} application setting(s) loaded with version {}.", values.size(),
+                newSnapshot.getVersion());
+
+        return newSnapshot;
+    }
+
+}
@@ -68,6 +68,12 @@ public interface SystemParametersRepository extends CrudRepository<SystemParamet
 
     String LDAP_USER_KEY = "ldap_user";
 
+    /**
+     * The string identifying the parameter that changes each time the application settings are modified, so that
+     * the instances of the application that keep the settings in memory know when to reload them.
+     */
+    String PARAMETERS_VERSION_KEY = "parameters_version";
+
 
 
     /**
@@ -0,0 +1,337 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+
+/**
+ * The values of all the application settings at a given time. An instance cannot be modified, so that it can be
+ * shared between threads without locking.
+ *
+ * @author Yves Grasset
+ */
+public final class SystemParametersSnapshot {
+
+    /**
+     * The string that identifies the state of the settings that this snapshot was created from, or
+     * <code>null</code> if the settings have never been modified through the cache.
+     */
+    private final String version;
+
+    /**
+     * The raw value of each application setting, mapped by its key.
+     */
+    private final Map<String, String> values;
+
+    /**
+     * The properties that must be highlighted when a request is validated.
+     */
+    private final String[] validationFocusProperties;
+
+    /**
+     * The interval between refreshes of the dashboard data in seconds, or <code>null</code> if it is not valid.
+     */
+    private final Integer dashboardRefreshInterval;
+
+    /**
+     * The delay between two executions of an orchestrator job in seconds, or <code>null</code> if it is not valid.
+     */
+    private final Integer schedulerFrequency;
+
+    /**
+     * The port to use to communicate with the SMTP server, or <code>null</code> if it is not valid.
+     */
+    private final Integer smtpPort;
+
+    /**
+     * The number of days after which the operators are reminded of a request in standby, or <code>null</code> if
+     * it is not valid.
+     */
+    private final Integer standbyReminderDays;
+
+
+
+    /**
+     * Creates a new snapshot of the application settings.
+     *
+     * @param parametersValues the raw value of each application setting, mapped by its key
+     */
+    SystemParametersSnapshot(final Map<String, String> parametersValues) {
+
+        if (parametersValues == null) {
+            throw new IllegalArgumentException("The parameters values map cannot be null.");
+        }
+
+        this.values = Map.copyOf(SystemParametersSnapshot.withoutNullValues(parametersValues));
+        this.version = this.values.get(SystemParametersRepository.PARAMETERS_VERSION_KEY);
+        this.dashboardRefreshInterval = this.parseInteger(SystemParametersRepository.DASHBOARD_INTERVAL_KEY);
+        this.schedulerFrequency = this.parseInteger(SystemParametersRepository.SCHEDULER_FREQUENCY_KEY);
+        this.smtpPort = this.parseInteger(SystemParametersRepository.SMTP_PORT_KEY);
+        this.standbyReminderDays = this.parseInteger(SystemParametersRepository.STANDBY_REMINDER_DAYS);
+        final String focusPropertiesString
+                = this.values.get(SystemParametersRepository.VALIDATION_FOCUS_PROPERTIES_KEY);
+        this.validationFocusProperties = (focusPropertiesString != null) ? focusPropertiesString.split(",")
+                                                                         : new String[0];
+    }
+
+
+
+    /**
+     * Obtains the string that identifies the state of the settings that this snapshot was created from.
+     *
+     * @return the version string, or <code>null</code> if the settings have never been modified through the cache
+     */
+    public String getVersion() {
+        return this.version;
+    }
+
+
+
+    /**
+     * Obtains the raw value of an application setting.
+     *
+     * @param key the string that identifies the setting
+     * @return the value of the setting, or <code>null</code> if it is not set
+     */
+    public String getValue(final String key) {
+        return this.values.get(key);
+    }
+
+
+
+    /**
+     * Obtains the path of the folder that contains the data for all the requests.
+     *
+     * @return the absolute path of the requests data folder
+     */
+    public String getBasePath() {
+        return this.values.get(SystemParametersRepository.BASE_PATH_KEY);
+    }
+
+
+
+    /**
+     * Obtains the interval between refreshes of the dashboard data.
+     *
+     * @return the interval in seconds, or <code>null</code> if the setting is not a valid number
+     */
+    public Integer getDashboardRefreshInterval() {
+        return this.dashboardRefreshInterval;
+    }
+
+
+
+    /**
+     * Obtains the delay to wait before a new execution of an orchestrator job.
+     *
+     * @return the delay in seconds, or <code>null</code> if the setting is not a valid number
+     */
+    public Integer getSchedulerFrequency() {
+        return this.schedulerFrequency;
+    }
+
+
+
+    /**
+     * Obtains the run mode of the orchestrator.
+     *
+     * @return <code>ON</code>, <code>RANGES</code> or <code>OFF</code>
+     */
+    public String getSchedulerMode() {
+        return this.values.get(SystemParametersRepository.SCHEDULER_MODE);
+    }
+
+
+
+    /**
+     * Obtains the time periods when the orchestrator runs if its mode is set to <code>RANGES</code>.
+     *
+     * @return the JSON array that contains the definitions of the time periods
+     */
+    public String getSchedulerRanges() {
+        return this.values.get(SystemParametersRepository.SCHEDULER_RANGES);
+    }
+
+
+
+    /**
+     * Obtains the e-mail address of the sender for the messages sent by the application.
+     *
+     * @return the sender address
+     */
+    public String getSmtpFromMail() {
+        return this.values.get(SystemParametersRepository.SMTP_FROM_MAIL_KEY);
+    }
+
+
+
+    /**
+     * Obtains the name of the sender for the messages sent by the application.
+     *
+     * @return the sender name
+     */
+    public String getSmtpFromName() {
+        return this.values.get(SystemParametersRepository.SMTP_FROM_NAME_KEY);
+    }
+
+
+
+    /**
+     * Obtains the password to use to authenticate with the SMTP server.
+     *
+     * @return the password
+     */
+    public String getSmtpPassword() {
+        return this.values.get(SystemParametersRepository.SMTP_PASSWORD_KEY);
+    }
+
+
+
+    /**
+     * Obtains the port to use to communicate with the SMTP server.
+     *
+     * @return the port, or <code>null</code> if the setting is not a valid number
+     */
+    public Integer getSmtpPort() {
+        return this.smtpPort;
+    }
+
+
+
+    /**
+     * Obtains the name of the SMTP server.
+     *
+     * @return the server name
+     */
+    public String getSmtpServer() {
+        return this.values.get(SystemParametersRepository.SMTP_SERVER_KEY);
+    }
+
+
+
+    /**
+     * Obtains the type of secured connection to establish with the SMTP server.
+     *
+     * @return the SSL type
+     */
+    public String getSmtpSSL() {
+        return this.values.get(SystemParametersRepository.SMTP_SSL_KEY);
+    }
+
+
+
+    /**
+     * Obtains the user that allows to authenticate with the SMTP server.
+     *
+     * @return the SMTP user, or <code>null</code> if the SMTP server does not require authentication
+     */
+    public String getSmtpUser() {
+        return this.values.get(SystemParametersRepository.SMTP_USER_KEY);
+    }
+
+
+
+    /**
+     * Obtains the number of days after which the operators are reminded of a request in standby.
+     *
+     * @return the number of days, or <code>null</code> if the setting is not a valid number
+     */
+    public Integer getStandbyReminderDays() {
+        return this.standbyReminderDays;
+    }
+
+
+
+    /**
+     * Obtains the properties that must be highlighted when a request is validated.
+     *
+     * @return a new array that contains the property names
+     */
+    public String[] getValidationFocusProperties() {
+        return this.validationFocusProperties.clone();
+    }
+
+
+
+    /**
+     * Obtains whether the application must send e-mail notifications.
+     *
+     * @return <code>true</code> if the notifications are enabled
+     */
+    public boolean isEmailNotificationEnabled() {
+        return Boolean.parseBoolean(this.values.get(SystemParametersRepository.ENABLE_MAIL_NOTIFICATIONS));
+    }
+
+
+
+    /**
+     * Obtains whether the path of the temporary folder of a request is shown to the operators.
+     *
+     * @return <code>true</code> if the temporary folder is displayed
+     */
+    public boolean isTempFolderDisplayed() {
+        return "true".equals(this.values.get(SystemParametersRepository.DISPLAY_TEMP_FOLDER));
+    }
+
+
+
+    /**
+     * Converts the value of a setting to an integer.
+     *
+     * @param key the string that identifies the setting
+     * @return the integer value, or <code>null</code> if the setting is not set or is not a valid number
+     */
+    private Integer parseInteger(final String key) {
+        final String value = this.values.get(key);
+
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return Integer.valueOf(value.trim());
+
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+
+
+    /**
+     * Removes the settings without value from a map, since an immutable map cannot contain them.
+     *
+     * @param parametersValues the raw value of each application setting, mapped by its key
+     * @return the map of the settings that have a value
+     */
+    private static Map<String, String> withoutNullValues(final Map<String, String> parametersValues) {
+        final Map<String, String> definedValues = new HashMap<>();
+
+        for (Map.Entry<String, String> entry : parametersValues.entrySet()) {
+
+            if (entry.getKey() != null && entry.getValue() != null) {
+                definedValues.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return definedValues;
+    }
+
+}
@@ -16,8 +16,10 @@
  */
 package ch.asit_asso.extract.persistence;
 
+import javax.persistence.QueryHint;
 import ch.asit_asso.extract.domain.Process;
 import ch.asit_asso.extract.domain.Task;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 
@@ -30,11 +32,12 @@ import org.springframework.data.repository.PagingAndSortingRepository;
 public interface TasksRepository extends PagingAndSortingRepository<Task, Integer> {
 
     /**
-     * Fetches all the tasks that compose a given process.
+     * Fetches all the tasks that compose a given process. The result is kept in the query cache.
      *
      * @param process the process whose tasks must be fetched
      * @return an array of tasks
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Task[] findByProcessOrderByPosition(Process process);
 
     Task findByProcessIdAndPosition(int processId, int position);
@@ -16,7 +16,9 @@
  */
 package ch.asit_asso.extract.persistence;
 
+import ch.asit_asso.extract.configuration.CacheConfiguration;
 import ch.asit_asso.extract.domain.UserGroup;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 import java.util.Collection;
@@ -50,4 +52,82 @@ public interface UserGroupsRepository extends PagingAndSortingRepository<UserGro
      * @return the user group, or <code>null</code> if none matched the criteria
      */
     UserGroup findByNameIgnoreCaseAndIdNot(String name, Integer id);
+
+
+
+    /**
+     * Saves a user group and discards the cached data that depends on the user groups.
+     *
+     * @param entity the user group to save
+     * @return the saved user group
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    <S extends UserGroup> S save(S entity);
+
+
+
+    /**
+     * Saves several user groups and discards the cached data that depends on the user groups.
+     *
+     * @param entities the user groups to save
+     * @return the saved user groups
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    <S extends UserGroup> Iterable<S> saveAll(Iterable<S> entities);
+
+
+
+    /**
+     * Deletes a user group and discards the cached data that depends on the user groups.
+     *
+     * @param entity the user group to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    void delete(UserGroup entity);
+
+
+
+    /**
+     * Deletes a user group based on its identifier and discards the cached data that depends on the user groups.
+     *
+     * @param id the number that identifies the user group to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    void deleteById(Integer id);
+
+
+
+    /**
+     * Deletes several user groups based on their identifiers and discards the cached data that depends on the user groups.
+     *
+     * @param ids the numbers that identify the user groups to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    void deleteAllById(Iterable<? extends Integer> ids);
+
+
+
+    /**
+     * Deletes several user groups and discards the cached data that depends on the user groups.
+     *
+     * @param entities the user groups to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    void deleteAll(Iterable<? extends UserGroup> entities);
+
+
+
+    /**
+     * Deletes all the user groups and discards the cached data that depends on the user groups.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PROCESS_OPERATORS_CACHE, allEntries = true)
+    void deleteAll();
+
 }
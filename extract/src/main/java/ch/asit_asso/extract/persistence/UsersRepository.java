@@ -18,9 +18,13 @@ package ch.asit_asso.extract.persistence;
 
 import java.util.Collection;
 import java.util.List;
+import ch.asit_asso.extract.configuration.CacheConfiguration;
 import ch.asit_asso.extract.domain.Request;
 import ch.asit_asso.extract.domain.User;
 import ch.asit_asso.extract.domain.User.Profile;
+import ch.asit_asso.extract.domain.projections.RequestListItem;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
@@ -210,6 +214,7 @@ public interface UsersRepository extends PagingAndSortingRepository<User, Intege
      *
      * @return the system user
      */
+    @Cacheable(cacheNames = CacheConfiguration.SYSTEM_USER_CACHE, sync = true)
     User getSystemUser();
 
 
@@ -246,5 +251,115 @@ public interface UsersRepository extends PagingAndSortingRepository<User, Intege
             @Param("status") Request.Status status);
 
 
+
+    /**
+     * Obtains the columns displayed in a list for the requests associated with a user that are <i>not</i> in a
+     * given state. The perimeter and the parameters of the requests are not read.
+     *
+     * @param userId the number that identifies the user
+     * @param status the state of the requests to ignore
+     * @return a list that contains the found requests
+     */
+    List<RequestListItem> getUserAssociatedRequestListItemsByStatusNot(@Param("userId") int userId,
+            @Param("status") Request.Status status);
+
+
+
+    /**
+     * Obtains the number that identifies each request associated with a user that is <i>not</i> in a given state.
+     *
+     * @param userId the number that identifies the user
+     * @param status the state of the requests to ignore
+     * @return a list that contains the identifiers of the found requests
+     */
+    List<Integer> getUserAssociatedRequestIdsByStatusNot(@Param("userId") int userId,
+            @Param("status") Request.Status status);
+
+
     boolean existsByProfile(Profile profile);
+
+
+
+    /**
+     * Saves a user and discards the cached data that depends on the users.
+     *
+     * @param entity the user to save
+     * @return the saved user
+     */
+    @Override
+    @CacheEvict(cacheNames = {CacheConfiguration.SETUP_CACHE, CacheConfiguration.SYSTEM_USER_CACHE,
+                              CacheConfiguration.PROCESS_OPERATORS_CACHE}, allEntries = true)
+    <S extends User> S save(S entity);
+
+
+
+    /**
+     * Saves several users and discards the cached data that depends on the users.
+     *
+     * @param entities the users to save
+     * @return the saved users
+     */
+    @Override
+    @CacheEvict(cacheNames = {CacheConfiguration.SETUP_CACHE, CacheConfiguration.SYSTEM_USER_CACHE,
+                              CacheConfiguration.PROCESS_OPERATORS_CACHE}, allEntries = true)
+    <S extends User> Iterable<S> saveAll(Iterable<S> entities);
+
+
+
+    /**
+     * Deletes a user and discards the cached data that depends on the users.
+     *
+     * @param entity the user to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = {CacheConfiguration.SETUP_CACHE, CacheConfiguration.SYSTEM_USER_CACHE,
+                              CacheConfiguration.PROCESS_OPERATORS_CACHE}, allEntries = true)
+    void delete(User entity);
+
+
+
+    /**
+     * Deletes a user based on its identifier and discards the cached data that depends on the users.
+     *
+     * @param id the number that identifies the user to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = {CacheConfiguration.SETUP_CACHE, CacheConfiguration.SYSTEM_USER_CACHE,
+                              CacheConfiguration.PROCESS_OPERATORS_CACHE}, allEntries = true)
+    void deleteById(Integer id);
+
+
+
+    /**
+     * Deletes several users based on their identifiers and discards the cached data that depends on the users.
+     *
+     * @param ids the numbers that identify the users to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = {CacheConfiguration.SETUP_CACHE, CacheConfiguration.SYSTEM_USER_CACHE,
+                              CacheConfiguration.PROCESS_OPERATORS_CACHE}, allEntries = true)
+    void deleteAllById(Iterable<? extends Integer> ids);
+
+
+
+    /**
+     * Deletes several users and discards the cached data that depends on the users.
+     *
+     * @param entities the users to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = {CacheConfiguration.SETUP_CACHE, CacheConfiguration.SYSTEM_USER_CACHE,
+                              CacheConfiguration.PROCESS_OPERATORS_CACHE}, allEntries = true)
+    void deleteAll(Iterable<? extends User> entities);
+
+
+
+    /**
+     * Deletes all the users and discards the cached data that depends on the users.
+     */
+    @Override
+    @CacheEvict(cacheNames = {CacheConfiguration.SETUP_CACHE, CacheConfiguration.SYSTEM_USER_CACHE,
+                              CacheConfiguration.PROCESS_OPERATORS_CACHE}, allEntries = true)
+    void deleteAll();
+
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+
+
+/**
+ * The data source that gives each thread a connection from the pool of its workload.
+ *
+ * @author Yves Grasset
+ * @see DatabaseWorkload
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    /**
+     * The connection pool of each workload.
+     */
+    private final Map<DatabaseWorkload, MeasuredConnectionPool> pools;
+
+
+
+    /**
+     * Creates a new routing data source.
+     *
+     * @param workloadsPools the connection pool of each workload
+     */
+    public WorkloadRoutingDataSource(final Map<DatabaseWorkload, MeasuredConnectionPool> workloadsPools) {
+
+        if (workloadsPools == null) {
+            throw new IllegalArgumentException("The connection pools cannot be null.");
+        }
+
+        for (DatabaseWorkload workload : DatabaseWorkload.values()) {
+
+            if (workloadsPools.get(workload) == null) {
+                throw new IllegalArgumentException(String.format("There is no connection pool for the %s workload.",
+                        workload.getPoolName()));
+            }
+        }
+
+        this.pools = new EnumMap<>(workloadsPools);
+        this.setTargetDataSources(new HashMap<>(this.pools));
+        this.setLenientFallback(false);
+        this.afterPropertiesSet();
+    }
+
+
+
+    /**
+     * Obtains the current use of each connection pool and the time that the threads waited to obtain a connection.
+     *
+     * @return a map with the statistics of each pool
+     */
+    public final Map<String, Map<String, Long>> getStatistics() {
+        final Map<String, Map<String, Long>> statistics = new LinkedHashMap<>();
+
+        for (Map.Entry<DatabaseWorkload, MeasuredConnectionPool> poolEntry : this.pools.entrySet()) {
+            statistics.put(poolEntry.getKey().getPoolName(), poolEntry.getValue().getStatistics());
+        }
+
+        return statistics;
+    }
+
+
+
+    /**
+     * Closes the connections of all the pools.
+     */
+    @Override
+    public final void close() {
+        for (MeasuredConnectionPool pool : this.pools.values()) {
+            pool.close();
+        }
+    }
+
+
+
+    @Override
+    protected final Object determineCurrentLookupKey() {
+        return DatabaseWorkload.current();
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.persistence.specifications;
+
+import java.util.Calendar;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import ch.asit_asso.extract.domain.ArchivedRequestVisibility;
+import ch.asit_asso.extract.domain.ArchivedRequestVisibility_;
+import ch.asit_asso.extract.domain.Connector;
+import ch.asit_asso.extract.domain.FinishedRequest;
+import ch.asit_asso.extract.domain.FinishedRequest_;
+import ch.asit_asso.extract.domain.Process;
+import ch.asit_asso.extract.domain.RequestVisibility;
+import ch.asit_asso.extract.domain.RequestVisibility_;
+import org.springframework.data.jpa.domain.Specification;
+import org.thymeleaf.util.StringUtils;
+
+
+
+/**
+ * A set of criteria to filter the finished requests, whether they are archived or not.
+ *
+ * @author Yves Grasset
+ * @see RequestSpecification
+ */
+public final class FinishedRequestSpecification {
+
+    /**
+     * Creates a new instance of this class.
+     */
+    private FinishedRequestSpecification() {
+    }
+
+
+
+    /**
+     * Obtains the criteria to apply the filters of the finished requests list.
+     *
+     * @param searchText a string that contains the text must be contained in one of the searched fields, or an empty
+     *                   string if no textual filter must be applied
+     * @param connector  the connector whose requests must be returned, or <code>null</code> to ignore the connector
+     *                   requests are associated with
+     * @param process    the process whose requests must be returned, or <code>null</code> to ignore the process
+     *                   requests are associated with
+     * @param startDate  the date from which the request can have been received, or <code>null</code> if there must
+     *                   not be a lower limit for the reception date
+     * @param endDate    the date until which the request can have been received, or <code>null</code> if there must
+     *                   not be an upper limit for the reception date
+     * @return the set of criteria to apply the desired filters
+     */
+    public static Specification<FinishedRequest> getFilterSpecification(final String searchText,
+            final Connector connector, final Process process, final Calendar startDate, final Calendar endDate) {
+
+        return new Specification<FinishedRequest>() {
+
+            @Override
+            public Predicate toPredicate(final Root<FinishedRequest> root, final CriteriaQuery<?> query,
+                    final CriteriaBuilder builder) {
+                Predicate result = builder.conjunction();
+
+                if (!StringUtils.isEmpty(searchText)) {
+                    result = builder.and(result, builder.like(root.get(FinishedRequest_.searchText),
+                            RequestSpecification.buildSearchPattern(searchText),
+                            RequestSpecification.LIKE_ESCAPE_CHARACTER));
+                }
+
+                if (connector != null) {
+                    result = builder.and(result, builder.equal(root.get(FinishedRequest_.connector), connector));
+                }
+
+                if (process != null) {
+                    result = builder.and(result, builder.equal(root.get(FinishedRequest_.process), process));
+                }
+
+                if (startDate != null) {
+                    result = builder.and(result,
+                            builder.greaterThanOrEqualTo(root.get(FinishedRequest_.startDate), startDate));
+                }
+
+                if (endDate != null) {
+                    result = builder.and(result, builder.lessThan(root.get(FinishedRequest_.startDate), endDate));
+                }
+
+                return result;
+            }
+
+        };
+    }
+
+
+
+    /**
+     * Obtains the criteria to return only the finished requests that a user is allowed to see. The active requests
+     * are checked against the request visibility table and the archived ones against the list of the users who
+     * could see them when they were archived.
+     *
+     * @param userId the number that identifies the user
+     * @return the set of criteria to filter out the requests that the user cannot see
+     */
+    public static Specification<FinishedRequest> isVisibleTo(final int userId) {
+
+        return new Specification<FinishedRequest>() {
+
+            @Override
+            public Predicate toPredicate(final Root<FinishedRequest> root, final CriteriaQuery<?> query,
+                    final CriteriaBuilder builder) {
+                final Subquery<Integer> activeRequests = query.subquery(Integer.class);
+                final Root<RequestVisibility> activeVisibility = activeRequests.from(RequestVisibility.class);
+                activeRequests.select(activeVisibility.get(RequestVisibility_.requestId))
+                              .where(builder.equal(activeVisibility.get(RequestVisibility_.userId), userId));
+
+                final Subquery<Integer> archivedRequests = query.subquery(Integer.class);
+                final Root<ArchivedRequestVisibility> archivedVisibility
+                        = archivedRequests.from(ArchivedRequestVisibility.class);
+                archivedRequests.select(archivedVisibility.get(ArchivedRequestVisibility_.requestId))
+                                .where(builder.equal(archivedVisibility.get(ArchivedRequestVisibility_.userId),
+                                        userId));
+
+                return builder.or(
+                        builder.and(builder.isFalse(root.get(FinishedRequest_.archived)),
+                                root.get(FinishedRequest_.id).in(activeRequests)),
+                        builder.and(builder.isTrue(root.get(FinishedRequest_.archived)),
+                                root.get(FinishedRequest_.id).in(archivedRequests)));
+            }
+
+        };
+    }
+
+}
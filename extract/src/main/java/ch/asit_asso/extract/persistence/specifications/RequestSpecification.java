@@ -23,11 +23,13 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 import ch.asit_asso.extract.domain.Connector;
 import ch.asit_asso.extract.domain.Process;
 import ch.asit_asso.extract.domain.Request;
 import ch.asit_asso.extract.domain.Request_;
-import ch.asit_asso.extract.domain.User;
+import ch.asit_asso.extract.domain.RequestVisibility;
+import ch.asit_asso.extract.domain.RequestVisibility_;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.jpa.domain.Specification;
@@ -43,6 +45,16 @@ import org.thymeleaf.util.StringUtils;
  */
 public final class RequestSpecification {
 
+    /**
+     * The character that makes the next character of a LIKE pattern a literal one.
+     */
+    static final char LIKE_ESCAPE_CHARACTER = '\\';
+
+    /**
+     * The character that makes the next character of a LIKE pattern a literal one, as a string.
+     */
+    private static final String LIKE_ESCAPE_STRING = String.valueOf(RequestSpecification.LIKE_ESCAPE_CHARACTER);
+
     /**
      * The writer to the application logs.
      */
@@ -77,7 +89,7 @@ public final class RequestSpecification {
                                                                 final Connector connector, final Process process,
                                                                 final Calendar startDate, final Calendar endDate) {
 
-        return Specification.where(RequestSpecification.containsText(searchText)).and(RequestSpecification.isBoundToProcess(process))
+        return Specification.where(RequestSpecification.matchesSearchText(searchText)).and(RequestSpecification.isBoundToProcess(process))
                 .and(RequestSpecification.isBoundToConnector(connector)).and(RequestSpecification.startsFrom(startDate))
                 .and(RequestSpecification.endsUntil(endDate));
     }
@@ -90,7 +102,10 @@ public final class RequestSpecification {
      * @param searchText a string that contains the text must be contained in one of the textual fields, or an empty
      *                   string if no textual filter must be applied
      * @return the set of criteria to apply the textual filter
+     * @deprecated Each field is compared separately, which no index can serve. Use
+     *             {@link #matchesSearchText(String)} instead.
      */
+    @Deprecated
     public static Specification<Request> containsText(final String searchText) {
 
         return new Specification<Request>() {
@@ -123,6 +138,60 @@ public final class RequestSpecification {
 
 
 
+    /**
+     * Obtains the criteria to apply a textual filter to a request through the search text that is recorded when it
+     * is saved. The customer, the third party, the order and product labels and the order and product GUIDs are
+     * searched. On PostgreSQL, the comparison is served by the trigram index of the search text.
+     *
+     * @param searchText a string that contains the text must be contained in one of the searched fields, or an empty
+     *                   string if no textual filter must be applied
+     * @return the set of criteria to apply the textual filter
+     */
+    public static Specification<Request> matchesSearchText(final String searchText) {
+
+        return new Specification<Request>() {
+
+            @Override
+            public Predicate toPredicate(final Root<Request> root, final CriteriaQuery<?> query,
+                    final CriteriaBuilder builder) {
+
+                if (StringUtils.isEmpty(searchText)) {
+                    RequestSpecification.LOGGER.debug("The search text is empty. No filtering.");
+                    return builder.conjunction();
+                }
+
+                final String searchPattern = RequestSpecification.buildSearchPattern(searchText);
+                RequestSpecification.LOGGER.debug("The search text pattern is \"{}\"", searchPattern);
+
+                return builder.like(root.get(Request_.searchText), searchPattern,
+                        RequestSpecification.LIKE_ESCAPE_CHARACTER);
+            }
+
+        };
+    }
+
+
+
+    /**
+     * Builds the LIKE pattern that matches the search texts containing a given string. The wildcard characters of
+     * the string are escaped with {@link #LIKE_ESCAPE_CHARACTER}.
+     *
+     * @param searchText the text that the search texts must contain
+     * @return the pattern to compare the search texts with
+     */
+    static String buildSearchPattern(final String searchText) {
+        final String escapedText = Request.buildSearchText(searchText)
+                                          .replace(RequestSpecification.LIKE_ESCAPE_STRING,
+                                                  RequestSpecification.LIKE_ESCAPE_STRING
+                                                  + RequestSpecification.LIKE_ESCAPE_STRING)
+                                          .replace("%", RequestSpecification.LIKE_ESCAPE_STRING + "%")
+                                          .replace("_", RequestSpecification.LIKE_ESCAPE_STRING + "_");
+
+        return String.format("%%%s%%", escapedText);
+    }
+
+
+
     /**
      * Obtains the criteria to add an upper limit to the date a request has been received at.
      *
@@ -239,28 +308,35 @@ public final class RequestSpecification {
     }
 
     /**
-     * Obtains the criteria to filter the request based on the process it is associated with.
+     * Obtains the criteria to return only the requests that a user is allowed to see, that is the requests whose
+     * process they operate and the requests assigned to them, directly or through a user group.
+     * <p>
+     * The check is done through the precomputed visibility table, so that its cost does not depend on the number
+     * of processes and groups that the user belongs to.
      *
-     * @param processesList a list that contains the process that the request can be associated with
-     * @return the set of criteria to apply the process filter
+     * @param userId the number that identifies the user
+     * @return the set of criteria to filter out the requests that the user cannot see
      */
-    public static Specification<Request> isBoundToUser(final User user) {
+    public static Specification<Request> isVisibleTo(final int userId) {
 
         return new Specification<Request>() {
 
             @Override
             public Predicate toPredicate(final Root<Request> root, final CriteriaQuery<?> query,
                     final CriteriaBuilder builder) {
-                var result = builder.isMember(user, root.get(Request_.usersCollection));
-                for (var ug: user.getUserGroupsCollection()) {
-                    result = builder.or(result, builder.isMember(ug, root.get(Request_.userGroupsCollection)));
-                }
-                return result;
+                final Subquery<Integer> visibleRequests = query.subquery(Integer.class);
+                final Root<RequestVisibility> visibility = visibleRequests.from(RequestVisibility.class);
+                visibleRequests.select(visibility.get(RequestVisibility_.requestId))
+                               .where(builder.equal(visibility.get(RequestVisibility_.userId), userId));
+
+                return root.get(Request_.id).in(visibleRequests);
             }
 
         };
     }
 
+
+
     /**
      * Obtains the criteria to return only the request whose process has completed.
      *
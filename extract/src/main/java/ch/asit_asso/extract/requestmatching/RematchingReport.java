@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.requestmatching;
+
+import java.util.Calendar;
+
+
+
+/**
+ * The outcome of matching again the unmatched requests of a connector with its rules.
+ *
+ * @author Yves Grasset
+ */
+public class RematchingReport {
+
+    /**
+     * The number of unmatched requests that were evaluated again.
+     */
+    private final int candidatesCount;
+
+    /**
+     * When the requests were matched again.
+     */
+    private final Calendar completionDate;
+
+    /**
+     * The number that identifies the connector whose requests were matched again.
+     */
+    private final int connectorId;
+
+    /**
+     * The number of requests that could not be evaluated because of an error.
+     */
+    private final int failuresCount;
+
+    /**
+     * The number of requests that matched a rule and are now being processed.
+     */
+    private final int matchedCount;
+
+
+
+    /**
+     * Creates a new report.
+     *
+     * @param connector  the number that identifies the connector whose requests were matched again
+     * @param candidates the number of unmatched requests that were evaluated again
+     * @param matched    the number of requests that matched a rule and are now being processed
+     * @param failures   the number of requests that could not be evaluated because of an error
+     * @param completion when the requests were matched again
+     */
+    public RematchingReport(final int connector, final int candidates, final int matched, final int failures,
+            final Calendar completion) {
+
+        if (candidates < 0 || matched < 0 || failures < 0 || matched + failures > candidates) {
+            throw new IllegalArgumentException("The counts of the report are not consistent.");
+        }
+
+        if (completion == null) {
+            throw new IllegalArgumentException("The completion date cannot be null.");
+        }
+
+        this.connectorId = connector;
+        this.candidatesCount = candidates;
+        this.matchedCount = matched;
+        this.failuresCount = failures;
+        this.completionDate = (Calendar) completion.clone();
+    }
+
+
+
+    /**
+     * Obtains the number of unmatched requests that were evaluated again.
+     *
+     * @return the number of requests
+     */
+    public final int getCandidatesCount() {
+        return this.candidatesCount;
+    }
+
+
+
+    /**
+     * Obtains when the requests were matched again.
+     *
+     * @return the completion date
+     */
+    public final Calendar getCompletionDate() {
+        return (Calendar) this.completionDate.clone();
+    }
+
+
+
+    /**
+     * Obtains the number that identifies the connector whose requests were matched again.
+     *
+     * @return the connector identifier
+     */
+    public final int getConnectorId() {
+        return this.connectorId;
+    }
+
+
+
+    /**
+     * Obtains the number of requests that could not be evaluated because of an error.
+     *
+     * @return the number of requests
+     */
+    public final int getFailuresCount() {
+        return this.failuresCount;
+    }
+
+
+
+    /**
+     * Obtains the number of requests that matched a rule and are now being processed.
+     *
+     * @return the number of requests
+     */
+    public final int getMatchedCount() {
+        return this.matchedCount;
+    }
+
+}
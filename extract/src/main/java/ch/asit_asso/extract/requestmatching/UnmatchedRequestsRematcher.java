@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.requestmatching;
+
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import ch.asit_asso.extract.batch.processor.RequestMatchingProcessor;
+import ch.asit_asso.extract.domain.Connector;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.domain.Rule;
+import ch.asit_asso.extract.email.EmailSettings;
+import ch.asit_asso.extract.orchestrator.runners.RequestStatusChangedEvent;
+import ch.asit_asso.extract.persistence.ApplicationRepositories;
+import ch.asit_asso.extract.persistence.RequestsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+
+/**
+ * Matches again in the background the unmatched requests of a connector whose rules have been modified. The
+ * requests are evaluated in chunks processed in parallel, each in its own transaction, against the active rules
+ * of the connector read once for the whole run.
+ * <p>
+ * The runs are processed one after the other. A connector is queued at most once, so that several modifications of
+ * its rules in a row only cause the runs that are necessary.
+ *
+ * @author Yves Grasset
+ */
+@Component
+public class UnmatchedRequestsRematcher implements DisposableBean {
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(UnmatchedRequestsRematcher.class);
+
+    /**
+     * An ensemble of objects linking the data objects with the database.
+     */
+    private final ApplicationRepositories applicationRepositories;
+
+    /**
+     * The number of requests evaluated in the same transaction.
+     */
+    private final int chunkSize;
+
+    /**
+     * The thread that runs the matching of the connectors one after the other.
+     */
+    private final ExecutorService coordinator;
+
+    /**
+     * The object that assembles the configuration objects required to send an e-mail message.
+     */
+    private final EmailSettings emailSettings;
+
+    /**
+     * The object that notifies the other components of the application when the state of a request changes.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The numbers that identify the connectors whose requests are waiting to be matched again.
+     */
+    private final Set<Integer> queuedConnectors = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The outcome of the last run for each connector, by connector identifier.
+     */
+    private final Map<Integer, RematchingReport> reports = new ConcurrentHashMap<>();
+
+    /**
+     * The object that runs the chunks in transactions.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The threads that evaluate the chunks of requests.
+     */
+    private final ExecutorService workers;
+
+
+
+    /**
+     * Creates a new instance of the rematcher.
+     *
+     * @param repositories       an ensemble of objects linking the data objects with the database
+     * @param smtpSettings       the object that assembles the configuration objects required to send an e-mail
+     * @param publisher          the object that notifies the other components when the state of a request changes
+     * @param transactionManager the object that manages the transactions with the data source
+     * @param requestsPerChunk   the number of requests evaluated in the same transaction
+     * @param threadsNumber      the number of threads that evaluate the chunks of requests
+     */
+    public UnmatchedRequestsRematcher(final ApplicationRepositories repositories, final EmailSettings smtpSettings,
+            final ApplicationEventPublisher publisher, final PlatformTransactionManager transactionManager,
+            @Value("${extract.rematching.chunkSize:50}") final int requestsPerChunk,
+            @Value("${extract.rematching.threads:2}") final int threadsNumber) {
+
+        if (repositories == null) {
+            throw new IllegalArgumentException("The application repositories object cannot be null.");
+        }
+
+        if (smtpSettings == null) {
+            throw new IllegalArgumentException("The e-mail settings object cannot be null.");
+        }
+
+        if (publisher == null) {
+            throw new IllegalArgumentException("The event publisher cannot be null.");
+        }
+
+        if (transactionManager == null) {
+            throw new IllegalArgumentException("The transaction manager cannot be null.");
+        }
+
+        if (requestsPerChunk < 1) {
+            throw new IllegalArgumentException("The chunk size must be greater than 0.");
+        }
+
+        if (threadsNumber < 1) {
+            throw new IllegalArgumentException("The number of threads must be greater than 0.");
+        }
+
+        final CustomizableThreadFactory coordinatorFactory = new CustomizableThreadFactory("rematching-");
+        coordinatorFactory.setDaemon(true);
+        final CustomizableThreadFactory workersFactory = new CustomizableThreadFactory("rematching-worker-");
+        workersFactory.setDaemon(true);
+
+        this.applicationRepositories = repositories;
+        this.emailSettings = smtpSettings;
+        this.eventPublisher = publisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = requestsPerChunk;
+        this.coordinator = Executors.newSingleThreadExecutor(coordinatorFactory);
+        this.workers = Executors.newFixedThreadPool(threadsNumber, workersFactory);
+    }
+
+
+
+    /**
+     * Obtains the outcome of the last time the unmatched requests of a connector were matched again.
+     *
+     * @param connectorId the number that identifies the connector
+     * @return the report, or <code>null</code> if the requests of the connector have not been matched again since the
+     *         application started
+     */
+    public final RematchingReport getLastReport(final int connectorId) {
+        return this.reports.get(connectorId);
+    }
+
+
+
+    /**
+     * Queues the matching of the unmatched requests of a connector with its current rules.
+     *
+     * @param connectorId the number that identifies the connector whose rules have been modified
+     * @return the number of unmatched requests of the connector that will be evaluated again
+     */
+    public final int rematchConnector(final int connectorId) {
+        final long unmatchedCount = this.applicationRepositories.getRequestsRepository()
+                                                                .countByConnectorIdAndStatus(connectorId,
+                                                                        Request.Status.UNMATCHED);
+
+        if (unmatchedCount == 0) {
+            this.logger.debug("The connector {} has no unmatched request.", connectorId);
+            return 0;
+        }
+
+        if (this.queuedConnectors.add(connectorId)) {
+            this.logger.info("Queuing the matching of the {} unmatched request(s) of connector {}.", unmatchedCount,
+                    connectorId);
+            this.coordinator.execute(() -> this.rematch(connectorId));
+
+        } else {
+            this.logger.debug("The matching of the requests of connector {} is already queued.", connectorId);
+        }
+
+        return (int) unmatchedCount;
+    }
+
+
+
+    /**
+     * Stops the threads that match the requests.
+     */
+    @Override
+    public final void destroy() {
+        this.coordinator.shutdownNow();
+        this.workers.shutdownNow();
+    }
+
+
+
+    /**
+     * Matches the unmatched requests of a connector with its active rules.
+     *
+     * @param connectorId the number that identifies the connector
+     */
+    private void rematch(final int connectorId) {
+        this.queuedConnectors.remove(connectorId);
+
+        try {
+            final Connector connector = this.applicationRepositories.getConnectorsRepository().findById(connectorId)
+                                                                    .orElse(null);
+
+            if (connector == null) {
+                this.logger.warn("The connector {} does not exist anymore. Its requests are not matched again.",
+                        connectorId);
+                return;
+            }
+
+            final List<Rule> rules
+                    = this.applicationRepositories.getRulesRepository().findByConnectorAndActiveTrueOrderByPosition(
+                            connector);
+            final List<Integer> requestsIds = this.applicationRepositories.getRequestsRepository()
+                    .findIdsByConnectorIdAndStatus(connectorId, Request.Status.UNMATCHED);
+            final AtomicInteger matchedCount = new AtomicInteger();
+            final AtomicInteger failuresCount = new AtomicInteger();
+
+            if (!rules.isEmpty()) {
+                final RequestMatchingProcessor processor = new RequestMatchingProcessor(
+                        this.applicationRepositories.getRulesRepository(),
+                        this.applicationRepositories.getParametersRepository(),
+                        this.applicationRepositories.getUsersRepository(), this.emailSettings);
+                final List<Future<?>> chunksResults = new ArrayList<>();
+
+                for (int chunkStart = 0; chunkStart < requestsIds.size(); chunkStart += this.chunkSize) {
+                    final List<Integer> chunk = requestsIds.subList(chunkStart,
+                            Math.min(chunkStart + this.chunkSize, requestsIds.size()));
+                    chunksResults.add(this.workers.submit(
+                            () -> this.rematchChunk(chunk, rules, processor, matchedCount, failuresCount)));
+                }
+
+                for (Future<?> chunkResult : chunksResults) {
+                    chunkResult.get();
+                }
+            }
+
+            final RematchingReport report = new RematchingReport(connectorId, requestsIds.size(), matchedCount.get(),
+                    failuresCount.get(), new GregorianCalendar());
+            this.reports.put(connectorId, report);
+            this.logger.info("{} of the {} unmatched request(s) of connector {} now match a rule. {} request(s) could"
+                             + " not be evaluated.", report.getMatchedCount(), report.getCandidatesCount(),
+                    connectorId, report.getFailuresCount());
+
+        } catch (InterruptedException exception) {
+            this.logger.warn("The matching of the requests of connector {} was interrupted.", connectorId);
+            Thread.currentThread().interrupt();
+
+        } catch (ExecutionException | RuntimeException exception) {
+            this.logger.error("The requests of connector {} could not be matched again.", connectorId, exception);
+        }
+    }
+
+
+
+    /**
+     * Matches a group of requests in a single transaction. If the transaction fails, the requests are matched again
+     * one by one, so that an error only affects the request concerned.
+     *
+     * @param chunk         the numbers that identify the requests to match
+     * @param rules         the active rules of the connector, ordered by position
+     * @param processor     the object that matches a request and prepares it for its process
+     * @param matchedCount  the number of requests that matched a rule so far
+     * @param failuresCount the number of requests that could not be evaluated so far
+     */
+    private void rematchChunk(final List<Integer> chunk, final List<Rule> rules,
+            final RequestMatchingProcessor processor, final AtomicInteger matchedCount,
+            final AtomicInteger failuresCount) {
+        final Integer chunkMatchedCount;
+
+        try {
+            chunkMatchedCount = this.transactionTemplate.execute(
+                    (status) -> this.applyToChunk(chunk, rules, processor));
+
+        } catch (RuntimeException exception) {
+
+            if (chunk.size() == 1) {
+                this.logger.warn("The request {} could not be matched again.", chunk.get(0), exception);
+                failuresCount.incrementAndGet();
+                return;
+            }
+
+            this.logger.warn("A chunk of {} requests could not be matched again. Its requests are matched one by one.",
+                    chunk.size(), exception);
+
+            for (int requestId : chunk) {
+                this.rematchChunk(List.of(requestId), rules, processor, matchedCount, failuresCount);
+            }
+
+            return;
+        }
+
+        matchedCount.addAndGet((chunkMatchedCount != null) ? chunkMatchedCount : 0);
+    }
+
+
+
+    /**
+     * Matches the requests of a chunk within the current transaction. The status changes are published within the
+     * transaction, so that they are only notified once it is committed.
+     *
+     * @param chunk     the numbers that identify the requests to match
+     * @param rules     the active rules of the connector, ordered by position
+     * @param processor the object that matches a request and prepares it for its process
+     * @return the number of requests that matched a rule
+     */
+    private int applyToChunk(final List<Integer> chunk, final List<Rule> rules,
+            final RequestMatchingProcessor processor) {
+        final RequestsRepository requestsRepository = this.applicationRepositories.getRequestsRepository();
+        int matchedCount = 0;
+
+        for (Request request : requestsRepository.findAllById(chunk)) {
+
+            if (!processor.rematch(request, rules)) {
+                continue;
+            }
+
+            requestsRepository.save(request);
+            this.eventPublisher.publishEvent(new RequestStatusChangedEvent(request));
+            matchedCount++;
+        }
+
+        return matchedCount;
+    }
+
+}
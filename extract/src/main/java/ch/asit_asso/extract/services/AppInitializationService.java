@@ -1,5 +1,6 @@
 package ch.asit_asso.extract.services;
 
+import ch.asit_asso.extract.configuration.CacheConfiguration;
 import ch.asit_asso.extract.domain.User;
 import ch.asit_asso.extract.persistence.UsersRepository;
 import org.springframework.cache.annotation.CacheConfig;
@@ -7,7 +8,7 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 @Service
-@CacheConfig(cacheNames = "setup")
+@CacheConfig(cacheNames = CacheConfiguration.SETUP_CACHE)
 public class AppInitializationService {
 
     private final UsersRepository repository;
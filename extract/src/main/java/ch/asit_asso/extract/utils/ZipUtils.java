@@ -22,6 +22,9 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import org.apache.commons.lang3.StringUtils;
@@ -39,7 +42,14 @@ public abstract class ZipUtils {
     /**
      * The size in bytes of the buffer used to read files.
      */
-    private static final int FILE_READ_BUFFER_SIZE = 1024;
+    private static final int FILE_READ_BUFFER_SIZE = 65536;
+
+    /**
+     * The extensions of the files whose content is already compressed, and that are thus only stored in the
+     * archive.
+     */
+    private static final Set<String> PRECOMPRESSED_EXTENSIONS = Set.of("7z", "bz2", "docx", "ecw", "gif", "gz",
+            "jp2", "jpeg", "jpg", "kmz", "mp4", "png", "pptx", "rar", "sid", "tgz", "webp", "xlsx", "xz", "zip");
 
     /**
      * The writer to the application logs.
@@ -124,23 +134,40 @@ public abstract class ZipUtils {
             throw new IllegalArgumentException("The stream to write the ZIP to cannot be null.");
         }
 
-        final String folderPath = folder.getCanonicalPath();
-        ZipUtils.LOGGER.debug("Zipping all files in folder out : {}", folderPath);
-
         try (ZipOutputStream zip = new ZipOutputStream(stream)) {
+            ZipUtils.addFolderContentToZip(folder, zip, fileNameToExclude);
+        }
 
-            for (String fileName : folder.list()) {
+        ZipUtils.LOGGER.debug("all files are zipped in the stream.");
+    }
 
-                if (fileNameToExclude == null || !fileName.equals(fileNameToExclude)) {
-                    File sourceFile = new File(folderPath, fileName);
-                    ZipUtils.addFileToZip("", sourceFile.getPath(), zip);
-                }
-            }
 
-            zip.flush();
+
+    /**
+     * Writes an archive that contains the content of a directory to a stream, without holding the archive in
+     * memory. Unlike {@link #zipFolderContentToStream(File, OutputStream, String)}, the stream is left open, so that
+     * it can be the body of an HTTP response.
+     *
+     * @param folder the directory that contains the data to compress
+     * @param stream the stream to output the archive content to
+     * @throws IOException if a file system error prevented the creation of the archive or if the stream could not be
+     *                     written
+     */
+    public static final void streamFolderContent(final File folder, final OutputStream stream) throws IOException {
+
+        if (folder == null || !folder.exists() || !folder.isDirectory()) {
+            throw new IllegalArgumentException("The folder to zip must exist and be accessible.");
         }
 
-        ZipUtils.LOGGER.debug("all files are zipped in the stream.");
+        if (stream == null) {
+            throw new IllegalArgumentException("The stream to write the ZIP to cannot be null.");
+        }
+
+        final ZipOutputStream zip = new ZipOutputStream(stream);
+        ZipUtils.addFolderContentToZip(folder, zip, null);
+        zip.finish();
+        zip.flush();
+        ZipUtils.LOGGER.debug("all files are streamed.");
     }
 
 
@@ -166,6 +193,8 @@ public abstract class ZipUtils {
             int len;
 
             try (FileInputStream in = new FileInputStream(sourceFile)) {
+                zip.setLevel((ZipUtils.isPrecompressed(folder.getName())) ? Deflater.NO_COMPRESSION
+                                                                           : Deflater.DEFAULT_COMPRESSION);
 
                 if (path.equals("")) {
                     zip.putNextEntry(new ZipEntry(folder.getName()));
@@ -211,4 +240,51 @@ public abstract class ZipUtils {
         }
     }
 
+
+
+    /**
+     * Adds the content of a directory at the root of an archive.
+     *
+     * @param folder            the directory that contains the data to compress
+     * @param zip               the archive to add the content to
+     * @param fileNameToExclude the name of a file that must not be included in the archive, or <code>null</code> to
+     *                          include all the files
+     * @throws IOException if a file of the directory could not be read
+     */
+    private static void addFolderContentToZip(final File folder, final ZipOutputStream zip,
+            final String fileNameToExclude) throws IOException {
+        final String folderPath = folder.getCanonicalPath();
+        ZipUtils.LOGGER.debug("Zipping all files in folder out : {}", folderPath);
+
+        for (String fileName : folder.list()) {
+
+            if (fileNameToExclude == null || !fileName.equals(fileNameToExclude)) {
+                File sourceFile = new File(folderPath, fileName);
+                ZipUtils.addFileToZip("", sourceFile.getPath(), zip);
+            }
+        }
+
+        zip.flush();
+    }
+
+
+
+    /**
+     * Checks if the content of a file is already compressed, so that compressing it again would only waste
+     * processing time.
+     *
+     * @param fileName the name of the file
+     * @return <code>true</code> if the file is known to be compressed
+     */
+    private static boolean isPrecompressed(final String fileName) {
+        final int extensionIndex = fileName.lastIndexOf('.');
+
+        if (extensionIndex < 0) {
+            return false;
+        }
+
+        return ZipUtils.PRECOMPRESSED_EXTENSIONS.contains(
+                fileName.substring(extensionIndex + 1).toLowerCase(Locale.ROOT));
+    }
+
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+
+
+/**
+ * The locks that serialize the actions of the operators on a given request, whatever their session. The requests
+ * are spread over a fixed number of locks, so that actions on different requests rarely wait for each other.
+ *
+ * @author Yves Grasset
+ */
+@Component
+public class RequestLocks {
+
+    /**
+     * The locks that the requests are distributed on.
+     */
+    private final ReentrantLock[] stripes;
+
+
+
+    /**
+     * Creates a new instance of the request locks.
+     *
+     * @param stripesNumber the number of locks to distribute the requests on
+     */
+    public RequestLocks(@Value("${extract.requests.lockStripes:64}") final int stripesNumber) {
+
+        if (stripesNumber < 1) {
+            throw new IllegalArgumentException("The number of lock stripes must be greater than 0.");
+        }
+
+        this.stripes = new ReentrantLock[stripesNumber];
+
+        for (int stripeIndex = 0; stripeIndex < stripesNumber; stripeIndex++) {
+            this.stripes[stripeIndex] = new ReentrantLock();
+        }
+    }
+
+
+
+    /**
+     * Carries an action out while no other action is applied to the same request.
+     *
+     * @param requestId the number that identifies the request that the action applies to
+     * @param action    the action to carry out
+     * @param <T>       the type of the result of the action
+     * @return the result of the action
+     */
+    public final <T> T callWithLock(final int requestId, final Supplier<T> action) {
+
+        if (action == null) {
+            throw new IllegalArgumentException("The action cannot be null.");
+        }
+
+        final ReentrantLock lock = this.stripes[Math.floorMod(requestId, this.stripes.length)];
+        lock.lock();
+
+        try {
+            return action.get();
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+
+    /**
+     * Carries an action out while no other action is applied to any of the given requests. The locks are always
+     * acquired in the same order, so that two callers with overlapping requests cannot wait for each other.
+     *
+     * @param requestsIds the numbers that identify the requests that the action applies to
+     * @param action      the action to carry out
+     * @param <T>         the type of the result of the action
+     * @return the result of the action
+     */
+    public final <T> T callWithLocks(final Collection<Integer> requestsIds, final Supplier<T> action) {
+
+        if (requestsIds == null) {
+            throw new IllegalArgumentException("The requests identifiers cannot be null.");
+        }
+
+        if (action == null) {
+            throw new IllegalArgumentException("The action cannot be null.");
+        }
+
+        final TreeSet<Integer> stripesIndexes = new TreeSet<>();
+
+        for (int requestId : requestsIds) {
+            stripesIndexes.add(Math.floorMod(requestId, this.stripes.length));
+        }
+
+        final Deque<ReentrantLock> heldLocks = new ArrayDeque<>();
+
+        try {
+
+            for (int stripeIndex : stripesIndexes) {
+                final ReentrantLock lock = this.stripes[stripeIndex];
+                lock.lock();
+                heldLocks.push(lock);
+            }
+
+            return action.get();
+
+        } finally {
+
+            while (!heldLocks.isEmpty()) {
+                heldLocks.pop().unlock();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+
+/**
+ * The state of an action applied to several requests at once. The requests are processed in the background, so
+ * this object is read by the browser that started the operation while it is updated.
+ *
+ * @author Yves Grasset
+ */
+public class BulkOperation {
+
+    /**
+     * The actions that can be applied to several requests at once.
+     */
+    public enum Action {
+        /**
+         * The processing of the requests is abandoned.
+         */
+        REJECT,
+        /**
+         * The processing of the requests is restarted from the first task.
+         */
+        RELAUNCH,
+        /**
+         * The export of the requests to their originating server is attempted again.
+         */
+        RETRY_EXPORT,
+        /**
+         * The requests that did not match any rule are matched with the processes again.
+         */
+        RETRY_MATCHING,
+        /**
+         * The requests in standby proceed to the next task.
+         */
+        VALIDATE
+    }
+
+
+
+    /**
+     * The outcome of the action for a request.
+     */
+    public static class Result {
+
+        /**
+         * The key of the localized string that explains why the action was not applied, or <code>null</code> if
+         * it succeeded.
+         */
+        private final String messageKey;
+
+        /**
+         * The number that identifies the request.
+         */
+        private final int requestId;
+
+
+
+        /**
+         * Creates a new result.
+         *
+         * @param id        the number that identifies the request
+         * @param reasonKey the key of the localized string that explains why the action was not applied, or
+         *                  <code>null</code> if it succeeded
+         */
+        public Result(final int id, final String reasonKey) {
+            this.requestId = id;
+            this.messageKey = reasonKey;
+        }
+
+
+
+        /**
+         * Obtains the key of the localized string that explains why the action was not applied.
+         *
+         * @return the message key, or <code>null</code> if the action succeeded
+         */
+        public final String getMessageKey() {
+            return this.messageKey;
+        }
+
+
+
+        /**
+         * Obtains the number that identifies the request.
+         *
+         * @return the request identifier
+         */
+        public final int getRequestId() {
+            return this.requestId;
+        }
+
+
+
+        /**
+         * Obtains whether the action has been applied to the request.
+         *
+         * @return <code>true</code> if the action succeeded
+         */
+        public final boolean isSuccess() {
+            return this.messageKey == null;
+        }
+
+    }
+
+
+
+    /**
+     * The action applied to the requests.
+     */
+    private final Action action;
+
+    /**
+     * The time in milliseconds when all the requests have been processed, or 0 if the operation is running.
+     */
+    private volatile long completionTime;
+
+    /**
+     * The string that identifies this operation.
+     */
+    private final String id;
+
+    /**
+     * The number that identifies the user who started this operation.
+     */
+    private final int ownerId;
+
+    /**
+     * The numbers that identify the requests to apply the action to.
+     */
+    private final List<Integer> requestsIds;
+
+    /**
+     * The outcome of the action for the requests processed so far.
+     */
+    private final List<Result> results = new ArrayList<>();
+
+    /**
+     * The number of requests that the action has been applied to. It is guarded by the results list.
+     */
+    private int successesCount;
+
+
+
+    /**
+     * Creates a new operation.
+     *
+     * @param operationId the string that identifies the operation
+     * @param userId      the number that identifies the user who started the operation
+     * @param bulkAction  the action to apply to the requests
+     * @param requestsIds the numbers that identify the requests to apply the action to
+     */
+    public BulkOperation(final String operationId, final int userId, final Action bulkAction,
+            final List<Integer> requestsIds) {
+
+        if (operationId == null) {
+            throw new IllegalArgumentException("The operation identifier cannot be null.");
+        }
+
+        if (bulkAction == null) {
+            throw new IllegalArgumentException("The action cannot be null.");
+        }
+
+        if (requestsIds == null || requestsIds.isEmpty()) {
+            throw new IllegalArgumentException("The operation must apply to at least one request.");
+        }
+
+        this.id = operationId;
+        this.ownerId = userId;
+        this.action = bulkAction;
+        this.requestsIds = List.copyOf(requestsIds);
+    }
+
+
+
+    /**
+     * Obtains the action applied to the requests.
+     *
+     * @return the action
+     */
+    public final Action getAction() {
+        return this.action;
+    }
+
+
+
+    /**
+     * Obtains the time when all the requests have been processed.
+     *
+     * @return the time in milliseconds since the epoch, or 0 if the operation is running
+     */
+    public final long getCompletionTime() {
+        return this.completionTime;
+    }
+
+
+
+    /**
+     * Obtains the number of requests that the action could not be applied to so far.
+     *
+     * @return the number of failures
+     */
+    public final int getFailuresCount() {
+
+        synchronized (this.results) {
+            return this.results.size() - this.successesCount;
+        }
+    }
+
+
+
+    /**
+     * Obtains the string that identifies this operation.
+     *
+     * @return the operation identifier
+     */
+    public final String getId() {
+        return this.id;
+    }
+
+
+
+    /**
+     * Obtains the number that identifies the user who started this operation.
+     *
+     * @return the user identifier
+     */
+    public final int getOwnerId() {
+        return this.ownerId;
+    }
+
+
+
+    /**
+     * Obtains the number of requests processed so far.
+     *
+     * @return the number of processed requests
+     */
+    public final int getProcessedCount() {
+
+        synchronized (this.results) {
+            return this.results.size();
+        }
+    }
+
+
+
+    /**
+     * Obtains the numbers that identify the requests to apply the action to.
+     *
+     * @return the immutable list of request identifiers
+     */
+    public final List<Integer> getRequestsIds() {
+        return this.requestsIds;
+    }
+
+
+
+    /**
+     * Obtains the outcome of the action for the requests processed so far.
+     *
+     * @return a copy of the results list
+     */
+    public final List<Result> getResults() {
+
+        synchronized (this.results) {
+            return new ArrayList<>(this.results);
+        }
+    }
+
+
+
+    /**
+     * Obtains the number of requests that the action has been applied to so far.
+     *
+     * @return the number of successes
+     */
+    public final int getSuccessesCount() {
+
+        synchronized (this.results) {
+            return this.successesCount;
+        }
+    }
+
+
+
+    /**
+     * Obtains the number of requests to apply the action to.
+     *
+     * @return the number of requests
+     */
+    public final int getTotalCount() {
+        return this.requestsIds.size();
+    }
+
+
+
+    /**
+     * Obtains whether all the requests have been processed.
+     *
+     * @return <code>true</code> if the operation is over
+     */
+    public final boolean isComplete() {
+        return this.completionTime > 0;
+    }
+
+
+
+    /**
+     * Records the outcome of the action for a request.
+     *
+     * @param result the outcome of the action
+     */
+    final void addResult(final Result result) {
+        assert result != null : "The result cannot be null.";
+
+        synchronized (this.results) {
+            this.results.add(result);
+
+            if (result.isSuccess()) {
+                this.successesCount++;
+            }
+        }
+    }
+
+
+
+    /**
+     * Sets this operation as over.
+     *
+     * @param time the time in milliseconds since the epoch when the last request was processed
+     */
+    final void complete(final long time) {
+        this.completionTime = Math.max(time, 1);
+    }
+
+}
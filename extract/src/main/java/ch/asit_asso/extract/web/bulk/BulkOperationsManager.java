@@ -0,0 +1,401 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web.bulk;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.orchestrator.runners.RequestStatusChangedEvent;
+import ch.asit_asso.extract.web.RequestLocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+
+/**
+ * Applies an action to several requests in the background. The requests are processed in chunks, each in its own
+ * transaction, so that a large operation neither holds a transaction for a long time nor pays the cost of one
+ * transaction per request. The status changes of a chunk are notified together once it is committed.
+ * <p>
+ * If a chunk cannot be committed, for example because one of its requests was modified by the orchestrator in
+ * the meantime, its requests are processed again one by one so that only the faulty one fails.
+ *
+ * @author Yves Grasset
+ */
+@Component
+public class BulkOperationsManager implements DisposableBean {
+
+    /**
+     * The key of the localized string telling that a request was modified by another process.
+     */
+    static final String CONCURRENT_MODIFICATION_KEY = "requestDetails.error.request.concurrentModification";
+
+    /**
+     * The key of the localized string telling that the action failed for an unexpected reason.
+     */
+    static final String FAILURE_KEY = "requestsList.bulk.error.failed";
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(BulkOperationsManager.class);
+
+    /**
+     * The number of requests processed in the same transaction.
+     */
+    private final int chunkSize;
+
+    /**
+     * The object that sends the status changes to the other components of the application.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The threads that process the operations.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The number of milliseconds during which the report of a complete operation is kept.
+     */
+    private final long maxAge;
+
+    /**
+     * The maximum number of requests in an operation.
+     */
+    private final int maxRequests;
+
+    /**
+     * The operations that are running or whose report is still available, by identifier.
+     */
+    private final Map<String, BulkOperation> operations = new ConcurrentHashMap<>();
+
+    /**
+     * The locks that prevent several actions from being applied to the same request at the same time.
+     */
+    private final RequestLocks requestLocks;
+
+    /**
+     * The object that runs the chunks in transactions.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+
+
+    /**
+     * Creates a new instance of the manager.
+     *
+     * @param locks              the locks that serialize the actions on a request
+     * @param transactionManager the object that manages the transactions with the data source
+     * @param publisher          the object that sends the status changes to the other components
+     * @param requestsPerChunk   the number of requests processed in the same transaction
+     * @param maxRequestsNumber  the maximum number of requests in an operation
+     * @param reportMaxAge       the number of milliseconds during which the report of a complete operation is kept
+     * @param threadsNumber      the number of threads that process the operations
+     */
+    public BulkOperationsManager(final RequestLocks locks, final PlatformTransactionManager transactionManager,
+            final ApplicationEventPublisher publisher,
+            @Value("${extract.bulk.chunkSize:50}") final int requestsPerChunk,
+            @Value("${extract.bulk.maxRequests:1000}") final int maxRequestsNumber,
+            @Value("${extract.bulk.maxAge:3600000}") final long reportMaxAge,
+            @Value("${extract.bulk.threads:2}") final int threadsNumber) {
+
+        if (locks == null) {
+            throw new IllegalArgumentException("The request locks cannot be null.");
+        }
+
+        if (transactionManager == null) {
+            throw new IllegalArgumentException("The transaction manager cannot be null.");
+        }
+
+        if (publisher == null) {
+            throw new IllegalArgumentException("The event publisher cannot be null.");
+        }
+
+        if (requestsPerChunk < 1) {
+            throw new IllegalArgumentException("The chunk size must be greater than 0.");
+        }
+
+        if (maxRequestsNumber < 1) {
+            throw new IllegalArgumentException("The maximum number of requests must be greater than 0.");
+        }
+
+        if (reportMaxAge < 1) {
+            throw new IllegalArgumentException("The maximum age of the reports must be greater than 0.");
+        }
+
+        if (threadsNumber < 1) {
+            throw new IllegalArgumentException("The number of threads must be greater than 0.");
+        }
+
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bulk-operations-");
+        threadFactory.setDaemon(true);
+
+        this.requestLocks = locks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = publisher;
+        this.chunkSize = requestsPerChunk;
+        this.maxRequests = maxRequestsNumber;
+        this.maxAge = reportMaxAge;
+        this.executor = Executors.newFixedThreadPool(threadsNumber, threadFactory);
+    }
+
+
+
+    /**
+     * Obtains the maximum number of requests in an operation.
+     *
+     * @return the number of requests
+     */
+    public final int getMaxRequests() {
+        return this.maxRequests;
+    }
+
+
+
+    /**
+     * Obtains an operation started by a given user.
+     *
+     * @param operationId the string that identifies the operation
+     * @param userId      the number that identifies the user who asks for the operation
+     * @return the operation, or <code>null</code> if it does not exist, has expired or was started by another user
+     */
+    public final BulkOperation getOperation(final String operationId, final int userId) {
+
+        if (operationId == null) {
+            return null;
+        }
+
+        final BulkOperation operation = this.operations.get(operationId);
+
+        if (operation == null || operation.getOwnerId() != userId) {
+            return null;
+        }
+
+        return operation;
+    }
+
+
+
+    /**
+     * Starts applying an action to several requests. The action is applied with the security context of the
+     * current thread, so that the permissions of the user who started the operation are checked for each request.
+     *
+     * @param userId      the number that identifies the user who starts the operation
+     * @param action      the action to apply to the requests
+     * @param requestsIds the numbers that identify the requests to apply the action to. Duplicates are ignored.
+     * @param handler     the function that applies the action to a request within the transaction of its chunk
+     *                    and returns the modified request. It throws a {@link RequestActionRefusedException} if
+     *                    the action cannot be applied to the request.
+     * @return the operation that has been started
+     */
+    public final BulkOperation start(final int userId, final BulkOperation.Action action,
+            final List<Integer> requestsIds, final IntFunction<Request> handler) {
+
+        if (requestsIds == null || requestsIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one request must be given.");
+        }
+
+        if (handler == null) {
+            throw new IllegalArgumentException("The request handler cannot be null.");
+        }
+
+        final List<Integer> distinctIds = new ArrayList<>(new LinkedHashSet<>(requestsIds));
+
+        if (distinctIds.size() > this.maxRequests) {
+            throw new IllegalArgumentException(String.format("An operation cannot apply to more than %d requests.",
+                    this.maxRequests));
+        }
+
+        final BulkOperation operation = new BulkOperation(UUID.randomUUID().toString().replace("-", ""), userId,
+                action, distinctIds);
+        this.operations.put(operation.getId(), operation);
+        this.logger.info("User {} started the bulk operation {} to apply the action {} to {} request(s).", userId,
+                operation.getId(), action, distinctIds.size());
+        this.executor.execute(new DelegatingSecurityContextRunnable(() -> this.process(operation, handler)));
+
+        return operation;
+    }
+
+
+
+    /**
+     * Removes the reports of the operations that are over since longer than the allowed age.
+     */
+    @Scheduled(fixedDelayString = "${extract.bulk.purgeInterval:600000}")
+    public void purgeExpiredOperations() {
+        this.purgeExpiredOperations(System.currentTimeMillis());
+    }
+
+
+
+    /**
+     * Removes the reports of the operations that were over at a given time since longer than the allowed age.
+     *
+     * @param now the current time in milliseconds since the epoch
+     */
+    final void purgeExpiredOperations(final long now) {
+        this.operations.values().removeIf((operation) -> operation.isComplete()
+                                                         && now - operation.getCompletionTime() > this.maxAge);
+    }
+
+
+
+    /**
+     * Stops the threads that process the operations.
+     */
+    @Override
+    public final void destroy() {
+        this.executor.shutdownNow();
+    }
+
+
+
+    /**
+     * Applies the action of an operation to all its requests, chunk by chunk.
+     *
+     * @param operation the operation to process
+     * @param handler   the function that applies the action to a request
+     */
+    private void process(final BulkOperation operation, final IntFunction<Request> handler) {
+        final List<Integer> requestsIds = operation.getRequestsIds();
+
+        try {
+
+            for (int chunkStart = 0; chunkStart < requestsIds.size(); chunkStart += this.chunkSize) {
+
+                if (Thread.currentThread().isInterrupted()) {
+                    this.logger.warn("The bulk operation {} was interrupted.", operation.getId());
+                    break;
+                }
+
+                final List<Integer> chunk
+                        = requestsIds.subList(chunkStart, Math.min(chunkStart + this.chunkSize, requestsIds.size()));
+                this.processChunk(operation, chunk, handler);
+            }
+
+        } finally {
+            operation.complete(System.currentTimeMillis());
+            this.logger.info("The bulk operation {} is over: {} success(es) and {} failure(s).", operation.getId(),
+                    operation.getSuccessesCount(), operation.getFailuresCount());
+        }
+    }
+
+
+
+    /**
+     * Applies the action of an operation to a group of requests in a single transaction. If the transaction fails,
+     * the requests are processed again one by one.
+     *
+     * @param operation the operation that the requests belong to
+     * @param chunk     the numbers that identify the requests to process
+     * @param handler   the function that applies the action to a request
+     */
+    private void processChunk(final BulkOperation operation, final List<Integer> chunk,
+            final IntFunction<Request> handler) {
+        final Map<Integer, String> outcomes;
+
+        try {
+            outcomes = this.requestLocks.callWithLocks(chunk,
+                    () -> this.transactionTemplate.execute((status) -> this.applyToChunk(chunk, handler)));
+
+        } catch (RuntimeException exception) {
+
+            if (chunk.size() == 1) {
+                final int requestId = chunk.get(0);
+                final boolean isConflict = exception instanceof OptimisticLockingFailureException;
+
+                if (isConflict) {
+                    this.logger.warn("The request {} was modified by another process during the bulk operation {}.",
+                            requestId, operation.getId());
+
+                } else {
+                    this.logger.error("The bulk operation {} failed for the request {}.", operation.getId(),
+                            requestId, exception);
+                }
+
+                final String reasonKey = (isConflict) ? BulkOperationsManager.CONCURRENT_MODIFICATION_KEY
+                                                      : BulkOperationsManager.FAILURE_KEY;
+                operation.addResult(new BulkOperation.Result(requestId, reasonKey));
+                return;
+            }
+
+            this.logger.warn("A chunk of {} requests of the bulk operation {} could not be committed. Its requests"
+                             + " are processed one by one.", chunk.size(), operation.getId(), exception);
+
+            for (int requestId : chunk) {
+                this.processChunk(operation, List.of(requestId), handler);
+            }
+
+            return;
+        }
+
+        for (Map.Entry<Integer, String> outcome : outcomes.entrySet()) {
+            operation.addResult(new BulkOperation.Result(outcome.getKey(), outcome.getValue()));
+        }
+    }
+
+
+
+    /**
+     * Applies an action to the requests of a chunk within the current transaction. The status changes are
+     * published within the transaction, so that they are only notified once it is committed.
+     *
+     * @param chunk   the numbers that identify the requests to process
+     * @param handler the function that applies the action to a request
+     * @return the key of the message that explains why the action was refused for each request, or
+     *         <code>null</code> if it succeeded
+     */
+    private Map<Integer, String> applyToChunk(final List<Integer> chunk, final IntFunction<Request> handler) {
+        final Map<Integer, String> outcomes = new LinkedHashMap<>();
+
+        for (int requestId : chunk) {
+
+            try {
+                final Request request = handler.apply(requestId);
+                this.eventPublisher.publishEvent(new RequestStatusChangedEvent(request));
+                outcomes.put(requestId, null);
+
+            } catch (RequestActionRefusedException exception) {
+                this.logger.debug("The action was refused for request {}: {}", requestId,
+                        exception.getMessageKey());
+                outcomes.put(requestId, exception.getMessageKey());
+            }
+        }
+
+        return outcomes;
+    }
+
+}
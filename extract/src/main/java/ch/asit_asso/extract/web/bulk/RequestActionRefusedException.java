@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web.bulk;
+
+
+
+/**
+ * An error thrown when an action of a bulk operation cannot be applied to a request in its current state, or by
+ * the user who started the operation. The other requests of the operation are still processed.
+ *
+ * @author Yves Grasset
+ */
+public class RequestActionRefusedException extends RuntimeException {
+
+    /**
+     * The key of the localized string that explains why the action was refused.
+     */
+    private final String messageKey;
+
+
+
+    /**
+     * Creates a new instance of this error.
+     *
+     * @param reasonKey the key of the localized string that explains why the action was refused
+     */
+    public RequestActionRefusedException(final String reasonKey) {
+        super(String.format("The action was refused (%s).", reasonKey));
+
+        if (reasonKey == null) {
+            throw new IllegalArgumentException("The reason key cannot be null.");
+        }
+
+        this.messageKey = reasonKey;
+    }
+
+
+
+    /**
+     * Obtains the key of the localized string that explains why the action was refused.
+     *
+     * @return the message key
+     */
+    public final String getMessageKey() {
+        return this.messageKey;
+    }
+
+}
@@ -29,6 +29,7 @@ import ch.asit_asso.extract.persistence.ConnectorsRepository;
 import ch.asit_asso.extract.persistence.ProcessesRepository;
 import ch.asit_asso.extract.persistence.RequestsRepository;
 import ch.asit_asso.extract.persistence.RulesRepository;
+import ch.asit_asso.extract.requestmatching.UnmatchedRequestsRematcher;
 import ch.asit_asso.extract.web.Message;
 import ch.asit_asso.extract.web.model.ConnectorModel;
 import ch.asit_asso.extract.web.model.ProcessModel;
@@ -121,6 +122,12 @@ public class ConnectorsController extends BaseController {
     @Autowired
     private ProcessesRepository processesRepository;
 
+    /**
+     * The object that matches again the unmatched requests of a connector whose rules have been modified.
+     */
+    @Autowired
+    private UnmatchedRequestsRematcher unmatchedRequestsRematcher;
+
     /**
      * Access to the currently available connector plugins.
      */
@@ -249,7 +256,10 @@ public class ConnectorsController extends BaseController {
 
         this.logger.info("Updating the connector # {} has succeeded.", domainConnector.getId());
         this.connectorsRepository.save(domainConnector);
-        this.addStatusMessage(redirectAttributes, "connectorsList.connector.updated", Message.MessageType.SUCCESS);
+        final boolean isRematching = this.unmatchedRequestsRematcher.rematchConnector(domainConnector.getId()) > 0;
+        this.addStatusMessage(redirectAttributes, (isRematching) ? "connectorsList.connector.updatedWithRematching"
+                                                                 : "connectorsList.connector.updated",
+                Message.MessageType.SUCCESS);
 
         return ConnectorsController.REDIRECT_TO_LIST;
     }
@@ -368,6 +378,8 @@ public class ConnectorsController extends BaseController {
             return ConnectorsController.REDIRECT_TO_LIST;
         }
 
+        model.addAttribute("rematchingReport", this.unmatchedRequestsRematcher.getLastReport(id));
+
         return this.prepareModelForDetailsView(model, false, connectorModel);
     }
 
@@ -16,23 +16,26 @@
  */
 package ch.asit_asso.extract.web.controllers;
 
+import ch.asit_asso.extract.archive.RequestsArchive;
 import ch.asit_asso.extract.domain.Connector;
+import ch.asit_asso.extract.domain.FinishedRequest;
 import ch.asit_asso.extract.domain.Process;
 import ch.asit_asso.extract.domain.Request;
 import ch.asit_asso.extract.domain.Request.Status;
-import ch.asit_asso.extract.domain.User;
+import ch.asit_asso.extract.domain.projections.RequestListItem;
 import ch.asit_asso.extract.exceptions.BaseFolderNotFoundException;
 import ch.asit_asso.extract.orchestrator.OrchestratorSettings;
 import ch.asit_asso.extract.persistence.*;
 import ch.asit_asso.extract.persistence.sorts.RequestSort;
-import ch.asit_asso.extract.persistence.specifications.RequestSpecification;
+import ch.asit_asso.extract.persistence.specifications.FinishedRequestSpecification;
 import ch.asit_asso.extract.web.Message.MessageType;
+import ch.asit_asso.extract.web.model.RequestListItemModel;
 import ch.asit_asso.extract.web.model.RequestModel;
-import ch.asit_asso.extract.web.model.comparators.RequestModelByTaskDateComparator;
 import ch.asit_asso.extract.web.model.json.ConnectorJsonModel;
 import ch.asit_asso.extract.web.model.json.DataTableResponse;
 import ch.asit_asso.extract.web.model.json.PublicField;
 import ch.asit_asso.extract.web.model.json.RequestJsonModel;
+import ch.asit_asso.extract.web.model.json.RequestsChangesResponse;
 import com.fasterxml.jackson.annotation.JsonView;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
@@ -46,15 +49,22 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
-import java.util.Collection;
+import java.util.Comparator;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 
 
@@ -67,6 +77,17 @@ import java.util.Locale;
 @RequestMapping("")
 public class IndexController extends BaseController {
 
+    /**
+     * The name of the HTTP header that holds the value to pass to get the modifications of the current requests.
+     */
+    private static final String CHANGES_VERSION_HEADER = "X-Requests-Version";
+
+    /**
+     * The number of milliseconds before the given version from which the modified requests are returned, so that
+     * the modifications committed by transactions that were still running at that time are not missed.
+     */
+    private static final long CHANGES_OVERLAP_MILLISECONDS = 60000;
+
     /**
      * The string that identifies the part of the website that this controller manages.
      */
@@ -95,10 +116,10 @@ public class IndexController extends BaseController {
     private MessageSource messageSource;
 
     /**
-     * The Spring Data object that links the application parameters data objects with the data source.
+     * The copy in memory of the application parameters.
      */
     @Autowired
-    private SystemParametersRepository parametersRepository;
+    private SystemParametersCache parametersCache;
 
     /**
      * The Spring Data object that links the process data objects with the data source.
@@ -106,6 +127,12 @@ public class IndexController extends BaseController {
     @Autowired
     private ProcessesRepository processesRepository;
 
+    /**
+     * The access to the finished requests, whether they have been archived or not.
+     */
+    @Autowired
+    private RequestsArchive requestsArchive;
+
     /**
      * The Spring Data object that links the requests data objects with the data source.
      */
@@ -172,7 +199,7 @@ public class IndexController extends BaseController {
             model.addAttribute("processes", this.processesRepository.findAllByOrderByName());
             model.addAttribute("connectors", this.connectorsRepository.findAllByOrderByName());
             model.addAttribute("refreshInterval",
-                    Integer.valueOf(this.parametersRepository.getDashboardRefreshInterval()));
+                    this.parametersCache.getSnapshot().getDashboardRefreshInterval());
             model.addAttribute("tablePageSize", this.tablePageSize);
         }
 
@@ -237,7 +264,8 @@ public class IndexController extends BaseController {
         }
 
         this.logger.debug("Initializing orchestrator setting…");
-        OrchestratorSettings orchestratorSettings = new OrchestratorSettings(this.parametersRepository);
+        OrchestratorSettings orchestratorSettings = new OrchestratorSettings();
+        orchestratorSettings.setValuesFromSnapshot(this.parametersCache.getSnapshot());
 
         this.logger.debug("Current working state string is {}", orchestratorSettings.getStateString());
         return orchestratorSettings.getStateString();
@@ -254,9 +282,11 @@ public class IndexController extends BaseController {
     @JsonView(PublicField.class)
     @GetMapping("getCurrentRequests")
     @ResponseBody
-    public final DataTableResponse handleGetCurrentRequests(HttpServletRequest request /*@RequestParam int draw*/) {
+    public final DataTableResponse handleGetCurrentRequests(HttpServletRequest request,
+            HttpServletResponse response /*@RequestParam int draw*/) {
 
         try {
+            response.setHeader(IndexController.CHANGES_VERSION_HEADER, String.valueOf(System.currentTimeMillis()));
 
         this.logger.info("Processing request to get current requests.");
         if (!this.isCurrentUserApplicationUser()) {
@@ -267,7 +297,8 @@ public class IndexController extends BaseController {
 
             Locale currentLocale = this.localeResolver.resolveLocale(request);
             RequestJsonModel[] requestsData
-                    = RequestJsonModel.fromRequestModelsArray(this.getCurrentRequests(), this.messageSource, currentLocale);
+                    = RequestJsonModel.fromRequestListItemModelsArray(this.getCurrentRequests(), this.messageSource,
+                                                                      currentLocale);
             this.logger.info("Branch 1");
             return new DataTableResponse(1, requestsData.length, requestsData.length, requestsData);
 
@@ -286,6 +317,48 @@ public class IndexController extends BaseController {
 
 
 
+    /**
+     * Processes a request to get the modifications of the orders whose processing has started but has not completed
+     * yet. If no such order has been added, modified or removed since the entity tag passed by the client was
+     * issued, a <code>304 Not Modified</code> response is returned.
+     *
+     * @param request    the HTTP request
+     * @param webRequest the request used to check the entity tag passed by the client
+     * @param since      the version of the table returned by the last call to this method or to get the current
+     *                   requests
+     * @return a JSON object that describes the modified current orders, or <code>null</code> if nothing changed
+     */
+    @JsonView(PublicField.class)
+    @GetMapping("getCurrentRequestsChanges")
+    @ResponseBody
+    public final RequestsChangesResponse handleGetCurrentRequestsChanges(final HttpServletRequest request,
+            final WebRequest webRequest, @RequestParam final long since) {
+
+        if (!this.isCurrentUserApplicationUser()) {
+            this.logger.debug("User {} is not an application user.", this.getCurrentUserLogin());
+            return null;
+        }
+
+        try {
+            final long version = System.currentTimeMillis();
+            final String changeTag = this.requestsRepository.getChangeStateByStatusNot(Status.FINISHED).toTag();
+
+            if (webRequest.checkNotModified(changeTag)) {
+                this.logger.debug("The current requests have not changed since the last refresh.");
+                return null;
+            }
+
+            return this.getCurrentRequestsChanges(since, version, this.localeResolver.resolveLocale(request));
+
+        } catch (Exception exception) {
+            this.logger.error("The current requests modifications retrieval failed.", exception);
+
+            return new RequestsChangesResponse(exception.getMessage());
+        }
+    }
+
+
+
     /**
      * Processes a request to get the description of the orders whose processing is complete.
      *
@@ -348,14 +421,15 @@ public class IndexController extends BaseController {
                     connector, process, startDateFrom, startDateTo);
             this.logger.debug("Number of total requests: {}. Number of pages: {}.", pagedResult.getTotalElements(),
                               pagedResult.getTotalPages());
+            final SystemParametersSnapshot parameters = this.parametersCache.getSnapshot();
             RequestModel[] requestModelArray = RequestModel.fromDomainRequestsPage(pagedResult,
-                    this.requestsHistoryRepository, this.parametersRepository.getBasePath(), this.messageSource,
-                    this.parametersRepository.getValidationFocusProperties().split(","));
+                    this.requestsHistoryRepository, this.requestsArchive, parameters.getBasePath(), this.messageSource,
+                    parameters.getValidationFocusProperties());
             Locale currentLocale = this.localeResolver.resolveLocale(request);
             RequestJsonModel[] requestsData
                     = RequestJsonModel.fromRequestModelsArray(requestModelArray, this.messageSource, currentLocale);
 
-            return new DataTableResponse(draw, this.requestsRepository.count(), pagedResult.getTotalElements(),
+            return new DataTableResponse(draw, this.requestsArchive.countRequests(), pagedResult.getTotalElements(),
                     requestsData);
 
         } catch (BaseFolderNotFoundException baseFolderException) {
@@ -395,35 +469,80 @@ public class IndexController extends BaseController {
 
 
     /**
-     * Gets models for all the requests that are not finished and that the current user is allowed to view.
+     * Gets list models for all the requests that are not finished and that the current user is allowed to view.
+     * Only the displayed columns and a summary of the history of the requests are read.
      *
-     * @return an array that contains the current requests models
+     * @return an array that contains the current requests models, with the most recent task first
      */
-    private RequestModel[] getCurrentRequests() {
+    private RequestListItemModel[] getCurrentRequests() {
         assert this.isCurrentUserApplicationUser() : "The user must be authenticated.";
 
-        Collection<Request> currentDomainRequests;
+        List<RequestListItem> currentListItems;
 
         if (this.isCurrentUserAdmin()) {
-            currentDomainRequests = this.requestsRepository.findByStatusNot(Status.FINISHED);
+            currentListItems = this.requestsRepository.findListItemsByStatusNot(Status.FINISHED);
 
         } else {
-            currentDomainRequests = this.usersRepository.getUserAssociatedRequestsByStatusNot(this.getCurrentUserId(),
-                    Status.FINISHED);
+            currentListItems = this.usersRepository.getUserAssociatedRequestListItemsByStatusNot(
+                    this.getCurrentUserId(), Status.FINISHED);
         }
 
-        logger.info("There are " + currentDomainRequests.size() + " current requests.");
+        logger.info("There are " + currentListItems.size() + " current requests.");
 
-        RequestModel[] currentRequests = RequestModel.fromDomainRequestsCollection(currentDomainRequests,
-                this.requestsHistoryRepository, this.parametersRepository.getBasePath(), this.messageSource,
-                this.parametersRepository.getValidationFocusProperties().split(","));
-        Arrays.sort(currentRequests, new RequestModelByTaskDateComparator(true));
+        RequestListItemModel[] currentRequests = RequestListItemModel.fromListItems(currentListItems,
+                this.requestsHistoryRepository, this.messageSource);
+        Arrays.sort(currentRequests, Comparator.comparing(RequestListItemModel::getTaskDate).reversed());
 
         return currentRequests;
     }
 
 
 
+    /**
+     * Gets the modifications of the requests that are not finished and that the current user is allowed to view.
+     *
+     * @param since   the time in milliseconds from which the modified requests must be returned
+     * @param version the time in milliseconds to pass to get the next modifications
+     * @param locale  the locale to use for message formatting
+     * @return the modifications of the current requests
+     */
+    private RequestsChangesResponse getCurrentRequestsChanges(final long since, final long version,
+            final Locale locale) {
+        assert this.isCurrentUserApplicationUser() : "The user must be authenticated.";
+
+        final Calendar modifiedSince = new GregorianCalendar();
+        modifiedSince.setTimeInMillis(since - IndexController.CHANGES_OVERLAP_MILLISECONDS);
+        final List<RequestListItem> modifiedItems = new ArrayList<>(
+                this.requestsRepository.findListItemsByStatusNotModifiedSince(Status.FINISHED, modifiedSince));
+        final List<Integer> currentIds;
+
+        if (this.isCurrentUserAdmin()) {
+            currentIds = this.requestsRepository.findIdsByStatusNot(Status.FINISHED);
+
+        } else {
+            currentIds = this.usersRepository.getUserAssociatedRequestIdsByStatusNot(this.getCurrentUserId(),
+                    Status.FINISHED);
+            final Set<Integer> visibleIds = new HashSet<>(currentIds);
+            modifiedItems.removeIf((item) -> !visibleIds.contains(item.getId()));
+        }
+
+        this.logger.debug("{} of the {} current requests have been modified.", modifiedItems.size(),
+                currentIds.size());
+        final RequestListItemModel[] modifiedRequests = RequestListItemModel.fromListItems(modifiedItems,
+                this.requestsHistoryRepository, this.messageSource);
+        final String[] rowIds = new String[currentIds.size()];
+
+        for (int idIndex = 0; idIndex < rowIds.length; idIndex++) {
+            rowIds[idIndex] = RequestJsonModel.getRowId(currentIds.get(idIndex));
+        }
+
+        return new RequestsChangesResponse(version,
+                RequestJsonModel.fromRequestListItemModelsArray(modifiedRequests, this.messageSource, locale),
+                rowIds);
+    }
+
+
+
     /**
      * Transforms a date filter string into a date.
      *
@@ -484,29 +603,19 @@ public class IndexController extends BaseController {
                           pageStart / this.tablePageSize);
         final PageRequest paging = PageRequest.of(pageStart / this.tablePageSize, this.tablePageSize,
                 RequestSort.getSort(sortFields.split(","), sortDirection));
-        final Specification<Request> filterCriteria
-                = RequestSpecification.getFilterSpecification(filterText, filterConnector, filterProcess,
+        final Specification<FinishedRequest> searchCriteria
+                = FinishedRequestSpecification.getFilterSpecification(filterText, filterConnector, filterProcess,
                         filterDateFrom, filterDateTo);
-        final Specification<Request> searchCriteria
-                = Specification.where(RequestSpecification.isFinished()).and(filterCriteria);
 
         if (this.isCurrentUserAdmin()) {
-            return this.requestsRepository.findAll(searchCriteria, paging);
+            return this.requestsArchive.findFinishedRequests(searchCriteria, paging);
         }
 
-        final User currentUser = this.usersRepository.findById(this.getCurrentUserId())
-                .orElseThrow(() -> new UnsupportedOperationException("User does not exist."));
-        final Collection<Process> userProcesses = currentUser.getDistinctProcesses();
-        this.logger.debug("Number of user processes: {}. Ids of user processes: {}.", userProcesses.size(),
-                          String.join(", ",
-                                      userProcesses.stream().map((process) ->
-                                                                 process.getId().toString()).toArray(String[]::new)));
-        
-        final Specification<Request> userCriteria
-                = RequestSpecification.isProcessInList(userProcesses).or(
-                RequestSpecification.isBoundToUser(currentUser));
-
-        return this.requestsRepository.findAll(Specification.where(userCriteria).and(searchCriteria), paging);
+        final Specification<FinishedRequest> userCriteria
+                = FinishedRequestSpecification.isVisibleTo(this.getCurrentUserId());
+
+        return this.requestsArchive.findFinishedRequests(Specification.where(userCriteria).and(searchCriteria),
+                paging);
     }
 
 
@@ -539,7 +648,7 @@ public class IndexController extends BaseController {
      * @return <code>true</code> if the folder matches the requirements
      */
     private boolean testBaseFolder() {
-        final File baseFolder = new File(this.parametersRepository.getBasePath());
+        final File baseFolder = new File(this.parametersCache.getSnapshot().getBasePath());
 
         return (baseFolder.exists() && baseFolder.isDirectory() && baseFolder.canRead() && baseFolder.canWrite());
     }
@@ -603,6 +603,35 @@ public class ProcessesController extends BaseController {
             final Process domainProcess) {
         processModel.updateInDataSource(this.processesRepository, this.tasksRepository, this.usersRepository,
                                         this.userGroupsRepository, domainProcess);
+        this.invalidateTaskPluginsCaches(domainProcess);
+    }
+
+
+
+    /**
+     * Tells the plugins used by the tasks of a process to discard the data they cached for the task parameters,
+     * so that the changes made to the external resources these tasks use are taken into account.
+     *
+     * @param domainProcess the data object for the process whose tasks have been saved
+     */
+    private void invalidateTaskPluginsCaches(final Process domainProcess) {
+
+        for (Task task : this.tasksRepository.findByProcessOrderByPosition(domainProcess)) {
+            ITaskProcessor taskPlugin = this.taskPluginsDiscoverer.getTaskProcessor(task.getCode());
+
+            if (taskPlugin == null) {
+                this.logger.debug("The plugin {} for task {} is not available.", task.getCode(), task.getId());
+                continue;
+            }
+
+            try {
+                taskPlugin.newInstance(this.getApplicationLanguage(), task.getParametersValues()).invalidateCache();
+
+            } catch (Exception exception) {
+                this.logger.warn("Could not invalidate the cached data of the plugin {} for task {}.",
+                                 task.getCode(), task.getId(), exception);
+            }
+        }
     }
 
     /**
@@ -18,16 +18,22 @@ package ch.asit_asso.extract.web.controllers;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Supplier;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.transaction.Transactional;
 
+import ch.asit_asso.extract.archive.RequestsArchive;
 import ch.asit_asso.extract.configuration.FeatureConfiguration;
 import ch.asit_asso.extract.domain.Process;
 import ch.asit_asso.extract.domain.Remark;
@@ -41,7 +47,8 @@ import ch.asit_asso.extract.persistence.ProcessesRepository;
 import ch.asit_asso.extract.persistence.RemarkRepository;
 import ch.asit_asso.extract.persistence.RequestHistoryRepository;
 import ch.asit_asso.extract.persistence.RequestsRepository;
-import ch.asit_asso.extract.persistence.SystemParametersRepository;
+import ch.asit_asso.extract.persistence.SystemParametersCache;
+import ch.asit_asso.extract.persistence.SystemParametersSnapshot;
 import ch.asit_asso.extract.persistence.TasksRepository;
 import ch.asit_asso.extract.persistence.UserGroupsRepository;
 import ch.asit_asso.extract.persistence.UsersRepository;
@@ -50,32 +57,51 @@ import ch.asit_asso.extract.utils.FileSystemUtils.RequestDataFolder;
 import ch.asit_asso.extract.utils.ZipUtils;
 import ch.asit_asso.extract.web.Message;
 import ch.asit_asso.extract.web.Message.MessageType;
+import ch.asit_asso.extract.web.RequestLocks;
+import ch.asit_asso.extract.web.bulk.BulkOperation;
+import ch.asit_asso.extract.web.bulk.BulkOperationsManager;
+import ch.asit_asso.extract.web.bulk.RequestActionRefusedException;
+import ch.asit_asso.extract.web.events.RequestStatusBroadcaster;
 import ch.asit_asso.extract.web.model.RequestModel;
 import ch.asit_asso.extract.web.model.UserModel;
+import ch.asit_asso.extract.web.model.json.BulkOperationResponse;
+import ch.asit_asso.extract.web.model.json.ChunkedUploadResponse;
+import ch.asit_asso.extract.web.model.json.PublicField;
+import ch.asit_asso.extract.web.uploads.ChunkedUpload;
+import ch.asit_asso.extract.web.uploads.ChunkedUploadManager;
+import com.fasterxml.jackson.annotation.JsonView;
 import java.util.Collection;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Scope;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 
@@ -125,6 +151,11 @@ public class RequestsController extends BaseController {
      */
     private static final String REDIRECT_TO_LIST = "redirect:/requests";
 
+    /**
+     * The name of the HTTP header that contains the CRC32 of an uploaded chunk, as an hexadecimal string.
+     */
+    private static final String CHUNK_CHECKSUM_HEADER = "X-Chunk-Checksum";
+
     /**
      * The writer to the application logs.
      */
@@ -137,10 +168,28 @@ public class RequestsController extends BaseController {
     private MessageSource messageSource;
 
     /**
-     * The Spring Data object that links the system parameter data objects with the data source.
+     * The locks that prevent several actions from being applied to the same request at the same time.
+     */
+    @Autowired
+    private RequestLocks requestLocks;
+
+    /**
+     * The object that applies the actions to several requests at once.
      */
     @Autowired
-    private SystemParametersRepository parametersRepository;
+    private BulkOperationsManager bulkOperationsManager;
+
+    /**
+     * The object that writes the output files sent in several chunks.
+     */
+    @Autowired
+    private ChunkedUploadManager chunkedUploadManager;
+
+    /**
+     * The copy in memory of the system parameters.
+     */
+    @Autowired
+    private SystemParametersCache parametersCache;
 
     /**
      * The Spring Data object that links the process data objects with the data source.
@@ -160,12 +209,24 @@ public class RequestsController extends BaseController {
     @Autowired
     private RequestsRepository requestsRepository;
 
+    /**
+     * The access to the finished requests that have been moved to the archive tables.
+     */
+    @Autowired
+    private RequestsArchive requestsArchive;
+
     /**
      * The Spring Data object that links the request history entry data objects with the data source.
      */
     @Autowired
     private RequestHistoryRepository requestHistoryRepository;
 
+    /**
+     * The object that pushes the changes of the requests state to the browsers.
+     */
+    @Autowired
+    private RequestStatusBroadcaster requestStatusBroadcaster;
+
     /**
      * The Spring Data object that links the task entry data objects with the data source.
      */
@@ -187,7 +248,7 @@ public class RequestsController extends BaseController {
     private FeatureConfiguration features;
 
     /**
-     * Processes a request to display detailed information about an order.
+     * Processes a request to display detailed information about an order, whether it is active or archived.
      *
      * @param itemId             the number that identifies the request to display
      * @param model              the data to display in the details view
@@ -199,7 +260,7 @@ public class RequestsController extends BaseController {
             final RedirectAttributes redirectAttributes) {
         this.logger.debug("Received a web request to display the details of request {}.", itemId);
 
-        final Request request = this.getDomainRequest(itemId);
+        final Request request = this.getViewedRequest(itemId);
 
         if (request == null) {
             this.logger.error("No request found in database with the identifier {}.", itemId);
@@ -216,12 +277,16 @@ public class RequestsController extends BaseController {
 
         this.addCurrentSectionToModel(RequestsController.CURRENT_SECTION_IDENTIFIER, model);
         this.addJavascriptMessagesAttribute(model);
-        final RequestModel requestModel = new RequestModel(request,
-                this.requestHistoryRepository.findByRequestOrderByStep(request).toArray(new RequestHistoryRecord[]{}),
-                Paths.get(this.parametersRepository.getBasePath()), this.messageSource,
-                this.parametersRepository.getValidationFocusProperties().split(","));
+        final SystemParametersSnapshot parameters = this.parametersCache.getSnapshot();
+        final boolean archived = request.isArchived();
+        final List<RequestHistoryRecord> history = (archived)
+                ? this.requestsArchive.findArchivedHistory(request)
+                : this.requestHistoryRepository.findByRequestOrderByStep(request);
+        final RequestModel requestModel = new RequestModel(request, history.toArray(new RequestHistoryRecord[]{}),
+                Paths.get(parameters.getBasePath()), this.messageSource, parameters.getValidationFocusProperties());
 
         model.addAttribute("request", requestModel);
+        model.addAttribute("archived", archived);
         if (features.perRequestOwnershipEnabled()) {
             model.addAttribute("allactiveusers", this.getAllActiveUsers());
             model.addAttribute("allusergroups", this.getAllUserGroups());
@@ -233,8 +298,7 @@ public class RequestsController extends BaseController {
             model.addAttribute("rejectionMessages", this.getRejectionMessagesTemplates(currentTask));
         }
 
-        model.addAttribute("displayTempFolder",
-                           "true".equals(this.parametersRepository.isTempFolderDisplayed()));
+        model.addAttribute("displayTempFolder", parameters.isTempFolderDisplayed());
 
         String mapDataFileName = RequestsController.DEFAULT_MAP_DATA_FILE_NAME;
         Resource customMapResource = new ClassPathResource(RequestsController.CUSTOM_MAP_DATA_PATH);
@@ -244,7 +308,8 @@ public class RequestsController extends BaseController {
         }
 
         model.addAttribute("mapDataFileName", mapDataFileName);
-        OrchestratorSettings orchestratorSettings = new OrchestratorSettings(this.parametersRepository);
+        OrchestratorSettings orchestratorSettings = new OrchestratorSettings();
+        orchestratorSettings.setValuesFromSnapshot(parameters);
         model.addAttribute("orchestratorState", orchestratorSettings.getStateString());
 
         this.logger.debug("Displaying request details.");
@@ -254,6 +319,75 @@ public class RequestsController extends BaseController {
 
 
 
+    /**
+     * Processes a request to obtain the perimeter of an order, so that the details page does not need to embed it.
+     *
+     * @param requestId the number that identifies the order
+     * @param response  the HTTP response to send back
+     * @return the perimeter of the order as a WKT geometry, or <code>null</code> if it cannot be obtained
+     */
+    @GetMapping(value = "getPerimeter", produces = "text/plain")
+    @ResponseBody
+    public final String getPerimeter(@RequestParam int requestId, HttpServletResponse response) {
+        this.logger.debug("Processing request to get the perimeter of request {}.", requestId);
+
+        if (this.requestsRepository.existsById(requestId)) {
+
+            if (!this.canCurrentUserViewActiveRequest(requestId)) {
+                this.logger.warn("The user {} tried to access the perimeter of request {} but is not allowed to view"
+                        + " it.", this.getCurrentUserLogin(), requestId);
+                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                return null;
+            }
+
+            return this.requestsRepository.findPerimeterById(requestId);
+        }
+
+        Request request = this.requestsArchive.findArchivedRequest(requestId);
+
+        if (request == null) {
+            this.logger.error("No request found in database with the identifier {}.", requestId);
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return null;
+        }
+
+        if (!this.canCurrentUserViewRequestDetails(request)) {
+            this.logger.warn("The user {} tried to access the perimeter of request {} but is not allowed to view it.",
+                    this.getCurrentUserLogin(), requestId);
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+
+        return request.getPerimeter();
+    }
+
+
+
+    /**
+     * Processes a request to receive the changes of the state of the orders that the current user is allowed to
+     * view as a stream of server-sent events.
+     *
+     * @param response the HTTP response to send back
+     * @return the object that writes the events, or <code>null</code> if the user is not allowed to receive them
+     */
+    @GetMapping(value = "events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public final SseEmitter getEvents(HttpServletResponse response) {
+
+        if (!this.isCurrentUserApplicationUser()) {
+            this.logger.debug("User {} is not an application user.", this.getCurrentUserLogin());
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+
+        this.logger.debug("Opening the request events stream for user {}.", this.getCurrentUserLogin());
+        response.setHeader("X-Accel-Buffering", "no");
+
+        return this.requestStatusBroadcaster.subscribe(this.getCurrentUserId(), this.isCurrentUserAdmin());
+    }
+
+
+
     @GetMapping(value = "getRemarkText", produces = "text/plain")
     @ResponseBody
     public final String getRemarkText(@RequestParam("id") int remarkId, @RequestParam int requestId,
@@ -276,10 +410,10 @@ public class RequestsController extends BaseController {
             return null;
         }
 
+        final SystemParametersSnapshot parameters = this.parametersCache.getSnapshot();
         final RequestModel requestModel = new RequestModel(request,
                 this.requestHistoryRepository.findByRequestOrderByStep(request).toArray(new RequestHistoryRecord[]{}),
-                Paths.get(this.parametersRepository.getBasePath()), this.messageSource,
-                this.parametersRepository.getValidationFocusProperties().split(","));
+                Paths.get(parameters.getBasePath()), this.messageSource, parameters.getValidationFocusProperties());
 
         Task currentTask = this.getCurrentTask(requestModel);
 
@@ -403,17 +537,21 @@ public class RequestsController extends BaseController {
 
 
     /**
-     * Processes a web request to obtain a file produced by the processing of an order.
+     * Processes a web request to obtain a file produced by the processing of an order. Parts of the file can be
+     * requested through the <code>Range</code> header, so that an interrupted download can be resumed.
      *
      * @param requestId  the number that identifies the order whose processing produced the file
      * @param fileString the path of the output path relative to the output folder
+     * @param webRequest the HTTP request, used to check its conditional headers
      * @param response   the HTTP response to this request
-     * @return a file system resource wrapping the requested file, or <code>null</code> if the file cannot be served
+     * @return a resource wrapping the requested file, or <code>null</code> if the file cannot be served or has not
+     *         been modified
      */
     @GetMapping(path = "{requestId}/getFile", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
     @ResponseBody
-    public final FileSystemResource viewRequestOutputFile(@PathVariable final int requestId,
-            @RequestParam("file") final String fileString, final HttpServletResponse response) {
+    public final Resource viewRequestOutputFile(@PathVariable final int requestId,
+            @RequestParam("file") final String fileString, final ServletWebRequest webRequest,
+            final HttpServletResponse response) {
         this.logger.debug("Received a web request to display the output file \"{}\" for request {}.", fileString,
                 requestId);
 
@@ -424,7 +562,7 @@ public class RequestsController extends BaseController {
             return null;
         }
 
-        final Request request = this.getDomainRequest(requestId);
+        final Request request = this.getViewedRequest(requestId);
 
         if (request == null) {
             this.logger.error("No request found in database with the identifier {}.", requestId);
@@ -440,7 +578,43 @@ public class RequestsController extends BaseController {
             return null;
         }
 
+        final long lastModified = outputFile.lastModified();
+        final String eTag = String.format("\"%x-%x\"", lastModified, outputFile.length());
+
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            this.logger.debug("The file \"{}\" for request {} has not been modified.", fileString, requestId);
+            return null;
+        }
+
         response.setHeader("Content-Disposition", "attachment; filename=" + outputFile.getName());
+
+        if (!this.isRangeApplicable(webRequest, eTag, lastModified)) {
+            this.logger.debug("The file \"{}\" for request {} has changed since the range was requested.",
+                    fileString, requestId);
+
+            // The whole file is written here, since Spring would still try to serve the requested range of a
+            // returned resource.
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(outputFile.length());
+
+            try {
+                Files.copy(outputFile.toPath(), response.getOutputStream());
+                response.flushBuffer();
+
+            } catch (IOException exception) {
+                this.logger.error("The output file \"{}\" could not be sent.", outputFile.getAbsolutePath(),
+                        exception);
+
+                if (!response.isCommitted()) {
+                    response.reset();
+                    response.setStatus(RequestsController.HTTP_NOT_FOUND_ERROR_CODE);
+                }
+            }
+
+            return null;
+        }
+
         return new FileSystemResource(outputFile);
     }
 
@@ -448,20 +622,20 @@ public class RequestsController extends BaseController {
 
     /**
      * Processes a web request to obtain an archive with all the files produced by the processing of
-     * an order.
+     * an order. The archive is written to the response as it is built, so that it is never held in memory.
      *
      * @param requestId the number that identifies the order whose processing produced the file
      * @param response  the HTTP response to this request
-     * @return a byte array resource wrapping the requested archive file, or <code>null</code> if the output content
-     *         cannot be served
+     * @return the object that writes the archive to the response, or <code>null</code> if the output content cannot
+     *         be served
      */
     @GetMapping(path = "{requestId}/getAllFiles", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
     @ResponseBody
-    public final ByteArrayResource viewRequestOutputContent(@PathVariable final int requestId,
+    public final StreamingResponseBody viewRequestOutputContent(@PathVariable final int requestId,
             final HttpServletResponse response) {
         this.logger.debug("Received a web request to display all the output files for request {}.", requestId);
 
-        final Request request = this.getDomainRequest(requestId);
+        final Request request = this.getViewedRequest(requestId);
 
         if (request == null) {
             this.logger.error("No request found in database with the identifier {}.", requestId);
@@ -469,31 +643,199 @@ public class RequestsController extends BaseController {
             return null;
         }
 
-        final byte[] outputFilesZip = this.getRequestOutputContent(request);
+        final File outputFolder = this.getRequestOutputFolder(request);
         final String outputZipName = String.format("%s.zip", request.getId());
 
-        if (outputFilesZip == null) {
+        if (outputFolder == null) {
             this.logger.debug("The output content for request {} is not available.", requestId);
             response.setStatus(RequestsController.HTTP_NOT_FOUND_ERROR_CODE);
             return null;
         }
 
         response.setHeader("Content-Disposition", "attachment; filename=" + outputZipName);
-        return new ByteArrayResource(outputFilesZip);
+
+        return (outputStream) -> {
+
+            try {
+                ZipUtils.streamFolderContent(outputFolder, outputStream);
+
+            } catch (IOException exception) {
+                this.logger.warn("The output content for request {} could not be entirely sent.", requestId,
+                        exception);
+                throw exception;
+            }
+        };
     }
 
 
 
-    @PostMapping("{requestId}/addFiles")
-    public final String handleAddOutputFiles(@PathVariable final int requestId,
-            @RequestParam final MultipartFile[] filesToAdd, @RequestParam final int currentStep,
-            final RedirectAttributes redirectAttributes) {
+    /**
+     * Processes a request to begin the upload of an output file in several chunks. If the same file has already
+     * been partly uploaded, the returned offset tells where to resume.
+     *
+     * @param requestId   the number that identifies the request to add the file to
+     * @param fileName    the name of the file on the client
+     * @param fileSize    the size of the file in bytes
+     * @param fileKey     a string that distinguishes the versions of the file on the client, such as its
+     *                    modification date
+     * @param currentStep the process step that was active when the user sent the file
+     * @param request     the HTTP request to begin the upload
+     * @param response    the HTTP response to this request
+     * @return a JSON object that describes the state of the upload
+     */
+    @JsonView(PublicField.class)
+    @PostMapping(path = "{requestId}/uploads", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public final ChunkedUploadResponse handleStartChunkedUpload(@PathVariable final int requestId,
+            @RequestParam final String fileName, @RequestParam final long fileSize,
+            @RequestParam(required = false) final String fileKey, @RequestParam final int currentStep,
+            final HttpServletRequest request, final HttpServletResponse response) {
+        final Locale locale = this.localeResolver.resolveLocale(request);
+
+        return this.requestLocks.callWithLock(requestId, () -> {
+            this.logger.debug("Received a web request to upload the file \"{}\" ({} bytes) to request {}.", fileName,
+                    fileSize, requestId);
+            final File outputFolder = this.getUploadOutputFolder(requestId, currentStep, response);
+
+            if (outputFolder == null) {
+                return new ChunkedUploadResponse(
+                        this.getMessage("requestDetails.error.request.outputChange.notAllowed", locale));
+            }
 
-        this.logger.debug("Received a web request to add {} files \"{}\" to request {}.", filesToAdd.length, requestId);
-        Request request = this.getDomainRequest(requestId);
+            try {
+                final ChunkedUpload upload = this.chunkedUploadManager.start(outputFolder, fileName, fileSize,
+                        fileKey);
+
+                return new ChunkedUploadResponse(upload, this.chunkedUploadManager.getChunkSize(), null);
+
+            } catch (IllegalArgumentException exception) {
+                this.logger.warn("The user {} sent an invalid file \"{}\" to upload to request {}.",
+                        this.getCurrentUserLogin(), fileName, requestId);
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+
+                return new ChunkedUploadResponse(this.getMessage("requestDetails.error.upload.invalidFile", locale));
+
+            } catch (FileAlreadyExistsException exception) {
+                this.logger.info("The user {} tried to upload the file \"{}\" to request {}, which already has a"
+                        + " file with this name.", this.getCurrentUserLogin(), fileName, requestId);
+                response.setStatus(HttpStatus.CONFLICT.value());
+
+                return new ChunkedUploadResponse(this.getMessage("requestDetails.error.upload.fileExists", locale));
+
+            } catch (IOException exception) {
+                this.logger.error("The upload of the file \"{}\" to request {} could not be initialized.", fileName,
+                        requestId, exception);
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+
+                return new ChunkedUploadResponse(this.getMessage("requestDetails.error.upload.startFailed", locale));
+            }
+        });
+    }
+
+
+
+    /**
+     * Processes a request to add a chunk to an output file being uploaded. The body of the request is written
+     * directly to the partial file as it is received. The request is only locked once the last chunk has been
+     * received, to move the file to the output folder, so that a slow chunk does not hold the other operations on
+     * the request back.
+     *
+     * @param requestId   the number that identifies the request that the file is added to
+     * @param uploadId    the string that identifies the upload
+     * @param offset      the position of the first byte of the chunk in the file
+     * @param currentStep the process step that was active when the user sent the file
+     * @param checksum    the CRC32 of the chunk content, as an hexadecimal string
+     * @param request     the HTTP request that contains the chunk
+     * @param response    the HTTP response to this request
+     * @return a JSON object that describes the state of the upload
+     */
+    @JsonView(PublicField.class)
+    @PutMapping(path = "{requestId}/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public final ChunkedUploadResponse handleUploadChunk(@PathVariable final int requestId,
+            @PathVariable final String uploadId, @RequestParam final long offset, @RequestParam final int currentStep,
+            @RequestHeader(RequestsController.CHUNK_CHECKSUM_HEADER) final String checksum,
+            final HttpServletRequest request, final HttpServletResponse response) {
+        this.logger.debug("Received a web request to write the chunk at {} of the upload {} to request {}.", offset,
+                uploadId, requestId);
+        final Locale locale = this.localeResolver.resolveLocale(request);
+        final File outputFolder = this.getUploadOutputFolder(requestId, currentStep, response);
+
+        if (outputFolder == null) {
+            return new ChunkedUploadResponse(
+                    this.getMessage("requestDetails.error.request.outputChange.notAllowed", locale));
+        }
+
+        final ChunkedUploadManager.ChunkResult result;
+
+        try {
+            result = this.chunkedUploadManager.writeChunk(outputFolder, uploadId, offset,
+                    request.getContentLengthLong(), checksum, request.getInputStream());
+
+        } catch (IOException exception) {
+            this.logger.warn("The chunk at {} of the upload {} to request {} could not be written.", offset,
+                    uploadId, requestId, exception);
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+
+            return new ChunkedUploadResponse(this.getMessage("requestDetails.error.upload.chunkFailed", locale));
+        }
+
+        switch (result.getStatus()) {
+
+            case ACCEPTED:
+                return new ChunkedUploadResponse(result.getUpload(), this.chunkedUploadManager.getChunkSize(), null);
+
+            case RECEIVED:
+                return this.requestLocks.callWithLock(requestId,
+                        () -> this.completeChunkedUpload(requestId, uploadId, currentStep, locale, response));
+
+            case UNKNOWN_UPLOAD:
+                response.setStatus(RequestsController.HTTP_NOT_FOUND_ERROR_CODE);
+                return new ChunkedUploadResponse(this.getMessage("requestDetails.error.upload.unknown", locale));
+
+            case CHECKSUM_MISMATCH:
+                response.setStatus(HttpStatus.UNPROCESSABLE_ENTITY.value());
+                break;
+
+            case INVALID_SIZE:
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                break;
+
+            default:
+                response.setStatus(HttpStatus.CONFLICT.value());
+                break;
+        }
+
+        this.logger.debug("The chunk at {} of the upload {} to request {} was rejected with the status {}.", offset,
+                uploadId, requestId, result.getStatus());
+
+        return new ChunkedUploadResponse(result.getUpload(), this.chunkedUploadManager.getChunkSize(),
+                this.getMessage("requestDetails.error.upload.chunkRejected", locale));
+    }
+
+
+
+    /**
+     * Processes a request to report the outcome of the output files uploaded in several chunks. The files that the
+     * client reports as uploaded are counted as failed if they were not all moved to the output folder.
+     *
+     * @param requestId           the number that identifies the request that the files were added to
+     * @param uploadedFilesNumber the number of files that the client entirely uploaded
+     * @param failedFilesNumber   the number of files whose upload failed on the client
+     * @param redirectAttributes  the data to pass to the page that the user will be redirected to
+     * @return the string that identifies the view to display next
+     */
+    @PostMapping("{requestId}/uploadsCompleted")
+    public final String handleChunkedUploadsCompleted(@PathVariable final int requestId,
+            @RequestParam final int uploadedFilesNumber, @RequestParam final int failedFilesNumber,
+            final RedirectAttributes redirectAttributes) {
+        this.logger.debug("The user {} reports that {} files were uploaded to request {} and {} failed.",
+                this.getCurrentUserLogin(), uploadedFilesNumber, requestId, failedFilesNumber);
+        final Request request = this.getDomainRequest(requestId);
 
         if (request == null) {
-            this.logger.error("The user {} attempted to add files to request {}, which does not exist.",
+            this.logger.error("The user {} reported uploads to request {}, which does not exist.",
                     this.getCurrentUserLogin(), requestId);
             this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
 
@@ -501,7 +843,7 @@ public class RequestsController extends BaseController {
         }
 
         if (!this.canCurrentUserChangeRequestOutput(request)) {
-            this.logger.warn("The user {} tried to add output files to request {} but is not allowed to do so.",
+            this.logger.warn("The user {} reported uploads to request {} but is not allowed to change its output.",
                     this.getCurrentUserLogin(), requestId);
             this.addStatusMessage(redirectAttributes, "requestDetails.error.request.outputChange.notAllowed",
                     MessageType.ERROR);
@@ -509,37 +851,99 @@ public class RequestsController extends BaseController {
             return REDIRECT_TO_ACCESS_DENIED;
         }
 
-        if (!this.canRequestOutputBeChanged(request, currentStep, redirectAttributes)) {
-            return RequestsController.REDIRECT_TO_LIST;
+        final File outputFolder = this.getRequestOutputFolder(request);
+        final int pendingUploadsNumber = (outputFolder != null)
+                                         ? this.chunkedUploadManager.countPendingUploads(outputFolder) : 0;
+        final int reportedFailuresNumber = Math.max(failedFilesNumber, 0);
+        final int unreportedFailuresNumber = Math.max(pendingUploadsNumber - reportedFailuresNumber, 0);
+        final int failedNumber = reportedFailuresNumber + unreportedFailuresNumber;
+        final int uploadedNumber = Math.max(uploadedFilesNumber - unreportedFailuresNumber, 0);
+
+        if (unreportedFailuresNumber > 0) {
+            this.logger.warn("The request {} has {} unfinished uploads that were not reported as failed.", requestId,
+                    unreportedFailuresNumber);
         }
 
-        if (filesToAdd.length == 0) {
-            this.logger.debug("The user {} sent an empty array of output files to add to request {}.",
-                    this.getCurrentUserLogin(), requestId);
+        if (uploadedNumber == 0 && failedNumber == 0) {
             this.addStatusMessage(redirectAttributes, "requestDetails.error.addFiles.empty", MessageType.WARNING);
 
+        } else if (uploadedNumber == 0) {
+            this.addStatusMessage(redirectAttributes, "requestDetails.addFiles.failed", MessageType.ERROR);
+
+        } else if (failedNumber > 0) {
+            this.addStatusMessage(redirectAttributes, "requestDetails.addFiles.partial", MessageType.WARNING);
+
         } else {
-            int addedFilesNumber = 0;
+            this.addStatusMessage(redirectAttributes, "requestDetails.addFiles.success", MessageType.SUCCESS);
+        }
+
+        return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+    }
 
-            for (MultipartFile uploadedFile : filesToAdd) {
 
-                if (this.copyUploadedFileToOutputFolder(uploadedFile, request)) {
-                    addedFilesNumber++;
-                }
+
+    @PostMapping("{requestId}/addFiles")
+    public final String handleAddOutputFiles(@PathVariable final int requestId,
+            @RequestParam final MultipartFile[] filesToAdd, @RequestParam final int currentStep,
+            final RedirectAttributes redirectAttributes) {
+        return this.requestLocks.callWithLock(requestId, () -> {
+            this.logger.debug("Received a web request to add {} files \"{}\" to request {}.", filesToAdd.length,
+                    requestId);
+            Request request = this.getDomainRequest(requestId);
+
+            if (request == null) {
+                this.logger.error("The user {} attempted to add files to request {}, which does not exist.",
+                        this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound",
+                        MessageType.ERROR);
+
+                return RequestsController.REDIRECT_TO_LIST;
             }
 
-            if (addedFilesNumber == 0) {
-                this.addStatusMessage(redirectAttributes, "requestDetails.addFiles.failed", MessageType.ERROR);
+            if (!this.canCurrentUserChangeRequestOutput(request)) {
+                this.logger.warn("The user {} tried to add output files to request {} but is not allowed to do so.",
+                        this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.outputChange.notAllowed",
+                        MessageType.ERROR);
 
-            } else if (addedFilesNumber < filesToAdd.length) {
-                this.addStatusMessage(redirectAttributes, "requestDetails.addFiles.partial", MessageType.WARNING);
+                return REDIRECT_TO_ACCESS_DENIED;
+            }
+
+            if (!this.canRequestOutputBeChanged(request, currentStep, redirectAttributes)) {
+                return RequestsController.REDIRECT_TO_LIST;
+            }
+
+            if (filesToAdd.length == 0) {
+                this.logger.debug("The user {} sent an empty array of output files to add to request {}.",
+                        this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.addFiles.empty",
+                        MessageType.WARNING);
 
             } else {
-                this.addStatusMessage(redirectAttributes, "requestDetails.addFiles.success", MessageType.SUCCESS);
+                int addedFilesNumber = 0;
+
+                for (MultipartFile uploadedFile : filesToAdd) {
+
+                    if (this.copyUploadedFileToOutputFolder(uploadedFile, request)) {
+                        addedFilesNumber++;
+                    }
+                }
+
+                if (addedFilesNumber == 0) {
+                    this.addStatusMessage(redirectAttributes, "requestDetails.addFiles.failed", MessageType.ERROR);
+
+                } else if (addedFilesNumber < filesToAdd.length) {
+                    this.addStatusMessage(redirectAttributes, "requestDetails.addFiles.partial",
+                            MessageType.WARNING);
+
+                } else {
+                    this.addStatusMessage(redirectAttributes, "requestDetails.addFiles.success",
+                            MessageType.SUCCESS);
+                }
             }
-        }
 
-        return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+            return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+        });
     }
 
 
@@ -576,7 +980,7 @@ public class RequestsController extends BaseController {
         }
 
         try {
-            FileSystemUtils.purgeRequestFolders(request, this.parametersRepository.getBasePath());
+            FileSystemUtils.purgeRequestFolders(request, this.parametersCache.getSnapshot().getBasePath());
             this.requestsRepository.delete(request);
 
         } catch (RuntimeException exception) {
@@ -603,64 +1007,69 @@ public class RequestsController extends BaseController {
      * @return the string that identifies the view to display next
      */
     @PostMapping("{requestId}/deleteFile")
-    public final synchronized String handleDeleteOutputFile(@PathVariable final int requestId,
+    public final String handleDeleteOutputFile(@PathVariable final int requestId,
             @RequestParam final String targetFile, @RequestParam final int currentStep,
             final RedirectAttributes redirectAttributes) {
+        return this.requestLocks.callWithLock(requestId, () -> {
+            this.logger.debug("Received a web request to delete file \"{}\" from request {}.", targetFile, requestId);
+            Request request = this.getDomainRequest(requestId);
 
-        this.logger.debug("Received a web request to delete file \"{}\" from request {}.", targetFile, requestId);
-        Request request = this.getDomainRequest(requestId);
+            if (request == null) {
+                this.logger.error("The user {} attempted to delete a file from request {}, which does not exist.",
+                        this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
 
-        if (request == null) {
-            this.logger.error("The user {} attempted to delete a file from request {}, which does not exist.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+            if (!this.canCurrentUserChangeRequestOutput(request)) {
+                this.logger.warn("The user {} tried to delete an output file of request {} but is not allowed to do"
+                        + " so.", this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.outputChange.notAllowed",
+                        MessageType.ERROR);
 
-        if (!this.canCurrentUserChangeRequestOutput(request)) {
-            this.logger.warn("The user {} tried to delete an output file of request {} but is not allowed to do so.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.outputChange.notAllowed",
-                    MessageType.ERROR);
+                return REDIRECT_TO_ACCESS_DENIED;
+            }
 
-            return REDIRECT_TO_ACCESS_DENIED;
-        }
+            if (!this.canRequestOutputBeChanged(request, currentStep, redirectAttributes)) {
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-        if (!this.canRequestOutputBeChanged(request, currentStep, redirectAttributes)) {
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+            File fileToDelete = StringUtils.isNotBlank(targetFile) ? this.getRequestOutputFile(request, targetFile)
+                                                                   : null;
 
-        File fileToDelete = StringUtils.isNotBlank(targetFile) ? this.getRequestOutputFile(request, targetFile) : null;
+            if (fileToDelete == null) {
+                this.logger.debug("The user {} tried to delete output file \"{}\" for request {}, but it cannot be"
+                        + " found.", this.getCurrentUserLogin(), targetFile, requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.deleteFile.notFound",
+                        MessageType.ERROR);
 
-        if (fileToDelete == null) {
-            this.logger.debug("The user {} tried to delete output file \"{}\" for request {}, but it cannot be found.",
-                    this.getCurrentUserLogin(), targetFile, requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.deleteFile.notFound", MessageType.ERROR);
+            } else {
 
-        } else {
+                try {
 
-            try {
+                    if (fileToDelete.delete()) {
+                        this.logger.debug("The output file \"{}\" for request {} was successfully deleted.",
+                                fileToDelete.getAbsolutePath(), requestId);
+                        this.addStatusMessage(redirectAttributes, "requestDetails.deleteFile.success",
+                                MessageType.SUCCESS);
 
-                if (fileToDelete.delete()) {
-                    this.logger.debug("The output file \"{}\" for request {} was successfully deleted.",
-                            fileToDelete.getAbsolutePath(), requestId);
-                    this.addStatusMessage(redirectAttributes, "requestDetails.deleteFile.success", MessageType.SUCCESS);
+                    } else {
+                        this.logger.error("The deletion of the file \"{}\" for the request {} failed silently.",
+                                fileToDelete.getAbsolutePath(), requestId);
+                        this.addStatusMessage(redirectAttributes, "requestDetails.deleteFile.failed",
+                                MessageType.ERROR);
+                    }
 
-                } else {
-                    this.logger.error("The deletion of the file \"{}\" for the request {} failed silently.",
-                            fileToDelete.getAbsolutePath(), requestId);
+                } catch (RuntimeException exception) {
+                    this.logger.error("Could not delete the file \"{}\" for the request {}.",
+                            fileToDelete.getAbsolutePath(), requestId, exception);
                     this.addStatusMessage(redirectAttributes, "requestDetails.deleteFile.failed", MessageType.ERROR);
                 }
-
-            } catch (RuntimeException exception) {
-                this.logger.error("Could not delete the file \"{}\" for the request {}.",
-                        fileToDelete.getAbsolutePath(), requestId, exception);
-                this.addStatusMessage(redirectAttributes, "requestDetails.deleteFile.failed", MessageType.ERROR);
             }
-        }
 
-        return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+            return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+        });
     }
 
 
@@ -675,52 +1084,59 @@ public class RequestsController extends BaseController {
      * @return the string that identifies the view to display next
      */
     @PostMapping("{requestId}/reject")
-    public final synchronized String handleRejectRequest(@PathVariable final int requestId,
+    public final String handleRejectRequest(@PathVariable final int requestId,
             @RequestParam final String remark, @RequestParam final int currentStep,
             final RedirectAttributes redirectAttributes) {
+        return this.requestLocks.callWithLock(requestId, () -> {
+            this.logger.debug("Received a web request to reject request {}.", requestId);
+            Request request = this.getDomainRequest(requestId);
 
-        this.logger.debug("Received a web request to reject request {}.", requestId);
-        Request request = this.getDomainRequest(requestId);
+            if (request == null) {
+                this.logger.error("The user {} attempted to reject request {}, which does not exist.",
+                        this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
 
-        if (request == null) {
-            this.logger.error("The user {} attempted to reject request {}, which does not exist.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+            if (!this.canCurrentUserRejectRequest(request)) {
+                this.logger.warn("The user {} tried to reject request {} but is not allowed to access it.",
+                        this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
 
-        if (!this.canCurrentUserRejectRequest(request)) {
-            this.logger.warn("The user {} tried to reject request {} but is not allowed to access it.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
+                return REDIRECT_TO_ACCESS_DENIED;
+            }
 
-            return REDIRECT_TO_ACCESS_DENIED;
-        }
+            if (!this.canRequestBeRejected(request, currentStep, redirectAttributes)) {
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-        if (!this.canRequestBeRejected(request, currentStep, redirectAttributes)) {
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+            if (StringUtils.isBlank(remark)) {
+                this.logger.debug("The user {} tried to reject request {} but did not provide a remark.",
+                        this.getCurrentUserLogin(), requestId);
+                redirectAttributes.addFlashAttribute("validationError", "remark");
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.reject.remark.required",
+                        MessageType.ERROR);
 
-        if (StringUtils.isBlank(remark)) {
-            this.logger.debug("The user {} tried to reject request {} but did not provide a remark.",
-                    this.getCurrentUserLogin(), requestId);
-            redirectAttributes.addFlashAttribute("validationError", "remark");
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.reject.remark.required", MessageType.ERROR);
+            } else {
 
-        } else {
+                try {
+                    this.rejectRequest(request, remark);
+                    this.addStatusMessage(redirectAttributes, "requestDetails.rejection.success", MessageType.SUCCESS);
 
-            try {
-                this.rejectRequest(request, remark);
-                this.addStatusMessage(redirectAttributes, "requestDetails.rejection.success", MessageType.SUCCESS);
+                } catch (OptimisticLockingFailureException exception) {
+                    this.logger.warn("The request {} was modified by another process in the meantime.", requestId);
+                    this.addStatusMessage(redirectAttributes, "requestDetails.error.request.concurrentModification",
+                            MessageType.ERROR);
 
-            } catch (RuntimeException exception) {
-                this.logger.error("Could not reject the request {}.", requestId, exception);
-                this.addStatusMessage(redirectAttributes, "requestDetails.rejection.failed", MessageType.ERROR);
+                } catch (RuntimeException exception) {
+                    this.logger.error("Could not reject the request {}.", requestId, exception);
+                    this.addStatusMessage(redirectAttributes, "requestDetails.rejection.failed", MessageType.ERROR);
+                }
             }
-        }
 
-        return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+            return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+        });
     }
 
 
@@ -734,41 +1150,49 @@ public class RequestsController extends BaseController {
      * @return the string that identifies the view to display next
      */
     @PostMapping("{requestId}/relaunch")
-    public final synchronized String handleRelaunchProcess(@PathVariable final int requestId,
+    public final String handleRelaunchProcess(@PathVariable final int requestId,
             @RequestParam final int currentStep, final RedirectAttributes redirectAttributes) {
-        this.logger.debug("Received a web request to relaunch the processing of request {}.", requestId);
-        Request request = this.getDomainRequest(requestId);
+        return this.requestLocks.callWithLock(requestId, () -> {
+            this.logger.debug("Received a web request to relaunch the processing of request {}.", requestId);
+            Request request = this.getDomainRequest(requestId);
 
-        if (request == null) {
-            this.logger.error("The user {} attempted to relaunch the processing of request {}, which does not exist.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
+            if (request == null) {
+                this.logger.error("The user {} attempted to relaunch the processing of request {}, which does not"
+                        + " exist.", this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
 
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-        if (!this.canCurrentUserRelaunchProcess(request)) {
-            this.logger.warn("The user {} tried to restart the processing of request {} but is not allowed to do so.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
+            if (!this.canCurrentUserRelaunchProcess(request)) {
+                this.logger.warn("The user {} tried to restart the processing of request {} but is not allowed to do"
+                        + " so.", this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
 
-            return REDIRECT_TO_ACCESS_DENIED;
-        }
+                return REDIRECT_TO_ACCESS_DENIED;
+            }
 
-        if (!this.canRequestProcessBeRelaunched(request, currentStep, redirectAttributes)) {
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+            if (!this.canRequestProcessBeRelaunched(request, currentStep, redirectAttributes)) {
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-        try {
-            this.relaunchProcess(request);
-            this.addStatusMessage(redirectAttributes, "requestDetails.processRelaunch.success", MessageType.SUCCESS);
+            try {
+                this.relaunchProcess(request);
+                this.addStatusMessage(redirectAttributes, "requestDetails.processRelaunch.success",
+                        MessageType.SUCCESS);
 
-        } catch (RuntimeException exception) {
-            this.logger.error("Could not relaunch the process of request {}.", requestId, exception);
-            this.addStatusMessage(redirectAttributes, "requestDetails.processRelaunch.failed", MessageType.ERROR);
-        }
+            } catch (OptimisticLockingFailureException exception) {
+                this.logger.warn("The request {} was modified by another process in the meantime.", requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.concurrentModification",
+                        MessageType.ERROR);
 
-        return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+            } catch (RuntimeException exception) {
+                this.logger.error("Could not relaunch the process of request {}.", requestId, exception);
+                this.addStatusMessage(redirectAttributes, "requestDetails.processRelaunch.failed", MessageType.ERROR);
+            }
+
+            return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+        });
     }
 
 
@@ -782,41 +1206,48 @@ public class RequestsController extends BaseController {
      * @return the string that identifies the view to display next
      */
     @PostMapping("{requestId}/restartTask")
-    public final synchronized String handleRestartCurrentTask(@PathVariable final int requestId,
+    public final String handleRestartCurrentTask(@PathVariable final int requestId,
             @RequestParam final int currentStep, final RedirectAttributes redirectAttributes) {
-        this.logger.debug("Received a web request to restart the current task of request {}.", requestId);
-        Request request = this.getDomainRequest(requestId);
+        return this.requestLocks.callWithLock(requestId, () -> {
+            this.logger.debug("Received a web request to restart the current task of request {}.", requestId);
+            Request request = this.getDomainRequest(requestId);
 
-        if (request == null) {
-            this.logger.error("The user {} attempted to restart the current task of request {}, which does not exist.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
+            if (request == null) {
+                this.logger.error("The user {} attempted to restart the current task of request {}, which does not"
+                        + " exist.", this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
 
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-        if (!this.canCurrentUserRestartCurrentTask(request)) {
-            this.logger.warn("The user {} tried to restart the current task of request {} but is not allowed to do so.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
+            if (!this.canCurrentUserRestartCurrentTask(request)) {
+                this.logger.warn("The user {} tried to restart the current task of request {} but is not allowed to"
+                        + " do so.", this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
 
-            return REDIRECT_TO_ACCESS_DENIED;
-        }
+                return REDIRECT_TO_ACCESS_DENIED;
+            }
 
-        if (!this.canRequestCurrentTaskBeRestarted(request, currentStep, redirectAttributes)) {
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+            if (!this.canRequestCurrentTaskBeRestarted(request, currentStep, redirectAttributes)) {
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-        try {
-            this.restartCurrentTask(request);
-            this.addStatusMessage(redirectAttributes, "requestDetails.taskRestart.success", MessageType.SUCCESS);
+            try {
+                this.restartCurrentTask(request);
+                this.addStatusMessage(redirectAttributes, "requestDetails.taskRestart.success", MessageType.SUCCESS);
 
-        } catch (RuntimeException exception) {
-            this.logger.error("Could not restart the current task of request {}.", requestId, exception);
-            this.addStatusMessage(redirectAttributes, "requestDetails.taskRestart.failed", MessageType.ERROR);
-        }
+            } catch (OptimisticLockingFailureException exception) {
+                this.logger.warn("The request {} was modified by another process in the meantime.", requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.concurrentModification",
+                        MessageType.ERROR);
 
-        return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+            } catch (RuntimeException exception) {
+                this.logger.error("Could not restart the current task of request {}.", requestId, exception);
+                this.addStatusMessage(redirectAttributes, "requestDetails.taskRestart.failed", MessageType.ERROR);
+            }
+
+            return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+        });
     }
 
 
@@ -830,41 +1261,48 @@ public class RequestsController extends BaseController {
      * @return the string that identifies the view to display next
      */
     @PostMapping("{requestId}/retryExport")
-    public final synchronized String handleRetryExport(@PathVariable final int requestId,
+    public final String handleRetryExport(@PathVariable final int requestId,
             @RequestParam final int currentStep, final RedirectAttributes redirectAttributes) {
-        this.logger.debug("Received a web request to export request {}.", requestId);
-        Request request = this.getDomainRequest(requestId);
+        return this.requestLocks.callWithLock(requestId, () -> {
+            this.logger.debug("Received a web request to export request {}.", requestId);
+            Request request = this.getDomainRequest(requestId);
 
-        if (request == null) {
-            this.logger.error("The user {} attempted to export request {}, which does not exist.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
+            if (request == null) {
+                this.logger.error("The user {} attempted to export request {}, which does not exist.",
+                        this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
 
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-        if (!this.canCurrentUserExportRequest(request)) {
-            this.logger.warn("The user {} tried to export request {} but is not allowed to do so.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
+            if (!this.canCurrentUserExportRequest(request)) {
+                this.logger.warn("The user {} tried to export request {} but is not allowed to do so.",
+                        this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
 
-            return REDIRECT_TO_ACCESS_DENIED;
-        }
+                return REDIRECT_TO_ACCESS_DENIED;
+            }
 
-        if (!this.canRequestBeExportedAgain(request, currentStep, redirectAttributes)) {
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+            if (!this.canRequestBeExportedAgain(request, currentStep, redirectAttributes)) {
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-        try {
-            this.restartExport(request);
-            this.addStatusMessage(redirectAttributes, "requestDetails.exportRetry.success", MessageType.SUCCESS);
+            try {
+                this.restartExport(request);
+                this.addStatusMessage(redirectAttributes, "requestDetails.exportRetry.success", MessageType.SUCCESS);
 
-        } catch (RuntimeException exception) {
-            this.logger.error("Could not retry the export of request {}.", requestId, exception);
-            this.addStatusMessage(redirectAttributes, "requestDetails.exportRetry.failed", MessageType.ERROR);
-        }
+            } catch (OptimisticLockingFailureException exception) {
+                this.logger.warn("The request {} was modified by another process in the meantime.", requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.concurrentModification",
+                        MessageType.ERROR);
 
-        return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+            } catch (RuntimeException exception) {
+                this.logger.error("Could not retry the export of request {}.", requestId, exception);
+                this.addStatusMessage(redirectAttributes, "requestDetails.exportRetry.failed", MessageType.ERROR);
+            }
+
+            return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+        });
     }
 
 
@@ -877,41 +1315,48 @@ public class RequestsController extends BaseController {
      * @return the string that identifies the view to display next
      */
     @PostMapping("{requestId}/retryMatching")
-    public final synchronized String handleRetryMatching(@PathVariable final int requestId,
+    public final String handleRetryMatching(@PathVariable final int requestId,
             final RedirectAttributes redirectAttributes) {
-        this.logger.debug("Received a web request to restart the process matching of request {}.", requestId);
-        Request request = this.getDomainRequest(requestId);
+        return this.requestLocks.callWithLock(requestId, () -> {
+            this.logger.debug("Received a web request to restart the process matching of request {}.", requestId);
+            Request request = this.getDomainRequest(requestId);
 
-        if (request == null) {
-            this.logger.error("The user {} attempted to restart the process matching of request {}, which"
-                    + " does not exist.", this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
+            if (request == null) {
+                this.logger.error("The user {} attempted to restart the process matching of request {}, which"
+                        + " does not exist.", this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
 
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-        if (!this.canCurrentUserMatchRequest()) {
-            this.logger.warn("The user {} tried to restart the process matching of request {} but is not allowed"
-                    + " to do so.", this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
+            if (!this.canCurrentUserMatchRequest()) {
+                this.logger.warn("The user {} tried to restart the process matching of request {} but is not allowed"
+                        + " to do so.", this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
 
-            return REDIRECT_TO_ACCESS_DENIED;
-        }
+                return REDIRECT_TO_ACCESS_DENIED;
+            }
 
-        if (!this.canRequestBeMatchedAgain(request, redirectAttributes)) {
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+            if (!this.canRequestBeMatchedAgain(request, redirectAttributes)) {
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-        try {
-            this.restartMatching(request);
-            this.addStatusMessage(redirectAttributes, "requestDetails.matchingRetry.success", MessageType.SUCCESS);
+            try {
+                this.restartMatching(request);
+                this.addStatusMessage(redirectAttributes, "requestDetails.matchingRetry.success", MessageType.SUCCESS);
 
-        } catch (RuntimeException exception) {
-            this.logger.error("Could not validate the request {}.", requestId, exception);
-            this.addStatusMessage(redirectAttributes, "requestDetails.matchingRetry.failed", MessageType.ERROR);
-        }
+            } catch (OptimisticLockingFailureException exception) {
+                this.logger.warn("The request {} was modified by another process in the meantime.", requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.concurrentModification",
+                        MessageType.ERROR);
 
-        return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+            } catch (RuntimeException exception) {
+                this.logger.error("Could not validate the request {}.", requestId, exception);
+                this.addStatusMessage(redirectAttributes, "requestDetails.matchingRetry.failed", MessageType.ERROR);
+            }
+
+            return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+        });
     }
 
 
@@ -925,42 +1370,48 @@ public class RequestsController extends BaseController {
      * @return the string that identifies the view to display next
      */
     @PostMapping("{requestId}/skipTask")
-    public final synchronized String handleSkipCurrentTask(@PathVariable final int requestId,
+    public final String handleSkipCurrentTask(@PathVariable final int requestId,
             @RequestParam final int currentStep, final RedirectAttributes redirectAttributes) {
+        return this.requestLocks.callWithLock(requestId, () -> {
+            this.logger.debug("Received a web request to skip the current task of request {}.", requestId);
+            Request request = this.getDomainRequest(requestId);
 
-        this.logger.debug("Received a web request to skip the current task of request {}.", requestId);
-        Request request = this.getDomainRequest(requestId);
+            if (request == null) {
+                this.logger.error("The user {} attempted to skip the current task of request {}, which does not exist.",
+                        this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
 
-        if (request == null) {
-            this.logger.error("The user {} attempted to skip the current task of request {}, which does not exist.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+            if (!this.canCurrentUserSkipTask(request)) {
+                this.logger.warn("The user {} tried to skip the current task of request {} but is not allowed to"
+                        + " access it.", this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
 
-        if (!this.canCurrentUserSkipTask(request)) {
-            this.logger.warn("The user {} tried to skip the current task of request {} but is not allowed to access it.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
+                return REDIRECT_TO_ACCESS_DENIED;
+            }
 
-            return REDIRECT_TO_ACCESS_DENIED;
-        }
+            if (!this.canRequestCurrentTaskBeSkipped(request, currentStep, redirectAttributes)) {
+                return RequestsController.REDIRECT_TO_LIST;
+            }
 
-        if (!this.canRequestCurrentTaskBeSkipped(request, currentStep, redirectAttributes)) {
-            return RequestsController.REDIRECT_TO_LIST;
-        }
+            try {
+                this.skipCurrentTask(request);
+                this.addStatusMessage(redirectAttributes, "requestDetails.taskSkip.success", MessageType.SUCCESS);
 
-        try {
-            this.skipCurrentTask(request);
-            this.addStatusMessage(redirectAttributes, "requestDetails.taskSkip.success", MessageType.SUCCESS);
+            } catch (OptimisticLockingFailureException exception) {
+                this.logger.warn("The request {} was modified by another process in the meantime.", requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.concurrentModification",
+                        MessageType.ERROR);
 
-        } catch (RuntimeException exception) {
-            this.logger.error("Could not skip the current task of request {}.", requestId, exception);
-            this.addStatusMessage(redirectAttributes, "requestDetails.taskSkip.failed", MessageType.ERROR);
-        }
+            } catch (RuntimeException exception) {
+                this.logger.error("Could not skip the current task of request {}.", requestId, exception);
+                this.addStatusMessage(redirectAttributes, "requestDetails.taskSkip.failed", MessageType.ERROR);
+            }
 
-        return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+            return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+        });
     }
 
 
@@ -977,81 +1428,197 @@ public class RequestsController extends BaseController {
      * @return the string that identifies the view to display next
      */
     @PostMapping("{requestId}/validate")
-    public final synchronized String handleValidateStandbyRequest(@PathVariable final int requestId,
+    public final String handleValidateStandbyRequest(@PathVariable final int requestId,
             @RequestParam final int currentStep, @RequestParam final String remark,
             final RedirectAttributes redirectAttributes) {
-        this.logger.debug("Received a web request to validate standby request {}.", requestId);
-        Request request = this.getDomainRequest(requestId);
+        return this.requestLocks.callWithLock(requestId, () -> {
+            this.logger.debug("Received a web request to validate standby request {}.", requestId);
+            Request request = this.getDomainRequest(requestId);
 
-        if (request == null) {
-            this.logger.error("The user {} attempted to validate the request {}, which does not exist.");
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
+            if (request == null) {
+                this.logger.error("The user {} attempted to validate the request {}, which does not exist.");
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notFound", MessageType.ERROR);
 
-            return RequestsController.REDIRECT_TO_LIST;
+                return RequestsController.REDIRECT_TO_LIST;
+            }
+
+            if (!this.canCurrentUserValidateRequest(request)) {
+                this.logger.warn("The user {} tried to validate the request {} but is not allowed to access it.",
+                        this.getCurrentUserLogin(), requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
+
+                return REDIRECT_TO_ACCESS_DENIED;
+            }        
+
+            if (!this.canRequestBeValidated(request, currentStep, redirectAttributes)) {
+                return RequestsController.REDIRECT_TO_LIST;
+            }
+
+            try {
+                this.validateRequest(request, remark);
+                this.addStatusMessage(redirectAttributes, "requestDetails.validation.success", MessageType.SUCCESS);
+
+            } catch (OptimisticLockingFailureException exception) {
+                this.logger.warn("The request {} was modified by another process in the meantime.", requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.concurrentModification",
+                        MessageType.ERROR);
+
+            } catch (RuntimeException exception) {
+                this.logger.error("Could not validate the request {}.", requestId, exception);
+                this.addStatusMessage(redirectAttributes, "requestDetails.validation.failed", MessageType.ERROR);
+            }
+
+            return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+        });
+    }
+
+
+    /**
+     * Processes a request to apply an action to several orders at once. The orders are processed in the
+     * background and the progress of the operation is obtained through its identifier.
+     *
+     * @param action      the name of the action to apply, as defined by {@link BulkOperation.Action}
+     * @param requestsIds the numbers that identify the orders to apply the action to
+     * @param remark      the string entered by the user to explain a rejection or a validation, or
+     *                    <code>null</code> if there is none
+     * @param request     the HTTP request
+     * @param response    the HTTP response to this request
+     * @return a JSON object that describes the state of the operation
+     */
+    @JsonView(PublicField.class)
+    @PostMapping(path = "bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public final BulkOperationResponse handleStartBulkOperation(@RequestParam final String action,
+            @RequestParam final List<Integer> requestsIds, @RequestParam(required = false) final String remark,
+            final HttpServletRequest request, final HttpServletResponse response) {
+        this.logger.debug("Received a web request to apply the action {} to {} requests.", action,
+                requestsIds.size());
+        final Locale locale = this.localeResolver.resolveLocale(request);
+
+        if (!this.isCurrentUserApplicationUser()) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+
+            return new BulkOperationResponse(this.getMessage("requestDetails.error.request.notAllowed", locale));
         }
 
-        if (!this.canCurrentUserValidateRequest(request)) {
-            this.logger.warn("The user {} tried to validate the request {} but is not allowed to access it.",
-                    this.getCurrentUserLogin(), requestId);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.request.notAllowed", MessageType.ERROR);
+        final BulkOperation.Action bulkAction = EnumUtils.getEnum(BulkOperation.Action.class, action);
 
-            return REDIRECT_TO_ACCESS_DENIED;
-        }        
+        if (bulkAction == null || requestsIds.isEmpty()) {
+            this.logger.warn("The user {} sent an invalid bulk operation ({} on {} requests).",
+                    this.getCurrentUserLogin(), action, requestsIds.size());
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
 
-        if (!this.canRequestBeValidated(request, currentStep, redirectAttributes)) {
-            return RequestsController.REDIRECT_TO_LIST;
+            return new BulkOperationResponse(this.getMessage("requestsList.bulk.error.invalid", locale));
         }
 
-        try {
-            this.validateRequest(request, remark);
-            this.addStatusMessage(redirectAttributes, "requestDetails.validation.success", MessageType.SUCCESS);
+        if (bulkAction == BulkOperation.Action.REJECT && StringUtils.isBlank(remark)) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
 
-        } catch (RuntimeException exception) {
-            this.logger.error("Could not validate the request {}.", requestId, exception);
-            this.addStatusMessage(redirectAttributes, "requestDetails.validation.failed", MessageType.ERROR);
+            return new BulkOperationResponse(this.getMessage("requestDetails.error.reject.remark.required",
+                    locale));
         }
 
-        return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+        if (bulkAction == BulkOperation.Action.RETRY_MATCHING && !this.canCurrentUserMatchRequest()) {
+            this.logger.warn("The user {} tried to restart the process matching of several requests but is not"
+                    + " allowed to do so.", this.getCurrentUserLogin());
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+
+            return new BulkOperationResponse(this.getMessage("requestDetails.error.request.notAllowed", locale));
+        }
+
+        if (requestsIds.size() > this.bulkOperationsManager.getMaxRequests()) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+
+            return new BulkOperationResponse(this.messageSource.getMessage("requestsList.bulk.error.tooManyRequests",
+                    new Object[]{this.bulkOperationsManager.getMaxRequests()}, locale));
+        }
+
+        final BulkOperation operation = this.bulkOperationsManager.start(this.getCurrentUserId(), bulkAction,
+                requestsIds, (requestId) -> this.applyBulkAction(bulkAction, requestId, remark));
+        response.setStatus(HttpStatus.ACCEPTED.value());
+
+        return new BulkOperationResponse(operation, this.messageSource, locale);
+    }
+
+
+
+    /**
+     * Processes a request to get the progress of an action applied to several orders.
+     *
+     * @param operationId the string that identifies the operation
+     * @param request     the HTTP request
+     * @param response    the HTTP response to this request
+     * @return a JSON object that describes the state of the operation
+     */
+    @JsonView(PublicField.class)
+    @GetMapping(path = "bulk/{operationId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public final BulkOperationResponse viewBulkOperation(@PathVariable final String operationId,
+            final HttpServletRequest request, final HttpServletResponse response) {
+        final Locale locale = this.localeResolver.resolveLocale(request);
+        final BulkOperation operation = this.bulkOperationsManager.getOperation(operationId,
+                this.getCurrentUserId());
+
+        if (operation == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+
+            return new BulkOperationResponse(this.getMessage("requestsList.bulk.error.notFound", locale));
+        }
+
+        return new BulkOperationResponse(operation, this.messageSource, locale);
     }
 
 
+
     @PostMapping("{requestId}/assign")
-    public final synchronized String handleAssignRequest(
+    public final String handleAssignRequest(
             @PathVariable final int requestId,
             @RequestParam List<Integer> usersIds,
-            @RequestParam List<Integer> userGroupsIds) {
-        if (!features.perRequestOwnershipEnabled()) {
-            this.logger.warn(
-                    "The user {} tried to assign users to  the request {}, but the per-request ownership is disabled",
-                    this.getCurrentUserLogin(), requestId);
-            return REDIRECT_TO_ACCESS_DENIED;
-        }
-        var request = getDomainRequest(requestId);
-        assert request != null : "The request cannot be null.";
-        assert request.getProcess() != null : "The request must be associated with a process.";
-        if (!this.canCurrentUserViewRequestDetails(request)) {
-            this.logger.warn("The user {} tried to assign users to the request {} but is not allowed to.",
-                    this.getCurrentUserLogin(), request.getId());
-            return REDIRECT_TO_ACCESS_DENIED;
-        }
+            @RequestParam List<Integer> userGroupsIds,
+            final RedirectAttributes redirectAttributes) {
+        return this.requestLocks.callWithLock(requestId, () -> {
+            if (!features.perRequestOwnershipEnabled()) {
+                this.logger.warn(
+                        "The user {} tried to assign users to  the request {}, but the per-request ownership is"
+                        + " disabled",
+                        this.getCurrentUserLogin(), requestId);
+                return REDIRECT_TO_ACCESS_DENIED;
+            }
+            var request = getDomainRequest(requestId);
+            assert request != null : "The request cannot be null.";
+            assert request.getProcess() != null : "The request must be associated with a process.";
+            if (!this.canCurrentUserViewRequestDetails(request)) {
+                this.logger.warn("The user {} tried to assign users to the request {} but is not allowed to.",
+                        this.getCurrentUserLogin(), request.getId());
+                return REDIRECT_TO_ACCESS_DENIED;
+            }
 
-        var usersToAdd = usersIds.stream().map(this.usersRepository::findById)
-                .distinct()
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
-        
-        var groupsToAdd = userGroupsIds.stream().map(this.userGroupsRepository::findById)
-                .distinct()
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
+            var usersToAdd = usersIds.stream().map(this.usersRepository::findById)
+                    .distinct()
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .collect(Collectors.toList());
 
-        request.setUsersCollection(usersToAdd);
-        request.setUserGroupsCollection(groupsToAdd);
-        this.requestsRepository.save(request);
+            var groupsToAdd = userGroupsIds.stream().map(this.userGroupsRepository::findById)
+                    .distinct()
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .collect(Collectors.toList());
 
-        return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+            request.setUsersCollection(usersToAdd);
+            request.setUserGroupsCollection(groupsToAdd);
+
+            try {
+                this.requestsRepository.save(request);
+
+            } catch (OptimisticLockingFailureException exception) {
+                this.logger.warn("The request {} was modified by another process in the meantime.", requestId);
+                this.addStatusMessage(redirectAttributes, "requestDetails.error.request.concurrentModification",
+                        MessageType.ERROR);
+            }
+
+            return String.format(RequestsController.REDIRECT_TO_DETAILS_FORMAT, requestId);
+        });
     }
 
     /**
@@ -1197,6 +1764,25 @@ public class RequestsController extends BaseController {
 
 
 
+    /**
+     * Checks if the user that is currently identified (if any) is allowed to view detailed information about an
+     * active request, without reading the request itself.
+     *
+     * @param requestId the number that identifies the active request
+     * @return <code>true</code> if detailed information about the request can be displayed to the current user
+     */
+    private boolean canCurrentUserViewActiveRequest(final int requestId) {
+
+        if (!this.isCurrentUserApplicationUser()) {
+            return false;
+        }
+
+        return this.isCurrentUserAdmin()
+               || this.requestsRepository.isRequestVisibleTo(requestId, this.getCurrentUserId());
+    }
+
+
+
     /**
      * Checks if the user that is currently identified (if any) is allowed to view detailed information
      * about a given request.
@@ -1222,10 +1808,16 @@ public class RequestsController extends BaseController {
         }
 
         var currentId = this.getCurrentUserId();
-        return Stream.concat(
+
+        if (Stream.concat(
                 process.getDistinctOperators().stream(),
                 request.getDistinctOperators().stream()
-        ).map(User::getId).anyMatch((id) -> currentId == id);
+        ).map(User::getId).anyMatch((id) -> currentId == id)) {
+            return true;
+        }
+
+        return request.isArchived()
+               && this.requestsArchive.isVisibleTo(request.getId(), currentId);
     }
 
 
@@ -1240,25 +1832,44 @@ public class RequestsController extends BaseController {
      */
     private boolean canRequestBeExportedAgain(final Request request, final int activeStep,
             final RedirectAttributes redirectAttributes) {
+        final String errorMessageKey = this.getExportRetryError(request, activeStep);
+
+        if (errorMessageKey != null) {
+            this.addStatusMessage(redirectAttributes, errorMessageKey, MessageType.ERROR);
+
+            return false;
+        }
+
+        return true;
+    }
+
+
+
+    /**
+     * Checks why the result of an order cannot be sent again to its originating server.
+     *
+     * @param request    the order to export
+     * @param activeStep the number that identifies the process step of the export task
+     * @return the key of the message that explains why the order cannot be exported again, or <code>null</code>
+     *         if it can be exported again
+     */
+    private String getExportRetryError(final Request request, final int activeStep) {
 
         if (!this.checkActiveStep(activeStep, request)) {
             this.logger.warn("The user {} tried to export the request at step {} of the process {}, but it is not"
                     + " the active step anymore.", this.getCurrentUserLogin(), activeStep, request.getId());
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.invalidStep", MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.invalidStep";
         }
 
         if (request.getStatus() != Request.Status.EXPORTFAIL) {
             this.logger.warn("The user {} tried to export request {} again but the request is not in"
                     + " an export failure state.", this.getCurrentUserLogin(), request.getId());
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.restartTask.invalidState",
-                    MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.restartTask.invalidState";
         }
 
-        return true;
+        return null;
     }
 
 
@@ -1271,25 +1882,43 @@ public class RequestsController extends BaseController {
      * @return <code>true</code> if the order process can be restarted
      */
     private boolean canRequestBeMatchedAgain(final Request request, final RedirectAttributes redirectAttributes) {
+        final String errorMessageKey = this.getMatchingRetryError(request);
+
+        if (errorMessageKey != null) {
+            this.addStatusMessage(redirectAttributes, errorMessageKey, MessageType.ERROR);
+
+            return false;
+        }
+
+        return true;
+    }
+
+
+
+    /**
+     * Checks why the process matching cannot be attempted again for an order.
+     *
+     * @param request the order to match with a process again
+     * @return the key of the message that explains why the order cannot be matched again, or <code>null</code>
+     *         if it can be matched again
+     */
+    private String getMatchingRetryError(final Request request) {
 
         if (request.getTasknum() != null) {
             this.logger.warn("The user {} tried to restart the process matching of request {}, but it is not"
                     + " the active step anymore.", this.getCurrentUserLogin(), request.getId());
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.invalidStep", MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.invalidStep";
         }
 
         if (request.getStatus() != Request.Status.UNMATCHED) {
             this.logger.warn("The user {} tried to restart the process matching of request {} but the request is not in"
                     + " an unmatched state.", this.getCurrentUserLogin(), request.getId());
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.restartTask.invalidState",
-                    MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.restartTask.invalidState";
         }
 
-        return true;
+        return null;
     }
 
 
@@ -1305,22 +1934,43 @@ public class RequestsController extends BaseController {
      */
     private boolean canRequestBeRejected(final Request request, final int activeStep,
             final RedirectAttributes redirectAttributes) {
+        final String errorMessageKey = this.getRejectionError(request, activeStep);
+
+        if (errorMessageKey != null) {
+            this.addStatusMessage(redirectAttributes, errorMessageKey, MessageType.ERROR);
+
+            return false;
+        }
+
+        return true;
+    }
+
+
+
+    /**
+     * Checks why the processing of a given order cannot be abandoned.
+     *
+     * @param request    the order whose processing should be abandoned
+     * @param activeStep the number that identifies the process step that was active when the
+     *                   user asked for the order cancellation
+     * @return the key of the message that explains why the order cannot be abandoned, or <code>null</code>
+     *         if it can be abandoned
+     */
+    private String getRejectionError(final Request request, final int activeStep) {
         assert request != null : "The request cannot be null.";
 
         if (!this.checkActiveStep(activeStep, request)) {
             this.logger.warn("The user {} tried to reject the request {} from step {}, but it is not"
                     + " the active step anymore.", this.getCurrentUserLogin(), request.getId(), activeStep);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.invalidStep", MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.invalidStep";
         }
 
         if (request.isRejected() && request.getStatus() != Request.Status.EXPORTFAIL) {
             this.logger.warn("The user {} tried to reject request {} but it is already rejected.",
                     this.getCurrentUserLogin(), request.getId());
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.reject.rejected", MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.reject.rejected";
         }
 
         if (request.getStatus() != Request.Status.ERROR && request.getStatus() != Request.Status.EXPORTFAIL
@@ -1328,12 +1978,11 @@ public class RequestsController extends BaseController {
                 && request.getStatus() != Request.Status.IMPORTFAIL) {
             this.logger.warn("The user {} tried to reject request {} but it is neither in error nor in standby.",
                     this.getCurrentUserLogin(), request.getId());
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.reject.invalidState", MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.reject.invalidState";
         }
 
-        return true;
+        return null;
     }
 
 
@@ -1348,25 +1997,45 @@ public class RequestsController extends BaseController {
      */
     private boolean canRequestBeValidated(final Request request, final int activeStep,
             final RedirectAttributes redirectAttributes) {
+        final String errorMessageKey = this.getValidationError(request, activeStep);
+
+        if (errorMessageKey != null) {
+            this.addStatusMessage(redirectAttributes, errorMessageKey, MessageType.ERROR);
+
+            return false;
+        }
+
+        return true;
+    }
+
+
+
+    /**
+     * Checks why a given order cannot proceed to the next task of its process.
+     *
+     * @param request    the order in standby
+     * @param activeStep the index of the current process step
+     * @return the key of the message that explains why the order cannot be validated, or <code>null</code>
+     *         if it can be validated
+     */
+    private String getValidationError(final Request request, final int activeStep) {
         assert request != null : "The request cannot be null.";
 
         if (!this.checkActiveStep(activeStep, request)) {
             this.logger.warn("The user {} tried to validate request {} from step {}, but it is not"
                     + " the active step anymore.", this.getCurrentUserLogin(), request.getId(), activeStep);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.invalidStep", MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.invalidStep";
         }
 
         if (request.getStatus() != Request.Status.STANDBY) {
             this.logger.warn("The user {} tried to validate request {} but its status is {}.",
                     this.getCurrentUserLogin(), request.getId(), request.getStatus().name());
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.validate.invalidState", MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.validate.invalidState";
         }
 
-        return true;
+        return null;
     }
 
 
@@ -1381,14 +2050,35 @@ public class RequestsController extends BaseController {
      */
     private boolean canRequestOutputBeChanged(final Request request, final int activeStep,
             final RedirectAttributes redirectAttributes) {
+        final String errorMessageKey = this.getRequestOutputChangeError(request, activeStep);
+
+        if (errorMessageKey != null) {
+            this.addStatusMessage(redirectAttributes, errorMessageKey, MessageType.ERROR);
+
+            return false;
+        }
+
+        return true;
+    }
+
+
+
+    /**
+     * Checks why the output files generated for a given order cannot be modified.
+     *
+     * @param request    the order whose output should be changed
+     * @param activeStep the index of the current process step
+     * @return the key of the message that explains why the output cannot be changed, or <code>null</code> if it
+     *         can be changed
+     */
+    private String getRequestOutputChangeError(final Request request, final int activeStep) {
         assert request != null : "The request cannot be null.";
 
         if (!this.checkActiveStep(activeStep, request)) {
             this.logger.warn("The user {} tried to change the output of request {} from step {}, but it is not"
                     + " the active step anymore.", this.getCurrentUserLogin(), request.getId(), activeStep);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.invalidStep", MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.invalidStep";
         }
 
         if (request.getStatus() != Request.Status.ERROR && request.getStatus() != Request.Status.EXPORTFAIL
@@ -1396,13 +2086,11 @@ public class RequestsController extends BaseController {
                 && request.getStatus() != Request.Status.UNMATCHED) {
             this.logger.warn("The user {} tried to validate request {} but its status is {}.",
                     this.getCurrentUserLogin(), request.getId(), request.getStatus().name());
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.outputChange.invalidState",
-                    MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.outputChange.invalidState";
         }
 
-        return true;
+        return null;
     }
 
 
@@ -1486,26 +2174,47 @@ public class RequestsController extends BaseController {
      */
     private boolean canRequestProcessBeRelaunched(final Request request, final int activeStep,
             final RedirectAttributes redirectAttributes) {
+        final String errorMessageKey = this.getProcessRelaunchError(request, activeStep);
+
+        if (errorMessageKey != null) {
+            this.addStatusMessage(redirectAttributes, errorMessageKey, MessageType.ERROR);
+
+            return false;
+        }
+
+        return true;
+    }
+
+
+
+    /**
+     * Checks why the processing of a given order cannot be restarted from the beginning.
+     *
+     * @param request    the order whose processing should be restarted
+     * @param activeStep the number that identifies the process step that was active when the
+     *                   user asked for the process restart
+     * @return the key of the message that explains why the order process cannot be restarted, or <code>null</code>
+     *         if it can be restarted
+     */
+    private String getProcessRelaunchError(final Request request, final int activeStep) {
         assert request != null : "The request cannot be null.";
 
         if (!this.checkActiveStep(activeStep, request)) {
             this.logger.warn("The user {} tried to relaunch the processing of request {} from step {}, but it is not"
                     + " the active step anymore.", this.getCurrentUserLogin(), request.getId(), activeStep);
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.invalidStep", MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.invalidStep";
         }
 
         if (request.getStatus() != Request.Status.STANDBY && request.getStatus() != Request.Status.ERROR
                 && request.getStatus() != Request.Status.EXPORTFAIL) {
             this.logger.warn("The user {} tried to relaunch the processing of request {} but its status is {}.",
                     this.getCurrentUserLogin(), request.getId(), request.getStatus().name());
-            this.addStatusMessage(redirectAttributes, "requestDetails.error.relaunch.invalidState", MessageType.ERROR);
 
-            return false;
+            return "requestDetails.error.relaunch.invalidState";
         }
 
-        return true;
+        return null;
     }
 
 
@@ -1530,7 +2239,8 @@ public class RequestsController extends BaseController {
         assert request != null : "The request to add the file to cannot be null";
 
         final int requestId = request.getId();
-        final Path outputFolderPath = Paths.get(this.parametersRepository.getBasePath(), request.getFolderOut());
+        final Path outputFolderPath
+                = Paths.get(this.parametersCache.getSnapshot().getBasePath(), request.getFolderOut());
         final File outputFolder = outputFolderPath.toFile();
 
         if (!outputFolder.exists() || !outputFolder.canRead() || !outputFolder.isDirectory()) {
@@ -1542,6 +2252,12 @@ public class RequestsController extends BaseController {
         final String outputFileName = FileSystemUtils.sanitizeFileName(uploadedFile.getOriginalFilename());
         final File targetFile = outputFolderPath.resolve(outputFileName).toFile();
 
+        if (targetFile.exists()) {
+            this.logger.info("The file \"{}\" was not added to the request {} because its output already has a file"
+                    + " with this name.", outputFileName, requestId);
+            return false;
+        }
+
         try {
             uploadedFile.transferTo(targetFile);
 
@@ -1561,6 +2277,54 @@ public class RequestsController extends BaseController {
 
 
 
+    /**
+     * Moves an output file whose chunks have all been received to the output folder of an order. This must be called
+     * while the order is locked.
+     *
+     * @param requestId   the number that identifies the order that the file is added to
+     * @param uploadId    the string that identifies the upload
+     * @param currentStep the process step that was active when the user sent the file
+     * @param locale      the language to send the error messages in
+     * @param response    the HTTP response to the current request
+     * @return a JSON object that describes the state of the upload
+     */
+    private ChunkedUploadResponse completeChunkedUpload(final int requestId, final String uploadId,
+            final int currentStep, final Locale locale, final HttpServletResponse response) {
+        final File outputFolder = this.getUploadOutputFolder(requestId, currentStep, response);
+
+        if (outputFolder == null) {
+            return new ChunkedUploadResponse(
+                    this.getMessage("requestDetails.error.request.outputChange.notAllowed", locale));
+        }
+
+        final ChunkedUploadManager.ChunkResult result;
+
+        try {
+            result = this.chunkedUploadManager.complete(outputFolder, uploadId);
+
+        } catch (FileAlreadyExistsException exception) {
+            response.setStatus(HttpStatus.CONFLICT.value());
+            return new ChunkedUploadResponse(this.getMessage("requestDetails.error.upload.fileExists", locale));
+
+        } catch (IOException exception) {
+            this.logger.error("The upload {} to request {} could not be completed.", uploadId, requestId, exception);
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            return new ChunkedUploadResponse(this.getMessage("requestDetails.error.upload.chunkFailed", locale));
+        }
+
+        if (result.getStatus() != ChunkedUploadManager.ChunkStatus.COMPLETED) {
+            response.setStatus(HttpStatus.CONFLICT.value());
+            return new ChunkedUploadResponse(this.getMessage("requestDetails.error.upload.unknown", locale));
+        }
+
+        this.logger.info("The user {} uploaded the file \"{}\" to request {}.", this.getCurrentUserLogin(),
+                result.getUpload().getFileName(), requestId);
+
+        return new ChunkedUploadResponse(result.getUpload(), this.chunkedUploadManager.getChunkSize(), null);
+    }
+
+
+
     /**
      * Creates an entry in the processing history of a request to indicate that a certain task has not been
      * executed at all.
@@ -1599,12 +2363,56 @@ public class RequestsController extends BaseController {
 
 
     /**
-     * Obtains a file that was produced by the processing of an order.
+     * Obtains the output folder of an order that the current user wants to add files to, and sets the status of the
+     * response if this is not possible.
      *
-     * @param request      the order that produced the desired file
-     * @return the file, or <code>null</code> if it is not available or accessible
+     * @param requestId   the number that identifies the order
+     * @param currentStep the process step that was active when the user sent the files
+     * @param response    the HTTP response to the current request
+     * @return the output folder, or <code>null</code> if files cannot be added to it
+     */
+    private File getUploadOutputFolder(final int requestId, final int currentStep,
+            final HttpServletResponse response) {
+        final Request request = this.getDomainRequest(requestId);
+
+        if (request == null) {
+            this.logger.error("The user {} attempted to upload a file to request {}, which does not exist.",
+                    this.getCurrentUserLogin(), requestId);
+            response.setStatus(RequestsController.HTTP_NOT_FOUND_ERROR_CODE);
+            return null;
+        }
+
+        if (!this.canCurrentUserChangeRequestOutput(request)) {
+            this.logger.warn("The user {} tried to upload an output file to request {} but is not allowed to do so.",
+                    this.getCurrentUserLogin(), requestId);
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return null;
+        }
+
+        if (this.getRequestOutputChangeError(request, currentStep) != null) {
+            response.setStatus(HttpStatus.CONFLICT.value());
+            return null;
+        }
+
+        final File outputFolder = this.getRequestOutputFolder(request);
+
+        if (outputFolder == null) {
+            response.setStatus(RequestsController.HTTP_NOT_FOUND_ERROR_CODE);
+            return null;
+        }
+
+        return outputFolder;
+    }
+
+
+
+    /**
+     * Obtains the folder that contains the files produced by the processing of an order.
+     *
+     * @param request the order that produced the desired files
+     * @return the folder, or <code>null</code> if it is not available or accessible
      */
-    private byte[] getRequestOutputContent(final Request request) {
+    private File getRequestOutputFolder(final Request request) {
         assert request != null : "The request must not be null.";
         this.logger.debug("Getting output content for request {}.", request.getId());
 
@@ -1619,7 +2427,8 @@ public class RequestsController extends BaseController {
             return null;
         }
 
-        final Path outputFolderPath = Paths.get(this.parametersRepository.getBasePath(), request.getFolderOut());
+        final Path outputFolderPath
+                = Paths.get(this.parametersCache.getSnapshot().getBasePath(), request.getFolderOut());
         final File outputFolder = outputFolderPath.toFile();
 
         if (!outputFolder.exists() || !outputFolder.canRead() || !outputFolder.isDirectory()) {
@@ -1628,17 +2437,7 @@ public class RequestsController extends BaseController {
             return null;
         }
 
-        final byte[] outputZipBytes;
-
-        try {
-            outputZipBytes = ZipUtils.zipFolderContentToByteArray(outputFolder);
-
-        } catch (IOException exception) {
-            this.logger.error("An error occurred when trying to zip the content of the output folder.", exception);
-            return null;
-        }
-
-        return outputZipBytes;
+        return outputFolder;
     }
 
 
@@ -1673,7 +2472,8 @@ public class RequestsController extends BaseController {
             return null;
         }
 
-        final Path outputFolderPath = Paths.get(this.parametersRepository.getBasePath(), request.getFolderOut());
+        final Path outputFolderPath
+                = Paths.get(this.parametersCache.getSnapshot().getBasePath(), request.getFolderOut());
         final File outputFolder = outputFolderPath.toFile();
 
         if (!outputFolder.exists() || !outputFolder.canRead() || !outputFolder.isDirectory()) {
@@ -1711,6 +2511,40 @@ public class RequestsController extends BaseController {
 
 
 
+    /**
+     * Checks if the range of a file requested through the <code>Range</code> header can be served. This is not the
+     * case if the request is conditioned by an <code>If-Range</code> header that does not match the current version
+     * of the file, since the client would then combine parts of different versions.
+     *
+     * @param webRequest   the HTTP request
+     * @param eTag         the entity tag of the current version of the file
+     * @param lastModified the time of the last modification of the file in milliseconds since the epoch
+     * @return <code>true</code> if the requested range can be served
+     */
+    private boolean isRangeApplicable(final ServletWebRequest webRequest, final String eTag, final long lastModified) {
+        final String ifRange = webRequest.getHeader(HttpHeaders.IF_RANGE);
+
+        if (ifRange == null || webRequest.getHeader(HttpHeaders.RANGE) == null) {
+            return true;
+        }
+
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+
+        try {
+            final long ifRangeDate = webRequest.getRequest().getDateHeader(HttpHeaders.IF_RANGE);
+
+            return ifRangeDate / 1000 == lastModified / 1000;
+
+        } catch (IllegalArgumentException exception) {
+            this.logger.debug("The If-Range header \"{}\" is not a valid date.", ifRange);
+            return false;
+        }
+    }
+
+
+
     /**
      * Abandons the processing of a request.
      *
@@ -1775,7 +2609,7 @@ public class RequestsController extends BaseController {
         }
 
         this.logger.info("Deleting the content of the output folder for request {}.", requestId);
-        String basePath = this.parametersRepository.getBasePath();
+        String basePath = this.parametersCache.getSnapshot().getBasePath();
 
         if (!FileSystemUtils.purgeRequestFolderContent(request, RequestDataFolder.OUTPUT, basePath)) {
             this.logger.warn("Not all the content of the output folder for request {} could be deleted.", requestId);
@@ -1953,6 +2787,102 @@ public class RequestsController extends BaseController {
 
 
 
+    /**
+     * Applies the action of a bulk operation to an order. This is called within the transaction of the chunk
+     * that the order belongs to, with the security context of the user who started the operation.
+     *
+     * @param action    the action to apply
+     * @param requestId the number that identifies the order
+     * @param remark    the string entered by the user to explain a rejection or a validation, or
+     *                  <code>null</code> if there is none
+     * @return the modified order
+     * @throws RequestActionRefusedException if the action cannot be applied to the order
+     */
+    private Request applyBulkAction(final BulkOperation.Action action, final int requestId, final String remark) {
+        final Request request = this.getDomainRequest(requestId);
+
+        if (request == null) {
+            throw new RequestActionRefusedException("requestDetails.error.request.notFound");
+        }
+
+        final int activeStep = (request.getTasknum() != null) ? request.getTasknum() : 0;
+
+        switch (action) {
+
+            case REJECT:
+                this.checkBulkAction(this.canCurrentUserRejectRequest(request),
+                        () -> this.getRejectionError(request, activeStep));
+                this.rejectRequest(request, remark);
+                break;
+
+            case RELAUNCH:
+                this.checkBulkAction(this.canCurrentUserRelaunchProcess(request),
+                        () -> this.getProcessRelaunchError(request, activeStep));
+                this.relaunchProcess(request);
+                break;
+
+            case RETRY_EXPORT:
+                this.checkBulkAction(this.canCurrentUserExportRequest(request),
+                        () -> this.getExportRetryError(request, activeStep));
+                this.restartExport(request);
+                break;
+
+            case RETRY_MATCHING:
+                this.checkBulkAction(this.canCurrentUserMatchRequest(), () -> this.getMatchingRetryError(request));
+                this.restartMatching(request);
+                break;
+
+            case VALIDATE:
+                this.checkBulkAction(this.canCurrentUserValidateRequest(request),
+                        () -> this.getValidationError(request, activeStep));
+                this.validateRequest(request, remark);
+                break;
+
+            default:
+                throw new IllegalArgumentException(String.format("The action %s is not supported.", action));
+        }
+
+        return request;
+    }
+
+
+
+    /**
+     * Ensures that the action of a bulk operation can be applied to an order.
+     *
+     * @param isAllowed    whether the current user can apply the action to the order
+     * @param stateChecker the function that returns the key of the message that explains why the order state does
+     *                     not allow the action, or <code>null</code> if it does
+     * @throws RequestActionRefusedException if the action cannot be applied to the order
+     */
+    private void checkBulkAction(final boolean isAllowed, final Supplier<String> stateChecker) {
+
+        if (!isAllowed) {
+            throw new RequestActionRefusedException("requestDetails.error.request.notAllowed");
+        }
+
+        final String errorMessageKey = stateChecker.get();
+
+        if (errorMessageKey != null) {
+            throw new RequestActionRefusedException(errorMessageKey);
+        }
+    }
+
+
+
+    /**
+     * Obtains a localized application string.
+     *
+     * @param messageKey the key of the string
+     * @param locale     the language to obtain the string in
+     * @return the localized string
+     */
+    private String getMessage(final String messageKey, final Locale locale) {
+        return this.messageSource.getMessage(messageKey, null, locale);
+    }
+
+
+
     /**
      * Returns the request domain object that is identified by a given identifier.
      *
@@ -1962,6 +2892,25 @@ public class RequestsController extends BaseController {
     private Request getDomainRequest(int requestId) {
         return this.requestsRepository.findById(requestId).orElse(null);
     }
+
+
+
+    /**
+     * Fetches a request to display, looking it up in the archive if it is not among the active requests. The
+     * archived requests are read-only, so this must not be used to fetch a request to modify.
+     *
+     * @param requestId the number that identifies the request
+     * @return the request, or <code>null</code> if there is no request with this identifier
+     */
+    private Request getViewedRequest(final int requestId) {
+        final Request request = this.getDomainRequest(requestId);
+
+        if (request != null) {
+            return request;
+        }
+
+        return this.requestsArchive.findArchivedRequest(requestId);
+    }
     
     /**
      * Fetches a list of users from the repository and returns a collection of active user objects.
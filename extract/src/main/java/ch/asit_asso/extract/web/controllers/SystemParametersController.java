@@ -16,17 +16,24 @@
  */
 package ch.asit_asso.extract.web.controllers;
 
+import java.util.Map;
 import java.util.Optional;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import ch.asit_asso.extract.archive.RequestsArchive;
 import ch.asit_asso.extract.domain.SystemParameter;
+import ch.asit_asso.extract.email.EmailTemplatesCache;
 import ch.asit_asso.extract.ldap.LdapPool;
 import ch.asit_asso.extract.ldap.LdapSettings;
 import ch.asit_asso.extract.orchestrator.Orchestrator;
 import ch.asit_asso.extract.orchestrator.OrchestratorSettings;
 import ch.asit_asso.extract.orchestrator.OrchestratorTimeRange;
 import ch.asit_asso.extract.orchestrator.runners.LdapSynchronizationJobRunner;
+import ch.asit_asso.extract.persistence.ReferenceDataCache;
+import ch.asit_asso.extract.persistence.SystemParametersCache;
 import ch.asit_asso.extract.persistence.SystemParametersRepository;
 import ch.asit_asso.extract.persistence.UsersRepository;
+import ch.asit_asso.extract.persistence.WorkloadRoutingDataSource;
 import ch.asit_asso.extract.services.MessageService;
 import ch.asit_asso.extract.utils.Secrets;
 import ch.asit_asso.extract.web.Message.MessageType;
@@ -48,6 +55,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import static ch.asit_asso.extract.persistence.SystemParametersRepository.BASE_PATH_KEY;
@@ -113,6 +121,11 @@ public class SystemParametersController extends BaseController {
      */
     private static final String ON_STRING = "true";
 
+    /**
+     * The object that manages the parsed e-mail templates.
+     */
+    private final EmailTemplatesCache emailTemplatesCache;
+
     private final LdapSettings ldapSettings;
 
     /**
@@ -124,6 +137,21 @@ public class SystemParametersController extends BaseController {
 
     private final MessageService messageService;
 
+    /**
+     * The access to the second-level cache that holds the processes, the connectors and their children.
+     */
+    private final ReferenceDataCache referenceDataCache;
+
+    /**
+     * The data source that holds a separate connection pool for each kind of work.
+     */
+    private final WorkloadRoutingDataSource dataSource;
+
+    /**
+     * The access to the finished requests that were moved to the archive tables.
+     */
+    private final RequestsArchive requestsArchive;
+
     private final Secrets secrets;
 
     /**
@@ -131,12 +159,26 @@ public class SystemParametersController extends BaseController {
      */
     private final SystemParametersRepository systemParametersRepository;
 
+    /**
+     * The copy in memory of the application parameters, which must be replaced when they are modified.
+     */
+    private final SystemParametersCache systemParametersCache;
+
     private final UsersRepository usersRepository;
 
     public SystemParametersController(SystemParametersRepository repository, UsersRepository usersRepository,
                                       LdapSettings ldapSettings, MessageSource messageSource,
-                                      MessageService messageService, Secrets secrets) {
+                                      MessageService messageService, Secrets secrets,
+                                      EmailTemplatesCache emailTemplatesCache,
+                                      SystemParametersCache systemParametersCache,
+                                      ReferenceDataCache referenceDataCache, RequestsArchive requestsArchive,
+                                      WorkloadRoutingDataSource dataSource) {
         this.systemParametersRepository = repository;
+        this.dataSource = dataSource;
+        this.referenceDataCache = referenceDataCache;
+        this.requestsArchive = requestsArchive;
+        this.systemParametersCache = systemParametersCache;
+        this.emailTemplatesCache = emailTemplatesCache;
         this.usersRepository = usersRepository;
         this.ldapSettings = ldapSettings;
         this.messageSource = messageSource;
@@ -389,6 +431,8 @@ public class SystemParametersController extends BaseController {
             success = false;
         }
 
+        this.systemParametersCache.publishChanges();
+
         if (!success) {
             this.addStatusMessage(model, "parameters.errors.update.failed", MessageType.ERROR);
             return SystemParametersController.REDIRECT_TO_VIEW;
@@ -562,6 +606,89 @@ public class SystemParametersController extends BaseController {
 
 
 
+    /**
+     * Processes a request to discard the parsed e-mail templates so that the modifications made to the template
+     * files are used by the next messages.
+     *
+     * @param parameterModel the model that contains the modifications of the application settings
+     * @param model          the data to display in the view
+     * @return the string that identifies the view to display
+     */
+    @PostMapping("reloadEmailTemplates")
+    public String reloadEmailTemplates(@ModelAttribute("parameters") final SystemParameterModel parameterModel,
+                                       final ModelMap model) {
+        this.logger.debug("Processing a request to reload the e-mail templates.");
+
+        if (!this.isCurrentUserAdmin()) {
+            return BaseController.REDIRECT_TO_ACCESS_DENIED;
+        }
+
+        final int templatesNumber = this.emailTemplatesCache.reload();
+        final String messageKey = (this.emailTemplatesCache.isCacheEnabled())
+                                  ? "parameters.emailTemplates.reload.success"
+                                  : "parameters.emailTemplates.reload.noCache";
+        model.addAttribute("emailTemplatesMessage",
+                           this.messageSource.getMessage(messageKey, new Object[]{templatesNumber},
+                                                         LocaleContextHolder.getLocale()));
+
+        return this.prepareModelForDetailsView(model, parameterModel);
+    }
+
+
+
+    /**
+     * Processes a request to obtain the number of hits, misses and puts of the second-level cache.
+     *
+     * @param response the HTTP response to send back
+     * @return a JSON object with the statistics of each cache region, or <code>null</code> if the current user is not
+     *         an administrator or if the statistics are not collected
+     */
+    @GetMapping("cacheStatistics")
+    @ResponseBody
+    public Map<String, Map<String, Long>> getCacheStatistics(final HttpServletResponse response) {
+
+        if (!this.isCurrentUserAdmin()) {
+            this.logger.warn("The user {} tried to access the cache statistics but is not an administrator.",
+                    this.getCurrentUserLogin());
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+
+        final Map<String, Map<String, Long>> statistics = this.referenceDataCache.getStatistics();
+
+        if (statistics == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        }
+
+        return statistics;
+    }
+
+
+
+    /**
+     * Processes a request to obtain the use of each database connection pool and the time that the threads waited
+     * to obtain a connection.
+     *
+     * @param response the HTTP response to send back
+     * @return a JSON object with the statistics of each pool, or <code>null</code> if the current user is not an
+     *         administrator
+     */
+    @GetMapping("connectionPoolStatistics")
+    @ResponseBody
+    public Map<String, Map<String, Long>> getConnectionPoolStatistics(final HttpServletResponse response) {
+
+        if (!this.isCurrentUserAdmin()) {
+            this.logger.warn("The user {} tried to access the connection pool statistics but is not an administrator.",
+                    this.getCurrentUserLogin());
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+
+        return this.dataSource.getStatistics();
+    }
+
+
+
     private String getLdapPasswordFromRepository() {
          return this.secrets.decrypt(this.systemParametersRepository.getLdapSynchronizationPassword());
     }
@@ -602,6 +729,8 @@ public class SystemParametersController extends BaseController {
             model.addAttribute("parameters", parameterModel);
         }
 
+        model.addAttribute("archiveStatistics", this.requestsArchive.getStatistics());
+
         return SystemParametersController.VIEW_DETAILS;
     }
 
@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web.events;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import ch.asit_asso.extract.orchestrator.runners.RequestStatusChangedEvent;
+import ch.asit_asso.extract.persistence.RequestsRepository;
+import ch.asit_asso.extract.web.model.json.RequestJsonModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+
+/**
+ * Pushes the changes of the requests state to the browsers that display them, through a stream of server-sent
+ * events per browser. Each browser only receives the events of the requests that its user is allowed to view. The
+ * events are written by a small pool of threads, so that the background processing never waits for a client.
+ *
+ * @author Yves Grasset
+ */
+@Component
+public class RequestStatusBroadcaster implements DisposableBean {
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(RequestStatusBroadcaster.class);
+
+    /**
+     * The maximum number of events waiting to be sent to a browser.
+     */
+    private final int bufferSize;
+
+    /**
+     * The Spring Data object that links the requests with the data source.
+     */
+    private final RequestsRepository requestsRepository;
+
+    /**
+     * The threads that write the events to the browsers.
+     */
+    private final ExecutorService senderExecutor;
+
+    /**
+     * The browsers that currently receive the events.
+     */
+    private final List<RequestStatusSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The number of milliseconds after which a stream is closed. The browser then opens a new one.
+     */
+    private final long timeout;
+
+
+
+    /**
+     * Creates a new instance of the broadcaster.
+     *
+     * @param repository    the Spring Data object that links the requests with the data source
+     * @param maxEvents     the maximum number of events waiting to be sent to a browser
+     * @param streamTimeout the number of milliseconds after which a stream is closed
+     * @param senderThreads the number of threads that write the events to the browsers
+     */
+    public RequestStatusBroadcaster(final RequestsRepository repository,
+            @Value("${extract.events.bufferSize:100}") final int maxEvents,
+            @Value("${extract.events.timeout:1800000}") final long streamTimeout,
+            @Value("${extract.events.senderThreads:2}") final int senderThreads) {
+
+        if (repository == null) {
+            throw new IllegalArgumentException("The requests repository cannot be null.");
+        }
+
+        if (maxEvents < 1) {
+            throw new IllegalArgumentException("The buffer size must be greater than 0.");
+        }
+
+        if (streamTimeout < 1) {
+            throw new IllegalArgumentException("The stream timeout must be greater than 0.");
+        }
+
+        if (senderThreads < 1) {
+            throw new IllegalArgumentException("The number of sender threads must be greater than 0.");
+        }
+
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("request-events-");
+        threadFactory.setDaemon(true);
+
+        this.requestsRepository = repository;
+        this.bufferSize = maxEvents;
+        this.timeout = streamTimeout;
+        this.senderExecutor = Executors.newFixedThreadPool(senderThreads, threadFactory);
+    }
+
+
+
+    /**
+     * Obtains the number of browsers that currently receive the events.
+     *
+     * @return the number of subscribers
+     */
+    public final int getSubscribersCount() {
+        return this.subscribers.size();
+    }
+
+
+
+    /**
+     * Opens a stream of events for a browser.
+     *
+     * @param userId  the number that identifies the user of the browser
+     * @param isAdmin whether the user is an administrator, who can view all the requests
+     * @return the object that writes the events to the browser
+     */
+    public final SseEmitter subscribe(final int userId, final boolean isAdmin) {
+        return this.subscribe(new SseEmitter(this.timeout), userId, isAdmin);
+    }
+
+
+
+    /**
+     * Sends the events to a browser through a given emitter.
+     *
+     * @param emitter the object that writes the events to the browser
+     * @param userId  the number that identifies the user of the browser
+     * @param isAdmin whether the user is an administrator, who can view all the requests
+     * @return the emitter
+     */
+    public final SseEmitter subscribe(final SseEmitter emitter, final int userId, final boolean isAdmin) {
+        final RequestStatusSubscriber subscriber = new RequestStatusSubscriber(emitter, userId, isAdmin,
+                this.bufferSize);
+        emitter.onCompletion(() -> this.unsubscribe(subscriber));
+        emitter.onTimeout(() -> this.unsubscribe(subscriber));
+        emitter.onError((error) -> this.unsubscribe(subscriber));
+        this.subscribers.add(subscriber);
+        this.logger.debug("User {} subscribed to the request events. {} stream(s) open.", userId,
+                this.subscribers.size());
+
+        return emitter;
+    }
+
+
+
+    /**
+     * Sends the new state of a request to the browsers whose user is allowed to view it. This is called once the
+     * transaction that modified the request is committed.
+     *
+     * @param event the information about the request whose state changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestStatusChanged(final RequestStatusChangedEvent event) {
+
+        if (this.subscribers.isEmpty()) {
+            return;
+        }
+
+        final Map<String, Object> eventData = new LinkedHashMap<>();
+        eventData.put("requestId", event.getRequestId());
+        eventData.put("rowId", RequestJsonModel.getRowId(event.getRequestId()));
+        eventData.put("status", event.getStatus());
+        Set<Integer> viewersIds = null;
+
+        for (RequestStatusSubscriber subscriber : this.subscribers) {
+
+            if (!subscriber.isAdmin()) {
+
+                if (viewersIds == null) {
+                    viewersIds = new HashSet<>(this.requestsRepository.findAssociatedUsersIds(event.getRequestId()));
+                }
+
+                if (!viewersIds.contains(subscriber.getUserId())) {
+                    continue;
+                }
+            }
+
+            this.send(subscriber, SseEmitter.event().name(RequestStatusSubscriber.STATUS_EVENT_NAME)
+                                            .data(eventData, MediaType.APPLICATION_JSON));
+        }
+    }
+
+
+
+    /**
+     * Sends a comment to each browser, so that the streams whose client is gone are detected and closed.
+     */
+    @Scheduled(fixedDelayString = "${extract.events.heartbeat:30000}",
+               initialDelayString = "${extract.events.heartbeat:30000}")
+    public void sendHeartbeats() {
+
+        for (RequestStatusSubscriber subscriber : this.subscribers) {
+            this.send(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+
+
+    /**
+     * Closes the open streams and stops the threads that write the events.
+     */
+    @Override
+    public final void destroy() {
+
+        for (RequestStatusSubscriber subscriber : this.subscribers) {
+            subscriber.close();
+            subscriber.getEmitter().complete();
+        }
+
+        this.subscribers.clear();
+        this.senderExecutor.shutdownNow();
+    }
+
+
+
+    /**
+     * Puts an event in the buffer of a browser and schedules its sending if needed.
+     *
+     * @param subscriber the browser to send the event to
+     * @param event      the event to send
+     */
+    private void send(final RequestStatusSubscriber subscriber, final SseEmitter.SseEventBuilder event) {
+
+        if (!subscriber.offer(event)) {
+            return;
+        }
+
+        try {
+            this.senderExecutor.execute(() -> {
+
+                if (!subscriber.flush()) {
+                    this.unsubscribe(subscriber);
+                }
+            });
+
+        } catch (RejectedExecutionException exception) {
+            this.logger.debug("The request events could not be sent because the application is stopping.");
+        }
+    }
+
+
+
+    /**
+     * Stops sending the events to a browser.
+     *
+     * @param subscriber the browser that does not receive the events anymore
+     */
+    private void unsubscribe(final RequestStatusSubscriber subscriber) {
+        subscriber.close();
+
+        if (this.subscribers.remove(subscriber)) {
+            this.logger.debug("User {} unsubscribed from the request events. {} stream(s) open.",
+                    subscriber.getUserId(), this.subscribers.size());
+        }
+    }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web.events;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+
+/**
+ * A browser that receives the changes of the requests state through a stream of server-sent events. The events to
+ * send are kept in a bounded buffer so that a slow client cannot hold an unlimited amount of memory. When the buffer
+ * is full, the pending events are discarded and the client is asked to reload all its data instead.
+ *
+ * @author Yves Grasset
+ */
+class RequestStatusSubscriber {
+
+    /**
+     * The name of the event sent when the state of a request changed.
+     */
+    static final String STATUS_EVENT_NAME = "requestStatus";
+
+    /**
+     * The name of the event sent when some changes could not be kept and the client must reload all its data.
+     */
+    static final String RESYNC_EVENT_NAME = "resync";
+
+    /**
+     * The maximum number of events waiting to be sent.
+     */
+    private final int bufferSize;
+
+    /**
+     * Whether the stream to the client has been closed.
+     */
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * The object that writes the events to the client.
+     */
+    private final SseEmitter emitter;
+
+    /**
+     * Whether a task is already scheduled to send the pending events.
+     */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    /**
+     * Whether the user is an administrator, who can view all the requests.
+     */
+    private final boolean isAdmin;
+
+    /**
+     * Whether events have been discarded since the last ones were sent.
+     */
+    private boolean overflowed;
+
+    /**
+     * The events waiting to be sent.
+     */
+    private final Deque<SseEmitter.SseEventBuilder> pendingEvents = new ArrayDeque<>();
+
+    /**
+     * The number that identifies the user of the browser.
+     */
+    private final int userId;
+
+
+
+    /**
+     * Creates a new subscriber.
+     *
+     * @param eventsEmitter the object that writes the events to the client
+     * @param subscriberId  the number that identifies the user of the browser
+     * @param admin         whether the user is an administrator
+     * @param maxEvents     the maximum number of events waiting to be sent
+     */
+    RequestStatusSubscriber(final SseEmitter eventsEmitter, final int subscriberId, final boolean admin,
+            final int maxEvents) {
+
+        if (eventsEmitter == null) {
+            throw new IllegalArgumentException("The events emitter cannot be null.");
+        }
+
+        if (maxEvents < 1) {
+            throw new IllegalArgumentException("The buffer size must be greater than 0.");
+        }
+
+        this.emitter = eventsEmitter;
+        this.userId = subscriberId;
+        this.isAdmin = admin;
+        this.bufferSize = maxEvents;
+    }
+
+
+
+    /**
+     * Obtains the object that writes the events to the client.
+     *
+     * @return the emitter
+     */
+    final SseEmitter getEmitter() {
+        return this.emitter;
+    }
+
+
+
+    /**
+     * Obtains the number that identifies the user of the browser.
+     *
+     * @return the user identifier
+     */
+    final int getUserId() {
+        return this.userId;
+    }
+
+
+
+    /**
+     * Obtains whether the user is an administrator, who can view all the requests.
+     *
+     * @return <code>true</code> if the user is an administrator
+     */
+    final boolean isAdmin() {
+        return this.isAdmin;
+    }
+
+
+
+    /**
+     * Obtains whether the stream to the client has been closed.
+     *
+     * @return <code>true</code> if no more events can be sent
+     */
+    final boolean isClosed() {
+        return this.closed.get();
+    }
+
+
+
+    /**
+     * Marks the stream to the client as closed and discards the pending events.
+     */
+    final synchronized void close() {
+        this.closed.set(true);
+        this.pendingEvents.clear();
+    }
+
+
+
+    /**
+     * Adds an event to the ones waiting to be sent. If the buffer is full, all the pending events are discarded
+     * and the client will be asked to reload its data.
+     *
+     * @param event the event to send
+     * @return <code>true</code> if a task must be scheduled to send the pending events
+     */
+    final synchronized boolean offer(final SseEmitter.SseEventBuilder event) {
+
+        if (this.isClosed()) {
+            return false;
+        }
+
+        if (this.overflowed || this.pendingEvents.size() >= this.bufferSize) {
+            this.pendingEvents.clear();
+            this.overflowed = true;
+
+        } else {
+            this.pendingEvents.add(event);
+        }
+
+        return this.flushScheduled.compareAndSet(false, true);
+    }
+
+
+
+    /**
+     * Writes the pending events to the client. Only one task sends the events of a given subscriber at a time, so
+     * that they are received in the order they were produced.
+     *
+     * @return <code>true</code> if the events were sent, or <code>false</code> if the client is not reachable
+     *         anymore
+     */
+    final boolean flush() {
+
+        do {
+            SseEmitter.SseEventBuilder event = this.pollEvent();
+
+            while (event != null) {
+
+                try {
+                    this.emitter.send(event);
+
+                } catch (IOException | IllegalStateException exception) {
+                    this.close();
+                    return false;
+                }
+
+                event = this.pollEvent();
+            }
+
+            this.flushScheduled.set(false);
+
+        } while (this.hasPendingEvents() && this.flushScheduled.compareAndSet(false, true));
+
+        return true;
+    }
+
+
+
+    /**
+     * Obtains whether events are waiting to be sent.
+     *
+     * @return <code>true</code> if there is at least one pending event
+     */
+    private synchronized boolean hasPendingEvents() {
+        return !this.isClosed() && (this.overflowed || !this.pendingEvents.isEmpty());
+    }
+
+
+
+    /**
+     * Takes the next event to send.
+     *
+     * @return the event, or <code>null</code> if there is none
+     */
+    private synchronized SseEmitter.SseEventBuilder pollEvent() {
+
+        if (this.isClosed()) {
+            return null;
+        }
+
+        if (this.overflowed) {
+            this.overflowed = false;
+
+            return SseEmitter.event().name(RequestStatusSubscriber.RESYNC_EVENT_NAME).data("");
+        }
+
+        return this.pendingEvents.poll();
+    }
+
+}
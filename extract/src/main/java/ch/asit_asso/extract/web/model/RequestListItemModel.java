@@ -0,0 +1,457 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web.model;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.domain.RequestHistoryRecord;
+import ch.asit_asso.extract.domain.projections.RequestListItem;
+import ch.asit_asso.extract.domain.projections.RequestStepSummary;
+import ch.asit_asso.extract.persistence.RequestHistoryRepository;
+import ch.asit_asso.extract.utils.DateTimeUtils;
+import ch.asit_asso.extract.utils.ExtractSimpleTemporalSpanFormatter;
+import org.springframework.context.MessageSource;
+
+
+
+/**
+ * The representation of an order for a row of a list. Unlike the {@link RequestModel}, it is built from the
+ * displayed columns of the order and from a summary of its history, so that listing many orders does not require
+ * to read their perimeter, their parameters or their full history.
+ *
+ * @author Yves Grasset
+ */
+public class RequestListItemModel {
+
+    /**
+     * The string that identifies the localized label of an order export task.
+     */
+    private static final String EXPORT_TASK_LABEL_KEY = "requestHistory.tasks.export.label";
+
+    /**
+     * The string that identifies the localized label of an order whose processing is done.
+     */
+    private static final String FINISHED_PROCESS_LABEL_KEY = "requestHistory.tasks.done.label";
+
+    /**
+     * The maximum number of requests whose history is fetched in a single query.
+     */
+    private static final int HISTORY_BATCH_SIZE = 500;
+
+    /**
+     * The string that identifies the localized label of an order import task.
+     */
+    private static final String IMPORT_TASK_LABEL_KEY = "requestHistory.tasks.import.label";
+
+    /**
+     * The string that identifies the localized label of an order whose processing has been denied.
+     */
+    private static final String REJECTED_PROCESS_LABEL_KEY = "requestHistory.tasks.rejected.label";
+
+    /**
+     * The string that identifies the localized label of a task whose original name is not known.
+     */
+    private static final String UNKNOWN_TASK_LABEL_KEY = "requestHistory.tasks.unknown.label";
+
+    /**
+     * The summary of the history entry for the task that is running or that ran last, or <code>null</code> if
+     * there is none.
+     */
+    private final RequestStepSummary currentStep;
+
+    /**
+     * Whether the current step is the import of the order, for which there is no history entry.
+     */
+    private final boolean currentStepIsImport;
+
+    /**
+     * The columns of the order to display.
+     */
+    private final RequestListItem item;
+
+    /**
+     * The access to the localized application strings.
+     */
+    private final MessageSource messageSource;
+
+    /**
+     * The object that converts time spans to a localized string.
+     */
+    private ExtractSimpleTemporalSpanFormatter temporalSpanFormatter = null;
+
+
+
+    /**
+     * Creates a new instance of this model.
+     *
+     * @param listItem                the columns of the order to display
+     * @param history                 the summary of the history entries of the order
+     * @param localizedMessagesSource the access to the localized application strings
+     */
+    public RequestListItemModel(final RequestListItem listItem, final List<RequestStepSummary> history,
+            final MessageSource localizedMessagesSource) {
+
+        if (listItem == null) {
+            throw new IllegalArgumentException("The request list item cannot be null.");
+        }
+
+        if (history == null) {
+            throw new IllegalArgumentException("The request history cannot be null.");
+        }
+
+        if (localizedMessagesSource == null) {
+            throw new IllegalArgumentException("The message source cannot be null.");
+        }
+
+        this.item = listItem;
+        this.messageSource = localizedMessagesSource;
+
+        final Map<Integer, RequestStepSummary> lastEntryByProcessStep = new HashMap<>();
+        RequestStepSummary lastEntry = null;
+
+        for (RequestStepSummary entry : history) {
+            final RequestStepSummary processStepEntry = lastEntryByProcessStep.get(entry.getProcessStep());
+
+            if (processStepEntry == null || processStepEntry.getStep() < entry.getStep()) {
+                lastEntryByProcessStep.put(entry.getProcessStep(), entry);
+            }
+
+            if (lastEntry == null || lastEntry.getStep() < entry.getStep()) {
+                lastEntry = entry;
+            }
+        }
+
+        RequestStepSummary foundStep = lastEntry;
+        boolean isImport = false;
+
+        if (lastEntry != null) {
+
+            for (int processStep = lastEntry.getProcessStep(); processStep >= 0; processStep--) {
+                final RequestStepSummary processStepEntry = lastEntryByProcessStep.get(processStep);
+
+                if (processStepEntry == null && processStep == 0) {
+                    foundStep = null;
+                    isImport = true;
+                    break;
+                }
+
+                if (processStepEntry != null && processStepEntry.getStatus() != RequestHistoryRecord.Status.SKIPPED) {
+                    foundStep = processStepEntry;
+                    break;
+                }
+            }
+        }
+
+        this.currentStep = foundStep;
+        this.currentStepIsImport = isImport;
+    }
+
+
+
+    /**
+     * Obtains the name of the connector that imported this order.
+     *
+     * @return the connector name, or <code>null</code> if the connector has been deleted
+     */
+    public final String getConnectorName() {
+        return this.item.getConnectorName();
+    }
+
+
+
+    /**
+     * Obtains the label of the task that is currently executing or that executed last.
+     *
+     * @param locale the locale to use for localized messages
+     * @return the string that describes the current step
+     */
+    public final String getCurrentStepName(final Locale locale) {
+        final Request.Status status = this.item.getStatus();
+
+        if (status == Request.Status.IMPORTED || status == Request.Status.UNMATCHED || this.currentStepIsImport) {
+            return this.messageSource.getMessage(RequestListItemModel.IMPORT_TASK_LABEL_KEY, null, locale);
+        }
+
+        if (status == Request.Status.FINISHED) {
+            final String key = (this.isRejected())
+                    ? RequestListItemModel.REJECTED_PROCESS_LABEL_KEY : RequestListItemModel.FINISHED_PROCESS_LABEL_KEY;
+            return this.messageSource.getMessage(key, null, locale);
+        }
+
+        if (this.currentStep == null) {
+
+            if (status == Request.Status.TOEXPORT) {
+                return this.messageSource.getMessage(RequestListItemModel.EXPORT_TASK_LABEL_KEY, null, locale);
+            }
+
+            return this.messageSource.getMessage(RequestListItemModel.UNKNOWN_TASK_LABEL_KEY, null, locale);
+        }
+
+        return this.currentStep.getTaskLabel();
+    }
+
+
+
+    /**
+     * Obtains the name of the person that placed this order.
+     *
+     * @return the customer name
+     */
+    public final String getCustomerName() {
+        return this.item.getClient();
+    }
+
+
+
+    /**
+     * Obtains the number that identifies this order.
+     *
+     * @return the order identifier
+     */
+    public final int getId() {
+        return this.item.getId();
+    }
+
+
+
+    /**
+     * Obtains the description of this order.
+     *
+     * @return the order label
+     */
+    public final String getOrderLabel() {
+        return this.item.getOrderLabel();
+    }
+
+
+
+    /**
+     * Obtains the number that identifies the process associated to this order.
+     *
+     * @return the process identifier, or <code>null</code> if none is associated
+     */
+    public final Integer getProcessId() {
+        return this.item.getProcessId();
+    }
+
+
+
+    /**
+     * Obtains the name of the process associated to this order.
+     *
+     * @return the process name, or an empty string if none is associated
+     */
+    public final String getProcessName() {
+        return (this.item.getProcessName() != null) ? this.item.getProcessName() : "";
+    }
+
+
+
+    /**
+     * Obtains the description of the product that was ordered.
+     *
+     * @return the product label
+     */
+    public final String getProductLabel() {
+        return this.item.getProductLabel();
+    }
+
+
+
+    /**
+     * Obtains when this order was imported.
+     *
+     * @return the start date
+     */
+    public final Calendar getStartDate() {
+        return this.item.getStartDate();
+    }
+
+
+
+    /**
+     * Obtains a localized string that describe how much time passed since this order was imported.
+     *
+     * @param locale the locale to use for formatting
+     * @return the start date span string
+     */
+    public final String getStartDateSpanToNow(final Locale locale) {
+        return this.getTimeSpanStringToNow(this.getStartDate(), locale);
+    }
+
+
+
+    /**
+     * Obtains when the current task for this order ended if it is stopped or started if it is running.
+     *
+     * @return the task date
+     */
+    public final Calendar getTaskDate() {
+
+        if (this.currentStep == null) {
+            return this.getStartDate();
+        }
+
+        if (this.currentStep.getEndDate() != null) {
+            return this.currentStep.getEndDate();
+        }
+
+        return (this.currentStep.getStartDate() != null) ? this.currentStep.getStartDate() : this.getStartDate();
+    }
+
+
+
+    /**
+     * Obtains a localized string that describe how much time passed since the current task for this order ended if
+     * it is stopped or started if it is running.
+     *
+     * @param locale the locale to use for formatting
+     * @return the task date span string
+     */
+    public final String getTaskDateSpanToNow(final Locale locale) {
+        return this.getTimeSpanStringToNow(this.getTaskDate(), locale);
+    }
+
+
+
+    /**
+     * Obtains whether this order completed successfully.
+     *
+     * @return <code>true</code> if the result export succeeded
+     */
+    public final boolean isFinished() {
+        return (this.item.getStatus() == Request.Status.FINISHED);
+    }
+
+
+
+    /**
+     * Obtains whether the processing of this order is currently stopped because of an error of some sort.
+     *
+     * @return <code>true</code> if the order is in an error state
+     */
+    public final boolean isInError() {
+        final Request.Status status = this.item.getStatus();
+
+        return (status == Request.Status.IMPORTFAIL || status == Request.Status.UNMATCHED
+                || status == Request.Status.ERROR || status == Request.Status.EXPORTFAIL);
+    }
+
+
+
+    /**
+     * Obtains whether the processing of this order is currently stopped to wait for a validation by an operator.
+     *
+     * @return <code>true</code> if the order is in standby
+     */
+    public final boolean isInStandby() {
+        return (this.item.getStatus() == Request.Status.STANDBY);
+    }
+
+
+
+    /**
+     * Obtains whether this order has been marked as impossible to process.
+     *
+     * @return <code>true</code> if an operator rejected this order
+     */
+    public final boolean isRejected() {
+        return this.item.isRejected();
+    }
+
+
+
+    /**
+     * Creates the models of a set of orders. The summary of their history is fetched in batches.
+     *
+     * @param listItems         the columns of the orders to display
+     * @param historyRepository the Spring Data object that links the request history entry data objects with the
+     *                          data source
+     * @param messageSource     the access to the localized application strings
+     * @return an array that contains a model for each order
+     */
+    public static RequestListItemModel[] fromListItems(final List<RequestListItem> listItems,
+            final RequestHistoryRepository historyRepository, final MessageSource messageSource) {
+
+        if (listItems == null) {
+            throw new IllegalArgumentException("The request list items cannot be null.");
+        }
+
+        if (historyRepository == null) {
+            throw new IllegalArgumentException("The request history repository cannot be null.");
+        }
+
+        final Map<Integer, List<RequestStepSummary>> historyByRequest = new HashMap<>();
+        final List<Integer> requestIds = listItems.stream().map(RequestListItem::getId).toList();
+
+        for (int batchStart = 0; batchStart < requestIds.size();
+             batchStart += RequestListItemModel.HISTORY_BATCH_SIZE) {
+            final int batchEnd = Math.min(batchStart + RequestListItemModel.HISTORY_BATCH_SIZE, requestIds.size());
+            final List<RequestStepSummary> summaries
+                    = historyRepository.findStepSummariesByRequestIdIn(requestIds.subList(batchStart, batchEnd));
+
+            if (summaries == null) {
+                continue;
+            }
+
+            for (RequestStepSummary summary : summaries) {
+                historyByRequest.computeIfAbsent(summary.getRequestId(), requestId -> new ArrayList<>())
+                                .add(summary);
+            }
+        }
+
+        final List<RequestListItemModel> models = new ArrayList<>();
+
+        for (RequestListItem listItem : listItems) {
+            models.add(new RequestListItemModel(listItem,
+                                                historyByRequest.getOrDefault(listItem.getId(),
+                                                                              Collections.emptyList()),
+                                                messageSource));
+        }
+
+        return models.toArray(new RequestListItemModel[]{});
+    }
+
+
+
+    /**
+     * Obtains a localized string that describes how much time passed since a given date.
+     *
+     * @param earlierDate the date to compare to the current time
+     * @param locale      the locale to use for formatting
+     * @return the time span string
+     */
+    private String getTimeSpanStringToNow(final Calendar earlierDate, final Locale locale) {
+        assert earlierDate != null : "The earlier date cannot be null.";
+        assert locale != null : "The locale cannot be null.";
+
+        if (this.temporalSpanFormatter == null) {
+            this.temporalSpanFormatter = new ExtractSimpleTemporalSpanFormatter(this.messageSource);
+        }
+
+        return this.temporalSpanFormatter.format(DateTimeUtils.getFloorDifference(earlierDate,
+                                                                                  new GregorianCalendar()), locale);
+    }
+
+}
@@ -20,6 +20,7 @@ import java.io.File;
 import java.nio.file.Path;
 import java.util.*;
 
+import ch.asit_asso.extract.archive.RequestsArchive;
 import ch.asit_asso.extract.domain.Process;
 import ch.asit_asso.extract.domain.RequestHistoryRecord;
 import ch.asit_asso.extract.utils.ExtractSimpleTemporalSpanFormatter;
@@ -76,6 +77,11 @@ public class RequestModel extends OwnedObjectModel {
      */
     private static final String UNKNOWN_TASK_LABEL_KEY = "requestHistory.tasks.unknown.label";
 
+    /**
+     * The maximum number of requests whose history is fetched in a single query.
+     */
+    private static final int HISTORY_BATCH_SIZE = 500;
+
     /**
      * The number indicating which task in the order process is currently active or was last executed if
      * the process is not running.
@@ -111,6 +117,12 @@ public class RequestModel extends OwnedObjectModel {
      */
     private RequestHistoryRecord[] processHistory;
 
+    /**
+     * The tasks that make up the process of the order sorted by position, or <code>null</code> to read them from
+     * the process.
+     */
+    private final Task[] processTasks;
+
     /**
      * The order that this model represents.
      */
@@ -151,6 +163,27 @@ public class RequestModel extends OwnedObjectModel {
      */
     public RequestModel(final Request domainRequest, final RequestHistoryRecord[] historyRecords,
             final Path requestBaseFolder, final MessageSource localizedMessagesSource, final String[] validationFocusProperties) {
+        this(domainRequest, historyRecords, null, requestBaseFolder, localizedMessagesSource,
+             validationFocusProperties);
+    }
+
+
+
+    /**
+     * Creates a new instance of the request model.
+     *
+     * @param domainRequest             the order that this model must represent
+     * @param historyRecords            an array that contains all the elements tracing the tasks that have been
+     *                                  executed to process the current order, including reruns
+     * @param processTasks              the tasks of the order process sorted by position, or <code>null</code> to
+     *                                  read them from the process
+     * @param requestBaseFolder         the path of the folder the data produced by all the order processes
+     * @param localizedMessagesSource   the access to the localized application strings
+     * @param validationFocusProperties the request parameters to highlight when the order is validated
+     */
+    public RequestModel(final Request domainRequest, final RequestHistoryRecord[] historyRecords,
+            final Task[] processTasks, final Path requestBaseFolder, final MessageSource localizedMessagesSource,
+            final String[] validationFocusProperties) {
 
         if (domainRequest == null) {
             throw new IllegalArgumentException("The request cannot be null.");
@@ -173,6 +206,7 @@ public class RequestModel extends OwnedObjectModel {
                 ? requestBaseFolder.resolve(domainRequest.getFolderOut()) : null;
         this.messageSource = localizedMessagesSource;
         this.fullHistory = historyRecords;
+        this.processTasks = processTasks;
         Arrays.sort(this.fullHistory, new RequestHistoryRecordByStepComparator());
         this.currentProcessStep = (!ArrayUtils.isEmpty(this.fullHistory))
                 ? this.fullHistory[this.fullHistory.length - 1].getProcessStep() : -1;
@@ -897,18 +931,8 @@ public class RequestModel extends OwnedObjectModel {
             throw new IllegalArgumentException("The message source cannot be null.");
         }
 
-        final Path baseFolderPath = baseFolder.toPath();
-        List<RequestModel> modelsList = new ArrayList<>();
-        List<RequestHistoryRecord> historyRecords = new ArrayList<>();
-
-        for (Request domainRequest : requestsCollection) {
-            historyRecords.clear();
-            historyRecords.addAll(historyRepository.findByRequestOrderByStep(domainRequest));
-            modelsList.add(new RequestModel(domainRequest, historyRecords.toArray(new RequestHistoryRecord[]{}),
-                    baseFolderPath, messageSource, validationFocusProperties));
-        }
-
-        return modelsList.toArray(new RequestModel[]{});
+        return RequestModel.buildModels(requestsCollection, historyRepository, null, baseFolder.toPath(),
+                                        messageSource, validationFocusProperties);
     }
 
 
@@ -916,16 +940,19 @@ public class RequestModel extends OwnedObjectModel {
     /**
      * Converts an ensemble of request data objects into request models.
      *
-     * @param requestsPage      a subset of the found requests for a paged result
+     * @param requestsPage      a subset of the found requests for a paged result, that may include archived
+     *                          requests
      * @param historyRepository the Spring Data object that links the request history entry data objects with the data
      *                          source
+     * @param requestsArchive   the access to the history of the archived requests
      * @param basePath          a string that contains the absolute path of the folder containing the data for all the
      *                          requests
      * @param messageSource     the access to the localized application strings
      * @return an array that contains the request model for each request data object
      */
     public static final RequestModel[] fromDomainRequestsPage(final Page<Request> requestsPage,
-            final RequestHistoryRepository historyRepository, final String basePath,
+            final RequestHistoryRepository historyRepository, final RequestsArchive requestsArchive,
+            final String basePath,
             final MessageSource messageSource, String[] validationFocusProperties) {
 
         if (requestsPage == null) {
@@ -951,15 +978,50 @@ public class RequestModel extends OwnedObjectModel {
             throw new IllegalArgumentException("The message source cannot be null.");
         }
 
-        final Path baseFolderPath = baseFolder.toPath();
-        List<RequestModel> modelsList = new ArrayList<>();
-        List<RequestHistoryRecord> historyRecords = new ArrayList<>();
+        if (requestsArchive == null) {
+            throw new IllegalArgumentException("The requests archive cannot be null.");
+        }
+
+        return RequestModel.buildModels(requestsPage.getContent(), historyRepository, requestsArchive,
+                                        baseFolder.toPath(), messageSource, validationFocusProperties);
+    }
+
 
-        for (Request domainRequest : requestsPage) {
-            historyRecords.clear();
-            historyRecords.addAll(historyRepository.findByRequestOrderByStep(domainRequest));
-            modelsList.add(new RequestModel(domainRequest, historyRecords.toArray(new RequestHistoryRecord[]{}),
-                    baseFolderPath, messageSource, validationFocusProperties));
+
+    /**
+     * Creates the models of a set of requests. The history of the requests is fetched in batches rather than for
+     * each request, and the tasks of each process are only read once.
+     *
+     * @param requests                  the request data objects to convert
+     * @param historyRepository         the Spring Data object that links the request history entry data objects with
+     *                                  the data source
+     * @param requestsArchive           the access to the history of the archived requests, or <code>null</code> if
+     *                                  the requests cannot be archived
+     * @param baseFolderPath            the absolute path of the folder containing the data for all the requests
+     * @param messageSource             the access to the localized application strings
+     * @param validationFocusProperties the request parameters to highlight when an order is validated
+     * @return an array that contains the request model for each request data object
+     */
+    private static RequestModel[] buildModels(final Collection<Request> requests,
+            final RequestHistoryRepository historyRepository, final RequestsArchive requestsArchive,
+            final Path baseFolderPath, final MessageSource messageSource, final String[] validationFocusProperties) {
+        final Map<Integer, List<RequestHistoryRecord>> historyByRequest
+                = RequestModel.fetchHistoryByRequest(requests, historyRepository, requestsArchive);
+        final List<RequestModel> modelsList = new ArrayList<>();
+
+        for (Request domainRequest : requests) {
+            final RequestHistoryRecord[] historyRecords
+                    = historyByRequest.getOrDefault(domainRequest.getId(), Collections.emptyList())
+                                      .toArray(new RequestHistoryRecord[]{});
+            final Process process = domainRequest.getProcess();
+            Task[] processTasks = null;
+
+            if (process != null && process.getTasksCollection() != null) {
+                processTasks = process.getTasksCollection().toArray(new Task[]{});
+            }
+
+            modelsList.add(new RequestModel(domainRequest, historyRecords, processTasks, baseFolderPath,
+                                            messageSource, validationFocusProperties));
         }
 
         return modelsList.toArray(new RequestModel[]{});
@@ -967,6 +1029,51 @@ public class RequestModel extends OwnedObjectModel {
 
 
 
+    /**
+     * Reads the history records of a set of requests. The history of the archived requests is read from the archive
+     * tables.
+     *
+     * @param requests          the requests whose history must be fetched
+     * @param historyRepository the Spring Data object that links the request history entry data objects with the
+     *                          data source
+     * @param requestsArchive   the access to the history of the archived requests, or <code>null</code> if the
+     *                          requests cannot be archived
+     * @return a map with the history records of each request in execution order, with the request identifier as key
+     */
+    private static Map<Integer, List<RequestHistoryRecord>> fetchHistoryByRequest(final Collection<Request> requests,
+            final RequestHistoryRepository historyRepository, final RequestsArchive requestsArchive) {
+        final Map<Integer, List<RequestHistoryRecord>> historyByRequest = new HashMap<>();
+        final List<Request> activeRequests = new ArrayList<>();
+        final List<Request> archivedRequests = new ArrayList<>();
+
+        for (Request request : requests) {
+            (request.isArchived() ? archivedRequests : activeRequests).add(request);
+        }
+
+        for (int batchStart = 0; batchStart < activeRequests.size(); batchStart += RequestModel.HISTORY_BATCH_SIZE) {
+            final int batchEnd = Math.min(batchStart + RequestModel.HISTORY_BATCH_SIZE, activeRequests.size());
+            final List<RequestHistoryRecord> records
+                    = historyRepository.findByRequestIn(activeRequests.subList(batchStart, batchEnd));
+
+            if (records == null) {
+                continue;
+            }
+
+            for (RequestHistoryRecord record : records) {
+                historyByRequest.computeIfAbsent(record.getRequest().getId(), requestId -> new ArrayList<>())
+                                .add(record);
+            }
+        }
+
+        if (requestsArchive != null && !archivedRequests.isEmpty()) {
+            historyByRequest.putAll(requestsArchive.findArchivedHistory(archivedRequests));
+        }
+
+        return historyByRequest;
+    }
+
+
+
     /**
      * Reads the files in a directory and adds their description to the given list.
      *
@@ -1184,7 +1291,8 @@ public class RequestModel extends OwnedObjectModel {
             return new RequestHistoryRecord[]{};
         }
 
-        final Task[] processTasks = process.getTasksCollection().toArray(new Task[]{});
+        final Task[] processTasks = (this.processTasks != null)
+                ? this.processTasks : process.getTasksCollection().toArray(new Task[]{});
         this.logger.debug("Found {} tasks in process.", processTasks.length);
         final RequestHistoryRecord[] tasksHistory = this.buildTaskHistoryStatus(processTasks.length + 1);
 
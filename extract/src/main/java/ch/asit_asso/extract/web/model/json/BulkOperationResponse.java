@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web.model.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import ch.asit_asso.extract.web.bulk.BulkOperation;
+import com.fasterxml.jackson.annotation.JsonView;
+import org.springframework.context.MessageSource;
+
+
+
+/**
+ * The progress and the result of an action applied to several requests, to be exported as JSON.
+ *
+ * @author Yves Grasset
+ */
+public class BulkOperationResponse {
+
+    /**
+     * A request that the action could not be applied to.
+     */
+    public static class Failure {
+
+        /**
+         * The localized string that explains why the action was not applied.
+         */
+        @JsonView(PublicField.class)
+        private final String message;
+
+        /**
+         * The number that identifies the request.
+         */
+        @JsonView(PublicField.class)
+        private final int requestId;
+
+
+
+        /**
+         * Creates a new failure description.
+         *
+         * @param id            the number that identifies the request
+         * @param reasonMessage the localized string that explains why the action was not applied
+         */
+        public Failure(final int id, final String reasonMessage) {
+            this.requestId = id;
+            this.message = reasonMessage;
+        }
+
+
+
+        /**
+         * Obtains the localized string that explains why the action was not applied.
+         *
+         * @return the message
+         */
+        public final String getMessage() {
+            return this.message;
+        }
+
+
+
+        /**
+         * Obtains the number that identifies the request.
+         *
+         * @return the request identifier
+         */
+        public final int getRequestId() {
+            return this.requestId;
+        }
+
+    }
+
+
+
+    /**
+     * The name of the action applied to the requests.
+     */
+    @JsonView(PublicField.class)
+    private final String action;
+
+    /**
+     * Whether all the requests have been processed.
+     */
+    @JsonView(PublicField.class)
+    private final boolean complete;
+
+    /**
+     * The string that explains why the operation could not be started or found.
+     */
+    @JsonView(PublicField.class)
+    private final String error;
+
+    /**
+     * The requests that the action could not be applied to so far.
+     */
+    @JsonView(PublicField.class)
+    private final List<Failure> failures;
+
+    /**
+     * The string that identifies the operation.
+     */
+    @JsonView(PublicField.class)
+    private final String operationId;
+
+    /**
+     * The number of requests processed so far.
+     */
+    @JsonView(PublicField.class)
+    private final int processed;
+
+    /**
+     * The number of requests that the action has been applied to so far.
+     */
+    @JsonView(PublicField.class)
+    private final int successes;
+
+    /**
+     * The number of requests to apply the action to.
+     */
+    @JsonView(PublicField.class)
+    private final int total;
+
+
+
+    /**
+     * Creates a new instance of the operation state.
+     *
+     * @param operation     the operation to describe
+     * @param messageSource the access to the localized application strings
+     * @param locale        the language to describe the failures in
+     */
+    public BulkOperationResponse(final BulkOperation operation, final MessageSource messageSource,
+            final Locale locale) {
+
+        if (operation == null) {
+            throw new IllegalArgumentException("The operation cannot be null.");
+        }
+
+        if (messageSource == null) {
+            throw new IllegalArgumentException("The message source cannot be null.");
+        }
+
+        this.complete = operation.isComplete();
+        this.operationId = operation.getId();
+        this.action = operation.getAction().name();
+        this.total = operation.getTotalCount();
+        this.failures = new ArrayList<>();
+        int successesCount = 0;
+
+        for (BulkOperation.Result result : operation.getResults()) {
+
+            if (result.isSuccess()) {
+                successesCount++;
+                continue;
+            }
+
+            this.failures.add(new Failure(result.getRequestId(),
+                    messageSource.getMessage(result.getMessageKey(), null, result.getMessageKey(), locale)));
+        }
+
+        this.processed = successesCount + this.failures.size();
+        this.successes = successesCount;
+        this.error = null;
+    }
+
+
+
+    /**
+     * Creates a new instance for an operation that could not be started or found.
+     *
+     * @param errorMessage the string that explains why the operation failed
+     */
+    public BulkOperationResponse(final String errorMessage) {
+        this.complete = false;
+        this.operationId = null;
+        this.action = null;
+        this.total = 0;
+        this.processed = 0;
+        this.successes = 0;
+        this.failures = Collections.emptyList();
+        this.error = errorMessage;
+    }
+
+
+
+    /**
+     * Obtains the name of the action applied to the requests.
+     *
+     * @return the action name, or <code>null</code> if the operation could not be started or found
+     */
+    public final String getAction() {
+        return this.action;
+    }
+
+
+
+    /**
+     * Obtains the string that explains why the operation could not be started or found.
+     *
+     * @return the error message, or <code>null</code> if the operation exists
+     */
+    public final String getError() {
+        return this.error;
+    }
+
+
+
+    /**
+     * Obtains the requests that the action could not be applied to so far.
+     *
+     * @return the list of failures
+     */
+    public final List<Failure> getFailures() {
+        return this.failures;
+    }
+
+
+
+    /**
+     * Obtains the string that identifies the operation.
+     *
+     * @return the operation identifier, or <code>null</code> if the operation could not be started or found
+     */
+    public final String getOperationId() {
+        return this.operationId;
+    }
+
+
+
+    /**
+     * Obtains the number of requests processed so far.
+     *
+     * @return the number of processed requests
+     */
+    public final int getProcessed() {
+        return this.processed;
+    }
+
+
+
+    /**
+     * Obtains the number of requests that the action has been applied to so far.
+     *
+     * @return the number of successes
+     */
+    public final int getSuccesses() {
+        return this.successes;
+    }
+
+
+
+    /**
+     * Obtains the number of requests to apply the action to.
+     *
+     * @return the number of requests
+     */
+    public final int getTotal() {
+        return this.total;
+    }
+
+
+
+    /**
+     * Obtains whether all the requests have been processed.
+     *
+     * @return <code>true</code> if the operation is over
+     */
+    public final boolean isComplete() {
+        return this.complete;
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web.model.json;
+
+import ch.asit_asso.extract.web.uploads.ChunkedUpload;
+import com.fasterxml.jackson.annotation.JsonView;
+
+
+
+/**
+ * The state of a file sent in several chunks to the output folder of an order, to be exported as JSON.
+ *
+ * @author Yves Grasset
+ */
+public class ChunkedUploadResponse {
+
+    /**
+     * The maximum size in bytes of a chunk.
+     */
+    @JsonView(PublicField.class)
+    private final int chunkSize;
+
+    /**
+     * Whether all the bytes of the file have been received.
+     */
+    @JsonView(PublicField.class)
+    private final boolean complete;
+
+    /**
+     * The string that explains why the last operation failed.
+     */
+    @JsonView(PublicField.class)
+    private final String error;
+
+    /**
+     * The position in the file of the next chunk to send.
+     */
+    @JsonView(PublicField.class)
+    private final long offset;
+
+    /**
+     * The string that identifies the upload.
+     */
+    @JsonView(PublicField.class)
+    private final String uploadId;
+
+
+
+    /**
+     * Creates a new instance of the upload state.
+     *
+     * @param upload       the state of the upload
+     * @param maxChunkSize the maximum size in bytes of a chunk
+     * @param errorMessage the string that explains why the last operation failed, or <code>null</code> if it
+     *                     succeeded
+     */
+    public ChunkedUploadResponse(final ChunkedUpload upload, final int maxChunkSize, final String errorMessage) {
+
+        if (upload == null) {
+            throw new IllegalArgumentException("The upload state cannot be null.");
+        }
+
+        this.uploadId = upload.getId();
+        this.offset = upload.getReceivedSize();
+        this.complete = upload.isComplete();
+        this.chunkSize = maxChunkSize;
+        this.error = errorMessage;
+    }
+
+
+
+    /**
+     * Creates a new instance for an upload that could not be found or initialized.
+     *
+     * @param errorMessage the string that explains why the operation failed
+     */
+    public ChunkedUploadResponse(final String errorMessage) {
+        this.uploadId = null;
+        this.offset = 0;
+        this.complete = false;
+        this.chunkSize = 0;
+        this.error = errorMessage;
+    }
+
+
+
+    /**
+     * Obtains the maximum size of a chunk.
+     *
+     * @return the size in bytes
+     */
+    public final int getChunkSize() {
+        return this.chunkSize;
+    }
+
+
+
+    /**
+     * Obtains the string that explains why the last operation failed.
+     *
+     * @return the error message, or <code>null</code> if the operation succeeded
+     */
+    public final String getError() {
+        return this.error;
+    }
+
+
+
+    /**
+     * Obtains the position in the file of the next chunk to send.
+     *
+     * @return the offset in bytes
+     */
+    public final long getOffset() {
+        return this.offset;
+    }
+
+
+
+    /**
+     * Obtains the string that identifies the upload.
+     *
+     * @return the upload identifier, or <code>null</code> if the upload could not be found or initialized
+     */
+    public final String getUploadId() {
+        return this.uploadId;
+    }
+
+
+
+    /**
+     * Obtains whether all the bytes of the file have been received.
+     *
+     * @return <code>true</code> if the file is complete
+     */
+    public final boolean isComplete() {
+        return this.complete;
+    }
+
+}
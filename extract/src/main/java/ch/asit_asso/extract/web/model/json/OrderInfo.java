@@ -102,4 +102,21 @@ public class OrderInfo {
         this.productLabel = product;
     }
 
+
+
+
+    /**
+     * Create a new JSON order information instance.
+     *
+     * @param order      the string that describes the placed order
+     * @param product    the string that describes the ordered data item
+     * @param connector  the name of the connector instance used to import this order, or <code>null</code> if it
+     *                   has been deleted
+     */
+    public OrderInfo(final String order, final String product, final String connector) {
+        this.connectorName = (connector != null) ? connector : this.deletedConnectorText;
+        this.orderLabel = order;
+        this.productLabel = product;
+    }
+
 }
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
+import ch.asit_asso.extract.web.model.RequestListItemModel;
 import ch.asit_asso.extract.web.model.RequestModel;
 import org.springframework.context.MessageSource;
 
@@ -76,6 +77,11 @@ public class RequestJsonModel implements JsonModel {
      */
     private static final String REQUEST_ROW_CLASSES_FORMAT = "request-row %s";
 
+    /**
+     * The string used to generate the identifier of the table row that displays the order.
+     */
+    private static final String REQUEST_ROW_ID_FORMAT = "request-%d";
+
     /**
      * The string identifying that this order is waiting for a validation by an operator.
      */
@@ -124,6 +130,13 @@ public class RequestJsonModel implements JsonModel {
     @JsonView(PublicField.class)
     private String rowClass;
 
+    /**
+     * The string that identifies the table row that will display this order.
+     */
+    @JsonProperty("DT_RowId")
+    @JsonView(PublicField.class)
+    private String rowId;
+
     /**
      * Information about when this order was received.
      */
@@ -175,23 +188,51 @@ public class RequestJsonModel implements JsonModel {
         final String startDateText = messageSource.getMessage(RequestJsonModel.TIME_POINT_STRING_KEY,
                 new Object[]{model.getStartDateSpanToNow(locale)}, locale);
         this.startDateInfo = new DateInfo(startDateText, model.getStartDate());
+        this.setStateAndRow(model.getId(), model.isInError(), model.isInStandby(), model.isFinished(),
+                            model.isRejected());
 
-        if (model.isInError()) {
-            this.state = RequestJsonModel.ERROR_STATE;
+        final String taskDateText = messageSource.getMessage(RequestJsonModel.PERIOD_STRING_KEY,
+                new Object[]{model.getTaskDateSpanToNow(locale)}, locale);
+        this.taskInfo = new TaskInfo(taskDateText, model.getTaskDate(), model.getCurrentStepName(locale));
+    }
 
-        } else if (model.isInStandby()) {
-            this.state = RequestJsonModel.STANDBY_STATE;
 
-        } else if (model.isFinished()) {
-            this.state = (model.isRejected()) ? RequestJsonModel.REJECTED_STATE : RequestJsonModel.FINISHED_STATE;
 
-        } else {
-            this.state = RequestJsonModel.RUNNING_STATE;
+    /**
+     * Creates a new JSON representation of an order displayed in a list.
+     *
+     * @param model         the list model that represents the order
+     * @param messageSource the access to the localized application strings
+     * @param positionIndex the position of the order to model with the default sort
+     * @param locale        the locale to use for message formatting
+     */
+    public RequestJsonModel(final RequestListItemModel model, final MessageSource messageSource,
+            final int positionIndex, final Locale locale) {
+
+        if (model == null) {
+            throw new IllegalArgumentException("The request model cannot be null.");
         }
 
-        this.rowClass = String.format(RequestJsonModel.REQUEST_ROW_CLASSES_FORMAT, this.state);
-        this.rowAttributes = new HashMap<>();
-        this.rowAttributes.put("data-href", String.format(RequestJsonModel.REQUEST_URL_FORMAT, model.getId()));
+        if (messageSource == null) {
+            throw new IllegalArgumentException("The message source cannot be null.");
+        }
+
+        if (locale == null) {
+            throw new IllegalArgumentException("The locale cannot be null.");
+        }
+
+        this.index = positionIndex;
+        this.customerName = model.getCustomerName();
+        this.orderInfo = new OrderInfo(model.getOrderLabel(), model.getProductLabel(), model.getConnectorName());
+        final String processName = (!model.getProcessName().isEmpty()) ? model.getProcessName()
+                : String.format("##%s", messageSource.getMessage(RequestJsonModel.NO_PROCESS_KEY, null, locale));
+        this.processInfo = new ProcessInfo(model.getProcessId(), processName);
+
+        final String startDateText = messageSource.getMessage(RequestJsonModel.TIME_POINT_STRING_KEY,
+                new Object[]{model.getStartDateSpanToNow(locale)}, locale);
+        this.startDateInfo = new DateInfo(startDateText, model.getStartDate());
+        this.setStateAndRow(model.getId(), model.isInError(), model.isInStandby(), model.isFinished(),
+                            model.isRejected());
 
         final String taskDateText = messageSource.getMessage(RequestJsonModel.PERIOD_STRING_KEY,
                 new Object[]{model.getTaskDateSpanToNow(locale)}, locale);
@@ -312,6 +353,52 @@ public class RequestJsonModel implements JsonModel {
 
 
 
+    /**
+     * Obtains the string that identifies the table row that displays an order.
+     *
+     * @param requestId the number that identifies the order
+     * @return the row identifier
+     */
+    public static String getRowId(final int requestId) {
+        return String.format(RequestJsonModel.REQUEST_ROW_ID_FORMAT, requestId);
+    }
+
+
+
+    /**
+     * Generates JSON models for a collection of order list models.
+     *
+     * @param modelsArray   an array that contains the order list models to export to JSON
+     * @param messageSource the access to the localized application strings
+     * @param locale        the locale to use for message formatting
+     * @return an array that contains the JSON models
+     */
+    public static RequestJsonModel[] fromRequestListItemModelsArray(final RequestListItemModel[] modelsArray,
+            final MessageSource messageSource, final Locale locale) {
+
+        if (modelsArray == null) {
+            throw new IllegalArgumentException("The array of request models cannot be null.");
+        }
+
+        if (messageSource == null) {
+            throw new IllegalArgumentException("The message source cannot be null.");
+        }
+
+        if (locale == null) {
+            throw new IllegalArgumentException("The locale cannot be null.");
+        }
+
+        List<RequestJsonModel> jsonModelsList = new ArrayList<>();
+
+        for (int modelIndex = 0; modelIndex < modelsArray.length; modelIndex++) {
+            jsonModelsList.add(new RequestJsonModel(modelsArray[modelIndex], messageSource, modelIndex, locale));
+        }
+
+        return jsonModelsList.toArray(new RequestJsonModel[]{});
+    }
+
+
+
     /**
      * Obtains the name of the process that is bound to a given order.
      *
@@ -330,4 +417,38 @@ public class RequestJsonModel implements JsonModel {
         return String.format("##%s", messageSource.getMessage(RequestJsonModel.NO_PROCESS_KEY, null, locale));
     }
 
+
+
+
+    /**
+     * Defines the status of this order and the attributes of the table row that displays it.
+     *
+     * @param requestId the number that identifies the order
+     * @param inError   whether the order processing is stopped because of an error
+     * @param inStandby whether the order is waiting for a validation by an operator
+     * @param finished  whether the processing of the order is complete
+     * @param rejected  whether an operator refused to process the order
+     */
+    private void setStateAndRow(final int requestId, final boolean inError, final boolean inStandby,
+            final boolean finished, final boolean rejected) {
+
+        if (inError) {
+            this.state = RequestJsonModel.ERROR_STATE;
+
+        } else if (inStandby) {
+            this.state = RequestJsonModel.STANDBY_STATE;
+
+        } else if (finished) {
+            this.state = (rejected) ? RequestJsonModel.REJECTED_STATE : RequestJsonModel.FINISHED_STATE;
+
+        } else {
+            this.state = RequestJsonModel.RUNNING_STATE;
+        }
+
+        this.rowClass = String.format(RequestJsonModel.REQUEST_ROW_CLASSES_FORMAT, this.state);
+        this.rowId = RequestJsonModel.getRowId(requestId);
+        this.rowAttributes = new HashMap<>();
+        this.rowAttributes.put("data-href", String.format(RequestJsonModel.REQUEST_URL_FORMAT, requestId));
+    }
+
 }
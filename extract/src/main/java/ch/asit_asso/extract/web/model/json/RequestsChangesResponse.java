@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web.model.json;
+
+import com.fasterxml.jackson.annotation.JsonView;
+
+
+
+/**
+ * The modifications of a table of orders since the client last read it, to be exported as JSON.
+ *
+ * @author Yves Grasset
+ */
+public class RequestsChangesResponse {
+
+    /**
+     * The rows of the orders that have been added or modified.
+     */
+    @JsonView(PublicField.class)
+    private final JsonModel[] data;
+
+    /**
+     * The message that explain if the data retrieval failed.
+     */
+    @JsonView(PublicField.class)
+    private final String error;
+
+    /**
+     * The identifiers of the rows of all the orders that the table must contain. The rows that are not in this list
+     * must be removed.
+     */
+    @JsonView(PublicField.class)
+    private final String[] rowIds;
+
+    /**
+     * The value to pass to get the next modifications.
+     */
+    @JsonView(PublicField.class)
+    private final long version;
+
+
+
+    /**
+     * Creates a new instance of the table modifications object.
+     *
+     * @param changesVersion the value to pass to get the next modifications
+     * @param items          the rows of the orders that have been added or modified
+     * @param currentRowIds  the identifiers of the rows of all the orders that the table must contain
+     */
+    public RequestsChangesResponse(final long changesVersion, final JsonModel[] items, final String[] currentRowIds) {
+        this.version = changesVersion;
+        this.data = items;
+        this.rowIds = currentRowIds;
+        this.error = null;
+    }
+
+
+
+    /**
+     * Creates a new empty instance with an error message.
+     *
+     * @param errorMessage the string explaining the error that occurred
+     */
+    public RequestsChangesResponse(final String errorMessage) {
+        this.version = 0;
+        this.data = new JsonModel[0];
+        this.rowIds = null;
+        this.error = errorMessage;
+    }
+
+
+
+    /**
+     * Obtains the rows of the orders that have been added or modified.
+     *
+     * @return the rows data
+     */
+    public final JsonModel[] getData() {
+        return this.data;
+    }
+
+
+
+    /**
+     * Obtains the message that explains if the data retrieval failed.
+     *
+     * @return the error message, or <code>null</code> if the data retrieval was successful
+     */
+    public final String getError() {
+        return this.error;
+    }
+
+
+
+    /**
+     * Obtains the identifiers of the rows of all the orders that the table must contain.
+     *
+     * @return the rows identifiers, or <code>null</code> if the data retrieval failed
+     */
+    public final String[] getRowIds() {
+        return this.rowIds;
+    }
+
+
+
+    /**
+     * Obtains the value to pass to get the next modifications.
+     *
+     * @return the version of the table
+     */
+    public final long getVersion() {
+        return this.version;
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web.uploads;
+
+
+
+/**
+ * The state of a file that is sent to the output folder of an order in several chunks.
+ *
+ * @author Yves Grasset
+ */
+public class ChunkedUpload {
+
+    /**
+     * The name of the file once it is complete.
+     */
+    private final String fileName;
+
+    /**
+     * The total size of the file in bytes.
+     */
+    private final long fileSize;
+
+    /**
+     * The string that identifies the upload.
+     */
+    private final String id;
+
+    /**
+     * The number of bytes that have been received and checked so far.
+     */
+    private final long receivedSize;
+
+
+
+    /**
+     * Creates a new instance of the upload state.
+     *
+     * @param uploadId      the string that identifies the upload
+     * @param name          the name of the file once it is complete
+     * @param size          the total size of the file in bytes
+     * @param receivedBytes the number of bytes that have been received and checked so far
+     */
+    public ChunkedUpload(final String uploadId, final String name, final long size, final long receivedBytes) {
+
+        if (uploadId == null) {
+            throw new IllegalArgumentException("The upload identifier cannot be null.");
+        }
+
+        if (name == null) {
+            throw new IllegalArgumentException("The file name cannot be null.");
+        }
+
+        if (size < 0 || receivedBytes < 0 || receivedBytes > size) {
+            throw new IllegalArgumentException("The received size must be between 0 and the file size.");
+        }
+
+        this.id = uploadId;
+        this.fileName = name;
+        this.fileSize = size;
+        this.receivedSize = receivedBytes;
+    }
+
+
+
+    /**
+     * Obtains the name of the file once it is complete.
+     *
+     * @return the file name
+     */
+    public final String getFileName() {
+        return this.fileName;
+    }
+
+
+
+    /**
+     * Obtains the total size of the file.
+     *
+     * @return the size in bytes
+     */
+    public final long getFileSize() {
+        return this.fileSize;
+    }
+
+
+
+    /**
+     * Obtains the string that identifies the upload.
+     *
+     * @return the upload identifier
+     */
+    public final String getId() {
+        return this.id;
+    }
+
+
+
+    /**
+     * Obtains the number of bytes that have been received and checked so far. This is the offset of the next chunk
+     * to send.
+     *
+     * @return the received size in bytes
+     */
+    public final long getReceivedSize() {
+        return this.receivedSize;
+    }
+
+
+
+    /**
+     * Obtains whether all the bytes of the file have been received.
+     *
+     * @return <code>true</code> if the file is complete
+     */
+    public final boolean isComplete() {
+        return this.receivedSize == this.fileSize;
+    }
+
+}
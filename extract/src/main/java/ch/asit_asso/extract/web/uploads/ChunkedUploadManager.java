@@ -0,0 +1,725 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.web.uploads;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import ch.asit_asso.extract.utils.FileSystemUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+
+
+/**
+ * Writes the files sent in several chunks to the output folder of an order. The chunks are appended to a partial
+ * file in a staging folder next to the output folder, so that an interrupted upload can be resumed from the last
+ * chunk received. Once the last chunk is received, the partial file is moved to the output folder by
+ * {@link #complete(File, String)}, which does not copy its content since both folders are on the same file system.
+ * An upload never replaces a file that already exists in the output folder.
+ * <p>
+ * The state of an upload is only kept on the disk, so that it survives a restart of the application.
+ *
+ * @author Yves Grasset
+ */
+@Component
+public class ChunkedUploadManager {
+
+    /**
+     * The state of a chunk sent to the server.
+     */
+    public enum ChunkStatus {
+        /**
+         * The chunk has been written and more chunks are expected.
+         */
+        ACCEPTED,
+        /**
+         * Another chunk of the same upload is being written.
+         */
+        BUSY,
+        /**
+         * The content of the chunk does not match its checksum. It must be sent again.
+         */
+        CHECKSUM_MISMATCH,
+        /**
+         * The file has been moved to the output folder.
+         */
+        COMPLETED,
+        /**
+         * The chunk is empty, larger than the allowed chunk size or goes beyond the end of the file.
+         */
+        INVALID_SIZE,
+        /**
+         * The chunk does not start where the last received one ended.
+         */
+        OFFSET_MISMATCH,
+        /**
+         * The chunk was the last one. The file must now be moved to the output folder.
+         */
+        RECEIVED,
+        /**
+         * No upload with the given identifier is in progress.
+         */
+        UNKNOWN_UPLOAD
+    }
+
+
+
+    /**
+     * The size in bytes of the buffer used to write the chunks.
+     */
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * The extension of the files that hold the information about an upload.
+     */
+    private static final String INFO_FILE_EXTENSION = ".properties";
+
+    /**
+     * The name of the property that holds the name of the uploaded file.
+     */
+    private static final String NAME_PROPERTY = "fileName";
+
+    /**
+     * The extension of the partial files.
+     */
+    private static final String PART_FILE_EXTENSION = ".part";
+
+    /**
+     * The name of the property that holds the size of the uploaded file.
+     */
+    private static final String SIZE_PROPERTY = "fileSize";
+
+    /**
+     * The name of the folder, next to the output folder of an order, that contains the partial files.
+     */
+    static final String STAGING_FOLDER_NAME = ".uploads";
+
+    /**
+     * The pattern that an upload identifier must match.
+     */
+    private static final Pattern UPLOAD_ID_PATTERN = Pattern.compile("^[0-9a-f]{32}$");
+
+    /**
+     * The writer to the application logs.
+     */
+    private final Logger logger = LoggerFactory.getLogger(ChunkedUploadManager.class);
+
+    /**
+     * The maximum size in bytes of a chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * The number of milliseconds after which an upload that received no chunk is discarded.
+     */
+    private final long maxAge;
+
+
+
+    /**
+     * Creates a new instance of the uploads manager.
+     *
+     * @param maxChunkSize    the maximum size in bytes of a chunk
+     * @param maxUploadAge    the number of milliseconds after which an upload that received no chunk is discarded
+     */
+    public ChunkedUploadManager(@Value("${extract.uploads.chunkSize:8388608}") final int maxChunkSize,
+            @Value("${extract.uploads.maxAge:604800000}") final long maxUploadAge) {
+
+        if (maxChunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be greater than 0.");
+        }
+
+        if (maxUploadAge < 1) {
+            throw new IllegalArgumentException("The maximum age of an upload must be greater than 0.");
+        }
+
+        this.chunkSize = maxChunkSize;
+        this.maxAge = maxUploadAge;
+    }
+
+
+
+    /**
+     * Obtains the maximum size of a chunk.
+     *
+     * @return the size in bytes
+     */
+    public final int getChunkSize() {
+        return this.chunkSize;
+    }
+
+
+
+    /**
+     * Begins the upload of a file, or obtains its state if it has already begun. A given file is identified by its
+     * name, its size and a key provided by the client, such as its modification date, so that sending it again
+     * resumes the previous upload.
+     *
+     * @param outputFolder     the output folder of the order to add the file to
+     * @param originalFileName the name of the file on the client
+     * @param fileSize         the size of the file in bytes
+     * @param clientKey        a string that distinguishes the versions of the file on the client, or
+     *                         <code>null</code>
+     * @return the state of the upload
+     * @throws FileAlreadyExistsException if the output folder already contains a file with the same name
+     * @throws IOException                if the upload could not be initialized
+     */
+    public final ChunkedUpload start(final File outputFolder, final String originalFileName, final long fileSize,
+            final String clientKey) throws IOException {
+
+        if (outputFolder == null || !outputFolder.isDirectory()) {
+            throw new IllegalArgumentException("The output folder must be an existing directory.");
+        }
+
+        if (fileSize < 0) {
+            throw new IllegalArgumentException("The file size cannot be negative.");
+        }
+
+        final String fileName = FileSystemUtils.sanitizeFileName(originalFileName);
+        final Path targetPath = this.getTargetPath(outputFolder, fileName);
+
+        if (Files.exists(targetPath)) {
+            this.logger.debug("The output folder already contains a file named \"{}\".", fileName);
+            throw new FileAlreadyExistsException(targetPath.toString());
+        }
+
+        final String uploadId = this.buildUploadId(outputFolder, fileName, fileSize, clientKey);
+        final File stagingFolder = this.getStagingFolder(outputFolder);
+
+        if (FileSystemUtils.createFolder(stagingFolder) == null) {
+            throw new IOException("The staging folder for the uploads could not be created.");
+        }
+
+        this.purgeExpiredUploads(stagingFolder);
+        final ChunkedUpload existingUpload = this.readUpload(stagingFolder, uploadId);
+
+        if (existingUpload != null) {
+            this.logger.debug("Resuming the upload {} of \"{}\" at byte {}.", uploadId, fileName,
+                    existingUpload.getReceivedSize());
+            return existingUpload;
+        }
+
+        if (fileSize == 0) {
+            Files.createFile(targetPath);
+            this.logger.debug("The empty file \"{}\" has been created.", fileName);
+            return new ChunkedUpload(uploadId, fileName, fileSize, fileSize);
+        }
+
+        final Properties uploadInfo = new Properties();
+        uploadInfo.setProperty(ChunkedUploadManager.NAME_PROPERTY, fileName);
+        uploadInfo.setProperty(ChunkedUploadManager.SIZE_PROPERTY, String.valueOf(fileSize));
+        Files.write(this.getPartPath(stagingFolder, uploadId), new byte[0]);
+
+        try (OutputStream infoStream = Files.newOutputStream(this.getInfoPath(stagingFolder, uploadId))) {
+            uploadInfo.store(infoStream, null);
+        }
+
+        this.logger.debug("The upload {} of \"{}\" ({} bytes) has begun.", uploadId, fileName, fileSize);
+
+        return new ChunkedUpload(uploadId, fileName, fileSize, 0);
+    }
+
+
+
+    /**
+     * Appends a chunk to a partial file. If the chunk is the last one, the file must then be moved to the output
+     * folder by calling {@link #complete(File, String)}.
+     *
+     * @param outputFolder the output folder of the order that the file is added to
+     * @param uploadId     the string that identifies the upload
+     * @param offset       the position of the first byte of the chunk in the file
+     * @param length       the number of bytes of the chunk
+     * @param checksum     the CRC32 of the chunk content, as an hexadecimal string
+     * @param content      the stream to read the chunk content from
+     * @return the result of the operation
+     * @throws IOException if the chunk could not be read or written
+     */
+    public final ChunkResult writeChunk(final File outputFolder, final String uploadId, final long offset,
+            final long length, final String checksum, final InputStream content) throws IOException {
+
+        if (outputFolder == null) {
+            throw new IllegalArgumentException("The output folder cannot be null.");
+        }
+
+        if (content == null) {
+            throw new IllegalArgumentException("The chunk content stream cannot be null.");
+        }
+
+        final File stagingFolder = this.getStagingFolder(outputFolder);
+        final ChunkedUpload upload = this.readUpload(stagingFolder, uploadId);
+
+        if (upload == null) {
+            this.logger.debug("The upload {} is unknown.", uploadId);
+            return new ChunkResult(ChunkStatus.UNKNOWN_UPLOAD, null);
+        }
+
+        if (length < 1 || length > this.chunkSize || offset < 0 || offset + length > upload.getFileSize()) {
+            this.logger.debug("The chunk of {} bytes at {} for the upload {} has an invalid size.", length, offset,
+                    uploadId);
+            return new ChunkResult(ChunkStatus.INVALID_SIZE, upload);
+        }
+
+        final Path partPath = this.getPartPath(stagingFolder, uploadId);
+
+        try (FileChannel channel = FileChannel.open(partPath, StandardOpenOption.WRITE);
+             FileLock lock = this.tryLock(channel)) {
+
+            if (lock == null) {
+                this.logger.debug("Another chunk of the upload {} is being written.", uploadId);
+                return new ChunkResult(ChunkStatus.BUSY, upload);
+            }
+
+            final long receivedSize = channel.size();
+
+            if (offset != receivedSize) {
+                this.logger.debug("The chunk for the upload {} starts at {} instead of {}.", uploadId, offset,
+                        receivedSize);
+                return new ChunkResult(ChunkStatus.OFFSET_MISMATCH, this.withReceivedSize(upload, receivedSize));
+            }
+
+            if (!this.appendChunk(channel, offset, length, checksum, content)) {
+                this.logger.debug("The chunk at {} for the upload {} is corrupted.", offset, uploadId);
+                return new ChunkResult(ChunkStatus.CHECKSUM_MISMATCH, this.withReceivedSize(upload, offset));
+            }
+        }
+
+        final ChunkedUpload updatedUpload = this.withReceivedSize(upload, offset + length);
+
+        return new ChunkResult((updatedUpload.isComplete()) ? ChunkStatus.RECEIVED : ChunkStatus.ACCEPTED,
+                updatedUpload);
+    }
+
+
+
+    /**
+     * Moves a file whose chunks have all been received to the output folder and removes the information about its
+     * upload. If the output folder contains a file with the same name in the meantime, the upload is discarded.
+     *
+     * @param outputFolder the output folder of the order that the file is added to
+     * @param uploadId     the string that identifies the upload
+     * @return the result of the operation
+     * @throws FileAlreadyExistsException if the output folder already contains a file with the same name
+     * @throws IOException                if the file could not be moved
+     */
+    public final ChunkResult complete(final File outputFolder, final String uploadId) throws IOException {
+
+        if (outputFolder == null) {
+            throw new IllegalArgumentException("The output folder cannot be null.");
+        }
+
+        final File stagingFolder = this.getStagingFolder(outputFolder);
+        final ChunkedUpload upload = this.readUpload(stagingFolder, uploadId);
+
+        if (upload == null) {
+            this.logger.debug("The upload {} is unknown.", uploadId);
+            return new ChunkResult(ChunkStatus.UNKNOWN_UPLOAD, null);
+        }
+
+        if (!upload.isComplete()) {
+            this.logger.debug("The upload {} has only received {} bytes.", uploadId, upload.getReceivedSize());
+            return new ChunkResult(ChunkStatus.ACCEPTED, upload);
+        }
+
+        final Path partPath = this.getPartPath(stagingFolder, uploadId);
+        final Path targetPath = this.getTargetPath(outputFolder, upload.getFileName());
+
+        if (Files.exists(targetPath)) {
+            this.logger.warn("The upload {} is discarded because the output folder already contains a file named"
+                    + " \"{}\".", uploadId, upload.getFileName());
+            this.discard(stagingFolder, uploadId);
+            throw new FileAlreadyExistsException(targetPath.toString());
+        }
+
+        try {
+            Files.move(partPath, targetPath, StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(partPath, targetPath);
+        }
+
+        this.discard(stagingFolder, uploadId);
+        this.logger.info("The file \"{}\" ({} bytes) has been uploaded to {}.", upload.getFileName(),
+                upload.getFileSize(), outputFolder.getAbsolutePath());
+
+        return new ChunkResult(ChunkStatus.COMPLETED, upload);
+    }
+
+
+
+    /**
+     * Obtains the number of uploads to the output folder of an order that have begun but have not received all
+     * their chunks yet.
+     *
+     * @param outputFolder the output folder of the order
+     * @return the number of unfinished uploads
+     */
+    public final int countPendingUploads(final File outputFolder) {
+
+        if (outputFolder == null) {
+            throw new IllegalArgumentException("The output folder cannot be null.");
+        }
+
+        final File[] partFiles = this.getStagingFolder(outputFolder).listFiles(
+                (folder, name) -> name.endsWith(ChunkedUploadManager.PART_FILE_EXTENSION));
+
+        return (partFiles == null) ? 0 : partFiles.length;
+    }
+
+
+
+    /**
+     * Writes the content of a chunk at the end of a partial file. If the content cannot be entirely read or does not
+     * match its checksum, the partial file is restored to its previous size.
+     *
+     * @param channel  the partial file
+     * @param offset   the position of the first byte of the chunk in the file
+     * @param length   the number of bytes of the chunk
+     * @param checksum the CRC32 of the chunk content, as an hexadecimal string
+     * @param content  the stream to read the chunk content from
+     * @return <code>true</code> if the chunk was written, or <code>false</code> if its content is not valid
+     * @throws IOException if the chunk could not be read or written
+     */
+    private boolean appendChunk(final FileChannel channel, final long offset, final long length,
+            final String checksum, final InputStream content) throws IOException {
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[ChunkedUploadManager.BUFFER_SIZE];
+        long writtenBytes = 0;
+        boolean isValid = false;
+
+        try {
+            channel.position(offset);
+
+            while (writtenBytes < length) {
+                final int readBytes = content.read(buffer, 0, (int) Math.min(buffer.length, length - writtenBytes));
+
+                if (readBytes < 0) {
+                    break;
+                }
+
+                crc.update(buffer, 0, readBytes);
+                final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, readBytes);
+
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+
+                writtenBytes += readBytes;
+            }
+
+            isValid = writtenBytes == length
+                    && String.format("%08x", crc.getValue()).equalsIgnoreCase(String.valueOf(checksum).trim());
+
+            if (isValid) {
+                channel.force(false);
+            }
+
+        } finally {
+
+            if (!isValid) {
+                channel.truncate(offset);
+            }
+        }
+
+        return isValid;
+    }
+
+
+
+    /**
+     * Computes the identifier of an upload.
+     *
+     * @param outputFolder the output folder of the order that the file is added to
+     * @param fileName     the name of the file
+     * @param fileSize     the size of the file in bytes
+     * @param clientKey    a string that distinguishes the versions of the file on the client, or <code>null</code>
+     * @return the upload identifier
+     */
+    private String buildUploadId(final File outputFolder, final String fileName, final long fileSize,
+            final String clientKey) {
+        final String uploadKey = String.join("\n", outputFolder.getAbsolutePath(), fileName,
+                String.valueOf(fileSize), String.valueOf(clientKey));
+
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] hash = digest.digest(uploadKey.getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(Arrays.copyOf(hash, 16));
+
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("The SHA-256 algorithm is not available.", exception);
+        }
+    }
+
+
+
+    /**
+     * Removes the files of an upload from the staging folder, and the staging folder itself if it is then empty.
+     *
+     * @param stagingFolder the folder that contains the partial files
+     * @param uploadId      the string that identifies the upload
+     * @throws IOException if the files of the upload could not be deleted
+     */
+    private void discard(final File stagingFolder, final String uploadId) throws IOException {
+        Files.deleteIfExists(this.getPartPath(stagingFolder, uploadId));
+        Files.deleteIfExists(this.getInfoPath(stagingFolder, uploadId));
+        final String[] remainingFiles = stagingFolder.list();
+
+        if (remainingFiles != null && remainingFiles.length == 0 && !stagingFolder.delete()) {
+            this.logger.debug("The empty staging folder {} could not be deleted.", stagingFolder.getAbsolutePath());
+        }
+    }
+
+
+
+    /**
+     * Obtains the file that holds the information about an upload.
+     *
+     * @param stagingFolder the folder that contains the partial files
+     * @param uploadId      the string that identifies the upload
+     * @return the information file path
+     */
+    private Path getInfoPath(final File stagingFolder, final String uploadId) {
+        return stagingFolder.toPath().resolve(uploadId + ChunkedUploadManager.INFO_FILE_EXTENSION);
+    }
+
+
+
+    /**
+     * Obtains the partial file of an upload.
+     *
+     * @param stagingFolder the folder that contains the partial files
+     * @param uploadId      the string that identifies the upload
+     * @return the partial file path
+     */
+    private Path getPartPath(final File stagingFolder, final String uploadId) {
+        return stagingFolder.toPath().resolve(uploadId + ChunkedUploadManager.PART_FILE_EXTENSION);
+    }
+
+
+
+    /**
+     * Obtains the folder that contains the partial files of an order. It is placed next to the output folder, so
+     * that the partial files are neither listed nor exported with the order result.
+     *
+     * @param outputFolder the output folder of the order
+     * @return the staging folder
+     */
+    private File getStagingFolder(final File outputFolder) {
+        final File requestFolder = outputFolder.getAbsoluteFile().getParentFile();
+
+        return new File((requestFolder != null) ? requestFolder : outputFolder,
+                ChunkedUploadManager.STAGING_FOLDER_NAME);
+    }
+
+
+
+    /**
+     * Obtains the path of an uploaded file in the output folder of an order.
+     *
+     * @param outputFolder the output folder of the order
+     * @param fileName     the sanitized name of the file
+     * @return the path of the file
+     */
+    private Path getTargetPath(final File outputFolder, final String fileName) {
+        final Path outputFolderPath = outputFolder.toPath().toAbsolutePath().normalize();
+        final Path targetPath = outputFolderPath.resolve(fileName).normalize();
+
+        if (!outputFolderPath.equals(targetPath.getParent())) {
+            throw new IllegalArgumentException("The file name must designate a file in the output folder.");
+        }
+
+        return targetPath;
+    }
+
+
+
+    /**
+     * Deletes the uploads that have not received any chunk for a long time.
+     *
+     * @param stagingFolder the folder that contains the partial files
+     * @throws IOException if an expired upload could not be deleted
+     */
+    private void purgeExpiredUploads(final File stagingFolder) throws IOException {
+        final long expiryTime = System.currentTimeMillis() - this.maxAge;
+        final File[] partFiles
+                = stagingFolder.listFiles((folder, name) -> name.endsWith(ChunkedUploadManager.PART_FILE_EXTENSION));
+
+        if (partFiles == null) {
+            return;
+        }
+
+        for (File partFile : partFiles) {
+
+            if (partFile.lastModified() >= expiryTime) {
+                continue;
+            }
+
+            final String partFileName = partFile.getName();
+            final String uploadId = partFileName.substring(0,
+                    partFileName.length() - ChunkedUploadManager.PART_FILE_EXTENSION.length());
+            this.logger.debug("Deleting the expired upload {}.", uploadId);
+            Files.deleteIfExists(this.getInfoPath(stagingFolder, uploadId));
+            Files.deleteIfExists(partFile.toPath());
+        }
+    }
+
+
+
+    /**
+     * Reads the state of an upload from the disk.
+     *
+     * @param stagingFolder the folder that contains the partial files
+     * @param uploadId      the string that identifies the upload
+     * @return the state of the upload, or <code>null</code> if it does not exist
+     * @throws IOException if the information about the upload could not be read
+     */
+    private ChunkedUpload readUpload(final File stagingFolder, final String uploadId) throws IOException {
+
+        if (uploadId == null || !ChunkedUploadManager.UPLOAD_ID_PATTERN.matcher(uploadId).matches()) {
+            return null;
+        }
+
+        final Path infoPath = this.getInfoPath(stagingFolder, uploadId);
+        final Path partPath = this.getPartPath(stagingFolder, uploadId);
+
+        if (!Files.isRegularFile(infoPath) || !Files.isRegularFile(partPath)) {
+            return null;
+        }
+
+        final Properties uploadInfo = new Properties();
+
+        try (Reader infoReader = Files.newBufferedReader(infoPath, StandardCharsets.ISO_8859_1)) {
+            uploadInfo.load(infoReader);
+        }
+
+        final long fileSize = Long.parseLong(uploadInfo.getProperty(ChunkedUploadManager.SIZE_PROPERTY));
+
+        return new ChunkedUpload(uploadId, uploadInfo.getProperty(ChunkedUploadManager.NAME_PROPERTY), fileSize,
+                Math.min(Files.size(partPath), fileSize));
+    }
+
+
+
+    /**
+     * Attempts to lock a partial file, so that two chunks of the same upload are not written at the same time.
+     *
+     * @param channel the partial file
+     * @return the lock, or <code>null</code> if the file is already locked
+     * @throws IOException if the lock could not be requested
+     */
+    private FileLock tryLock(final FileChannel channel) throws IOException {
+
+        try {
+            return channel.tryLock();
+
+        } catch (OverlappingFileLockException exception) {
+            return null;
+        }
+    }
+
+
+
+    /**
+     * Creates a copy of the state of an upload with a different number of received bytes.
+     *
+     * @param upload       the upload
+     * @param receivedSize the number of bytes that have been received
+     * @return the updated state
+     */
+    private ChunkedUpload withReceivedSize(final ChunkedUpload upload, final long receivedSize) {
+        return new ChunkedUpload(upload.getId(), upload.getFileName(), upload.getFileSize(), receivedSize);
+    }
+
+
+
+    /**
+     * The outcome of the reception of a chunk.
+     */
+    public static final class ChunkResult {
+
+        /**
+         * The state of the chunk.
+         */
+        private final ChunkStatus status;
+
+        /**
+         * The state of the upload after the chunk was processed, or <code>null</code> if the upload is unknown.
+         */
+        private final ChunkedUpload upload;
+
+
+
+        /**
+         * Creates a new instance of the chunk outcome.
+         *
+         * @param chunkStatus the state of the chunk
+         * @param uploadState the state of the upload after the chunk was processed, or <code>null</code> if the
+         *                    upload is unknown
+         */
+        ChunkResult(final ChunkStatus chunkStatus, final ChunkedUpload uploadState) {
+            this.status = chunkStatus;
+            this.upload = uploadState;
+        }
+
+
+
+        /**
+         * Obtains the state of the chunk.
+         *
+         * @return the chunk status
+         */
+        public ChunkStatus getStatus() {
+            return this.status;
+        }
+
+
+
+        /**
+         * Obtains the state of the upload after the chunk was processed.
+         *
+         * @return the upload state, or <code>null</code> if the upload is unknown
+         */
+        public ChunkedUpload getUpload() {
+            return this.upload;
+        }
+
+    }
+
+}
@@ -8,12 +8,14 @@ module ch.asit_asso.extract.core {
     requires ch.asit_asso.extract.commonInterface;
 
     requires com.fasterxml.jackson.annotation;
+    requires com.zaxxer.hikari;
     requires com.fasterxml.jackson.core;
     requires com.fasterxml.jackson.databind;
     requires com.google.gson;
     requires jakarta.mail;
     requires jakarta.xml.bind;
     requires java.scripting;
+    requires java.sql;
     requires java.transaction;
     requires java.validation;
     requires nz.net.ultraq.thymeleaf.layoutdialect;
@@ -32,6 +34,7 @@ module ch.asit_asso.extract.core {
     requires spring.core;
     requires spring.data.jpa;
     requires spring.data.commons;
+    requires spring.jdbc;
     requires spring.ldap.core;
     requires spring.security.config;
     requires spring.security.core;
@@ -40,6 +40,54 @@ function escapeStringForHtml(text) {
 
 
 
+/**
+ * Opens the stream of the changes of the requests state pushed by the server.
+ *
+ * @param   {string}      eventsUrl        The address of the events stream
+ * @param   {Function}    onStatusChange   A function to call when the state of a request changed. An object with the
+ *                                         <code>requestId</code>, <code>rowId</code> and <code>status</code> of the
+ *                                         request is passed.
+ * @param   {Function}    [onResync]       A function to call when some changes could not be pushed and all the
+ *                                         displayed data must be reloaded. No parameter will be passed.
+ * @returns {EventSource}                  The events stream, or <code>null</code> if the browser does not support it
+ * @author Yves Grasset
+ */
+function openRequestEventsStream(eventsUrl, onStatusChange, onResync) {
+
+    if (!eventsUrl || typeof window.EventSource === 'undefined') {
+        return null;
+    }
+
+    var eventSource = new EventSource(eventsUrl);
+
+    eventSource.addEventListener('requestStatus', function(event) {
+        var statusInfo;
+
+        try {
+            statusInfo = JSON.parse(event.data);
+
+        } catch (error) {
+            console.warn('Invalid request status event received.', error);
+            return;
+        }
+
+        if (onStatusChange) {
+            onStatusChange(statusInfo);
+        }
+    });
+
+    eventSource.addEventListener('resync', function() {
+
+        if (onResync) {
+            onResync();
+        }
+    });
+
+    return eventSource;
+}
+
+
+
 /**
  * Displays a modal window to show a message to the user.
  * 
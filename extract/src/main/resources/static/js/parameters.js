@@ -93,6 +93,11 @@ function testLdap() {
     $('#parametersForm').submit();
 }
 
+function reloadEmailTemplates() {
+    $('#parametersForm').attr('action', $(this).attr('href'));
+    $('#parametersForm').submit();
+}
+
 $(function() {
     $(".properties-select.select2").select2({
         multiple:true,
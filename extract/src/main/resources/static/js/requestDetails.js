@@ -19,6 +19,13 @@ window.app = {};
 var app = window.app;
 var orderGeometryLayer = null;
 
+/**
+ * The maximum number of consecutive failed attempts to send a chunk before an upload is abandoned.
+ *
+ * @type Number
+ */
+var UPLOAD_CHUNK_MAX_ATTEMPTS = 5;
+
 /**
  * Permanently erases a file from the output folder of a request.
  *
@@ -153,6 +160,99 @@ function loadOrderGeometryMap(orderWktGeometry, geometryArea) {
 }
 
 
+/**
+ * Fetches the perimeter of the current order and displays it on the map.
+ *
+ * @param {String}  perimeterUrl the address of the service that returns the perimeter of an order as WKT
+ * @param {Integer} id           the number that identifies the current order
+ * @param {Float}   geometryArea the surface of the area for this order in square meters
+ */
+function loadOrderGeometryMapFromUrl(perimeterUrl, id, geometryArea) {
+
+    $.ajax({
+        url: perimeterUrl,
+        method: 'GET',
+        dataType: 'text',
+        data: {requestId: id}
+    }).done(function (orderWktGeometry) {
+        loadOrderGeometryMap(orderWktGeometry, geometryArea);
+
+    }).fail(function (jqXHR, textStatus, errorThrown) {
+        console.error("The perimeter of the request could not be fetched.", textStatus, errorThrown);
+        $('#orderAreaSize').text(_getAreaSizeText(geometryArea, 2));
+    });
+}
+
+
+/**
+ * Shows a message inviting the user to reload the page when the server pushes a change of the state of the current
+ * order.
+ *
+ * @param {String}  eventsUrl        the address of the stream of the requests state changes
+ * @param {Integer} id               the number that identifies the current order
+ * @param {String}  messageElementId the identifier of the hidden element that contains the message to show
+ */
+function watchRequestStatus(eventsUrl, id, messageElementId) {
+    var $message = $('#' + messageElementId);
+
+    $message.find('a').on('click', function(event) {
+        event.preventDefault();
+        location.reload();
+    });
+
+    var eventSource = openRequestEventsStream(eventsUrl, function(statusInfo) {
+
+        if (statusInfo.requestId !== id) {
+            return;
+        }
+
+        $message.removeClass('d-none');
+        eventSource.close();
+    });
+}
+
+
+/**
+ * Sends files to the output folder of the current order in chunks, then reloads the page with the outcome. An
+ * interrupted upload is resumed from the last chunk received by the server when the same file is sent again.
+ *
+ * @param {Object}   button the button that triggered the upload, which holds the addresses of the upload services
+ * @param {FileList} files  the files to send
+ */
+async function uploadOutputFiles(button, files) {
+    var $button = $(button);
+    var uploadsUrl = $button.attr('data-uploads-url');
+    var progressElement = $('<span class="upload-progress"></span>');
+    var uploadedFilesNumber = 0;
+    var failedFilesNumber = 0;
+    $button.prop('disabled', true).append(progressElement);
+
+    for (var fileIndex = 0; fileIndex < files.length; fileIndex++) {
+        var file = files[fileIndex];
+
+        try {
+            await _uploadOutputFile(uploadsUrl, file, function(sentBytes) {
+                var percentage = (file.size > 0) ? Math.floor(sentBytes * 100 / file.size) : 100;
+                progressElement.text(` (${fileIndex + 1}/${files.length} - ${percentage} %)`);
+            });
+            uploadedFilesNumber++;
+
+        } catch (error) {
+            console.error(`The file ${file.name} could not be uploaded.`, error);
+            failedFilesNumber++;
+        }
+    }
+
+    var $actionForm = $('#actionForm');
+    $actionForm.append($('<input type="hidden" name="uploadedFilesNumber" />').val(uploadedFilesNumber));
+    $actionForm.append($('<input type="hidden" name="failedFilesNumber" />').val(failedFilesNumber));
+    $('#filesToAdd').val('');
+    $actionForm.attr('action', $button.attr('data-uploads-completed-url'));
+    $actionForm.submit();
+}
+
+
+
 /**
  * Creates a map to display the perimeter of the current order.
  *
@@ -265,6 +365,119 @@ function _initializeFullScreenControl(map) {
 }
 
 
+/**
+ * Computes the CRC32 of a chunk of data, as sent along with each uploaded chunk.
+ *
+ * @param   {Uint8Array} bytes the data
+ * @returns {String}           the checksum as an hexadecimal string of 8 characters
+ */
+function _computeCrc32(bytes) {
+
+    if (!_computeCrc32.table) {
+        _computeCrc32.table = new Uint32Array(256);
+
+        for (var tableIndex = 0; tableIndex < 256; tableIndex++) {
+            var value = tableIndex;
+
+            for (var bitIndex = 0; bitIndex < 8; bitIndex++) {
+                value = (value & 1) ? (0xEDB88320 ^ (value >>> 1)) : (value >>> 1);
+            }
+
+            _computeCrc32.table[tableIndex] = value;
+        }
+    }
+
+    var crc = 0xFFFFFFFF;
+
+    for (var byteIndex = 0; byteIndex < bytes.length; byteIndex++) {
+        crc = _computeCrc32.table[(crc ^ bytes[byteIndex]) & 0xFF] ^ (crc >>> 8);
+    }
+
+    return ((crc ^ 0xFFFFFFFF) >>> 0).toString(16).padStart(8, '0');
+}
+
+
+/**
+ * Sends a file to the output folder of the current order, one chunk after the other.
+ *
+ * @param   {String}   uploadsUrl       the address of the service that begins the uploads
+ * @param   {File}     file             the file to send
+ * @param   {Function} progressCallback the function to call with the number of bytes received by the server
+ * @returns {Promise}                   a promise resolved once the file is complete
+ */
+async function _uploadOutputFile(uploadsUrl, file, progressCallback) {
+    var headers = {
+        'X-CSRF-TOKEN': $('#actionForm input[name="_csrf"]').val()
+    };
+    var currentStep = $('#currentStep').val();
+    var startParameters = new URLSearchParams({
+        fileName: file.name,
+        fileSize: file.size,
+        fileKey: file.lastModified,
+        currentStep: currentStep
+    });
+    var startResponse = await fetch(uploadsUrl, {
+        method: 'POST',
+        headers: headers,
+        body: startParameters,
+        credentials: 'same-origin'
+    });
+    var upload = await startResponse.json();
+
+    if (!startResponse.ok) {
+        throw new Error(upload.error);
+    }
+
+    var failedAttempts = 0;
+    progressCallback(upload.offset);
+
+    while (!upload.complete) {
+        var chunk = file.slice(upload.offset, Math.min(upload.offset + upload.chunkSize, file.size));
+        var chunkBytes = new Uint8Array(await chunk.arrayBuffer());
+        var chunkUrl = `${uploadsUrl}/${upload.uploadId}?offset=${upload.offset}&currentStep=${currentStep}`;
+        var chunkResponse = null;
+
+        try {
+            chunkResponse = await fetch(chunkUrl, {
+                method: 'PUT',
+                headers: Object.assign({
+                    'Content-Type': 'application/octet-stream',
+                    'X-Chunk-Checksum': _computeCrc32(chunkBytes)
+                }, headers),
+                body: chunkBytes,
+                credentials: 'same-origin'
+            });
+
+        } catch (networkError) {
+            console.warn(`The chunk at ${upload.offset} of ${file.name} could not be sent.`, networkError);
+        }
+
+        var chunkState = (chunkResponse) ? await chunkResponse.json().catch(() => null) : null;
+
+        if (chunkResponse && chunkResponse.ok) {
+            upload = chunkState;
+            failedAttempts = 0;
+            progressCallback(upload.offset);
+            continue;
+        }
+
+        if (chunkState && !chunkState.uploadId) {
+            throw new Error(chunkState.error);
+        }
+
+        if (++failedAttempts >= UPLOAD_CHUNK_MAX_ATTEMPTS) {
+            throw new Error(`The upload of ${file.name} failed after ${failedAttempts} attempts.`);
+        }
+
+        if (chunkState) {
+            upload = chunkState;
+        }
+
+        await new Promise((resolve) => setTimeout(resolve, 1000 * Math.pow(2, failedAttempts)));
+    }
+}
+
+
 function _sendTextAsDownload(text, mimeType, fileName) {
     var data = new Blob([text], {
         type: mimeType
@@ -1960,6 +2173,12 @@ $(function () {
     });
 
     $('#filesToAdd').on('change', function () {
+
+        if (window.fetch && $('#file-upload-button').attr('data-uploads-url')) {
+            uploadOutputFiles($('#file-upload-button'), this.files);
+            return;
+        }
+
         $('#file-upload-button').prop('disabled', true);
         $('#actionForm').attr('enctype', 'multipart/form-data');
         $('#actionForm').attr('action', $('#file-upload-button').attr('data-action'));
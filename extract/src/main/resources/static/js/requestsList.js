@@ -18,6 +18,38 @@
 var REQUESTS_LIST_CONNECTOR_STATUS_OK = "OK";
 var REQUESTS_LIST_CONNECTOR_STATUS_ERROR = "ERROR";
 
+/**
+ * The number of seconds after which a table refreshed through its modifications is fully reloaded, so that the texts
+ * describing the time elapsed since each request was received or since its current task started stay up to date.
+ *
+ * @type Integer
+ */
+var REQUESTS_LIST_FULL_RELOAD_INTERVAL = 300;
+
+/**
+ * The number of refresh intervals between two queries for the modifications of a table while the changes are pushed
+ * by the server. The table is still queried from time to time since the changes made from the web interface or by
+ * another instance of the application are not pushed.
+ *
+ * @type Integer
+ */
+var REQUESTS_LIST_PUSHED_REFRESH_FACTOR = 3;
+
+/**
+ * The number of milliseconds to wait after a pushed change before the modifications of a table are queried, so that
+ * a burst of changes only causes one query.
+ *
+ * @type Integer
+ */
+var REQUESTS_LIST_PUSHED_CHANGE_DELAY = 500;
+
+/**
+ * The number of milliseconds between two queries for the progress of an action applied to several requests.
+ *
+ * @type Integer
+ */
+var REQUESTS_LIST_BULK_POLL_INTERVAL = 1000;
+
 var _ajaxErrorNotificationId = null;
 
 function addSortAndSearchInfo(data) {
@@ -31,7 +63,12 @@ function addSortAndSearchInfo(data) {
  * Sets the event handlers to open the details of the request displayed in a table row.
  */
 function defineRowClick() {
-    $('.request-row').on('click', function() {
+    $('.request-row').on('click', function(event) {
+
+        if ($(event.target).hasClass('bulk-select')) {
+            return;
+        }
+
         viewRequestDetails(this);
     });
     $('.request-row a.request-link').each(function() {
@@ -44,6 +81,115 @@ function defineRowClick() {
 
 
 
+/**
+ * Allows applying an action to several requests selected in a table. The table must have the
+ * <code>bulk-selection</code> CSS class so that a check box is displayed in each row. The action is sent to the URL
+ * of the form, then its progress is displayed until all the requests are processed.
+ *
+ * @param {String}    formId        the identifier of the form that contains the action to apply
+ * @param {DataTable} requestsTable the table that displays the requests to select
+ * @param {String}    progressId    the identifier of the HTML element that displays the progress of the action
+ */
+function loadBulkActions(formId, requestsTable, progressId) {
+    var $form = $('#' + formId);
+    var $table = $(requestsTable.table().node());
+    var $applyButton = $form.find('button[type="submit"]');
+    var $selectAll = $table.find('.bulk-select-all');
+
+    var updateSelectionState = function() {
+        var selectionCount = _bulkSelection.size;
+        var countText = LANG_MESSAGES.requestsList.bulkSelection.replace('\{0\}', selectionCount);
+        $form.find('.bulk-selection-count').text((selectionCount > 0) ? countText : '');
+        $applyButton.prop('disabled', selectionCount === 0 || !$form.find('select[name="action"]').val());
+        $selectAll.prop('checked', selectionCount > 0 && selectionCount === requestsTable.rows().count());
+    };
+
+    $table.on('draw.dt', function() {
+        var displayedIds = new Set(requestsTable.rows().ids().toArray().map(_getRequestIdFromRowId));
+        _bulkSelection.forEach(function(requestId) {
+
+            if (!displayedIds.has(requestId)) {
+                _bulkSelection.delete(requestId);
+            }
+        });
+        updateSelectionState();
+    });
+
+    $table.on('change', '.bulk-select', function() {
+        var requestId = _getRequestIdFromRowId($(this).closest('tr').attr('id'));
+
+        if (this.checked) {
+            _bulkSelection.add(requestId);
+
+        } else {
+            _bulkSelection.delete(requestId);
+        }
+
+        updateSelectionState();
+    });
+
+    $selectAll.on('click', function(event) {
+        event.stopPropagation();
+        var isChecked = this.checked;
+        _bulkSelection.clear();
+
+        if (isChecked) {
+            requestsTable.rows().ids().each(function(rowId) {
+                _bulkSelection.add(_getRequestIdFromRowId(rowId));
+            });
+        }
+
+        $table.find('.bulk-select').prop('checked', isChecked);
+        updateSelectionState();
+    });
+
+    $form.find('select[name="action"]').on('change', updateSelectionState);
+
+    $form.on('submit', function(event) {
+        event.preventDefault();
+        var $actionSelect = $form.find('select[name="action"]');
+        var actionLabel = $actionSelect.find('option:selected').text().trim();
+        var requestsIds = Array.from(_bulkSelection);
+
+        if (!$actionSelect.val() || requestsIds.length === 0) {
+            return;
+        }
+
+        var confirmationTexts = LANG_MESSAGES.requestsList.bulkConfirm;
+        var alertButtonsTexts = LANG_MESSAGES.generic.alertButtons;
+        var message = confirmationTexts.message.replace('\{0\}', actionLabel).replace('\{1\}', requestsIds.length);
+
+        showConfirm(confirmationTexts.title, message, function() {
+            $applyButton.prop('disabled', true);
+            var data = $form.serializeArray();
+            requestsIds.forEach(function(requestId) {
+                data.push({ name : 'requestsIds', value : requestId });
+            });
+
+            $.ajax($form.attr('action'), {
+                method : 'POST',
+                data : $.param(data),
+                dataType : 'json'
+            }).done(function(operation) {
+                _bulkSelection.clear();
+                $table.find('.bulk-select').prop('checked', false);
+                updateSelectionState();
+                _watchBulkOperation($form.attr('action') + '/' + operation.operationId, $form.attr('data-details-url'),
+                        $('#' + progressId), operation);
+            }).fail(function(xhr) {
+                var error = (xhr.responseJSON && xhr.responseJSON.error) ? xhr.responseJSON.error
+                                                                           : LANG_MESSAGES.requestsList.bulkFailed;
+                showAlert(confirmationTexts.title, error);
+                updateSelectionState();
+            });
+        }, null, alertButtonsTexts.yes, alertButtonsTexts.no);
+    });
+
+    updateSelectionState();
+}
+
+
+
 /**
  * Starts the display of the connectors state updated at a given interval.
  *
@@ -113,10 +259,16 @@ function loadDatepickers(language) {
  * @param {Boolean} isServerSide    <code>true</code> if the filtering, sorting and paging must be done by the server
  * @param {Integer} pagingSize      the number of items to display in a page. This value is ignored if the
  *                                  <code>withPaging</code> attribute is <code>false</code>
+ * @param {Function} dataFunction   a function that enriches the data object that is passed to the server
+ * @param {String}  changesUrl      the URL to ask for the modifications of the requests data since the last refresh,
+ *                                  or <code>undefined</code> to reload the whole data at each refresh
+ * @param {String}  eventsUrl       the URL of the stream of the requests state changes pushed by the server, or
+ *                                  <code>undefined</code> to only query the modifications at each refresh. This is
+ *                                  ignored if no changes URL is given.
  * @returns {DataTable} the created table object
  */
 function loadRequestsTable(tableId, ajaxUrl, refreshInterval, withPaging, withSearching, isServerSide, pagingSize,
-        dataFunction) {
+        dataFunction, changesUrl, eventsUrl) {
 
     // configure DataTables to suppress default error alerts
     $.fn.dataTable.ext.errMode = 'none';
@@ -154,7 +306,10 @@ function loadRequestsTable(tableId, ajaxUrl, refreshInterval, withPaging, withSe
 
     var requestsTable = $table.DataTable(configuration);
 
-    if (refreshInterval) {
+    if (refreshInterval && changesUrl) {
+        _watchRequestsTableChanges(tableId, requestsTable, changesUrl, refreshInterval, eventsUrl);
+
+    } else if (refreshInterval) {
         setInterval(function() {
             requestsTable.ajax.reload(null, false);
         }, refreshInterval * 1000);
@@ -306,6 +461,13 @@ function viewRequestDetails(row) {
 
 /******************** PRIVATE INTERFACE *******************/
 
+/**
+ * The numbers that identify the requests selected to apply an action to.
+ *
+ * @type Set
+ */
+var _bulkSelection = new Set();
+
 /**
  * The URL to send the requests for connectors state data to.
  *
@@ -417,6 +579,59 @@ function _addSortInfo(data) {
 }
 
 
+/**
+ * Updates the rows of a requests table with the modifications returned by the server. The rows are sorted with the
+ * most recent task first, as they are when the whole table is loaded.
+ *
+ * @param {DataTable} requestsTable the table to update
+ * @param {Object}    changes       the modifications of the requests data since the last refresh
+ * @returns {Boolean} <code>true</code> if the modifications have been applied, or <code>false</code> if the table
+ *                    must be fully reloaded because a request to display is neither in the table nor in the
+ *                    modifications
+ */
+function _applyRequestsTableChanges(requestsTable, changes) {
+    var rowsById = {};
+    var currentRowsCount = 0;
+
+    requestsTable.rows().data().each(function(rowData) {
+        rowsById[rowData.DT_RowId] = rowData;
+        currentRowsCount++;
+    });
+
+    if (changes.data.length === 0 && changes.rowIds.length === currentRowsCount
+            && changes.rowIds.every(function(rowId) { return rowsById[rowId]; })) {
+        return true;
+    }
+
+    changes.data.forEach(function(rowData) {
+        rowsById[rowData.DT_RowId] = rowData;
+    });
+
+    var rows = [];
+
+    for (var idIndex = 0; idIndex < changes.rowIds.length; idIndex++) {
+        var rowData = rowsById[changes.rowIds[idIndex]];
+
+        if (!rowData) {
+            return false;
+        }
+
+        rows.push(rowData);
+    }
+
+    rows.sort(function(first, second) {
+        return second.taskInfo.taskDateInfo.timestamp - first.taskInfo.taskDateInfo.timestamp;
+    });
+    rows.forEach(function(rowData, rowIndex) {
+        rowData.index = rowIndex;
+    });
+    requestsTable.clear().rows.add(rows).draw(false);
+
+    return true;
+}
+
+
+
 /**
  * Adds a drop-down element to the connectors state container for the connectors in a given state.
  *
@@ -467,6 +682,34 @@ function _createConnectorsDropDown(connectorsInfo, state) {
 
 
 
+/**
+ * Obtains the HTML code of the check box that selects a request to apply an action to.
+ *
+ * @param {String} rowId the identifier of the table row that displays the request
+ * @returns {String} the check box HTML code
+ */
+function _getBulkSelectionCheckbox(rowId) {
+    var isChecked = _bulkSelection.has(_getRequestIdFromRowId(rowId));
+    var title = escapeStringForHtml(LANG_MESSAGES.requestsList.bulkSelectRequest);
+
+    return '<input type="checkbox" class="form-check-input bulk-select" title="' + title + '"'
+            + ((isChecked) ? ' checked' : '') + ' />';
+}
+
+
+
+/**
+ * Obtains the number of the request displayed in a table row.
+ *
+ * @param {String} rowId the identifier of the table row
+ * @returns {Integer} the request identifier
+ */
+function _getRequestIdFromRowId(rowId) {
+    return parseInt(String(rowId).replace('request-', ''));
+}
+
+
+
 /**
  * Obtains the URL that shows the details of the request displayed in a given table row.
  *
@@ -494,7 +737,7 @@ function _getRequestsTableColumnsConfiguration() {
         {
             "targets" : 1,
             "data" : "state",
-            "render" : function(data) {
+            "render" : function(data, type, row, meta) {
                 var stateClass;
 
                 switch (data) {
@@ -519,7 +762,13 @@ function _getRequestsTableColumnsConfiguration() {
                         break;
                 }
 
-                return '<i class="fa fa-2x fa-fw ' + stateClass + '"></i>';
+                var stateIcon = '<i class="fa fa-2x fa-fw ' + stateClass + '"></i>';
+
+                if (type !== 'display' || !$(meta.settings.nTable).hasClass('bulk-selection')) {
+                    return stateIcon;
+                }
+
+                return _getBulkSelectionCheckbox(row.DT_RowId) + stateIcon;
             },
             "orderable" : false,
             "width" : "30px"
@@ -717,6 +966,60 @@ function _getTimestampStringSortValue(timestamp) {
 
 
 
+/**
+ * Asks the server for the modifications of the data of a requests table since its last refresh and applies them.
+ *
+ * @param {String}    tableId       the identifier of the HTML element that contains the table
+ * @param {DataTable} requestsTable the table to update
+ * @param {String}    changesUrl    the URL to ask for the modifications of the requests data
+ * @param {Object}    changesState  the version and the entity tag of the data currently displayed in the table
+ */
+function _loadRequestsTableChanges(tableId, requestsTable, changesUrl, changesState) {
+    var headers = {};
+
+    if (changesState.tag) {
+        headers['If-None-Match'] = changesState.tag;
+    }
+
+    $.ajax({
+        url : changesUrl,
+        type : "GET",
+        cache : false,
+        dataType : "json",
+        headers : headers,
+        data : {
+            since : changesState.version
+        },
+        success : function(json, textStatus, xhr) {
+            _clearAjaxErrorNotification();
+
+            if (xhr.status === 304 || !json) {
+                return;
+            }
+
+            if (json.error || !json.rowIds) {
+                console.warn('The modifications of table ' + tableId + ' could not be obtained:', json.error);
+                return;
+            }
+
+            changesState.tag = xhr.getResponseHeader('ETag');
+
+            if (_applyRequestsTableChanges(requestsTable, json)) {
+                changesState.version = json.version;
+
+            } else {
+                requestsTable.ajax.reload(null, false);
+            }
+        },
+        error : function(xhr, error, code) {
+            console.error('AJAX error for table modifications:', changesUrl, error, code);
+            _showAjaxErrorNotification(tableId);
+        }
+    });
+}
+
+
+
 /**
  * Makes the background of a connector in error blink.
  */
@@ -847,6 +1150,119 @@ function _updateConnectorsState(connectorsInfo) {
 
 
 
+/**
+ * Displays the progress of an action applied to several requests until all of them are processed, then the requests
+ * that the action could not be applied to.
+ *
+ * @param {String} operationUrl the URL to ask for the state of the operation
+ * @param {String} detailsUrl   the URL to append a request identifier to in order to view its details
+ * @param {Object} $progress    the HTML element that displays the progress of the operation
+ * @param {Object} operation    the state of the operation returned when it was started
+ */
+function _watchBulkOperation(operationUrl, detailsUrl, $progress, operation) {
+    var $progressBar = $progress.find('.progress-bar');
+    var $failuresList = $progress.find('.bulk-failures');
+    var texts = LANG_MESSAGES.requestsList;
+    $progress.removeClass('d-none');
+
+    var showState = function(state) {
+        var percentage = (state.total > 0) ? Math.round(state.processed * 100 / state.total) : 100;
+        $progressBar.css('width', percentage + '%').attr('aria-valuenow', percentage);
+        $progress.find('.bulk-progress-text').text((state.complete)
+                ? texts.bulkResult.replace('\{0\}', state.successes).replace('\{1\}', state.failures.length)
+                : texts.bulkProgress.replace('\{0\}', state.processed).replace('\{1\}', state.total));
+        $failuresList.empty();
+        state.failures.forEach(function(failure) {
+            var $link = $('<a></a>').attr('href', detailsUrl + failure.requestId).text('#' + failure.requestId);
+            $failuresList.append($('<li></li>').append($link).append(document.createTextNode(' ' + failure.message)));
+        });
+
+        if (!state.complete) {
+            setTimeout(poll, REQUESTS_LIST_BULK_POLL_INTERVAL);
+        }
+    };
+
+    var poll = function() {
+        $.getJSON(operationUrl).done(showState).fail(function(xhr) {
+            var error = (xhr.responseJSON && xhr.responseJSON.error) ? xhr.responseJSON.error : texts.bulkFailed;
+            $progress.find('.bulk-progress-text').text(error);
+        });
+    };
+
+    showState(operation);
+}
+
+
+
+/**
+ * Refreshes a requests table by applying the modifications of its data, as soon as the server pushes a change and at
+ * a given interval. The whole data is reloaded if the version of the displayed data is not known or if it was last
+ * loaded too long ago. If the browser cannot receive the pushed changes, the modifications are queried at each
+ * interval.
+ *
+ * @param {String}    tableId         the identifier of the HTML element that contains the table
+ * @param {DataTable} requestsTable   the table to refresh
+ * @param {String}    changesUrl      the URL to ask for the modifications of the requests data
+ * @param {Integer}   refreshInterval the number of seconds between table data refreshes
+ * @param {String}    eventsUrl       the URL of the stream of the requests state changes, or <code>undefined</code>
+ */
+function _watchRequestsTableChanges(tableId, requestsTable, changesUrl, refreshInterval, eventsUrl) {
+    var changesState = {
+        version : null,
+        tag : null,
+        lastFullReload : Date.now()
+    };
+    var pushedChangeTimeout = null;
+    var refreshesCount = 0;
+
+    $('#' + tableId).on('xhr.dt', function(e, settings, json, xhr) {
+
+        if (!xhr || xhr.status !== 200) {
+            return;
+        }
+
+        var version = parseInt(xhr.getResponseHeader('X-Requests-Version'));
+        changesState.version = (isNaN(version)) ? null : version;
+        changesState.tag = null;
+        changesState.lastFullReload = Date.now();
+    });
+
+    var eventSource = openRequestEventsStream(eventsUrl, function() {
+
+        if (pushedChangeTimeout !== null || changesState.version === null) {
+            return;
+        }
+
+        pushedChangeTimeout = setTimeout(function() {
+            pushedChangeTimeout = null;
+            _loadRequestsTableChanges(tableId, requestsTable, changesUrl, changesState);
+        }, REQUESTS_LIST_PUSHED_CHANGE_DELAY);
+
+    }, function() {
+        requestsTable.ajax.reload(null, false);
+    });
+
+    setInterval(function() {
+
+        if (changesState.version === null
+                || Date.now() - changesState.lastFullReload >= REQUESTS_LIST_FULL_RELOAD_INTERVAL * 1000) {
+            requestsTable.ajax.reload(null, false);
+            return;
+        }
+
+        refreshesCount++;
+
+        if (eventSource && eventSource.readyState === EventSource.OPEN
+                && refreshesCount % REQUESTS_LIST_PUSHED_REFRESH_FACTOR !== 0) {
+            return;
+        }
+
+        _loadRequestsTableChanges(tableId, requestsTable, changesUrl, changesState);
+    }, refreshInterval * 1000);
+}
+
+
+
 /********************* EVENT HANDLERS *********************/
 
 $(function() {
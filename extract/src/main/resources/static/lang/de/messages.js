@@ -34,6 +34,17 @@ var LANG_MESSAGES_DE = {
             "message" : "Sind Sie sicher, dass Sie diese Aufgabe löschen möchten?"
         }
     },
+    "requestsList" : {
+        "bulkConfirm" : {
+            "title" : "Aktion für mehrere Anfragen",
+            "message" : "Sind Sie sicher, dass Sie die Aktion \"{0}\" auf {1} Anfrage(n) anwenden möchten?"
+        },
+        "bulkFailed" : "Die Aktion konnte nicht gestartet werden.",
+        "bulkProgress" : "{0} von {1} Anfrage(n) verarbeitet",
+        "bulkResult" : "{0} Anfrage(n) geändert, {1} Fehler",
+        "bulkSelectRequest" : "Diese Anfrage auswählen",
+        "bulkSelection" : "{0} Anfrage(n) ausgewählt"
+    },
     "requestDetails" : {
         "deleteConfirm" : {
             "title" : "Löschung einer Anfrage",
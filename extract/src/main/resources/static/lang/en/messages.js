@@ -20,6 +20,17 @@ var LANG_MESSAGES_EN = {
             "title" : "Delete a connector",
             "message" : "Are you sure you want to delete the connector \"{0}\" ?"
         }
+    },
+    "requestsList" : {
+        "bulkConfirm" : {
+            "title" : "Action on several requests",
+            "message" : "Are you sure you want to apply the action \"{0}\" to {1} request(s)?"
+        },
+        "bulkFailed" : "The action could not be started.",
+        "bulkProgress" : "{0} of {1} request(s) processed",
+        "bulkResult" : "{0} request(s) modified, {1} failure(s)",
+        "bulkSelectRequest" : "Select this request",
+        "bulkSelection" : "{0} request(s) selected"
     }
 };
 
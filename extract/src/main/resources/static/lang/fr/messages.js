@@ -37,6 +37,17 @@ var LANG_MESSAGES_FR = {
             "message" : "Êtes-vous sûr de vouloir supprimer cette tâche ?"
         }
     },
+    "requestsList" : {
+        "bulkConfirm" : {
+            "title" : "Action sur plusieurs demandes",
+            "message" : "Êtes-vous sûr de vouloir appliquer l'action \"{0}\" à {1} demande(s) ?"
+        },
+        "bulkFailed" : "L'action n'a pas pu être lancée.",
+        "bulkProgress" : "{0} demande(s) traitée(s) sur {1}",
+        "bulkResult" : "{0} demande(s) modifiée(s), {1} échec(s)",
+        "bulkSelectRequest" : "Sélectionner cette demande",
+        "bulkSelection" : "{0} demande(s) sélectionnée(s)"
+    },
     "requestDetails" : {
         "deleteConfirm" : {
             "title" : "Suppression d'une demande",
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.integration.requests;
+
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import ch.asit_asso.extract.domain.Connector;
+import ch.asit_asso.extract.domain.Process;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.domain.User;
+import ch.asit_asso.extract.domain.UserGroup;
+import ch.asit_asso.extract.persistence.ConnectorsRepository;
+import ch.asit_asso.extract.persistence.ProcessesRepository;
+import ch.asit_asso.extract.persistence.RequestsRepository;
+import ch.asit_asso.extract.persistence.UserGroupsRepository;
+import ch.asit_asso.extract.persistence.UsersRepository;
+import ch.asit_asso.extract.persistence.specifications.RequestSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+
+/**
+ * Integration tests of the precomputed list of the users allowed to see each request, which is maintained by the
+ * triggers defined in <code>update_db.sql</code>.
+ *
+ * @author Yves Grasset
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("integration")
+@Transactional
+@DisplayName("Request visibility")
+public class RequestVisibilityIntegrationTest {
+
+    @Autowired
+    private ConnectorsRepository connectorsRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProcessesRepository processesRepository;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private UserGroupsRepository userGroupsRepository;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    private Process process;
+
+    private Request request;
+
+    private User user1;
+
+    private User user2;
+
+    private UserGroup group;
+
+
+
+    @BeforeEach
+    public void setUp() {
+        Connector connector = new Connector();
+        connector.setName("Visibility test connector");
+        connector.setActive(Boolean.TRUE);
+        connector = this.connectorsRepository.save(connector);
+
+        this.process = this.addProcess("Visibility test process");
+        this.user1 = this.addUser("visibility_test_user1");
+        this.user2 = this.addUser("visibility_test_user2");
+
+        this.group = new UserGroup();
+        this.group.setName("visibility_test_group");
+        this.group.setUsersCollection(new ArrayList<>());
+        this.group = this.userGroupsRepository.save(this.group);
+
+        this.request = new Request();
+        this.request.setProductLabel("Visibility test product");
+        this.request.setOrderLabel("VisibilityTestOrder");
+        this.request.setClient("Test Client");
+        this.request.setStatus(Request.Status.ONGOING);
+        this.request.setStartDate(new GregorianCalendar());
+        this.request.setConnector(connector);
+        this.request.setParameters("{}");
+        this.request.setPerimeter("{}");
+        this.request.setUsersCollection(new ArrayList<>());
+        this.request.setUserGroupsCollection(new ArrayList<>());
+        this.request = this.requestsRepository.save(this.request);
+        this.entityManager.flush();
+    }
+
+
+
+    @Test
+    @DisplayName("Grants the access to the users the request is assigned to")
+    public void requestAssignment() {
+        assertTrue(this.getViewersIds().isEmpty());
+
+        this.request.setUsersCollection(new ArrayList<>(List.of(this.user1)));
+        this.requestsRepository.save(this.request);
+        this.entityManager.flush();
+
+        assertEquals(List.of(this.user1.getId()), this.getViewersIds());
+        assertEquals(List.of(this.request.getId()), this.getVisibleRequestsIds(this.user1));
+        assertTrue(this.getVisibleRequestsIds(this.user2).isEmpty());
+        assertTrue(this.requestsRepository.isRequestVisibleTo(this.request.getId(), this.user1.getId()));
+        assertFalse(this.requestsRepository.isRequestVisibleTo(this.request.getId(), this.user2.getId()));
+
+        this.request.setUsersCollection(new ArrayList<>());
+        this.requestsRepository.save(this.request);
+        this.entityManager.flush();
+
+        assertTrue(this.getViewersIds().isEmpty());
+    }
+
+
+
+    @Test
+    @DisplayName("Follows the members of the group the request is assigned to")
+    public void groupMembership() {
+        this.request.setUserGroupsCollection(new ArrayList<>(List.of(this.group)));
+        this.requestsRepository.save(this.request);
+        this.entityManager.flush();
+
+        assertTrue(this.getViewersIds().isEmpty());
+
+        this.group.setUsersCollection(new ArrayList<>(List.of(this.user1, this.user2)));
+        this.userGroupsRepository.save(this.group);
+        this.entityManager.flush();
+
+        assertEquals(List.of(this.user1.getId(), this.user2.getId()), this.getViewersIds());
+
+        this.group.setUsersCollection(new ArrayList<>(List.of(this.user2)));
+        this.userGroupsRepository.save(this.group);
+        this.entityManager.flush();
+
+        assertEquals(List.of(this.user2.getId()), this.getViewersIds());
+        assertTrue(this.getVisibleRequestsIds(this.user1).isEmpty());
+    }
+
+
+
+    @Test
+    @DisplayName("Grants the access to the operators of the process of the request")
+    public void processOperators() {
+        this.process.setUsersCollection(new ArrayList<>(List.of(this.user1)));
+        this.processesRepository.save(this.process);
+        this.request.setProcess(this.process);
+        this.requestsRepository.save(this.request);
+        this.entityManager.flush();
+
+        assertEquals(List.of(this.user1.getId()), this.getViewersIds());
+
+        this.group.setUsersCollection(new ArrayList<>(List.of(this.user2)));
+        this.userGroupsRepository.save(this.group);
+        this.process.setUserGroupsCollection(new ArrayList<>(List.of(this.group)));
+        this.processesRepository.save(this.process);
+        this.entityManager.flush();
+
+        assertEquals(List.of(this.user1.getId(), this.user2.getId()), this.getViewersIds());
+
+        this.process.setUsersCollection(new ArrayList<>());
+        this.processesRepository.save(this.process);
+        this.entityManager.flush();
+
+        assertEquals(List.of(this.user2.getId()), this.getViewersIds());
+
+        this.request.setProcess(this.addProcess("Visibility test process without operators"));
+        this.requestsRepository.save(this.request);
+        this.entityManager.flush();
+
+        assertTrue(this.getViewersIds().isEmpty());
+    }
+
+
+
+    @Test
+    @DisplayName("Follows the changes of the operators of a process that has several of them")
+    public void severalProcessOperators() {
+        User user3 = this.addUser("visibility_test_user3");
+        this.group.setUsersCollection(new ArrayList<>(List.of(user3)));
+        this.userGroupsRepository.save(this.group);
+        this.process.setUsersCollection(new ArrayList<>(List.of(this.user1, this.user2)));
+        this.process.setUserGroupsCollection(new ArrayList<>(List.of(this.group)));
+        this.processesRepository.save(this.process);
+        this.request.setProcess(this.process);
+        this.requestsRepository.save(this.request);
+        this.entityManager.flush();
+
+        assertEquals(List.of(this.user1.getId(), this.user2.getId(), user3.getId()), this.getViewersIds());
+
+        this.process.setUsersCollection(new ArrayList<>(List.of(this.user2)));
+        this.processesRepository.save(this.process);
+        this.entityManager.flush();
+
+        assertEquals(List.of(this.user2.getId(), user3.getId()), this.getViewersIds());
+        assertTrue(this.getVisibleRequestsIds(this.user1).isEmpty());
+
+        this.process.setUsersCollection(new ArrayList<>(List.of(this.user1, this.user2)));
+        this.process.setUserGroupsCollection(new ArrayList<>());
+        this.processesRepository.save(this.process);
+        this.entityManager.flush();
+
+        assertEquals(List.of(this.user1.getId(), this.user2.getId()), this.getViewersIds());
+        assertEquals(List.of(this.request.getId()), this.getVisibleRequestsIds(this.user1));
+        assertTrue(this.getVisibleRequestsIds(user3).isEmpty());
+    }
+
+
+
+    private Process addProcess(String name) {
+        Process newProcess = new Process();
+        newProcess.setName(name);
+        newProcess.setUsersCollection(new ArrayList<>());
+        newProcess.setUserGroupsCollection(new ArrayList<>());
+
+        return this.processesRepository.save(newProcess);
+    }
+
+
+
+    private User addUser(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setName(String.format("Test User %s", login));
+        user.setEmail(String.format("%s@example.com", login));
+        user.setPassword("password");
+        user.setActive(true);
+        user.setProfile(User.Profile.OPERATOR);
+
+        return this.usersRepository.save(user);
+    }
+
+
+
+    private List<Integer> getViewersIds() {
+        List<Integer> viewersIds = new ArrayList<>(this.requestsRepository.findAssociatedUsersIds(
+                this.request.getId()));
+        viewersIds.sort(Integer::compareTo);
+
+        return viewersIds;
+    }
+
+
+
+    private List<Integer> getVisibleRequestsIds(User user) {
+        List<Integer> requestsIds = new ArrayList<>();
+        this.requestsRepository.findAll(RequestSpecification.isVisibleTo(user.getId()))
+                               .forEach((visibleRequest) -> requestsIds.add(visibleRequest.getId()));
+
+        return requestsIds;
+    }
+}
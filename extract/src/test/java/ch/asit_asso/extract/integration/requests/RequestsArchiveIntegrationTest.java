@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2017 arx iT
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.asit_asso.extract.integration.requests;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import ch.asit_asso.extract.archive.RequestsArchive;
+import ch.asit_asso.extract.domain.Connector;
+import ch.asit_asso.extract.domain.Process;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.domain.RequestHistoryRecord;
+import ch.asit_asso.extract.domain.User;
+import ch.asit_asso.extract.persistence.ConnectorsRepository;
+import ch.asit_asso.extract.persistence.ProcessesRepository;
+import ch.asit_asso.extract.persistence.RequestHistoryRepository;
+import ch.asit_asso.extract.persistence.RequestsRepository;
+import ch.asit_asso.extract.persistence.UsersRepository;
+import ch.asit_asso.extract.persistence.specifications.FinishedRequestSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+
+/**
+ * Integration tests of the move of the old finished requests to the archive tables by the function defined in
+ * <code>update_db.sql</code>, and of the reading of the archived requests.
+ *
+ * @author Yves Grasset
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("integration")
+@Transactional
+@DisplayName("Requests archive")
+public class RequestsArchiveIntegrationTest {
+
+    private static final String ORDER_LABEL = "ArchiveTestOrder";
+
+    @Autowired
+    private ConnectorsRepository connectorsRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private RequestHistoryRepository historyRepository;
+
+    @Autowired
+    private ProcessesRepository processesRepository;
+
+    @Autowired
+    private RequestsArchive requestsArchive;
+
+    @Autowired
+    private RequestsRepository requestsRepository;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    private Process process;
+
+    private int requestId;
+
+    private User operator;
+
+    private User assignee;
+
+    private User otherUser;
+
+
+
+    @BeforeEach
+    public void setUp() {
+        Connector connector = new Connector();
+        connector.setName("Archive test connector");
+        connector.setActive(Boolean.TRUE);
+        connector = this.connectorsRepository.save(connector);
+
+        this.operator = this.addUser("archive_test_operator");
+        this.assignee = this.addUser("archive_test_assignee");
+        this.otherUser = this.addUser("archive_test_other");
+
+        this.process = new Process();
+        this.process.setName("Archive test process");
+        this.process.setUsersCollection(new ArrayList<>(List.of(this.operator)));
+        this.process.setUserGroupsCollection(new ArrayList<>());
+        this.process = this.processesRepository.save(this.process);
+
+        Calendar endDate = new GregorianCalendar();
+        endDate.add(Calendar.YEAR, -2);
+        Calendar startDate = (Calendar) endDate.clone();
+        startDate.add(Calendar.DAY_OF_MONTH, -1);
+
+        Request request = new Request();
+        request.setProductLabel("Archive test product");
+        request.setOrderLabel(RequestsArchiveIntegrationTest.ORDER_LABEL);
+        request.setClient("Test Client");
+        request.setStatus(Request.Status.FINISHED);
+        request.setStartDate(startDate);
+        request.setEndDate(endDate);
+        request.setTasknum(3);
+        request.setConnector(connector);
+        request.setProcess(this.process);
+        request.setParameters("{}");
+        request.setPerimeter("{}");
+        request.setUsersCollection(new ArrayList<>(List.of(this.assignee)));
+        request.setUserGroupsCollection(new ArrayList<>());
+        request = this.requestsRepository.save(request);
+        this.requestId = request.getId();
+
+        this.addHistoryRecord(request, 1, "Extraction", endDate);
+        this.addHistoryRecord(request, 2, "Export", endDate);
+        this.entityManager.flush();
+    }
+
+
+
+    @Test
+    @DisplayName("Moves an old finished request to the archive and reads it back")
+    public void archiveAndReadBack() {
+        Calendar endDateLimit = new GregorianCalendar();
+        endDateLimit.add(Calendar.YEAR, -1);
+
+        int archivedCount = this.requestsRepository.archiveFinishedRequests(endDateLimit, 1000);
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        assertTrue(archivedCount >= 1);
+        assertTrue(this.requestsRepository.findById(this.requestId).isEmpty());
+
+        Request archivedRequest = this.requestsArchive.findArchivedRequest(this.requestId);
+
+        assertNotNull(archivedRequest);
+        assertTrue(archivedRequest.isArchived());
+        assertEquals(RequestsArchiveIntegrationTest.ORDER_LABEL, archivedRequest.getOrderLabel());
+        assertEquals(Request.Status.FINISHED, archivedRequest.getStatus());
+        assertEquals(this.process.getId(), archivedRequest.getProcess().getId());
+        assertTrue(archivedRequest.getDistinctOperators().isEmpty());
+
+        List<RequestHistoryRecord> history = this.requestsArchive.findArchivedHistory(archivedRequest);
+
+        assertEquals(2, history.size());
+        assertEquals("Extraction", history.get(0).getTaskLabel());
+        assertEquals("Export", history.get(1).getTaskLabel());
+        assertEquals(this.operator.getId(), history.get(0).getUser().getId());
+        assertSame(archivedRequest, history.get(0).getRequest());
+
+        assertTrue(this.requestsArchive.isVisibleTo(this.requestId, this.operator.getId()));
+        assertTrue(this.requestsArchive.isVisibleTo(this.requestId, this.assignee.getId()));
+        assertFalse(this.requestsArchive.isVisibleTo(this.requestId, this.otherUser.getId()));
+
+        Page<Request> page = this.requestsArchive.findFinishedRequests(
+                FinishedRequestSpecification.getFilterSpecification(RequestsArchiveIntegrationTest.ORDER_LABEL, null,
+                        null, null, null).and(FinishedRequestSpecification.isVisibleTo(this.assignee.getId())),
+                PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(this.requestId, page.getContent().get(0).getId());
+        assertTrue(page.getContent().get(0).isArchived());
+    }
+
+
+
+    @Test
+    @DisplayName("Leaves the recently finished requests in the active tables")
+    public void keepsRecentRequests() {
+        Calendar endDateLimit = new GregorianCalendar();
+        endDateLimit.add(Calendar.YEAR, -3);
+
+        this.requestsRepository.archiveFinishedRequests(endDateLimit, 1000);
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        assertTrue(this.requestsRepository.findById(this.requestId).isPresent());
+        assertNull(this.requestsArchive.findArchivedRequest(this.requestId));
+    }
+
+
+
+    private void addHistoryRecord(Request request, int step, String taskLabel, Calendar date) {
+        RequestHistoryRecord record = new RequestHistoryRecord();
+        record.setRequest(request);
+        record.setStep(step);
+        record.setProcessStep(step);
+        record.setTaskLabel(taskLabel);
+        record.setStatus(RequestHistoryRecord.Status.FINISHED);
+        record.setStartDate(date);
+        record.setEndDate(date);
+        record.setUser(this.operator);
+        this.historyRepository.save(record);
+    }
+
+
+
+    private User addUser(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setName(String.format("Test User %s", login));
+        user.setEmail(String.format("%s@example.com", login));
+        user.setPassword("password");
+        user.setActive(true);
+        user.setProfile(User.Profile.OPERATOR);
+
+        return this.usersRepository.save(user);
+    }
+}
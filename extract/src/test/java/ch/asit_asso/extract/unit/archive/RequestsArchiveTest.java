@@ -0,0 +1,262 @@
+package ch.asit_asso.extract.unit.archive;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import ch.asit_asso.extract.archive.ArchiveStatistics;
+import ch.asit_asso.extract.archive.RequestsArchive;
+import ch.asit_asso.extract.domain.ArchivedRequest;
+import ch.asit_asso.extract.domain.ArchivedRequestHistoryRecord;
+import ch.asit_asso.extract.domain.FinishedRequest;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.domain.RequestHistoryRecord;
+import ch.asit_asso.extract.persistence.ArchivedRequestHistoryRepository;
+import ch.asit_asso.extract.persistence.ArchivedRequestsRepository;
+import ch.asit_asso.extract.persistence.FinishedRequestsRepository;
+import ch.asit_asso.extract.persistence.RequestsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("RequestsArchive")
+class RequestsArchiveTest {
+
+    private RequestsRepository requestsRepository;
+
+    private ArchivedRequestsRepository archivedRequestsRepository;
+
+    private ArchivedRequestHistoryRepository archivedHistoryRepository;
+
+    private FinishedRequestsRepository finishedRequestsRepository;
+
+    private PlatformTransactionManager transactionManager;
+
+    private RequestsArchive archive;
+
+
+
+    @BeforeEach
+    void setUp() {
+        this.requestsRepository = Mockito.mock(RequestsRepository.class);
+        this.archivedRequestsRepository = Mockito.mock(ArchivedRequestsRepository.class);
+        this.archivedHistoryRepository = Mockito.mock(ArchivedRequestHistoryRepository.class);
+        this.finishedRequestsRepository = Mockito.mock(FinishedRequestsRepository.class);
+        this.transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        this.archive = new RequestsArchive(this.requestsRepository, this.archivedRequestsRepository,
+                this.archivedHistoryRepository, this.finishedRequestsRepository, this.transactionManager, 30, 2);
+    }
+
+
+
+    @Test
+    @DisplayName("Returns the active and the archived requests in the order of the page")
+    void mergesActiveAndArchivedRequests() {
+        Pageable paging = PageRequest.of(0, 3);
+        Page<FinishedRequest> entries = new PageImpl<>(List.of(new FinishedRequest(1, false),
+                new FinishedRequest(2, true), new FinishedRequest(3, false)), paging, 10);
+        when(this.finishedRequestsRepository.findAll(any(), eq(paging))).thenReturn(entries);
+        when(this.requestsRepository.findAllById(List.of(1, 3)))
+                .thenReturn(List.of(new Request(3), new Request(1)));
+        when(this.archivedRequestsRepository.findAllById(List.of(2)))
+                .thenReturn(List.of(this.createArchivedRequest(2)));
+
+        Page<Request> page = this.archive.findFinishedRequests(null, paging);
+
+        assertEquals(List.of(1, 2, 3), this.getIds(page));
+        assertEquals(10, page.getTotalElements());
+        assertFalse(page.getContent().get(0).isArchived());
+        assertTrue(page.getContent().get(1).isArchived());
+    }
+
+
+
+    @Test
+    @DisplayName("Looks in the archive for the requests archived since the page was read")
+    void fetchesRequestsArchivedMeanwhile() {
+        Pageable paging = PageRequest.of(0, 2);
+        Page<FinishedRequest> entries = new PageImpl<>(List.of(new FinishedRequest(1, false),
+                new FinishedRequest(2, false)), paging, 2);
+        when(this.finishedRequestsRepository.findAll(any(), eq(paging))).thenReturn(entries);
+        when(this.requestsRepository.findAllById(List.of(1, 2))).thenReturn(List.of(new Request(2)));
+        when(this.archivedRequestsRepository.findAllById(List.of(1)))
+                .thenReturn(List.of(this.createArchivedRequest(1)));
+
+        Page<Request> page = this.archive.findFinishedRequests(null, paging);
+
+        assertEquals(List.of(1, 2), this.getIds(page));
+    }
+
+
+
+    @Test
+    @DisplayName("Moves the requests in batches until a batch is not full")
+    void archivesRequestsInBatches() {
+        when(this.requestsRepository.archiveFinishedRequests(any(), eq(2))).thenReturn(2, 2, 1);
+
+        this.archive.archiveFinishedRequests();
+
+        verify(this.requestsRepository, times(3)).archiveFinishedRequests(any(), eq(2));
+        verify(this.transactionManager, times(3)).commit(any());
+        ArchiveStatistics statistics = this.archive.getStatistics();
+        assertNotNull(statistics.getLastRunDate());
+        assertEquals(5, statistics.getLastRunArchivedCount());
+    }
+
+
+
+    @Test
+    @DisplayName("Does not archive anything if the maximum age is zero")
+    void doesNothingWhenDisabled() {
+        RequestsArchive disabledArchive = new RequestsArchive(this.requestsRepository,
+                this.archivedRequestsRepository, this.archivedHistoryRepository, this.finishedRequestsRepository,
+                this.transactionManager, 0, 2);
+
+        disabledArchive.archiveFinishedRequests();
+
+        verify(this.requestsRepository, never()).archiveFinishedRequests(any(), anyInt());
+        assertFalse(disabledArchive.getStatistics().isArchivingEnabled());
+        assertNull(disabledArchive.getStatistics().getLastRunDate());
+    }
+
+
+
+    @Test
+    @DisplayName("Stops the run when a batch fails")
+    void stopsOnDatabaseError() {
+        when(this.requestsRepository.archiveFinishedRequests(any(), eq(2))).thenReturn(2)
+                .thenThrow(new DataAccessResourceFailureException("Failure"));
+
+        this.archive.archiveFinishedRequests();
+
+        verify(this.requestsRepository, times(2)).archiveFinishedRequests(any(), eq(2));
+        verify(this.transactionManager, times(1)).rollback(any());
+        assertEquals(2, this.archive.getStatistics().getLastRunArchivedCount());
+    }
+
+
+
+    @Test
+    @DisplayName("Reports the size of the active and the archive tables")
+    void buildsStatistics() {
+        when(this.requestsRepository.count()).thenReturn(12L);
+        when(this.archivedRequestsRepository.count()).thenReturn(340L);
+        when(this.requestsRepository.getActiveTablesSize()).thenReturn(2048L);
+        when(this.requestsRepository.getArchiveTablesSize()).thenReturn(65536L);
+
+        ArchiveStatistics statistics = this.archive.getStatistics();
+
+        assertEquals(12, statistics.getActiveRequestsCount());
+        assertEquals(340, statistics.getArchivedRequestsCount());
+        assertEquals(2048, statistics.getActiveTablesSize());
+        assertEquals(65536, statistics.getArchiveTablesSize());
+        assertEquals(30, statistics.getMaximumAge());
+        assertTrue(statistics.isArchivingEnabled());
+        assertEquals(352, this.archive.countRequests());
+
+        when(this.requestsRepository.getArchiveTablesSize())
+                .thenThrow(new DataAccessResourceFailureException("Missing table"));
+
+        assertNull(this.archive.getStatistics());
+    }
+
+
+
+    @Test
+    @DisplayName("Returns detached copies of an archived request and of its history")
+    void readsArchivedRequest() {
+        ArchivedRequest archivedRequest = this.createArchivedRequest(7);
+        ReflectionTestUtils.setField(archivedRequest, "orderLabel", "Order 7");
+        ReflectionTestUtils.setField(archivedRequest, "status", Request.Status.FINISHED);
+        when(this.archivedRequestsRepository.findById(7)).thenReturn(Optional.of(archivedRequest));
+        when(this.archivedHistoryRepository.findByRequestIdIn(anyCollection()))
+                .thenReturn(List.of(this.createArchivedHistoryRecord(70, 7, 1),
+                                    this.createArchivedHistoryRecord(71, 7, 2)));
+
+        Request request = this.archive.findArchivedRequest(7);
+
+        assertNotNull(request);
+        assertTrue(request.isArchived());
+        assertEquals("Order 7", request.getOrderLabel());
+        assertEquals(Request.Status.FINISHED, request.getStatus());
+        assertTrue(request.getDistinctOperators().isEmpty());
+
+        List<RequestHistoryRecord> history = this.archive.findArchivedHistory(request);
+
+        assertEquals(List.of(1, 2), history.stream().map(RequestHistoryRecord::getStep).collect(Collectors.toList()));
+        assertSame(request, history.get(0).getRequest());
+        assertNull(this.archive.findArchivedRequest(8));
+        assertThrows(IllegalArgumentException.class, () -> this.archive.findArchivedHistory(new Request(7)));
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestsArchive(null, this.archivedRequestsRepository,
+                this.archivedHistoryRepository, this.finishedRequestsRepository, this.transactionManager, 30, 2));
+        assertThrows(IllegalArgumentException.class, () -> new RequestsArchive(this.requestsRepository, null,
+                this.archivedHistoryRepository, this.finishedRequestsRepository, this.transactionManager, 30, 2));
+        assertThrows(IllegalArgumentException.class, () -> new RequestsArchive(this.requestsRepository,
+                this.archivedRequestsRepository, null, this.finishedRequestsRepository, this.transactionManager, 30,
+                2));
+        assertThrows(IllegalArgumentException.class, () -> new RequestsArchive(this.requestsRepository,
+                this.archivedRequestsRepository, this.archivedHistoryRepository, null, this.transactionManager, 30,
+                2));
+        assertThrows(IllegalArgumentException.class, () -> new RequestsArchive(this.requestsRepository,
+                this.archivedRequestsRepository, this.archivedHistoryRepository, this.finishedRequestsRepository,
+                null, 30, 2));
+        assertThrows(IllegalArgumentException.class, () -> new RequestsArchive(this.requestsRepository,
+                this.archivedRequestsRepository, this.archivedHistoryRepository, this.finishedRequestsRepository,
+                this.transactionManager, -1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new RequestsArchive(this.requestsRepository,
+                this.archivedRequestsRepository, this.archivedHistoryRepository, this.finishedRequestsRepository,
+                this.transactionManager, 30, 0));
+        assertThrows(IllegalArgumentException.class, () -> this.archive.findFinishedRequests(null, null));
+    }
+
+
+
+    private ArchivedRequest createArchivedRequest(int id) {
+        ArchivedRequest archivedRequest = BeanUtils.instantiateClass(ArchivedRequest.class);
+        ReflectionTestUtils.setField(archivedRequest, "id", id);
+
+        return archivedRequest;
+    }
+
+
+
+    private ArchivedRequestHistoryRecord createArchivedHistoryRecord(int id, int requestId, int step) {
+        ArchivedRequestHistoryRecord record = BeanUtils.instantiateClass(ArchivedRequestHistoryRecord.class);
+        ReflectionTestUtils.setField(record, "id", id);
+        ReflectionTestUtils.setField(record, "requestId", requestId);
+        ReflectionTestUtils.setField(record, "step", step);
+
+        return record;
+    }
+
+
+
+    private List<Integer> getIds(Page<Request> page) {
+        return page.getContent().stream().map(Request::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,74 @@
+package ch.asit_asso.extract.unit.batch;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import ch.asit_asso.extract.batch.reader.StandbyReminderDueReader;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.persistence.RequestsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StandbyReminderDueReader")
+class StandbyReminderDueReaderTest {
+
+    @Mock
+    private RequestsRepository requestsRepository;
+
+
+
+    @Test
+    @DisplayName("Only queries the standby requests whose last reminder is older than the interval")
+    void queriesDueRequests() {
+        Request firstRequest = new Request(1);
+        Request secondRequest = new Request(2);
+        when(requestsRepository.findByStatusAndReminderDue(eq(Request.Status.STANDBY), any(Calendar.class)))
+                .thenReturn(List.of(firstRequest, secondRequest));
+        Calendar before = new GregorianCalendar();
+        before.add(Calendar.DAY_OF_MONTH, -3);
+
+        StandbyReminderDueReader reader = new StandbyReminderDueReader(3, requestsRepository);
+
+        ArgumentCaptor<Calendar> limitCaptor = ArgumentCaptor.forClass(Calendar.class);
+        verify(requestsRepository).findByStatusAndReminderDue(eq(Request.Status.STANDBY), limitCaptor.capture());
+        Calendar after = new GregorianCalendar();
+        after.add(Calendar.DAY_OF_MONTH, -3);
+        assertFalse(limitCaptor.getValue().before(before));
+        assertFalse(limitCaptor.getValue().after(after));
+
+        assertSame(firstRequest, reader.read());
+        assertSame(secondRequest, reader.read());
+        assertNull(reader.read());
+    }
+
+
+
+    @Test
+    @DisplayName("Does not query the data source when the reminders are turned off")
+    void doesNothingWhenRemindersDisabled() {
+        StandbyReminderDueReader reader = new StandbyReminderDueReader(0, requestsRepository);
+
+        assertNull(reader.read());
+        verify(requestsRepository, never()).findByStatusAndReminderDue(any(), any());
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects a negative interval")
+    void rejectsNegativeInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new StandbyReminderDueReader(-1, requestsRepository));
+    }
+}
@@ -0,0 +1,183 @@
+package ch.asit_asso.extract.unit.configuration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import ch.asit_asso.extract.configuration.CacheConfiguration;
+import ch.asit_asso.extract.configuration.ExpiringCache;
+import ch.asit_asso.extract.domain.User;
+import ch.asit_asso.extract.persistence.UsersRepository;
+import ch.asit_asso.extract.services.AppInitializationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ExpiringCache")
+class ExpiringCacheTest {
+
+    @Test
+    @DisplayName("Discards an entry once its time to live has elapsed")
+    void discardsExpiredEntries() {
+        AtomicLong now = new AtomicLong(1000);
+        ExpiringCache cache = new ExpiringCache("test", 100, 10, now::get);
+
+        cache.put("key", "value");
+        now.addAndGet(99);
+        assertEquals("value", cache.get("key", String.class));
+
+        now.addAndGet(1);
+        assertNull(cache.get("key"));
+    }
+
+
+
+    @Test
+    @DisplayName("Removes the least recently used entry when the maximum size is reached")
+    void boundsTheNumberOfEntries() {
+        AtomicLong now = new AtomicLong(1000);
+        ExpiringCache cache = new ExpiringCache("test", 100, 2, now::get);
+
+        cache.put("first", 1);
+        now.addAndGet(10);
+        cache.put("second", 2);
+        cache.put("third", 3);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("first"));
+        assertEquals(2, cache.get("second", Integer.class));
+        assertEquals(3, cache.get("third", Integer.class));
+    }
+
+
+
+    @Test
+    @DisplayName("Keeps an entry that was read recently when the maximum size is reached")
+    void keepsRecentlyReadEntries() {
+        ExpiringCache cache = new ExpiringCache("test", 60000, 2);
+
+        cache.put("first", 1);
+        cache.put("second", 2);
+        assertEquals(1, cache.get("first", Integer.class));
+        cache.put("third", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("first", Integer.class));
+        assertNull(cache.get("second"));
+        assertEquals(3, cache.get("third", Integer.class));
+    }
+
+
+
+    @Test
+    @DisplayName("Loads a missing value once and keeps null values")
+    void loadsMissingValues() {
+        ExpiringCache cache = new ExpiringCache("test", 60000, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertNull(cache.get("key", () -> {
+            calls.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get("key", () -> {
+            calls.incrementAndGet();
+            return "other";
+        }));
+        assertEquals(1, calls.get());
+    }
+
+
+
+    @Test
+    @DisplayName("Wraps the errors thrown when a value is loaded")
+    void wrapsLoaderErrors() {
+        ExpiringCache cache = new ExpiringCache("test", 60000, 10);
+
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("key", () -> {
+            throw new IllegalStateException("Failure");
+        }));
+        assertNull(cache.get("key"));
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringCache(null, 100, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringCache("test", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringCache("test", 100, 0));
+    }
+
+
+
+    @Test
+    @DisplayName("Caches the setup state until the users are modified")
+    void cachesSetupStateUntilUsersChange() {
+
+        try (AnnotationConfigApplicationContext context
+                     = new AnnotationConfigApplicationContext(TestConfiguration.class)) {
+            UsersRepository repository = context.getBean(TestConfiguration.class).mock;
+            UsersRepository proxy = context.getBean(UsersRepository.class);
+            AppInitializationService service = context.getBean(AppInitializationService.class);
+            when(repository.existsByProfile(User.Profile.ADMIN)).thenReturn(false, true);
+
+            assertFalse(service.isConfigured());
+            assertFalse(service.isConfigured());
+            verify(repository, times(1)).existsByProfile(User.Profile.ADMIN);
+
+            proxy.save(new User());
+
+            assertTrue(service.isConfigured());
+            verify(repository, times(2)).existsByProfile(User.Profile.ADMIN);
+        }
+    }
+
+
+
+    @Test
+    @DisplayName("Caches the system user")
+    void cachesSystemUser() {
+
+        try (AnnotationConfigApplicationContext context
+                     = new AnnotationConfigApplicationContext(TestConfiguration.class)) {
+            UsersRepository repository = context.getBean(TestConfiguration.class).mock;
+            UsersRepository proxy = context.getBean(UsersRepository.class);
+            User systemUser = new User(1);
+            when(repository.getSystemUser()).thenReturn(systemUser);
+
+            assertSame(systemUser, proxy.getSystemUser());
+            assertSame(systemUser, proxy.getSystemUser());
+            verify(repository, times(1)).getSystemUser();
+            assertNotNull(context.getBean(CacheManager.class).getCache(CacheConfiguration.SYSTEM_USER_CACHE));
+        }
+    }
+
+
+
+    @Configuration
+    @Import(CacheConfiguration.class)
+    static class TestConfiguration {
+
+        final UsersRepository mock = Mockito.mock(UsersRepository.class);
+
+        @Bean
+        public UsersRepository usersRepository() {
+            return this.mock;
+        }
+
+        @Bean
+        public AppInitializationService appInitializationService() {
+            return new AppInitializationService(this.usersRepository());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ch.asit_asso.extract.unit.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import ch.asit_asso.extract.authentication.ApplicationUser;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.domain.SystemParameter;
+import ch.asit_asso.extract.domain.User;
+import ch.asit_asso.extract.persistence.RequestsRepository;
+import ch.asit_asso.extract.persistence.SystemParametersCache;
+import ch.asit_asso.extract.persistence.SystemParametersRepository;
+import ch.asit_asso.extract.web.controllers.RequestsController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("RequestsController output file download")
+class RequestsControllerOutputFileTest {
+
+    private static final String FILE_CONTENT = "0123456789abcdefghij";
+
+    private static final String FILE_URL = "/requests/1/getFile";
+
+    @TempDir
+    Path basePath;
+
+    private MockMvc mockMvc;
+
+
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(this.basePath.resolve("1/output"));
+        Files.writeString(this.basePath.resolve("1/output/result.txt"), FILE_CONTENT, StandardCharsets.UTF_8);
+
+        Request request = new Request(1);
+        request.setFolderOut("1/output");
+        RequestsRepository requestsRepository = Mockito.mock(RequestsRepository.class);
+        when(requestsRepository.findById(1)).thenReturn(Optional.of(request));
+
+        SystemParametersRepository parametersRepository = Mockito.mock(SystemParametersRepository.class);
+        when(parametersRepository.findAll()).thenReturn(List.of(
+                new SystemParameter(SystemParametersRepository.BASE_PATH_KEY, this.basePath.toString())));
+
+        RequestsController controller = new RequestsController();
+        ReflectionTestUtils.setField(controller, "requestsRepository", requestsRepository);
+        ReflectionTestUtils.setField(controller, "parametersCache",
+                new SystemParametersCache(parametersRepository, 60000));
+        this.mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        User admin = new User(1);
+        admin.setLogin("admin");
+        admin.setProfile(User.Profile.ADMIN);
+        admin.setActive(true);
+        ApplicationUser principal = new ApplicationUser(admin);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+
+
+    @Test
+    @DisplayName("Serves the requested range if the If-Range validator matches")
+    void servesRangeWhenValidatorMatches() throws Exception {
+        String eTag = this.mockMvc.perform(get(FILE_URL).param("file", "result.txt"))
+                                  .andExpect(status().isOk())
+                                  .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc.perform(get(FILE_URL).param("file", "result.txt")
+                                          .header(HttpHeaders.RANGE, "bytes=10-")
+                                          .header(HttpHeaders.IF_RANGE, eTag))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(content().string(FILE_CONTENT.substring(10)));
+    }
+
+
+
+    @Test
+    @DisplayName("Sends the whole file if the If-Range validator is stale")
+    void sendsWholeFileWhenValidatorIsStale() throws Exception {
+        this.mockMvc.perform(get(FILE_URL).param("file", "result.txt")
+                                          .header(HttpHeaders.RANGE, "bytes=10-")
+                                          .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, FILE_CONTENT.length()))
+                    .andExpect(content().string(FILE_CONTENT));
+    }
+
+
+
+    @Test
+    @DisplayName("Answers 404 if the file does not exist")
+    void rejectsMissingFile() throws Exception {
+        this.mockMvc.perform(get(FILE_URL).param("file", "missing.txt"))
+                    .andExpect(status().isNotFound());
+    }
+}
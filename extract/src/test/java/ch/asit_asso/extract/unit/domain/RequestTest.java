@@ -383,6 +383,25 @@ class RequestTest {
         }
     }
 
+    @Nested
+    @DisplayName("Search Text Tests")
+    class SearchTextTests {
+
+        @Test
+        @DisplayName("buildSearchText joins the lower-case values with line breaks")
+        void buildSearchText_joinsLowerCaseValues() {
+            assertEquals("client\n\norder 42\nab-cd",
+                    Request.buildSearchText("Client", null, "ORDER 42", "AB-cd"));
+        }
+
+        @Test
+        @DisplayName("getSearchText is null until the request is saved")
+        void getSearchText_isNullBeforeSave() {
+            request.setClient("Client");
+            assertNull(request.getSearchText());
+        }
+    }
+
     @Nested
     @DisplayName("Equals, HashCode, and ToString Tests")
     class EqualsHashCodeToStringTests {
@@ -0,0 +1,44 @@
+package ch.asit_asso.extract.unit.domain;
+
+import ch.asit_asso.extract.domain.RequestVisibility;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RequestVisibility")
+class RequestVisibilityTest {
+
+    @Test
+    @DisplayName("Exposes the request and the user that it links")
+    void exposesIdentifiers() {
+        RequestVisibility visibility = new RequestVisibility(12, 3);
+
+        assertEquals(12, visibility.getRequestId());
+        assertEquals(3, visibility.getUserId());
+    }
+
+
+
+    @Test
+    @DisplayName("Is equal to another row for the same request and user")
+    void comparesOnBothIdentifiers() {
+        RequestVisibility visibility = new RequestVisibility(12, 3);
+
+        assertEquals(new RequestVisibility(12, 3), visibility);
+        assertEquals(new RequestVisibility(12, 3).hashCode(), visibility.hashCode());
+        assertNotEquals(new RequestVisibility(12, 4), visibility);
+        assertNotEquals(new RequestVisibility(13, 3), visibility);
+        assertNotEquals(null, visibility);
+    }
+
+
+
+    @Test
+    @DisplayName("Builds composite keys that compare on both identifiers")
+    void comparesKeys() {
+        assertEquals(new RequestVisibility.Key(12, 3), new RequestVisibility.Key(12, 3));
+        assertEquals(new RequestVisibility.Key(12, 3).hashCode(), new RequestVisibility.Key(12, 3).hashCode());
+        assertNotEquals(new RequestVisibility.Key(12, 3), new RequestVisibility.Key(3, 12));
+    }
+}
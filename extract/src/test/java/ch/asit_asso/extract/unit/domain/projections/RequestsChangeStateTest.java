@@ -0,0 +1,51 @@
+package ch.asit_asso.extract.unit.domain.projections;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import ch.asit_asso.extract.domain.projections.RequestsChangeState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RequestsChangeState")
+class RequestsChangeStateTest {
+
+    @Test
+    @DisplayName("Treats the aggregates of an empty set as zero")
+    void emptySet() {
+        RequestsChangeState state = new RequestsChangeState(0L, null, null);
+
+        assertEquals(0, state.getCount());
+        assertEquals(0, state.getVersionsSum());
+        assertNull(state.getLastModified());
+        assertEquals("0-0-0", state.toTag());
+    }
+
+
+
+    @Test
+    @DisplayName("Builds the same tag for the same state")
+    void sameStateSameTag() {
+        Calendar lastModified = new GregorianCalendar(2024, Calendar.MARCH, 5, 10, 30);
+
+        assertEquals(new RequestsChangeState(3L, 12L, lastModified).toTag(),
+                     new RequestsChangeState(3L, 12L, (Calendar) lastModified.clone()).toTag());
+    }
+
+
+
+    @Test
+    @DisplayName("Builds a different tag when a request is added, modified or removed")
+    void changedStateDifferentTag() {
+        Calendar lastModified = new GregorianCalendar(2024, Calendar.MARCH, 5, 10, 30);
+        Calendar laterModified = (Calendar) lastModified.clone();
+        laterModified.add(Calendar.SECOND, 1);
+        String tag = new RequestsChangeState(3L, 12L, lastModified).toTag();
+
+        assertNotEquals(tag, new RequestsChangeState(4L, 12L, laterModified).toTag());
+        assertNotEquals(tag, new RequestsChangeState(3L, 13L, lastModified).toTag());
+        assertNotEquals(tag, new RequestsChangeState(2L, 10L, lastModified).toTag());
+        assertNotEquals(tag, new RequestsChangeState(3L, 12L, laterModified).toTag());
+    }
+}
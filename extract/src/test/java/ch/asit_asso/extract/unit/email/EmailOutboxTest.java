@@ -0,0 +1,340 @@
+package ch.asit_asso.extract.unit.email;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Properties;
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.URLName;
+import javax.mail.internet.InternetAddress;
+import ch.asit_asso.extract.domain.OutboxEmail;
+import ch.asit_asso.extract.email.Email;
+import ch.asit_asso.extract.email.EmailOutbox;
+import ch.asit_asso.extract.email.EmailSettings;
+import ch.asit_asso.extract.persistence.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailOutbox")
+class EmailOutboxTest {
+
+    private static final long RETRY_DELAY = 1000;
+    private static final long MAX_RETRY_DELAY = 10000;
+    private static final int FAILED_RETENTION = 30;
+
+    @Mock
+    private EmailOutboxRepository repository;
+
+    @Mock
+    private EmailSettings settings;
+
+    private EmailOutbox outbox;
+
+
+
+    @BeforeEach
+    void setUp() {
+        outbox = new EmailOutbox(repository, settings, 10, 3, RETRY_DELAY, MAX_RETRY_DELAY, FAILED_RETENTION);
+        RecordingTransport.reset();
+    }
+
+
+
+    @Test
+    @DisplayName("Doubles the retry delay after each attempt up to the maximum")
+    void retryDelayBackoff() {
+        assertEquals(1000, outbox.getRetryDelay(1));
+        assertEquals(2000, outbox.getRetryDelay(2));
+        assertEquals(8000, outbox.getRetryDelay(4));
+        assertEquals(MAX_RETRY_DELAY, outbox.getRetryDelay(5));
+        assertEquals(MAX_RETRY_DELAY, outbox.getRetryDelay(100));
+    }
+
+
+
+    @Test
+    @DisplayName("Saves an enqueued message as pending")
+    void enqueueSavesPendingMessage() throws Exception {
+        InternetAddress[] recipients = InternetAddress.parse("a@example.com, b@example.com");
+
+        assertTrue(outbox.enqueue(recipients, "Subject", "<p>Body</p>", Email.ContentType.HTML));
+
+        ArgumentCaptor<OutboxEmail> captor = ArgumentCaptor.forClass(OutboxEmail.class);
+        verify(repository).save(captor.capture());
+        OutboxEmail saved = captor.getValue();
+        assertEquals(OutboxEmail.Status.PENDING, saved.getStatus());
+        assertEquals(0, saved.getAttempts());
+        assertTrue(saved.isHtml());
+        assertEquals("Subject", saved.getSubject());
+        assertEquals(2, InternetAddress.parse(saved.getRecipients()).length);
+        assertNotNull(saved.getNextAttempt());
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects a message without recipients")
+    void enqueueRejectsEmptyRecipients() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> outbox.enqueue(new InternetAddress[0], "Subject", "Body", Email.ContentType.TEXT));
+    }
+
+
+
+    @Test
+    @DisplayName("Does not touch the settings when there is nothing to send")
+    void emptyOutboxDoesNothing() {
+        when(repository.findByStatusAndNextAttemptLessThanEqualOrderByIdAsc(eq(OutboxEmail.Status.PENDING),
+                                                                            any(Calendar.class), any()))
+                .thenReturn(List.of());
+
+        outbox.sendPendingMessages();
+
+        verify(settings, never()).refresh();
+    }
+
+
+
+    @Test
+    @DisplayName("Discards the pending messages when the notifications are turned off")
+    void discardsMessagesWhenNotificationsDisabled() {
+        List<OutboxEmail> messages = List.of(createPendingEmail(0));
+        when(repository.findByStatusAndNextAttemptLessThanEqualOrderByIdAsc(eq(OutboxEmail.Status.PENDING),
+                                                                            any(Calendar.class), any()))
+                .thenReturn(messages);
+        when(settings.isNotificationEnabled()).thenReturn(false);
+
+        outbox.sendPendingMessages();
+
+        verify(repository).deleteAll(messages);
+    }
+
+
+
+    @Test
+    @DisplayName("Reschedules the messages with a backoff when the SMTP configuration is invalid")
+    void reschedulesMessagesWhenConfigurationInvalid() {
+        OutboxEmail email = createPendingEmail(1);
+        when(repository.findByStatusAndNextAttemptLessThanEqualOrderByIdAsc(eq(OutboxEmail.Status.PENDING),
+                                                                            any(Calendar.class), any()))
+                .thenReturn(List.of(email));
+        when(settings.isNotificationEnabled()).thenReturn(true);
+        when(settings.isValid()).thenReturn(false);
+        long before = System.currentTimeMillis();
+
+        outbox.sendPendingMessages();
+
+        verify(repository).save(email);
+        assertEquals(2, email.getAttempts());
+        assertEquals(OutboxEmail.Status.PENDING, email.getStatus());
+        assertNotNull(email.getLastError());
+        assertTrue(email.getNextAttempt().getTimeInMillis() >= before + 2 * RETRY_DELAY);
+    }
+
+
+
+    @Test
+    @DisplayName("Marks a message as failed once the maximum number of attempts is reached")
+    void marksMessageAsFailedAfterMaxAttempts() {
+        OutboxEmail email = createPendingEmail(2);
+        when(repository.findByStatusAndNextAttemptLessThanEqualOrderByIdAsc(eq(OutboxEmail.Status.PENDING),
+                                                                            any(Calendar.class), any()))
+                .thenReturn(List.of(email));
+        when(settings.isNotificationEnabled()).thenReturn(true);
+        when(settings.isValid()).thenReturn(false);
+
+        outbox.sendPendingMessages();
+
+        assertEquals(3, email.getAttempts());
+        assertEquals(OutboxEmail.Status.FAILED, email.getStatus());
+    }
+
+
+
+    @Test
+    @DisplayName("Sends a whole batch through a single SMTP connection")
+    void sendsBatchThroughOneConnection() {
+        List<OutboxEmail> messages = List.of(createPendingEmail(1, 0), createPendingEmail(2, 0),
+                                             createPendingEmail(3, 0));
+        givenValidSettings(messages);
+
+        outbox.sendPendingMessages();
+
+        assertEquals(1, RecordingTransport.instances);
+        assertEquals(1, RecordingTransport.connections);
+        assertEquals(List.of("Subject 1", "Subject 2", "Subject 3"), RecordingTransport.sentSubjects);
+        assertFalse(RecordingTransport.connected);
+        messages.forEach((email) -> verify(repository).delete(email));
+    }
+
+
+
+    @Test
+    @DisplayName("Reconnects the same transport when the connection drops during a batch")
+    void reconnectsAfterConnectionDrop() {
+        OutboxEmail droppedEmail = createPendingEmail(2, 0);
+        List<OutboxEmail> messages = List.of(createPendingEmail(1, 0), droppedEmail, createPendingEmail(3, 0));
+        givenValidSettings(messages);
+        RecordingTransport.dropOnSubject = "Subject 2";
+
+        outbox.sendPendingMessages();
+
+        assertEquals(1, RecordingTransport.instances);
+        assertEquals(2, RecordingTransport.connections);
+        assertEquals(List.of("Subject 1", "Subject 3"), RecordingTransport.sentSubjects);
+        verify(repository, times(2)).delete(any(OutboxEmail.class));
+        verify(repository).save(droppedEmail);
+        assertEquals(1, droppedEmail.getAttempts());
+        assertEquals(OutboxEmail.Status.PENDING, droppedEmail.getStatus());
+    }
+
+
+
+    @Test
+    @DisplayName("Removes the failed messages older than the retention")
+    void purgesOldFailedMessages() {
+        when(repository.deleteByStatusAndCreationDateBefore(eq(OutboxEmail.Status.FAILED), any(Calendar.class)))
+                .thenReturn(2);
+        Calendar expectedLimit = new GregorianCalendar();
+        expectedLimit.add(Calendar.DAY_OF_MONTH, -FAILED_RETENTION);
+
+        outbox.purgeFailedMessages();
+
+        ArgumentCaptor<Calendar> captor = ArgumentCaptor.forClass(Calendar.class);
+        verify(repository).deleteByStatusAndCreationDateBefore(eq(OutboxEmail.Status.FAILED), captor.capture());
+        assertTrue(Math.abs(captor.getValue().getTimeInMillis() - expectedLimit.getTimeInMillis()) < 60000);
+    }
+
+
+
+    @Test
+    @DisplayName("Keeps the failed messages if the retention is zero")
+    void keepsFailedMessagesWithoutRetention() {
+        EmailOutbox keepingOutbox = new EmailOutbox(repository, settings, 10, 3, RETRY_DELAY, MAX_RETRY_DELAY, 0);
+
+        keepingOutbox.purgeFailedMessages();
+
+        verify(repository, never()).deleteByStatusAndCreationDateBefore(any(), any());
+        assertThrows(IllegalArgumentException.class,
+                     () -> new EmailOutbox(repository, settings, 10, 3, RETRY_DELAY, MAX_RETRY_DELAY, -1));
+    }
+
+
+
+    private void givenValidSettings(List<OutboxEmail> messages) {
+        when(repository.findByStatusAndNextAttemptLessThanEqualOrderByIdAsc(eq(OutboxEmail.Status.PENDING),
+                                                                            any(Calendar.class), any()))
+                .thenReturn(messages);
+        when(settings.isNotificationEnabled()).thenReturn(true);
+        when(settings.isValid()).thenReturn(true);
+        when(settings.toSystemProperties()).thenReturn(new Properties());
+        when(settings.getTransport()).thenReturn("recording");
+        when(settings.getSenderAddress()).thenReturn("extract@example.com");
+        when(settings.getSenderName()).thenReturn("Extract");
+        when(settings.useAuthentication()).thenReturn(false);
+    }
+
+
+
+    private static OutboxEmail createPendingEmail(int attempts) {
+        return createPendingEmail(1, attempts);
+    }
+
+
+
+    private static OutboxEmail createPendingEmail(int id, int attempts) {
+        OutboxEmail email = new OutboxEmail(id);
+        email.setRecipients("a@example.com");
+        email.setSubject(String.format("Subject %d", id));
+        email.setContent("Body");
+        email.setAttempts(attempts);
+        email.setCreationDate(new GregorianCalendar());
+        email.setNextAttempt(new GregorianCalendar());
+        email.setStatus(OutboxEmail.Status.PENDING);
+
+        return email;
+    }
+
+
+
+    /**
+     * An SMTP transport that records the connections and the messages instead of sending them. It is registered
+     * under the <code>recording</code> protocol in the test <code>META-INF/javamail.providers</code> file.
+     */
+    public static class RecordingTransport extends Transport {
+
+        static int instances;
+        static int connections;
+        static boolean connected;
+        static String dropOnSubject;
+        static List<String> sentSubjects;
+
+
+
+        public RecordingTransport(Session session, URLName urlName) {
+            super(session, urlName);
+            instances++;
+        }
+
+
+
+        static void reset() {
+            instances = 0;
+            connections = 0;
+            connected = false;
+            dropOnSubject = null;
+            sentSubjects = new ArrayList<>();
+        }
+
+
+
+        @Override
+        protected boolean protocolConnect(String host, int port, String user, String password) {
+            connections++;
+            connected = true;
+
+            return true;
+        }
+
+
+
+        @Override
+        public void sendMessage(Message message, Address[] addresses) throws MessagingException {
+
+            if (message.getSubject().equals(dropOnSubject)) {
+                this.setConnected(false);
+                connected = false;
+                throw new MessagingException("Connection dropped");
+            }
+
+            sentSubjects.add(message.getSubject());
+        }
+
+
+
+        @Override
+        public synchronized void close() throws MessagingException {
+            connected = false;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ch.asit_asso.extract.unit.email;
+
+import java.util.List;
+import ch.asit_asso.extract.email.EmailSettings;
+import ch.asit_asso.extract.email.EmailTemplatesCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.exceptions.TemplateInputException;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailTemplatesCache")
+class EmailTemplatesCacheTest {
+
+    private static final String TEMPLATES_PATH = "classpath:/templates/email/";
+
+    @Mock
+    private EmailSettings settings;
+
+    @Mock
+    private TemplateEngine templateEngine;
+
+
+
+    @Test
+    @DisplayName("Lists the message templates without the layouts")
+    void listsTemplateNames() {
+        EmailTemplatesCache cache = new EmailTemplatesCache(settings, "classpath:/templates/email", true);
+
+        List<String> names = cache.getTemplateNames();
+
+        assertTrue(names.contains("html/taskFailed"));
+        assertTrue(names.contains("html/unmatchedRequest"));
+        assertFalse(names.stream().anyMatch(name -> name.contains("layout")));
+    }
+
+
+
+    @Test
+    @DisplayName("Parses every template once without rendering it")
+    void preloadsTemplatesOnce() {
+        when(settings.getTemplateEngine()).thenReturn(templateEngine);
+        EmailTemplatesCache cache = new EmailTemplatesCache(settings, TEMPLATES_PATH, true);
+        int templatesNumber = cache.getTemplateNames().size();
+
+        assertEquals(templatesNumber, cache.preload());
+
+        verify(templateEngine, times(templatesNumber)).processThrottled(anyString(), any(IContext.class));
+        verify(templateEngine, never()).process(anyString(), any(IContext.class));
+    }
+
+
+
+    @Test
+    @DisplayName("Stores the parsed templates in the engine cache")
+    void preloadFillsEngineCache() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/email/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCacheable(true);
+        TemplateEngine engine = new TemplateEngine();
+        engine.setTemplateResolver(resolver);
+        when(settings.getTemplateEngine()).thenReturn(engine);
+        EmailTemplatesCache cache = new EmailTemplatesCache(settings, TEMPLATES_PATH, true);
+
+        int templatesNumber = cache.preload();
+
+        assertEquals(cache.getTemplateNames().size(), templatesNumber);
+        assertEquals(templatesNumber, engine.getConfiguration().getCacheManager().getTemplateCache().keySet().size());
+    }
+
+
+
+    @Test
+    @DisplayName("Does not count the templates that cannot be parsed")
+    void preloadSkipsInvalidTemplates() {
+        when(settings.getTemplateEngine()).thenReturn(templateEngine);
+        when(templateEngine.processThrottled(anyString(), any(IContext.class)))
+                .thenThrow(new TemplateInputException("Parse error"))
+                .thenReturn(null);
+        EmailTemplatesCache cache = new EmailTemplatesCache(settings, TEMPLATES_PATH, true);
+
+        assertEquals(cache.getTemplateNames().size() - 1, cache.preload());
+    }
+
+
+
+    @Test
+    @DisplayName("Does not preload the templates when the cache is disabled")
+    void doesNotPreloadWithoutCache() {
+        EmailTemplatesCache cache = new EmailTemplatesCache(settings, TEMPLATES_PATH, false);
+
+        assertEquals(0, cache.preload());
+        verify(templateEngine, never()).processThrottled(anyString(), any(IContext.class));
+    }
+
+
+
+    @Test
+    @DisplayName("Clears the engine cache before loading the templates again")
+    void reloadClearsEngineCache() {
+        when(settings.getTemplateEngine()).thenReturn(templateEngine);
+        EmailTemplatesCache cache = new EmailTemplatesCache(settings, TEMPLATES_PATH, true);
+
+        cache.reload();
+
+        verify(templateEngine).clearTemplateCache();
+    }
+}
@@ -0,0 +1,136 @@
+package ch.asit_asso.extract.unit.email;
+
+import java.util.GregorianCalendar;
+import ch.asit_asso.extract.domain.Connector;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.domain.User;
+import ch.asit_asso.extract.email.EmailSettings;
+import ch.asit_asso.extract.email.NotificationDigest;
+import ch.asit_asso.extract.persistence.UsersRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationDigest")
+class NotificationDigestTest {
+
+    @Mock
+    private EmailSettings settings;
+
+    @Mock
+    private UsersRepository usersRepository;
+
+    private NotificationDigest digest;
+
+
+
+    @BeforeEach
+    void setUp() {
+        digest = new NotificationDigest(settings, usersRepository, 10);
+    }
+
+
+
+    @Test
+    @DisplayName("Queues the events by type")
+    void queuesEventsByType() {
+        digest.addUnmatchedRequest(createRequest(1));
+        digest.addUnmatchedRequest(createRequest(2));
+        digest.addInvalidProductImported(createRequest(3), "Invalid perimeter", new GregorianCalendar());
+
+        assertEquals(2, digest.getPendingCount(NotificationDigest.Type.UNMATCHED_REQUEST));
+        assertEquals(1, digest.getPendingCount(NotificationDigest.Type.INVALID_PRODUCT_IMPORTED));
+    }
+
+
+
+    @Test
+    @DisplayName("Empties the queues when the notifications are sent")
+    void drainsEventsWhenSending() {
+        when(usersRepository.findByProfileAndActiveTrue(User.Profile.ADMIN)).thenReturn(new User[0]);
+        digest.addUnmatchedRequest(createRequest(1));
+        digest.addInvalidProductImported(createRequest(2), "Invalid perimeter", new GregorianCalendar());
+
+        digest.sendPendingNotifications();
+
+        assertEquals(0, digest.getPendingCount(NotificationDigest.Type.UNMATCHED_REQUEST));
+        assertEquals(0, digest.getPendingCount(NotificationDigest.Type.INVALID_PRODUCT_IMPORTED));
+        verify(usersRepository, times(2)).findByProfileAndActiveTrue(User.Profile.ADMIN);
+    }
+
+
+
+    @Test
+    @DisplayName("Does not look for recipients when there is nothing to notify")
+    void doesNothingWithoutEvents() {
+        digest.sendPendingNotifications();
+
+        verify(usersRepository, never()).findByProfileAndActiveTrue(User.Profile.ADMIN);
+    }
+
+
+
+    @Test
+    @DisplayName("Sends the events at once when the queue of their type is full")
+    void sendsEventsWhenQueueIsFull() {
+        when(usersRepository.findByProfileAndActiveTrue(User.Profile.ADMIN)).thenReturn(new User[0]);
+        NotificationDigest smallDigest = new NotificationDigest(settings, usersRepository, 2);
+        smallDigest.addUnmatchedRequest(createRequest(1));
+        smallDigest.addUnmatchedRequest(createRequest(2));
+
+        verify(usersRepository, never()).findByProfileAndActiveTrue(User.Profile.ADMIN);
+
+        smallDigest.addUnmatchedRequest(createRequest(3));
+
+        verify(usersRepository).findByProfileAndActiveTrue(User.Profile.ADMIN);
+        assertEquals(1, smallDigest.getPendingCount(NotificationDigest.Type.UNMATCHED_REQUEST));
+        assertThrows(IllegalArgumentException.class, () -> new NotificationDigest(settings, usersRepository, 0));
+    }
+
+
+
+    @Test
+    @DisplayName("Sends the pending events when the application stops")
+    void flushesPendingEvents() {
+        when(usersRepository.findByProfileAndActiveTrue(User.Profile.ADMIN)).thenReturn(new User[0]);
+        digest.addInvalidProductImported(createRequest(1), "Invalid perimeter", new GregorianCalendar());
+
+        digest.flush();
+
+        assertEquals(0, digest.getPendingCount(NotificationDigest.Type.INVALID_PRODUCT_IMPORTED));
+        verify(usersRepository).findByProfileAndActiveTrue(User.Profile.ADMIN);
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects invalid events")
+    void rejectsInvalidEvents() {
+        assertThrows(IllegalArgumentException.class, () -> digest.addUnmatchedRequest(null));
+        assertThrows(IllegalStateException.class, () -> digest.addUnmatchedRequest(new Request(1)));
+        assertThrows(IllegalArgumentException.class,
+                     () -> digest.addInvalidProductImported(createRequest(1), null, new GregorianCalendar()));
+    }
+
+
+
+    private static Request createRequest(int id) {
+        Connector connector = new Connector();
+        connector.setName("Connector");
+        Request request = new Request(id);
+        request.setConnector(connector);
+        request.setProductLabel("Product " + id);
+
+        return request;
+    }
+}
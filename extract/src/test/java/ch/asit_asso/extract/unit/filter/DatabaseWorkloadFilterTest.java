@@ -0,0 +1,36 @@
+package ch.asit_asso.extract.unit.filter;
+
+import java.util.concurrent.atomic.AtomicReference;
+import ch.asit_asso.extract.filter.DatabaseWorkloadFilter;
+import ch.asit_asso.extract.persistence.DatabaseWorkload;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DatabaseWorkloadFilter")
+class DatabaseWorkloadFilterTest {
+
+    @Test
+    @DisplayName("Processes the HTTP request under the workload of the filter")
+    void definesWorkloadDuringRequest() throws Exception {
+        AtomicReference<DatabaseWorkload> requestWorkload = new AtomicReference<>();
+        DatabaseWorkloadFilter filter = new DatabaseWorkloadFilter(DatabaseWorkload.WEB);
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (request, response) -> requestWorkload.set(DatabaseWorkload.current()));
+
+        assertEquals(DatabaseWorkload.WEB, requestWorkload.get());
+        assertEquals(DatabaseWorkload.MAINTENANCE, DatabaseWorkload.current());
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects a null workload")
+    void rejectsNullWorkload() {
+        assertThrows(IllegalArgumentException.class, () -> new DatabaseWorkloadFilter(null));
+    }
+}
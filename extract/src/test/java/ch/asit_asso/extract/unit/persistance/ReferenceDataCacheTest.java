@@ -0,0 +1,88 @@
+package ch.asit_asso.extract.unit.persistance;
+
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import ch.asit_asso.extract.persistence.ReferenceDataCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReferenceDataCache")
+class ReferenceDataCacheTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    private ReferenceDataCache referenceDataCache;
+
+
+
+    @BeforeEach
+    void setUp() {
+        when(this.entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(this.sessionFactory);
+        this.referenceDataCache = new ReferenceDataCache(this.entityManagerFactory);
+    }
+
+
+
+    @Test
+    @DisplayName("Reports the global, query and region statistics")
+    void getStatistics() {
+        CacheRegionStatistics regionStatistics = mock(CacheRegionStatistics.class);
+        when(this.sessionFactory.getStatistics()).thenReturn(this.statistics);
+        when(this.statistics.isStatisticsEnabled()).thenReturn(true);
+        when(this.statistics.getSecondLevelCacheHitCount()).thenReturn(10L);
+        when(this.statistics.getSecondLevelCacheMissCount()).thenReturn(2L);
+        when(this.statistics.getSecondLevelCachePutCount()).thenReturn(4L);
+        when(this.statistics.getQueryCacheHitCount()).thenReturn(7L);
+        when(this.statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"tasks", "queries-region"});
+        when(this.statistics.getDomainDataRegionStatistics("tasks")).thenReturn(regionStatistics);
+        when(this.statistics.getDomainDataRegionStatistics("queries-region"))
+                .thenThrow(new IllegalArgumentException("Not a domain data region"));
+        when(regionStatistics.getHitCount()).thenReturn(6L);
+        when(regionStatistics.getMissCount()).thenReturn(1L);
+
+        Map<String, Map<String, Long>> result = this.referenceDataCache.getStatistics();
+
+        assertEquals(3, result.size());
+        assertEquals(Map.of("hits", 10L, "misses", 2L, "puts", 4L), result.get("global"));
+        assertEquals(7L, result.get("queries").get("hits"));
+        assertEquals(Map.of("hits", 6L, "misses", 1L, "puts", 0L), result.get("tasks"));
+        assertFalse(result.containsKey("queries-region"));
+    }
+
+
+
+    @Test
+    @DisplayName("Reports nothing if the statistics are not collected")
+    void getStatisticsWhenDisabled() {
+        when(this.sessionFactory.getStatistics()).thenReturn(this.statistics);
+
+        assertNull(this.referenceDataCache.getStatistics());
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects a null entity manager factory")
+    void rejectsNullFactory() {
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceDataCache(null));
+    }
+}
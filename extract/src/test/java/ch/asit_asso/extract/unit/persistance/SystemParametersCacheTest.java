@@ -0,0 +1,144 @@
+package ch.asit_asso.extract.unit.persistance;
+
+import java.util.List;
+import ch.asit_asso.extract.domain.SystemParameter;
+import ch.asit_asso.extract.persistence.SystemParametersCache;
+import ch.asit_asso.extract.persistence.SystemParametersRepository;
+import ch.asit_asso.extract.persistence.SystemParametersSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SystemParametersCache")
+class SystemParametersCacheTest {
+
+    @Mock
+    private SystemParametersRepository repository;
+
+
+
+    @Test
+    @DisplayName("Loads all the parameters once and serves them from memory")
+    void loadsParametersOnce() {
+        when(repository.findAll()).thenReturn(List.of(
+                new SystemParameter(SystemParametersRepository.BASE_PATH_KEY, "/var/extract"),
+                new SystemParameter(SystemParametersRepository.DASHBOARD_INTERVAL_KEY, "20")
+        ));
+        SystemParametersCache cache = new SystemParametersCache(repository, 60000);
+
+        SystemParametersSnapshot first = cache.getSnapshot();
+        SystemParametersSnapshot second = cache.getSnapshot();
+
+        assertSame(first, second);
+        assertEquals("/var/extract", second.getBasePath());
+        assertEquals(20, second.getDashboardRefreshInterval());
+        verify(repository, times(1)).findAll();
+        verify(repository, never()).findByKey(anyString());
+    }
+
+
+
+    @Test
+    @DisplayName("Converts the parameter values to their type")
+    void convertsValues() {
+        when(repository.findAll()).thenReturn(List.of(
+                new SystemParameter(SystemParametersRepository.SMTP_PORT_KEY, "not a number"),
+                new SystemParameter(SystemParametersRepository.SCHEDULER_FREQUENCY_KEY, "5"),
+                new SystemParameter(SystemParametersRepository.ENABLE_MAIL_NOTIFICATIONS, "true"),
+                new SystemParameter(SystemParametersRepository.DISPLAY_TEMP_FOLDER, "false"),
+                new SystemParameter(SystemParametersRepository.VALIDATION_FOCUS_PROPERTIES_KEY, "REMARK,PERIMETER"),
+                new SystemParameter(SystemParametersRepository.SMTP_USER_KEY, null)
+        ));
+        SystemParametersSnapshot snapshot = new SystemParametersCache(repository, 60000).getSnapshot();
+
+        assertNull(snapshot.getSmtpPort());
+        assertEquals(5, snapshot.getSchedulerFrequency());
+        assertTrue(snapshot.isEmailNotificationEnabled());
+        assertFalse(snapshot.isTempFolderDisplayed());
+        assertNull(snapshot.getSmtpUser());
+        assertNull(snapshot.getDashboardRefreshInterval());
+        String[] focusProperties = snapshot.getValidationFocusProperties();
+        assertArrayEquals(new String[] {"REMARK", "PERIMETER"}, focusProperties);
+        focusProperties[0] = "CHANGED";
+        assertEquals("REMARK", snapshot.getValidationFocusProperties()[0]);
+    }
+
+
+
+    @Test
+    @DisplayName("Reloads the parameters when another instance changed their version")
+    void reloadsWhenVersionChanged() {
+        when(repository.findAll())
+                .thenReturn(List.of(new SystemParameter(SystemParametersRepository.PARAMETERS_VERSION_KEY, "1"),
+                                    new SystemParameter(SystemParametersRepository.BASE_PATH_KEY, "/old")))
+                .thenReturn(List.of(new SystemParameter(SystemParametersRepository.PARAMETERS_VERSION_KEY, "2"),
+                                    new SystemParameter(SystemParametersRepository.BASE_PATH_KEY, "/new")));
+        when(repository.findByKey(SystemParametersRepository.PARAMETERS_VERSION_KEY))
+                .thenReturn(new SystemParameter(SystemParametersRepository.PARAMETERS_VERSION_KEY, "2"));
+        SystemParametersCache cache = new SystemParametersCache(repository, 0);
+
+        assertEquals("/old", cache.getSnapshot().getBasePath());
+        SystemParametersSnapshot reloaded = cache.getSnapshot();
+
+        assertEquals("/new", reloaded.getBasePath());
+        assertEquals("2", reloaded.getVersion());
+        verify(repository, times(2)).findAll();
+    }
+
+
+
+    @Test
+    @DisplayName("Keeps the parameters in memory when their version did not change")
+    void keepsSnapshotWhenVersionUnchanged() {
+        when(repository.findAll())
+                .thenReturn(List.of(new SystemParameter(SystemParametersRepository.PARAMETERS_VERSION_KEY, "1")));
+        when(repository.findByKey(SystemParametersRepository.PARAMETERS_VERSION_KEY))
+                .thenReturn(new SystemParameter(SystemParametersRepository.PARAMETERS_VERSION_KEY, "1"));
+        SystemParametersCache cache = new SystemParametersCache(repository, 0);
+
+        SystemParametersSnapshot first = cache.getSnapshot();
+
+        assertSame(first, cache.getSnapshot());
+        verify(repository, times(1)).findAll();
+    }
+
+
+
+    @Test
+    @DisplayName("Saves a new version and reloads the parameters when changes are published")
+    void publishesChanges() {
+        when(repository.findAll()).thenReturn(List.of());
+        SystemParametersCache cache = new SystemParametersCache(repository, 60000);
+        cache.getSnapshot();
+
+        cache.publishChanges();
+
+        ArgumentCaptor<SystemParameter> versionCaptor = ArgumentCaptor.forClass(SystemParameter.class);
+        verify(repository).save(versionCaptor.capture());
+        assertEquals(SystemParametersRepository.PARAMETERS_VERSION_KEY, versionCaptor.getValue().getKey());
+        assertNotNull(versionCaptor.getValue().getValue());
+        verify(repository, times(2)).findAll();
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SystemParametersCache(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SystemParametersCache(repository, -1));
+        verify(repository, never()).save(any());
+    }
+}
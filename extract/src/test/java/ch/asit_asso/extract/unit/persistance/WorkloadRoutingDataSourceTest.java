@@ -0,0 +1,130 @@
+package ch.asit_asso.extract.unit.persistance;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import ch.asit_asso.extract.persistence.DatabaseWorkload;
+import ch.asit_asso.extract.persistence.MeasuredConnectionPool;
+import ch.asit_asso.extract.persistence.WorkloadRoutingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("WorkloadRoutingDataSource")
+class WorkloadRoutingDataSourceTest {
+
+    private final Map<DatabaseWorkload, DataSource> targets = new EnumMap<>(DatabaseWorkload.class);
+
+    private final Map<DatabaseWorkload, Connection> connections = new EnumMap<>(DatabaseWorkload.class);
+
+    private WorkloadRoutingDataSource dataSource;
+
+
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Map<DatabaseWorkload, MeasuredConnectionPool> pools = new EnumMap<>(DatabaseWorkload.class);
+
+        for (DatabaseWorkload workload : DatabaseWorkload.values()) {
+            DataSource target = mock(DataSource.class);
+            Connection connection = mock(Connection.class);
+            when(target.getConnection()).thenReturn(connection);
+            this.targets.put(workload, target);
+            this.connections.put(workload, connection);
+            pools.put(workload, new MeasuredConnectionPool(target));
+        }
+
+        this.dataSource = new WorkloadRoutingDataSource(pools);
+    }
+
+
+
+    @Test
+    @DisplayName("Gives each thread a connection from the pool of its workload")
+    void routesByWorkload() throws SQLException {
+        AtomicReference<Connection> webConnection = new AtomicReference<>();
+        AtomicReference<Connection> pipelineConnection = new AtomicReference<>();
+
+        DatabaseWorkload.WEB.wrap(() -> webConnection.set(this.getConnection())).run();
+        DatabaseWorkload.PIPELINE.wrap(() -> pipelineConnection.set(this.getConnection())).run();
+
+        assertSame(this.connections.get(DatabaseWorkload.WEB), webConnection.get());
+        assertSame(this.connections.get(DatabaseWorkload.PIPELINE), pipelineConnection.get());
+        assertSame(this.connections.get(DatabaseWorkload.MAINTENANCE), this.dataSource.getConnection());
+    }
+
+
+
+    @Test
+    @DisplayName("Restores the previous workload of the thread once the work is over")
+    void restoresPreviousWorkload() {
+        AtomicReference<DatabaseWorkload> innerWorkload = new AtomicReference<>();
+        AtomicReference<DatabaseWorkload> outerWorkload = new AtomicReference<>();
+
+        DatabaseWorkload.WEB.wrap(() -> {
+            DatabaseWorkload.PIPELINE.wrap(() -> innerWorkload.set(DatabaseWorkload.current())).run();
+            outerWorkload.set(DatabaseWorkload.current());
+        }).run();
+
+        assertEquals(DatabaseWorkload.PIPELINE, innerWorkload.get());
+        assertEquals(DatabaseWorkload.WEB, outerWorkload.get());
+        assertEquals(DatabaseWorkload.MAINTENANCE, DatabaseWorkload.current());
+    }
+
+
+
+    @Test
+    @DisplayName("Counts the connections obtained and the timeouts of each pool")
+    void measuresConnectionWaits() throws SQLException {
+        when(this.targets.get(DatabaseWorkload.MAINTENANCE).getConnection())
+                .thenReturn(this.connections.get(DatabaseWorkload.MAINTENANCE))
+                .thenThrow(new SQLTransientConnectionException("Timeout"));
+
+        this.dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, () -> this.dataSource.getConnection());
+        DatabaseWorkload.WEB.wrap(this::getConnection).run();
+        DatabaseWorkload.WEB.wrap(this::getConnection).run();
+
+        Map<String, Map<String, Long>> statistics = this.dataSource.getStatistics();
+        assertEquals(1, statistics.get("maintenance").get("acquisitions"));
+        assertEquals(1, statistics.get("maintenance").get("timeouts"));
+        assertEquals(2, statistics.get("web").get("acquisitions"));
+        assertEquals(0, statistics.get("web").get("timeouts"));
+        assertEquals(0, statistics.get("pipeline").get("acquisitions"));
+        assertTrue(statistics.get("web").get("maximumWaitTime") >= statistics.get("web").get("averageWaitTime"));
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        Map<DatabaseWorkload, MeasuredConnectionPool> incompletePools = new EnumMap<>(DatabaseWorkload.class);
+        incompletePools.put(DatabaseWorkload.WEB, new MeasuredConnectionPool(mock(DataSource.class)));
+
+        assertThrows(IllegalArgumentException.class, () -> new WorkloadRoutingDataSource(null));
+        assertThrows(IllegalArgumentException.class, () -> new WorkloadRoutingDataSource(incompletePools));
+        assertThrows(IllegalArgumentException.class, () -> new MeasuredConnectionPool(null));
+        assertThrows(IllegalArgumentException.class, () -> DatabaseWorkload.WEB.wrap(null));
+    }
+
+
+
+    private Connection getConnection() {
+
+        try {
+            return this.dataSource.getConnection();
+
+        } catch (SQLException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package ch.asit_asso.extract.unit.requestmatching;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import ch.asit_asso.extract.domain.Connector;
+import ch.asit_asso.extract.domain.Process;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.domain.Rule;
+import ch.asit_asso.extract.email.EmailSettings;
+import ch.asit_asso.extract.orchestrator.runners.RequestStatusChangedEvent;
+import ch.asit_asso.extract.persistence.ApplicationRepositories;
+import ch.asit_asso.extract.persistence.ConnectorsRepository;
+import ch.asit_asso.extract.persistence.RequestsRepository;
+import ch.asit_asso.extract.persistence.RulesRepository;
+import ch.asit_asso.extract.persistence.SystemParametersRepository;
+import ch.asit_asso.extract.persistence.UsersRepository;
+import ch.asit_asso.extract.requestmatching.RematchingReport;
+import ch.asit_asso.extract.requestmatching.UnmatchedRequestsRematcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("UnmatchedRequestsRematcher")
+class UnmatchedRequestsRematcherTest {
+
+    private static final int CONNECTOR_ID = 7;
+
+    @TempDir
+    Path basePath;
+
+    private ApplicationRepositories repositories;
+
+    private ConnectorsRepository connectorsRepository;
+
+    private RequestsRepository requestsRepository;
+
+    private ApplicationEventPublisher publisher;
+
+    private PlatformTransactionManager transactionManager;
+
+    private UnmatchedRequestsRematcher rematcher;
+
+    private final Map<Integer, Request> storedRequests = new ConcurrentHashMap<>();
+
+    private final Process process = new Process(3);
+
+
+
+    @BeforeEach
+    void setUp() {
+        Connector connector = new Connector(UnmatchedRequestsRematcherTest.CONNECTOR_ID);
+        Rule rule = new Rule(1);
+        rule.setRule("orderLabel == \"match\"");
+        rule.setActive(true);
+        rule.setPosition(1);
+        rule.setProcess(this.process);
+
+        this.connectorsRepository = Mockito.mock(ConnectorsRepository.class);
+        this.requestsRepository = Mockito.mock(RequestsRepository.class);
+        RulesRepository rulesRepository = Mockito.mock(RulesRepository.class);
+        SystemParametersRepository parametersRepository = Mockito.mock(SystemParametersRepository.class);
+        this.repositories = Mockito.mock(ApplicationRepositories.class);
+        when(this.repositories.getConnectorsRepository()).thenReturn(this.connectorsRepository);
+        when(this.repositories.getRequestsRepository()).thenReturn(this.requestsRepository);
+        when(this.repositories.getRulesRepository()).thenReturn(rulesRepository);
+        when(this.repositories.getParametersRepository()).thenReturn(parametersRepository);
+        when(this.repositories.getUsersRepository()).thenReturn(Mockito.mock(UsersRepository.class));
+        when(parametersRepository.getBasePath()).thenReturn(this.basePath.toString());
+        when(this.connectorsRepository.findById(UnmatchedRequestsRematcherTest.CONNECTOR_ID))
+                .thenReturn(Optional.of(connector));
+        when(rulesRepository.findByConnectorAndActiveTrueOrderByPosition(connector)).thenReturn(List.of(rule));
+        when(this.requestsRepository.countByConnectorIdAndStatus(anyInt(), any()))
+                .thenAnswer((invocation) -> this.storedRequests.values().stream()
+                                                               .filter((request) -> request.getStatus()
+                                                                                    == Request.Status.UNMATCHED)
+                                                               .count());
+        when(this.requestsRepository.findIdsByConnectorIdAndStatus(UnmatchedRequestsRematcherTest.CONNECTOR_ID,
+                Request.Status.UNMATCHED)).thenAnswer((invocation) -> new ArrayList<>(this.storedRequests.keySet()));
+        when(this.requestsRepository.findAllById(any())).thenAnswer((invocation) -> {
+            List<Request> requests = new ArrayList<>();
+
+            for (Integer requestId : invocation.<Iterable<Integer>>getArgument(0)) {
+                requests.add(this.copyRequest(this.storedRequests.get(requestId)));
+            }
+
+            return requests;
+        });
+        when(this.requestsRepository.save(any())).thenAnswer((invocation) -> invocation.getArgument(0));
+
+        this.publisher = Mockito.mock(ApplicationEventPublisher.class);
+        this.transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        this.rematcher = new UnmatchedRequestsRematcher(this.repositories, Mockito.mock(EmailSettings.class),
+                this.publisher, this.transactionManager, 2, 2);
+    }
+
+
+
+    @AfterEach
+    void tearDown() {
+        this.rematcher.destroy();
+    }
+
+
+
+    @Test
+    @DisplayName("Moves the unmatched requests that match a rule to their process")
+    void matchesRequestsAgain() {
+        this.addRequest(1, "match", Request.Status.UNMATCHED);
+        this.addRequest(2, "other", Request.Status.UNMATCHED);
+        this.addRequest(3, "match", Request.Status.UNMATCHED);
+
+        assertEquals(3, this.rematcher.rematchConnector(UnmatchedRequestsRematcherTest.CONNECTOR_ID));
+        RematchingReport report = this.waitForReport();
+
+        assertEquals(3, report.getCandidatesCount());
+        assertEquals(2, report.getMatchedCount());
+        assertEquals(0, report.getFailuresCount());
+        verify(this.transactionManager, times(2)).commit(any());
+        verify(this.requestsRepository).save(argThat((request) -> request.getId() == 1
+                                                                   && request.getStatus() == Request.Status.ONGOING
+                                                                   && request.getProcess() == this.process
+                                                                   && request.getTasknum() == 1
+                                                                   && request.getFolderOut() != null));
+        verify(this.requestsRepository, never()).save(argThat((request) -> request.getId() == 2));
+        verify(this.publisher, times(2)).publishEvent(any(RequestStatusChangedEvent.class));
+    }
+
+
+
+    @Test
+    @DisplayName("Does not queue anything if the connector has no unmatched request")
+    void ignoresConnectorWithoutUnmatchedRequests() throws InterruptedException {
+        this.addRequest(1, "match", Request.Status.ONGOING);
+
+        assertEquals(0, this.rematcher.rematchConnector(UnmatchedRequestsRematcherTest.CONNECTOR_ID));
+        Thread.sleep(50);
+
+        assertNull(this.rematcher.getLastReport(UnmatchedRequestsRematcherTest.CONNECTOR_ID));
+        verify(this.connectorsRepository, never()).findById(anyInt());
+    }
+
+
+
+    @Test
+    @DisplayName("Matches the requests of a failed chunk one by one")
+    void retriesFailedChunkOneByOne() {
+        this.addRequest(1, "match", Request.Status.UNMATCHED);
+        this.addRequest(2, "match", Request.Status.UNMATCHED);
+        when(this.requestsRepository.save(argThat((request) -> request != null && request.getId() == 2)))
+                .thenThrow(new IllegalStateException("Failure"));
+
+        this.rematcher.rematchConnector(UnmatchedRequestsRematcherTest.CONNECTOR_ID);
+        RematchingReport report = this.waitForReport();
+
+        assertEquals(2, report.getCandidatesCount());
+        assertEquals(1, report.getMatchedCount());
+        assertEquals(1, report.getFailuresCount());
+        verify(this.transactionManager, times(1)).commit(any());
+        verify(this.transactionManager, times(2)).rollback(any());
+    }
+
+
+
+    @Test
+    @DisplayName("Leaves alone the requests that are not unmatched anymore")
+    void skipsRequestsNoLongerUnmatched() {
+        this.addRequest(1, "match", Request.Status.UNMATCHED);
+        when(this.requestsRepository.findIdsByConnectorIdAndStatus(eq(UnmatchedRequestsRematcherTest.CONNECTOR_ID),
+                any())).thenAnswer((invocation) -> {
+                    this.storedRequests.get(1).setStatus(Request.Status.TOEXPORT);
+                    return List.of(1);
+                });
+
+        this.rematcher.rematchConnector(UnmatchedRequestsRematcherTest.CONNECTOR_ID);
+        RematchingReport report = this.waitForReport();
+
+        assertEquals(0, report.getMatchedCount());
+        verify(this.requestsRepository, never()).save(any());
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        EmailSettings settings = Mockito.mock(EmailSettings.class);
+
+        assertThrows(IllegalArgumentException.class, () -> new UnmatchedRequestsRematcher(null, settings,
+                this.publisher, this.transactionManager, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> new UnmatchedRequestsRematcher(this.repositories, null,
+                this.publisher, this.transactionManager, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> new UnmatchedRequestsRematcher(this.repositories,
+                settings, null, this.transactionManager, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> new UnmatchedRequestsRematcher(this.repositories,
+                settings, this.publisher, null, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> new UnmatchedRequestsRematcher(this.repositories,
+                settings, this.publisher, this.transactionManager, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> new UnmatchedRequestsRematcher(this.repositories,
+                settings, this.publisher, this.transactionManager, 2, 0));
+    }
+
+
+
+    private void addRequest(int requestId, String orderLabel, Request.Status status) {
+        Request request = new Request(requestId);
+        request.setOrderLabel(orderLabel);
+        request.setStatus(status);
+        this.storedRequests.put(requestId, request);
+    }
+
+
+
+    private Request copyRequest(Request storedRequest) {
+        Request request = new Request(storedRequest.getId());
+        request.setOrderLabel(storedRequest.getOrderLabel());
+        request.setStatus(storedRequest.getStatus());
+
+        return request;
+    }
+
+
+
+    private RematchingReport waitForReport() {
+        return assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            RematchingReport report;
+
+            while ((report = this.rematcher.getLastReport(UnmatchedRequestsRematcherTest.CONNECTOR_ID)) == null) {
+                Thread.sleep(10);
+            }
+
+            return report;
+        });
+    }
+}
@@ -198,6 +198,52 @@ class ZipUtilsTest {
     }
 
 
+    @Test
+    void streamFolderContentLeavesStreamOpen() throws IOException {
+        Path subDir = tempDir.resolve("testFolder");
+        Files.createDirectories(subDir.resolve("nested"));
+        Files.writeString(subDir.resolve("file1.txt"), "Streamed content");
+        Files.writeString(subDir.resolve("nested").resolve("file2.txt"), "Nested content");
+        ClosingTrackingStream outputStream = new ClosingTrackingStream();
+
+        ZipUtils.streamFolderContent(subDir.toFile(), outputStream);
+
+        assertFalse(outputStream.closed);
+        byte[] zipBytes = outputStream.toByteArray();
+        assertEquals("Streamed content", extractFileContentFromZip(zipBytes, "file1.txt"));
+        assertEquals("Nested content", extractFileContentFromZip(zipBytes, "nested/file2.txt"));
+    }
+
+
+    @Test
+    void streamFolderContentStoresPrecompressedFiles() throws IOException {
+        Path subDir = tempDir.resolve("testFolder");
+        Files.createDirectory(subDir);
+        byte[] repetitiveContent = "A".repeat(100000).getBytes();
+        Files.write(subDir.resolve("archive.zip"), repetitiveContent);
+        Files.write(subDir.resolve("data.txt"), repetitiveContent);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        ZipUtils.streamFolderContent(subDir.toFile(), outputStream);
+
+        byte[] zipBytes = outputStream.toByteArray();
+        assertTrue(zipBytes.length > repetitiveContent.length);
+        assertArrayEquals(repetitiveContent, extractFileBytesFromZip(zipBytes, "archive.zip"));
+        assertArrayEquals(repetitiveContent, extractFileBytesFromZip(zipBytes, "data.txt"));
+    }
+
+
+    @Test
+    void streamFolderContentWithNullArguments() throws IOException {
+        Path subDir = tempDir.resolve("testFolder");
+        Files.createDirectory(subDir);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ZipUtils.streamFolderContent(null, new ByteArrayOutputStream()));
+        assertThrows(IllegalArgumentException.class, () -> ZipUtils.streamFolderContent(subDir.toFile(), null));
+    }
+
+
     @Test
     void addFileToZipWithFile() throws IOException {
         Path subDir = tempDir.resolve("testFolder");
@@ -389,4 +435,16 @@ class ZipUtilsTest {
         }
         return null;
     }
+
+
+    private static class ClosingTrackingStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            this.closed = true;
+            super.close();
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package ch.asit_asso.extract.unit.web;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import ch.asit_asso.extract.web.RequestLocks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RequestLocks")
+class RequestLocksTest {
+
+    private ExecutorService executor;
+
+
+
+    @BeforeEach
+    void setUp() {
+        this.executor = Executors.newFixedThreadPool(2);
+    }
+
+
+
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+
+
+    @Test
+    @DisplayName("Serializes the actions on the same request")
+    void serializesSameRequest() throws Exception {
+        RequestLocks locks = new RequestLocks(16);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        Future<Integer> first = this.executor.submit(() -> locks.callWithLock(3, () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            firstStarted.countDown();
+            await(releaseFirst);
+            running.decrementAndGet();
+            return 1;
+        }));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        Future<Integer> second = this.executor.submit(() -> locks.callWithLock(3, () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            running.decrementAndGet();
+            return 2;
+        }));
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+
+        releaseFirst.countDown();
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+    }
+
+
+
+    @Test
+    @DisplayName("Lets the actions on different requests run at the same time")
+    void runsDifferentRequestsConcurrently() throws Exception {
+        RequestLocks locks = new RequestLocks(16);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        Future<Boolean> first = this.executor.submit(() -> locks.callWithLock(1, () -> {
+            bothStarted.countDown();
+            return await(bothStarted);
+        }));
+        Future<Boolean> second = this.executor.submit(() -> locks.callWithLock(2, () -> {
+            bothStarted.countDown();
+            return await(bothStarted);
+        }));
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+    }
+
+
+
+    @Test
+    @DisplayName("Releases the lock when the action fails")
+    void releasesLockOnFailure() {
+        RequestLocks locks = new RequestLocks(1);
+
+        assertThrows(IllegalStateException.class, () -> locks.callWithLock(-5, () -> {
+            throw new IllegalStateException("Failure");
+        }));
+        assertEquals("done", assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> this.executor.submit(() -> locks.callWithLock(7, () -> "done")).get()));
+    }
+
+
+
+    @Test
+    @DisplayName("Holds the locks of several requests and releases them all")
+    void locksSeveralRequests() throws Exception {
+        RequestLocks locks = new RequestLocks(8);
+
+        assertEquals("held", locks.callWithLocks(List.of(5, 2, 13, 2), () -> {
+            Future<Boolean> other = this.executor.submit(() -> locks.callWithLock(13, () -> true));
+
+            try {
+                other.get(100, TimeUnit.MILLISECONDS);
+                return "free";
+
+            } catch (TimeoutException exception) {
+                return "held";
+
+            } catch (InterruptedException | ExecutionException exception) {
+                return "failed";
+            }
+        }));
+        assertThrows(IllegalStateException.class, () -> locks.callWithLocks(List.of(1, 2), () -> {
+            throw new IllegalStateException("Failure");
+        }));
+        assertEquals("done", assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> this.executor.submit(() -> locks.callWithLocks(List.of(1, 2, 5), () -> "done")).get()));
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestLocks(0));
+        assertThrows(IllegalArgumentException.class, () -> new RequestLocks(4).callWithLock(1, null));
+        assertThrows(IllegalArgumentException.class, () -> new RequestLocks(4).callWithLocks(null, () -> 1));
+    }
+
+
+
+    private static boolean await(CountDownLatch latch) {
+
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
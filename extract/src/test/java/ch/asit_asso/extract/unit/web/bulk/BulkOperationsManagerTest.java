@@ -0,0 +1,213 @@
+package ch.asit_asso.extract.unit.web.bulk;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.orchestrator.runners.RequestStatusChangedEvent;
+import ch.asit_asso.extract.web.RequestLocks;
+import ch.asit_asso.extract.web.bulk.BulkOperation;
+import ch.asit_asso.extract.web.bulk.BulkOperationsManager;
+import ch.asit_asso.extract.web.bulk.RequestActionRefusedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("BulkOperationsManager")
+class BulkOperationsManagerTest {
+
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationEventPublisher publisher;
+
+    private BulkOperationsManager manager;
+
+
+
+    @BeforeEach
+    void setUp() {
+        this.transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        this.publisher = Mockito.mock(ApplicationEventPublisher.class);
+        this.manager = new BulkOperationsManager(new RequestLocks(16), this.transactionManager, this.publisher, 2,
+                5, 3600000, 1);
+    }
+
+
+
+    @AfterEach
+    void tearDown() {
+        this.manager.destroy();
+    }
+
+
+
+    @Test
+    @DisplayName("Applies the action to each request in chunks and reports the result")
+    void processesRequestsInChunks() {
+        List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+
+        BulkOperation operation = this.manager.start(4, BulkOperation.Action.VALIDATE, List.of(1, 2, 3, 2),
+                (requestId) -> {
+                    handled.add(requestId);
+                    return new Request(requestId);
+                });
+        this.waitForCompletion(operation);
+
+        assertEquals(List.of(1, 2, 3), handled);
+        assertEquals(3, operation.getTotalCount());
+        assertEquals(3, operation.getSuccessesCount());
+        assertEquals(0, operation.getFailuresCount());
+        assertEquals(BulkOperation.Action.VALIDATE, operation.getAction());
+        verify(this.transactionManager, times(2)).commit(any());
+        verify(this.publisher, times(3)).publishEvent(any(RequestStatusChangedEvent.class));
+    }
+
+
+
+    @Test
+    @DisplayName("Records the reason why the action was refused for a request")
+    void recordsRefusedRequests() {
+
+        BulkOperation operation = this.manager.start(4, BulkOperation.Action.REJECT, List.of(1, 2), (requestId) -> {
+
+            if (requestId == 2) {
+                throw new RequestActionRefusedException("requestDetails.error.request.notAllowed");
+            }
+
+            return new Request(requestId);
+        });
+        this.waitForCompletion(operation);
+
+        assertEquals(1, operation.getSuccessesCount());
+        assertEquals(1, operation.getFailuresCount());
+        assertEquals("requestDetails.error.request.notAllowed", this.getReasons(operation).get(2));
+        verify(this.publisher, times(1)).publishEvent(any(RequestStatusChangedEvent.class));
+    }
+
+
+
+    @Test
+    @DisplayName("Processes the requests of a failed chunk one by one")
+    void retriesFailedChunkOneByOne() {
+        List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+
+        BulkOperation operation = this.manager.start(4, BulkOperation.Action.RELAUNCH, List.of(1, 2, 3),
+                (requestId) -> {
+                    handled.add(requestId);
+
+                    if (requestId == 2) {
+                        throw new OptimisticLockingFailureException("Conflict");
+                    }
+
+                    if (requestId == 3) {
+                        throw new IllegalStateException("Failure");
+                    }
+
+                    return new Request(requestId);
+                });
+        this.waitForCompletion(operation);
+
+        assertEquals(List.of(1, 2, 1, 2, 3), handled);
+        assertEquals(1, operation.getSuccessesCount());
+        assertEquals(2, operation.getFailuresCount());
+        Map<Integer, String> reasons = this.getReasons(operation);
+        assertNull(reasons.get(1));
+        assertEquals("requestDetails.error.request.concurrentModification", reasons.get(2));
+        assertEquals("requestsList.bulk.error.failed", reasons.get(3));
+    }
+
+
+
+    @Test
+    @DisplayName("Only gives the operation to the user who started it")
+    void restrictsOperationToOwner() {
+        BulkOperation operation = this.manager.start(4, BulkOperation.Action.VALIDATE, List.of(1),
+                Request::new);
+
+        assertSame(operation, this.manager.getOperation(operation.getId(), 4));
+        assertNull(this.manager.getOperation(operation.getId(), 5));
+        assertNull(this.manager.getOperation("unknown", 4));
+        assertNull(this.manager.getOperation(null, 4));
+    }
+
+
+
+    @Test
+    @DisplayName("Removes the reports of the operations that are over since too long")
+    void purgesExpiredOperations() throws InterruptedException {
+        BulkOperationsManager shortLivedManager = new BulkOperationsManager(new RequestLocks(4),
+                this.transactionManager, this.publisher, 2, 5, 1, 1);
+
+        try {
+            BulkOperation operation = shortLivedManager.start(4, BulkOperation.Action.VALIDATE, List.of(1),
+                    Request::new);
+            this.waitForCompletion(operation);
+            Thread.sleep(10);
+
+            shortLivedManager.purgeExpiredOperations();
+
+            assertNull(shortLivedManager.getOperation(operation.getId(), 4));
+
+        } finally {
+            shortLivedManager.destroy();
+        }
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        RequestLocks locks = new RequestLocks(4);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> this.manager.start(4, BulkOperation.Action.VALIDATE, List.of(1, 2, 3, 4, 5, 6), Request::new));
+        assertThrows(IllegalArgumentException.class,
+                () -> this.manager.start(4, BulkOperation.Action.VALIDATE, List.of(), Request::new));
+        assertThrows(IllegalArgumentException.class,
+                () -> this.manager.start(4, BulkOperation.Action.VALIDATE, List.of(1), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BulkOperationsManager(null, this.transactionManager, this.publisher, 2, 5, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BulkOperationsManager(locks, null, this.publisher, 2, 5, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BulkOperationsManager(locks, this.transactionManager, null, 2, 5, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BulkOperationsManager(locks, this.transactionManager, this.publisher, 0, 5, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BulkOperationsManager(locks, this.transactionManager, this.publisher, 2, 5, 1, 0));
+    }
+
+
+
+    private Map<Integer, String> getReasons(BulkOperation operation) {
+        return operation.getResults().stream()
+                        .filter((result) -> !result.isSuccess())
+                        .collect(Collectors.toMap(BulkOperation.Result::getRequestId,
+                                                  BulkOperation.Result::getMessageKey));
+    }
+
+
+
+    private void waitForCompletion(BulkOperation operation) {
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+
+            while (!operation.isComplete()) {
+                Thread.sleep(10);
+            }
+        });
+    }
+}
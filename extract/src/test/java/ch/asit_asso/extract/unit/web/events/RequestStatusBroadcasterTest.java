@@ -0,0 +1,214 @@
+package ch.asit_asso.extract.unit.web.events;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.orchestrator.runners.RequestStatusChangedEvent;
+import ch.asit_asso.extract.persistence.RequestsRepository;
+import ch.asit_asso.extract.web.events.RequestStatusBroadcaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RequestStatusBroadcaster")
+class RequestStatusBroadcasterTest {
+
+    @Mock
+    private RequestsRepository requestsRepository;
+
+    private RequestStatusBroadcaster broadcaster;
+
+
+
+    @BeforeEach
+    void setUp() {
+        this.broadcaster = new RequestStatusBroadcaster(this.requestsRepository, 3, 60000, 1);
+    }
+
+
+
+    @AfterEach
+    void tearDown() {
+        this.broadcaster.destroy();
+    }
+
+
+
+    @Test
+    @DisplayName("Sends the events to the administrators and to the users allowed to view the request")
+    void filtersEventsByUser() throws InterruptedException {
+        RecordingEmitter admin = new RecordingEmitter(1);
+        RecordingEmitter viewer = new RecordingEmitter(1);
+        RecordingEmitter other = new RecordingEmitter(0);
+        this.broadcaster.subscribe(admin, 1, true);
+        this.broadcaster.subscribe(viewer, 2, false);
+        this.broadcaster.subscribe(other, 3, false);
+        when(this.requestsRepository.findAssociatedUsersIds(12)).thenReturn(List.of(2, 5));
+
+        this.broadcaster.onRequestStatusChanged(this.createEvent(12, Request.Status.TOEXPORT));
+
+        assertTrue(admin.await());
+        assertTrue(viewer.await());
+        assertTrue(admin.getText().contains("event:requestStatus"));
+        assertTrue(viewer.getText().contains("requestId=12"));
+        assertTrue(viewer.getText().contains("status=TOEXPORT"));
+        assertTrue(other.getText().isEmpty());
+        verify(this.requestsRepository, times(1)).findAssociatedUsersIds(12);
+    }
+
+
+
+    @Test
+    @DisplayName("Does not look for the users allowed to view the request if only administrators listen")
+    void skipsViewersQueryForAdministrators() throws InterruptedException {
+        RecordingEmitter admin = new RecordingEmitter(1);
+        this.broadcaster.subscribe(admin, 1, true);
+
+        this.broadcaster.onRequestStatusChanged(this.createEvent(7, Request.Status.ONGOING));
+
+        assertTrue(admin.await());
+        verify(this.requestsRepository, never()).findAssociatedUsersIds(anyInt());
+    }
+
+
+
+    @Test
+    @DisplayName("Asks the client to reload its data when its buffer is full")
+    void sendsResyncWhenBufferIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slowClient = new RecordingEmitter(2, release);
+        this.broadcaster.subscribe(slowClient, 1, true);
+
+        this.broadcaster.onRequestStatusChanged(this.createEvent(1, Request.Status.ONGOING));
+        assertTrue(slowClient.sending.await(5, TimeUnit.SECONDS));
+
+        for (int eventIndex = 2; eventIndex <= 10; eventIndex++) {
+            this.broadcaster.onRequestStatusChanged(this.createEvent(eventIndex, Request.Status.ONGOING));
+        }
+
+        release.countDown();
+
+        assertTrue(slowClient.await());
+        assertTrue(slowClient.getText().contains("event:resync"));
+        assertEquals(2, slowClient.getSentCount());
+    }
+
+
+
+    @Test
+    @DisplayName("Forgets the clients that cannot be reached anymore")
+    void removesUnreachableClients() throws InterruptedException {
+        RecordingEmitter brokenClient = new RecordingEmitter(1);
+        brokenClient.failing = true;
+        this.broadcaster.subscribe(brokenClient, 1, true);
+        assertEquals(1, this.broadcaster.getSubscribersCount());
+
+        this.broadcaster.onRequestStatusChanged(this.createEvent(3, Request.Status.ERROR));
+
+        assertTrue(brokenClient.await());
+
+        for (int attempt = 0; attempt < 100 && this.broadcaster.getSubscribersCount() > 0; attempt++) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, this.broadcaster.getSubscribersCount());
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestStatusBroadcaster(null, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new RequestStatusBroadcaster(this.requestsRepository, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new RequestStatusBroadcaster(this.requestsRepository, 1, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new RequestStatusBroadcaster(this.requestsRepository, 1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RequestStatusChangedEvent(new Request()));
+    }
+
+
+
+    private RequestStatusChangedEvent createEvent(int requestId, Request.Status status) {
+        Request request = new Request(requestId);
+        request.setStatus(status);
+
+        return new RequestStatusChangedEvent(request);
+    }
+
+
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch expectedEvents;
+
+        private final CountDownLatch release;
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        private final List<String> sentEvents = new CopyOnWriteArrayList<>();
+
+        private volatile boolean failing;
+
+        RecordingEmitter(int expectedEventsNumber) {
+            this(expectedEventsNumber, new CountDownLatch(0));
+        }
+
+        RecordingEmitter(int expectedEventsNumber, CountDownLatch releaseLatch) {
+            this.expectedEvents = new CountDownLatch(expectedEventsNumber);
+            this.release = releaseLatch;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            this.sending.countDown();
+
+            try {
+                this.release.await(5, TimeUnit.SECONDS);
+
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (this.failing) {
+                this.expectedEvents.countDown();
+                throw new IOException("Connection closed");
+            }
+
+            this.sentEvents.add(builder.build().stream().map((data) -> String.valueOf(data.getData()))
+                                       .collect(Collectors.joining()));
+            this.expectedEvents.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return this.expectedEvents.await(5, TimeUnit.SECONDS);
+        }
+
+        int getSentCount() {
+            return this.sentEvents.size();
+        }
+
+        String getText() {
+            return String.join("\n", this.sentEvents);
+        }
+    }
+}
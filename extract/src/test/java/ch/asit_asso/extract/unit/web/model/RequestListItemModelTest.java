@@ -0,0 +1,141 @@
+package ch.asit_asso.extract.unit.web.model;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import ch.asit_asso.extract.domain.Request;
+import ch.asit_asso.extract.domain.RequestHistoryRecord;
+import ch.asit_asso.extract.domain.projections.RequestListItem;
+import ch.asit_asso.extract.domain.projections.RequestStepSummary;
+import ch.asit_asso.extract.persistence.RequestHistoryRepository;
+import ch.asit_asso.extract.web.model.RequestListItemModel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RequestListItemModel")
+class RequestListItemModelTest {
+
+    private static final Calendar START_DATE = new GregorianCalendar(2024, Calendar.JANUARY, 10, 8, 0);
+
+    @Mock
+    private MessageSource messageSource;
+
+    @Mock
+    private RequestHistoryRepository historyRepository;
+
+
+
+    @Test
+    @DisplayName("Uses the last task that was not skipped as the current step")
+    void currentStepIgnoresSkippedTasks() {
+        Calendar taskEnd = new GregorianCalendar(2024, Calendar.JANUARY, 10, 9, 30);
+        List<RequestStepSummary> history = List.of(
+                this.createStep(1, 0, RequestHistoryRecord.Status.FINISHED, "Import", null),
+                this.createStep(2, 1, RequestHistoryRecord.Status.FINISHED, "Extraction", taskEnd),
+                this.createStep(3, 2, RequestHistoryRecord.Status.SKIPPED, "Validation", null)
+        );
+
+        RequestListItemModel model = new RequestListItemModel(this.createItem(1, Request.Status.ONGOING), history,
+                                                              this.messageSource);
+
+        assertEquals("Extraction", model.getCurrentStepName(Locale.ENGLISH));
+        assertEquals(taskEnd, model.getTaskDate());
+    }
+
+
+
+    @Test
+    @DisplayName("Uses the last entry of a rerun task")
+    void currentStepUsesLastRun() {
+        List<RequestStepSummary> history = List.of(
+                this.createStep(1, 1, RequestHistoryRecord.Status.ERROR, "First run", null),
+                this.createStep(2, 1, RequestHistoryRecord.Status.ONGOING, "Second run", null)
+        );
+
+        RequestListItemModel model = new RequestListItemModel(this.createItem(1, Request.Status.ONGOING), history,
+                                                              this.messageSource);
+
+        assertEquals("Second run", model.getCurrentStepName(Locale.ENGLISH));
+    }
+
+
+
+    @Test
+    @DisplayName("Uses the import label and the start date when there is no history")
+    void noHistory() {
+        when(this.messageSource.getMessage(eq("requestHistory.tasks.import.label"), isNull(), any(Locale.class)))
+                .thenReturn("Import");
+
+        RequestListItemModel model = new RequestListItemModel(this.createItem(1, Request.Status.IMPORTED),
+                                                              List.of(), this.messageSource);
+
+        assertEquals("Import", model.getCurrentStepName(Locale.ENGLISH));
+        assertEquals(RequestListItemModelTest.START_DATE, model.getTaskDate());
+        assertEquals("", model.getProcessName());
+        assertFalse(model.isInError());
+    }
+
+
+
+    @Test
+    @DisplayName("Reads the history of all the requests at once")
+    void fromListItemsBatchesHistory() {
+        RequestListItem first = this.createItem(1, Request.Status.ONGOING);
+        RequestListItem second = this.createItem(2, Request.Status.ERROR);
+        when(this.historyRepository.findStepSummariesByRequestIdIn(List.of(1, 2))).thenReturn(List.of(
+                new RequestStepSummary(2, 1, 1, RequestHistoryRecord.Status.ERROR, "Failed task",
+                                       RequestListItemModelTest.START_DATE, null)
+        ));
+
+        RequestListItemModel[] models = RequestListItemModel.fromListItems(List.of(first, second),
+                                                                           this.historyRepository, this.messageSource);
+
+        verify(this.historyRepository, times(1)).findStepSummariesByRequestIdIn(any());
+        assertEquals(2, models.length);
+        assertEquals(2, models[1].getId());
+        assertEquals("Failed task", models[1].getCurrentStepName(Locale.ENGLISH));
+        assertTrue(models[1].isInError());
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        RequestListItem item = this.createItem(1, Request.Status.ONGOING);
+
+        assertThrows(IllegalArgumentException.class, () -> new RequestListItemModel(null, List.of(),
+                                                                                    this.messageSource));
+        assertThrows(IllegalArgumentException.class, () -> new RequestListItemModel(item, null, this.messageSource));
+        assertThrows(IllegalArgumentException.class, () -> new RequestListItemModel(item, List.of(), null));
+    }
+
+
+
+    private RequestListItem createItem(int id, Request.Status status) {
+        return new RequestListItem(id, "Order " + id, "Product", "Customer", RequestListItemModelTest.START_DATE,
+                                   status, false, "Connector", null, null);
+    }
+
+
+
+    private RequestStepSummary createStep(int step, int processStep, RequestHistoryRecord.Status status,
+                                          String label, Calendar endDate) {
+        return new RequestStepSummary(1, step, processStep, status, label, RequestListItemModelTest.START_DATE,
+                                      endDate);
+    }
+}
@@ -24,6 +24,10 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -250,4 +254,48 @@ public class RequestModelTest {
         assertTrue(model.isInError(), "isInError should be true");
     }
     
+    /**
+     * Test that the history of a set of requests is read in a single query and dispatched to each request.
+     */
+    @Test
+    @DisplayName("fromDomainRequestsCollection should read the history of all the requests at once")
+    public void testFromDomainRequestsCollectionBatchesHistory() {
+        // Given: Two requests, each with its own history
+        Request otherRequest = mock(Request.class);
+        when(otherRequest.getId()).thenReturn(2);
+        when(otherRequest.getStatus()).thenReturn(Request.Status.IMPORTFAIL);
+        when(mockRequest.getStatus()).thenReturn(Request.Status.IMPORTFAIL);
+        List<Request> requests = List.of(mockRequest, otherRequest);
+        RequestHistoryRecord firstRecord = createHistoryRecord(mockRequest, 1);
+        RequestHistoryRecord secondRecord = createHistoryRecord(otherRequest, 1);
+        RequestHistoryRecord thirdRecord = createHistoryRecord(otherRequest, 2);
+        when(mockHistoryRepository.findByRequestIn(requests))
+                .thenReturn(List.of(firstRecord, secondRecord, thirdRecord));
+
+        // When: Creating RequestModels from the collection
+        RequestModel[] models = RequestModel.fromDomainRequestsCollection(
+            requests, mockHistoryRepository, System.getProperty("java.io.tmpdir"), mockMessageSource,
+            validationFocusProperties
+        );
+
+        // Then: The history is read once and each model only holds the records of its request
+        verify(mockHistoryRepository, times(1)).findByRequestIn(any());
+        verify(mockHistoryRepository, never()).findByRequestOrderByStep(any());
+        assertEquals(2, models.length);
+        assertArrayEquals(new RequestHistoryRecord[]{firstRecord}, models[0].getFullHistory());
+        assertArrayEquals(new RequestHistoryRecord[]{secondRecord, thirdRecord}, models[1].getFullHistory());
+    }
+
+
+
+    private RequestHistoryRecord createHistoryRecord(Request request, int step) {
+        RequestHistoryRecord record = new RequestHistoryRecord();
+        record.setRequest(request);
+        record.setStep(step);
+        record.setProcessStep(0);
+        record.setStatus(RequestHistoryRecord.Status.FINISHED);
+
+        return record;
+    }
+    
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+package ch.asit_asso.extract.unit.web.uploads;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import ch.asit_asso.extract.web.uploads.ChunkedUpload;
+import ch.asit_asso.extract.web.uploads.ChunkedUploadManager;
+import ch.asit_asso.extract.web.uploads.ChunkedUploadManager.ChunkResult;
+import ch.asit_asso.extract.web.uploads.ChunkedUploadManager.ChunkStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ChunkedUploadManager")
+class ChunkedUploadManagerTest {
+
+    private static final int CHUNK_SIZE = 4;
+
+    private static final byte[] CONTENT = "0123456789".getBytes();
+
+    @TempDir
+    Path tempDir;
+
+    private ChunkedUploadManager manager;
+
+    private File outputFolder;
+
+
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.manager = new ChunkedUploadManager(ChunkedUploadManagerTest.CHUNK_SIZE, 60000);
+        this.outputFolder = Files.createDirectories(this.tempDir.resolve("request").resolve("output")).toFile();
+    }
+
+
+
+    @Test
+    @DisplayName("Assembles the chunks in the output folder")
+    void assemblesChunks() throws IOException {
+        ChunkedUpload upload = this.manager.start(this.outputFolder, "my raster.tif", CONTENT.length, "1");
+
+        assertEquals(0, upload.getReceivedSize());
+        assertEquals(ChunkStatus.ACCEPTED, this.sendChunk(upload.getId(), 0, 4).getStatus());
+        assertEquals(ChunkStatus.ACCEPTED, this.sendChunk(upload.getId(), 4, 8).getStatus());
+        assertFalse(new File(this.outputFolder, "my_raster.tif").exists());
+
+        assertEquals(1, this.manager.countPendingUploads(this.outputFolder));
+        assertEquals(ChunkStatus.ACCEPTED, this.manager.complete(this.outputFolder, upload.getId()).getStatus());
+
+        ChunkResult result = this.sendChunk(upload.getId(), 8, 10);
+
+        assertEquals(ChunkStatus.RECEIVED, result.getStatus());
+        assertTrue(result.getUpload().isComplete());
+        assertFalse(new File(this.outputFolder, "my_raster.tif").exists());
+
+        result = this.manager.complete(this.outputFolder, upload.getId());
+
+        assertEquals(ChunkStatus.COMPLETED, result.getStatus());
+        assertEquals(0, this.manager.countPendingUploads(this.outputFolder));
+        assertArrayEquals(CONTENT, Files.readAllBytes(this.outputFolder.toPath().resolve("my_raster.tif")));
+        assertArrayEquals(new String[]{"my_raster.tif"}, this.outputFolder.list());
+        assertFalse(this.tempDir.resolve("request").resolve(".uploads").toFile().exists());
+    }
+
+
+
+    @Test
+    @DisplayName("Never replaces a file of the output folder")
+    void keepsExistingFiles() throws IOException {
+        Path existingFile = Files.writeString(this.outputFolder.toPath().resolve("data.zip"), "existing");
+
+        assertThrows(FileAlreadyExistsException.class,
+                     () -> this.manager.start(this.outputFolder, "data.zip", CONTENT.length, "1"));
+        assertThrows(FileAlreadyExistsException.class, () -> this.manager.start(this.outputFolder, "data.zip", 0, "1"));
+
+        Files.delete(existingFile);
+        ChunkedUpload upload = this.manager.start(this.outputFolder, "data.zip", CONTENT.length, "1");
+        this.sendChunk(upload.getId(), 0, 4);
+        this.sendChunk(upload.getId(), 4, 8);
+        this.sendChunk(upload.getId(), 8, 10);
+        Files.writeString(existingFile, "existing");
+
+        assertThrows(FileAlreadyExistsException.class, () -> this.manager.complete(this.outputFolder, upload.getId()));
+        assertEquals("existing", Files.readString(existingFile));
+        assertEquals(0, this.manager.countPendingUploads(this.outputFolder));
+        assertEquals(ChunkStatus.UNKNOWN_UPLOAD, this.manager.complete(this.outputFolder, upload.getId()).getStatus());
+    }
+
+
+
+    @Test
+    @DisplayName("Resumes an upload from the last chunk received")
+    void resumesUpload() throws IOException {
+        ChunkedUpload upload = this.manager.start(this.outputFolder, "data.zip", CONTENT.length, "1");
+        this.sendChunk(upload.getId(), 0, 4);
+
+        ChunkedUpload resumedUpload = this.manager.start(this.outputFolder, "data.zip", CONTENT.length, "1");
+        ChunkedUpload otherVersion = this.manager.start(this.outputFolder, "data.zip", CONTENT.length, "2");
+
+        assertEquals(upload.getId(), resumedUpload.getId());
+        assertEquals(4, resumedUpload.getReceivedSize());
+        assertNotEquals(upload.getId(), otherVersion.getId());
+        assertEquals(0, otherVersion.getReceivedSize());
+    }
+
+
+
+    @Test
+    @DisplayName("Discards a chunk whose content does not match its checksum")
+    void rejectsCorruptedChunk() throws IOException {
+        ChunkedUpload upload = this.manager.start(this.outputFolder, "data.zip", CONTENT.length, "1");
+        this.sendChunk(upload.getId(), 0, 4);
+
+        ChunkResult result = this.manager.writeChunk(this.outputFolder, upload.getId(), 4, 4, "00000000",
+                new ByteArrayInputStream(CONTENT, 4, 4));
+
+        assertEquals(ChunkStatus.CHECKSUM_MISMATCH, result.getStatus());
+        assertEquals(4, result.getUpload().getReceivedSize());
+        assertEquals(4, this.manager.start(this.outputFolder, "data.zip", CONTENT.length, "1").getReceivedSize());
+    }
+
+
+
+    @Test
+    @DisplayName("Discards a chunk whose content is shorter than announced")
+    void rejectsTruncatedChunk() throws IOException {
+        ChunkedUpload upload = this.manager.start(this.outputFolder, "data.zip", CONTENT.length, "1");
+
+        ChunkResult result = this.manager.writeChunk(this.outputFolder, upload.getId(), 0, 4,
+                this.checksum(0, 2), new ByteArrayInputStream(CONTENT, 0, 2));
+
+        assertEquals(ChunkStatus.CHECKSUM_MISMATCH, result.getStatus());
+        assertEquals(0, this.manager.start(this.outputFolder, "data.zip", CONTENT.length, "1").getReceivedSize());
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects the chunks that do not follow the last one received")
+    void rejectsUnexpectedOffset() throws IOException {
+        ChunkedUpload upload = this.manager.start(this.outputFolder, "data.zip", CONTENT.length, "1");
+
+        ChunkResult result = this.sendChunk(upload.getId(), 4, 8);
+
+        assertEquals(ChunkStatus.OFFSET_MISMATCH, result.getStatus());
+        assertEquals(0, result.getUpload().getReceivedSize());
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects the chunks that are too large or go beyond the end of the file")
+    void rejectsInvalidSize() throws IOException {
+        ChunkedUpload upload = this.manager.start(this.outputFolder, "data.zip", CONTENT.length, "1");
+
+        assertEquals(ChunkStatus.INVALID_SIZE, this.sendChunk(upload.getId(), 0, 5).getStatus());
+        assertEquals(ChunkStatus.INVALID_SIZE, this.manager.writeChunk(this.outputFolder, upload.getId(), 8, 4,
+                "00000000", new ByteArrayInputStream(new byte[4])).getStatus());
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects the unknown or malformed upload identifiers")
+    void rejectsUnknownUpload() throws IOException {
+        assertEquals(ChunkStatus.UNKNOWN_UPLOAD, this.sendChunk("0123456789abcdef0123456789abcdef", 0, 4).getStatus());
+        assertEquals(ChunkStatus.UNKNOWN_UPLOAD, this.sendChunk("../output/data", 0, 4).getStatus());
+    }
+
+
+
+    @Test
+    @DisplayName("Creates an empty file immediately")
+    void createsEmptyFile() throws IOException {
+        ChunkedUpload upload = this.manager.start(this.outputFolder, "empty.txt", 0, "1");
+
+        assertTrue(upload.isComplete());
+        assertEquals(0, Files.size(this.outputFolder.toPath().resolve("empty.txt")));
+    }
+
+
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedUploadManager(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedUploadManager(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> this.manager.start(this.outputFolder, "..", 1, "1"));
+        assertThrows(IllegalArgumentException.class, () -> this.manager.start(this.outputFolder, "a.txt", -1, "1"));
+        assertThrows(IllegalArgumentException.class,
+                     () -> this.manager.start(this.tempDir.resolve("missing").toFile(), "a.txt", 1, "1"));
+    }
+
+
+
+    private ChunkResult sendChunk(String uploadId, int start, int end) throws IOException {
+        byte[] chunk = Arrays.copyOfRange(CONTENT, start, Math.min(end, CONTENT.length));
+
+        return this.manager.writeChunk(this.outputFolder, uploadId, start, end - start, this.checksum(start, end),
+                new ByteArrayInputStream(chunk));
+    }
+
+
+
+    private String checksum(int start, int end) {
+        CRC32 crc = new CRC32();
+        crc.update(CONTENT, start, Math.min(end, CONTENT.length) - start);
+
+        return String.format("%08x", crc.getValue());
+    }
+}
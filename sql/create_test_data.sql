@@ -189,6 +189,11 @@ ON CONFLICT (id_record) DO NOTHING;
 
 -- ==================== END TEST DATA FOR STANDBY REMINDERS ====================
 
+-- Search text of the requests inserted above, normally computed when a request is saved
+UPDATE requests SET search_text = lower(concat_ws(E'\n', COALESCE(p_client, ''), COALESCE(p_tiers, ''),
+    COALESCE(p_orderlabel, ''), COALESCE(p_productlabel, ''), COALESCE(p_orderguid, ''), COALESCE(p_productguid, '')))
+WHERE search_text IS NULL;
+
 -- Hibernate with hibernate.id.new_generator_mappings=true uses {entity_name}_seq pattern
 -- We need to update both PostgreSQL SERIAL-style and Hibernate-style sequences
 DO $$
@@ -254,3 +259,6 @@ BEGIN
     END IF;
 END
 $$;
+
+-- Grants the access to the test requests (also maintained by the triggers defined in update_db.sql)
+SELECT refresh_request_visibility(NULL, NULL);
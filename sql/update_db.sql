@@ -118,6 +118,24 @@ UPDATE requests r SET last_reminder = (
     WHERE rh.id_request = r.id_request
 ) WHERE r.status = 'STANDBY' AND r.last_reminder IS NULL;
 
+CREATE INDEX IF NOT EXISTS idx_request_status_last_reminder ON requests (status, last_reminder);
+
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS last_modified TIMESTAMP WITHOUT TIME ZONE;
+
+UPDATE requests SET last_modified = COALESCE(end_date, start_date, now()) WHERE last_modified IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_request_last_modified ON requests (last_modified);
+
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS search_text TEXT;
+
+UPDATE requests SET search_text = lower(concat_ws(E'\n', COALESCE(p_client, ''), COALESCE(p_tiers, ''),
+    COALESCE(p_orderlabel, ''), COALESCE(p_productlabel, ''), COALESCE(p_orderguid, ''), COALESCE(p_productguid, '')))
+WHERE search_text IS NULL;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_request_search_text ON requests USING gin (search_text gin_trgm_ops);
+
 -- REQUEST_HISTORY Table
 
 ALTER TABLE request_history
@@ -267,3 +285,457 @@ ALTER TABLE tasks ALTER COLUMN version SET DEFAULT 0;
 -- UNIQUE CONSTRAINT on request_history to prevent duplicate steps per request
 CREATE UNIQUE INDEX IF NOT EXISTS uq_request_history_request_step
     ON request_history (id_request, step);
+
+-- REQUEST_VISIBILITY Table (precomputed list of the users allowed to see each request)
+
+CREATE TABLE IF NOT EXISTS request_visibility (
+    id_request INTEGER NOT NULL,
+    id_user INTEGER NOT NULL,
+    CONSTRAINT request_visibility_pkey PRIMARY KEY (id_request, id_user)
+);
+
+ALTER TABLE request_visibility
+    DROP CONSTRAINT IF EXISTS fk_request_visibility_request;
+
+ALTER TABLE request_visibility
+    ADD CONSTRAINT fk_request_visibility_request FOREIGN KEY (id_request)
+        REFERENCES requests (id_request) MATCH SIMPLE
+        ON UPDATE NO ACTION ON DELETE CASCADE;
+
+ALTER TABLE request_visibility
+    DROP CONSTRAINT IF EXISTS fk_request_visibility_user;
+
+ALTER TABLE request_visibility
+    ADD CONSTRAINT fk_request_visibility_user FOREIGN KEY (id_user)
+        REFERENCES users (id_user) MATCH SIMPLE
+        ON UPDATE NO ACTION ON DELETE CASCADE;
+
+CREATE INDEX IF NOT EXISTS idx_request_visibility_user ON request_visibility (id_user, id_request);
+
+-- Recomputes the visibility rows of the given requests for the given users. A NULL array means all of them.
+-- A user can see a request if they operate its process, directly or through a group, or if the request was
+-- assigned to them, directly or through a group.
+CREATE OR REPLACE FUNCTION refresh_request_visibility(p_requests INTEGER[], p_users INTEGER[])
+RETURNS VOID AS $$
+BEGIN
+    DELETE FROM request_visibility v
+    WHERE (p_requests IS NULL OR v.id_request = ANY (p_requests))
+      AND (p_users IS NULL OR v.id_user = ANY (p_users));
+
+    INSERT INTO request_visibility (id_request, id_user)
+    SELECT s.id_request, s.id_user
+    FROM (
+        SELECT r.id_request, pu.id_user
+        FROM requests r
+            JOIN processes_users pu ON pu.id_process = r.id_process
+        UNION
+        SELECT r.id_request, uu.id_user
+        FROM requests r
+            JOIN processes_usergroups pg ON pg.id_process = r.id_process
+            JOIN users_usergroups uu ON uu.id_usergroup = pg.id_usergroup
+        UNION
+        SELECT ru.id_request, ru.id_user
+        FROM requests_users ru
+        UNION
+        SELECT rg.id_request, uu.id_user
+        FROM requests_usergroups rg
+            JOIN users_usergroups uu ON uu.id_usergroup = rg.id_usergroup
+    ) s
+    WHERE (p_requests IS NULL OR s.id_request = ANY (p_requests))
+      AND (p_users IS NULL OR s.id_user = ANY (p_users))
+      -- Rows removed by a cascading delete in the same statement must not be referenced
+      AND EXISTS (SELECT 1 FROM requests r WHERE r.id_request = s.id_request)
+      AND EXISTS (SELECT 1 FROM users u WHERE u.id_user = s.id_user)
+    ON CONFLICT DO NOTHING;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recomputes the visibility rows affected by a row of one of the tables that grant access to a request
+CREATE OR REPLACE FUNCTION refresh_request_visibility_for_row(p_table TEXT, p_row JSONB)
+RETURNS VOID AS $$
+DECLARE
+    v_request INTEGER := (p_row ->> 'id_request')::INTEGER;
+    v_user INTEGER := (p_row ->> 'id_user')::INTEGER;
+BEGIN
+    CASE p_table
+        WHEN 'requests' THEN
+            PERFORM refresh_request_visibility(ARRAY[v_request], NULL);
+        WHEN 'requests_users' THEN
+            PERFORM refresh_request_visibility(ARRAY[v_request], ARRAY[v_user]);
+        WHEN 'requests_usergroups' THEN
+            PERFORM refresh_request_visibility(ARRAY[v_request], NULL);
+    END CASE;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION request_visibility_on_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM refresh_request_visibility_for_row(TG_TABLE_NAME, to_jsonb(OLD));
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM refresh_request_visibility_for_row(TG_TABLE_NAME, to_jsonb(NEW));
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recomputes the visibility rows of the users whose group memberships were modified by a statement. It runs once
+-- per statement, so that a synchronization that modifies many memberships does not recompute each user once per
+-- row. The transition tables that exist depend on the operation.
+CREATE OR REPLACE FUNCTION request_visibility_on_membership_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_users INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT m.id_user) INTO v_users FROM new_memberships m;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT m.id_user) INTO v_users FROM old_memberships m;
+    ELSE
+        SELECT array_agg(DISTINCT m.id_user) INTO v_users
+        FROM (SELECT id_user FROM old_memberships UNION SELECT id_user FROM new_memberships) m;
+    END IF;
+
+    IF v_users IS NOT NULL THEN
+        PERFORM refresh_request_visibility(NULL, v_users);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recomputes the visibility rows of the requests of the processes whose operators were modified by a statement.
+-- Saving a process rewrites all its operators rows, so this also runs once per statement rather than once per row.
+-- Only the operators concerned are recomputed: the users of the modified rows or the current members of the
+-- modified groups. The members who left a group are recomputed by the membership triggers.
+CREATE OR REPLACE FUNCTION request_visibility_on_process_operators_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_rows JSONB[];
+    v_requests INTEGER[];
+    v_users INTEGER[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(to_jsonb(o)) INTO v_rows FROM new_operators o;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(to_jsonb(o)) INTO v_rows FROM old_operators o;
+    ELSE
+        SELECT array_agg(o.row_data) INTO v_rows
+        FROM (SELECT to_jsonb(n) AS row_data FROM new_operators n
+              UNION ALL
+              SELECT to_jsonb(d) FROM old_operators d) o;
+    END IF;
+
+    IF v_rows IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    SELECT array_agg(r.id_request) INTO v_requests
+    FROM requests r
+    WHERE r.id_process IN (SELECT DISTINCT (c ->> 'id_process')::INTEGER FROM unnest(v_rows) c);
+
+    IF TG_TABLE_NAME = 'processes_users' THEN
+        SELECT array_agg(DISTINCT (c ->> 'id_user')::INTEGER) INTO v_users FROM unnest(v_rows) c;
+    ELSE
+        SELECT array_agg(DISTINCT uu.id_user) INTO v_users
+        FROM users_usergroups uu
+        WHERE uu.id_usergroup IN (SELECT DISTINCT (c ->> 'id_usergroup')::INTEGER FROM unnest(v_rows) c);
+    END IF;
+
+    IF v_requests IS NOT NULL AND v_users IS NOT NULL THEN
+        PERFORM refresh_request_visibility(v_requests, v_users);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_request_visibility_request_insert ON requests;
+
+CREATE TRIGGER trg_request_visibility_request_insert
+    AFTER INSERT ON requests
+    FOR EACH ROW EXECUTE FUNCTION request_visibility_on_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility_request_process ON requests;
+
+CREATE TRIGGER trg_request_visibility_request_process
+    AFTER UPDATE OF id_process ON requests
+    FOR EACH ROW WHEN (OLD.id_process IS DISTINCT FROM NEW.id_process)
+    EXECUTE FUNCTION request_visibility_on_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility ON requests_users;
+
+CREATE TRIGGER trg_request_visibility
+    AFTER INSERT OR UPDATE OR DELETE ON requests_users
+    FOR EACH ROW EXECUTE FUNCTION request_visibility_on_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility ON requests_usergroups;
+
+CREATE TRIGGER trg_request_visibility
+    AFTER INSERT OR UPDATE OR DELETE ON requests_usergroups
+    FOR EACH ROW EXECUTE FUNCTION request_visibility_on_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility ON processes_users;
+DROP TRIGGER IF EXISTS trg_request_visibility_insert ON processes_users;
+
+CREATE TRIGGER trg_request_visibility_insert
+    AFTER INSERT ON processes_users
+    REFERENCING NEW TABLE AS new_operators
+    FOR EACH STATEMENT EXECUTE FUNCTION request_visibility_on_process_operators_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility_update ON processes_users;
+
+CREATE TRIGGER trg_request_visibility_update
+    AFTER UPDATE ON processes_users
+    REFERENCING OLD TABLE AS old_operators NEW TABLE AS new_operators
+    FOR EACH STATEMENT EXECUTE FUNCTION request_visibility_on_process_operators_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility_delete ON processes_users;
+
+CREATE TRIGGER trg_request_visibility_delete
+    AFTER DELETE ON processes_users
+    REFERENCING OLD TABLE AS old_operators
+    FOR EACH STATEMENT EXECUTE FUNCTION request_visibility_on_process_operators_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility ON processes_usergroups;
+DROP TRIGGER IF EXISTS trg_request_visibility_insert ON processes_usergroups;
+
+CREATE TRIGGER trg_request_visibility_insert
+    AFTER INSERT ON processes_usergroups
+    REFERENCING NEW TABLE AS new_operators
+    FOR EACH STATEMENT EXECUTE FUNCTION request_visibility_on_process_operators_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility_update ON processes_usergroups;
+
+CREATE TRIGGER trg_request_visibility_update
+    AFTER UPDATE ON processes_usergroups
+    REFERENCING OLD TABLE AS old_operators NEW TABLE AS new_operators
+    FOR EACH STATEMENT EXECUTE FUNCTION request_visibility_on_process_operators_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility_delete ON processes_usergroups;
+
+CREATE TRIGGER trg_request_visibility_delete
+    AFTER DELETE ON processes_usergroups
+    REFERENCING OLD TABLE AS old_operators
+    FOR EACH STATEMENT EXECUTE FUNCTION request_visibility_on_process_operators_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility ON users_usergroups;
+DROP TRIGGER IF EXISTS trg_request_visibility_insert ON users_usergroups;
+
+CREATE TRIGGER trg_request_visibility_insert
+    AFTER INSERT ON users_usergroups
+    REFERENCING NEW TABLE AS new_memberships
+    FOR EACH STATEMENT EXECUTE FUNCTION request_visibility_on_membership_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility_update ON users_usergroups;
+
+CREATE TRIGGER trg_request_visibility_update
+    AFTER UPDATE ON users_usergroups
+    REFERENCING OLD TABLE AS old_memberships NEW TABLE AS new_memberships
+    FOR EACH STATEMENT EXECUTE FUNCTION request_visibility_on_membership_change();
+
+DROP TRIGGER IF EXISTS trg_request_visibility_delete ON users_usergroups;
+
+CREATE TRIGGER trg_request_visibility_delete
+    AFTER DELETE ON users_usergroups
+    REFERENCING OLD TABLE AS old_memberships
+    FOR EACH STATEMENT EXECUTE FUNCTION request_visibility_on_membership_change();
+
+-- Full rebuild when the table has just been created, by this script or by the application, so that it also holds
+-- the data written before the triggers existed. Once filled, the triggers keep it up to date.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM request_visibility) THEN
+        PERFORM refresh_request_visibility(NULL, NULL);
+    END IF;
+END;
+$$;
+
+-- REQUESTS_ARCHIVE, REQUEST_HISTORY_ARCHIVE and REQUEST_VISIBILITY_ARCHIVE Tables (finished requests moved out of
+-- the active tables by the archival job)
+
+CREATE TABLE IF NOT EXISTS requests_archive (LIKE requests INCLUDING DEFAULTS);
+
+CREATE TABLE IF NOT EXISTS request_history_archive (LIKE request_history INCLUDING DEFAULTS);
+
+-- Adds to the archive tables the columns that were added to the active tables since they were created
+DO $$
+DECLARE
+    v_tables RECORD;
+    v_column RECORD;
+BEGIN
+    FOR v_tables IN
+        SELECT *
+        FROM (VALUES ('requests', 'requests_archive'), ('request_history', 'request_history_archive'))
+            AS t(active_table, archive_table)
+    LOOP
+        FOR v_column IN
+            SELECT a.attname, format_type(a.atttypid, a.atttypmod) AS column_type
+            FROM pg_attribute a
+            WHERE a.attrelid = v_tables.active_table::regclass
+              AND a.attnum > 0
+              AND NOT a.attisdropped
+              AND NOT EXISTS (SELECT 1
+                              FROM pg_attribute b
+                              WHERE b.attrelid = v_tables.archive_table::regclass
+                                AND b.attname = a.attname
+                                AND NOT b.attisdropped)
+            ORDER BY a.attnum
+        LOOP
+            EXECUTE format('ALTER TABLE %I ADD COLUMN %I %s', v_tables.archive_table, v_column.attname,
+                           v_column.column_type);
+        END LOOP;
+    END LOOP;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'requests_archive_pkey') THEN
+        ALTER TABLE requests_archive ADD CONSTRAINT requests_archive_pkey PRIMARY KEY (id_request);
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'request_history_archive_pkey') THEN
+        ALTER TABLE request_history_archive ADD CONSTRAINT request_history_archive_pkey PRIMARY KEY (id_record);
+    END IF;
+END;
+$$;
+
+ALTER TABLE requests_archive
+    DROP CONSTRAINT IF EXISTS fk_request_archive_connector;
+
+ALTER TABLE requests_archive
+    ADD CONSTRAINT fk_request_archive_connector FOREIGN KEY (id_connector)
+        REFERENCES connectors (id_connector) MATCH SIMPLE
+        ON UPDATE NO ACTION ON DELETE SET NULL;
+
+ALTER TABLE requests_archive
+    DROP CONSTRAINT IF EXISTS fk_request_archive_process;
+
+ALTER TABLE requests_archive
+    ADD CONSTRAINT fk_request_archive_process FOREIGN KEY (id_process)
+        REFERENCES processes (id_process) MATCH SIMPLE
+        ON UPDATE NO ACTION ON DELETE SET NULL;
+
+CREATE INDEX IF NOT EXISTS idx_request_archive_end_date ON requests_archive (end_date);
+CREATE INDEX IF NOT EXISTS idx_request_archive_start_date ON requests_archive (start_date);
+CREATE INDEX IF NOT EXISTS idx_request_archive_process ON requests_archive (id_process);
+CREATE INDEX IF NOT EXISTS idx_request_archive_connector ON requests_archive (id_connector);
+CREATE INDEX IF NOT EXISTS idx_request_archive_search_text ON requests_archive USING gin (search_text gin_trgm_ops);
+
+ALTER TABLE request_history_archive
+    DROP CONSTRAINT IF EXISTS fk_request_history_archive_request;
+
+ALTER TABLE request_history_archive
+    ADD CONSTRAINT fk_request_history_archive_request FOREIGN KEY (id_request)
+        REFERENCES requests_archive (id_request) MATCH SIMPLE
+        ON UPDATE NO ACTION ON DELETE CASCADE;
+
+ALTER TABLE request_history_archive
+    DROP CONSTRAINT IF EXISTS fk_request_history_archive_user;
+
+ALTER TABLE request_history_archive
+    ADD CONSTRAINT fk_request_history_archive_user FOREIGN KEY (id_user)
+        REFERENCES users (id_user) MATCH SIMPLE
+        ON UPDATE NO ACTION ON DELETE SET NULL;
+
+CREATE INDEX IF NOT EXISTS idx_request_history_archive_request ON request_history_archive (id_request, step);
+
+CREATE TABLE IF NOT EXISTS request_visibility_archive (
+    id_request INTEGER NOT NULL,
+    id_user INTEGER NOT NULL,
+    CONSTRAINT request_visibility_archive_pkey PRIMARY KEY (id_request, id_user)
+);
+
+ALTER TABLE request_visibility_archive
+    DROP CONSTRAINT IF EXISTS fk_request_visibility_archive_request;
+
+ALTER TABLE request_visibility_archive
+    ADD CONSTRAINT fk_request_visibility_archive_request FOREIGN KEY (id_request)
+        REFERENCES requests_archive (id_request) MATCH SIMPLE
+        ON UPDATE NO ACTION ON DELETE CASCADE;
+
+ALTER TABLE request_visibility_archive
+    DROP CONSTRAINT IF EXISTS fk_request_visibility_archive_user;
+
+ALTER TABLE request_visibility_archive
+    ADD CONSTRAINT fk_request_visibility_archive_user FOREIGN KEY (id_user)
+        REFERENCES users (id_user) MATCH SIMPLE
+        ON UPDATE NO ACTION ON DELETE CASCADE;
+
+CREATE INDEX IF NOT EXISTS idx_request_visibility_archive_user ON request_visibility_archive (id_user, id_request);
+
+-- Moves a batch of the oldest requests finished before a given date, with their history and the list of the users
+-- allowed to see them, to the archive tables. Returns the number of requests that were archived.
+CREATE OR REPLACE FUNCTION archive_finished_requests(p_end_before TIMESTAMP, p_limit INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    v_requests INTEGER[];
+    v_requests_columns TEXT;
+    v_history_columns TEXT;
+BEGIN
+    SELECT array_agg(batch.id_request) INTO v_requests
+    FROM (
+        SELECT id_request
+        FROM requests
+        WHERE status = 'FINISHED'
+          AND end_date < p_end_before
+        ORDER BY end_date
+        LIMIT p_limit
+        FOR UPDATE SKIP LOCKED
+    ) batch;
+
+    IF v_requests IS NULL THEN
+        RETURN 0;
+    END IF;
+
+    SELECT string_agg(quote_ident(a.attname), ', ' ORDER BY a.attnum) INTO v_requests_columns
+    FROM pg_attribute a
+    WHERE a.attrelid = 'requests'::regclass AND a.attnum > 0 AND NOT a.attisdropped
+      AND EXISTS (SELECT 1 FROM pg_attribute b
+                  WHERE b.attrelid = 'requests_archive'::regclass AND b.attname = a.attname AND NOT b.attisdropped);
+
+    SELECT string_agg(quote_ident(a.attname), ', ' ORDER BY a.attnum) INTO v_history_columns
+    FROM pg_attribute a
+    WHERE a.attrelid = 'request_history'::regclass AND a.attnum > 0 AND NOT a.attisdropped
+      AND EXISTS (SELECT 1 FROM pg_attribute b
+                  WHERE b.attrelid = 'request_history_archive'::regclass AND b.attname = a.attname
+                    AND NOT b.attisdropped);
+
+    EXECUTE format('INSERT INTO requests_archive (%1$s) SELECT %1$s FROM requests WHERE id_request = ANY ($1)',
+                   v_requests_columns) USING v_requests;
+
+    EXECUTE format('INSERT INTO request_history_archive (%1$s) SELECT %1$s FROM request_history'
+                   || ' WHERE id_request = ANY ($1)', v_history_columns) USING v_requests;
+
+    INSERT INTO request_visibility_archive (id_request, id_user)
+    SELECT id_request, id_user
+    FROM request_visibility
+    WHERE id_request = ANY (v_requests);
+
+    DELETE FROM request_history WHERE id_request = ANY (v_requests);
+    DELETE FROM requests_users WHERE id_request = ANY (v_requests);
+    DELETE FROM requests_usergroups WHERE id_request = ANY (v_requests);
+    DELETE FROM requests WHERE id_request = ANY (v_requests);
+
+    RETURN array_length(v_requests, 1);
+END;
+$$ LANGUAGE plpgsql;
+
+-- EMAIL_OUTBOX Table (notification messages waiting to be sent in the background)
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id_email INTEGER NOT NULL,
+    recipients TEXT NOT NULL,
+    subject TEXT,
+    content TEXT NOT NULL,
+    html BOOLEAN NOT NULL DEFAULT FALSE,
+    creation_date TIMESTAMP WITHOUT TIME ZONE,
+    next_attempt TIMESTAMP WITHOUT TIME ZONE,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(2000),
+    status VARCHAR(255),
+    CONSTRAINT email_outbox_pkey PRIMARY KEY (id_email)
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next_attempt ON email_outbox (status, next_attempt);